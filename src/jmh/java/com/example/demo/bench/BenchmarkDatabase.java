@@ -0,0 +1,36 @@
+package com.example.demo.bench;
+
+import com.example.demo.DBController;
+import com.example.demo.datagen.DataGenerator;
+import com.example.demo.datagen.JdbcDataSink;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Starts the embedded database and loads the {@code small} synthetic dataset (seed 42) once per JVM,
+ * so every benchmark fork reads exactly the same rows.
+ */
+final class BenchmarkDatabase {
+
+    static final long SEED = 42;
+    private static boolean loaded;
+
+    private BenchmarkDatabase() {
+    }
+
+    static synchronized void ensureLoaded() throws SQLException, IOException {
+        if (loaded) {
+            return;
+        }
+        System.setProperty("sms.db.profile", "embedded");
+        System.setProperty("sms.db.embedded.seed", "false");
+        System.setProperty("sms.db.slowQuery.thresholdMillis", "-1");
+        try (Connection conn = DBController.getConnection();
+             JdbcDataSink sink = new JdbcDataSink(conn, 500, 20)) {
+            new DataGenerator(DataGenerator.Scale.small(), SEED).generate(sink);
+        }
+        loaded = true;
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.demo.bench;
+
+import com.example.demo.DBController;
+import com.example.demo.dao.AttendanceDAO;
+import com.example.demo.dao.BookDAO;
+import com.example.demo.dao.BorrowingDAO;
+import com.example.demo.dao.CourseDAO;
+import com.example.demo.dao.FeesDAO;
+import com.example.demo.dao.QueryCache;
+import com.example.demo.dao.ResultDAO;
+import com.example.demo.dao.StudentDAO;
+import com.example.demo.model.Attendance;
+import com.example.demo.model.Book;
+import com.example.demo.model.Borrowing;
+import com.example.demo.model.Course;
+import com.example.demo.model.Fees;
+import com.example.demo.model.Result;
+import com.example.demo.model.Student;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end DAO reads (pool, statement cache, instrumentation, row mapping) against the embedded
+ * database loaded with the {@code small} synthetic dataset, see {@link BenchmarkDatabase}.
+ * Ids are fixed so every run reads the same rows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DaoReadBenchmark {
+
+    private static final int STUDENT_ID = 1_234;
+    private static final int BOOK_ID = 321;
+
+    private final StudentDAO studentDAO = new StudentDAO();
+    private final AttendanceDAO attendanceDAO = new AttendanceDAO();
+    private final ResultDAO resultDAO = new ResultDAO();
+    private final FeesDAO feesDAO = new FeesDAO();
+    private final BookDAO bookDAO = new BookDAO();
+    private final BorrowingDAO borrowingDAO = new BorrowingDAO();
+    private final CourseDAO courseDAO = new CourseDAO();
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException, IOException {
+        BenchmarkDatabase.ensureLoaded();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        DBController.shutdown();
+    }
+
+    /**
+     * Empties the {@link QueryCache} before each call, so a cached read measures the query rather
+     * than a cache hit.
+     */
+    @State(Scope.Thread)
+    public static class ColdQueryCache {
+        @Setup(Level.Invocation)
+        public void clear() {
+            QueryCache.clear();
+        }
+    }
+
+    @Benchmark
+    public Student studentById() throws SQLException {
+        return studentDAO.getStudentById(STUDENT_ID);
+    }
+
+    @Benchmark
+    public List<Student> allStudents() throws SQLException {
+        return studentDAO.getAllStudents();
+    }
+
+    @Benchmark
+    public List<Attendance> attendanceOfStudent() throws SQLException {
+        return attendanceDAO.getAttendanceByStudentId(STUDENT_ID);
+    }
+
+    @Benchmark
+    public List<Result> resultsOfStudent() throws SQLException {
+        return resultDAO.getResultsByStudentId(STUDENT_ID);
+    }
+
+    @Benchmark
+    public List<Fees> feesOfStudent() throws SQLException {
+        return feesDAO.getFeesByStudentId(STUDENT_ID);
+    }
+
+    @Benchmark
+    public Book bookById() throws SQLException {
+        return bookDAO.getBookById(BOOK_ID);
+    }
+
+    @Benchmark
+    public List<Book> searchBooksLeadingWildcard() throws SQLException {
+        return bookDAO.searchBooks("Design");
+    }
+
+    @Benchmark
+    public List<Borrowing> borrowingsOfBook() throws SQLException {
+        return borrowingDAO.getBorrowingsByBookId(BOOK_ID);
+    }
+
+    @Benchmark
+    public List<Course> coursesOfProgramSemester(ColdQueryCache cold) throws SQLException {
+        return courseDAO.getCoursesByProgramAndSemester(1, 3);
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.demo.bench;
+
+import com.example.demo.service.AttendanceService;
+import com.example.demo.service.FeesService;
+import com.example.demo.service.ResultService;
+import com.example.demo.service.StudentService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the services' input checks, called through method handles because they are not public.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidationBenchmark {
+
+    /** Input of the email benchmarks, kept apart so the status benchmarks do not run once per email. */
+    @State(Scope.Thread)
+    public static class EmailInput {
+        @Param({"priya.shrestha42@students.example.edu", "not-an-email"})
+        public String email;
+    }
+
+    /** Input of the status benchmarks. */
+    @State(Scope.Thread)
+    public static class StatusInput {
+        @Param({"Present", "excused", "Unknown"})
+        public String status;
+    }
+
+    private static final MethodType CHECK = MethodType.methodType(boolean.class, String.class);
+
+    private MethodHandle isValidEmail;
+    private MethodHandle isValidAttendanceStatus;
+    private MethodHandle isValidFeeStatus;
+    private MethodHandle isValidResultStatus;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        // The checks use no dependencies, so the services are built without them: the no-argument
+        // constructors would create the whole AppContext, including the ServiceExecutor
+        isValidEmail = staticCheck(StudentService.class, "isValidEmail");
+        isValidAttendanceStatus = instanceCheck(new AttendanceService(null, null, null, null), "isValidAttendanceStatus");
+        isValidFeeStatus = instanceCheck(new FeesService(null, null), "isValidFeeStatus");
+        isValidResultStatus = staticCheck(ResultService.class, "isValidResultStatus");
+    }
+
+    private static MethodHandle staticCheck(Class<?> service, String name) throws ReflectiveOperationException {
+        return MethodHandles.privateLookupIn(service, MethodHandles.lookup())
+                .findStatic(service, name, CHECK);
+    }
+
+    /** Bound to the service, so every check is invoked with just the input. */
+    private static MethodHandle instanceCheck(Object service, String name) throws ReflectiveOperationException {
+        return MethodHandles.privateLookupIn(service.getClass(), MethodHandles.lookup())
+                .findVirtual(service.getClass(), name, CHECK)
+                .bindTo(service);
+    }
+
+    @Benchmark
+    public boolean studentIsValidEmail(EmailInput input) throws Throwable {
+        return (boolean) isValidEmail.invoke(input.email);
+    }
+
+    @Benchmark
+    public boolean attendanceStatus(StatusInput input) throws Throwable {
+        return (boolean) isValidAttendanceStatus.invoke(input.status);
+    }
+
+    @Benchmark
+    public boolean feeStatus(StatusInput input) throws Throwable {
+        return (boolean) isValidFeeStatus.invoke(input.status);
+    }
+
+    @Benchmark
+    public boolean resultStatus(StatusInput input) throws Throwable {
+        return (boolean) isValidResultStatus.invoke(input.status);
+    }
+}
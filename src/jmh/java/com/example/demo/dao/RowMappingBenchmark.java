@@ -0,0 +1,270 @@
+package com.example.demo.dao;
+
+import com.example.demo.model.Student;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+/**
+ * CPU cost of turning result set rows into models, without a database.
+ * <p>
+ * Each {@code *ByName} benchmark runs the row mapping of one DAO, its package-private {@code map(ResultSet)},
+ * so a change to the mapping code shows up here. {@code studentsByIndex} reads the same columns by position
+ * for comparison. Each invocation maps {@link #ROWS} rows from a {@link FakeResultSet}. The benchmark is in
+ * the DAO package so it can call the mappers.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RowMappingBenchmark {
+
+    static final int ROWS = 1_000;
+
+    private static final String[] ANNOUNCEMENT_COLUMNS = {"announcement_id", "title", "content", "publish_date",
+            "target_role", "created_by_user_id"};
+    private static final String[] ASSIGNMENT_COLUMNS = {"assignment_id", "course_id", "faculty_id", "title",
+            "description", "due_date", "max_marks", "created_at"};
+    private static final String[] ATTENDANCE_COLUMNS = {"attendance_id", "student_id", "course_id", "attendance_date",
+            "status", "taken_by_faculty_id"};
+    private static final String[] BOOK_COLUMNS = {"book_id", "isbn", "title", "author", "publisher", "publication_year",
+            "genre", "total_copies", "available_copies", "added_date"};
+    private static final String[] BORROWING_COLUMNS = {"borrowing_id", "book_id", "student_id", "borrow_date",
+            "return_due_date", "return_date", "fine_amount"};
+    private static final String[] COURSE_COLUMNS = {"course_id", "program_id", "semester_number", "course_code",
+            "course_name", "credits", "description", "department"};
+    private static final String[] ENROLLMENT_COLUMNS = {"enrollment_id", "student_id", "course_id", "enrollment_date",
+            "grade"};
+    private static final String[] FACULTY_COLUMNS = {"faculty_id", "user_id", "first_name", "last_name", "email",
+            "phone_number", "department"};
+    private static final String[] FEES_COLUMNS = {"fee_id", "student_id", "fee_type", "amount", "due_date",
+            "payment_date", "status"};
+    private static final String[] LIBRARIAN_COLUMNS = {"librarian_id", "user_id", "first_name", "last_name", "email",
+            "phone_number"};
+    private static final String[] PROGRAM_COLUMNS = {"program_id", "program_name"};
+    private static final String[] RESULT_COLUMNS = {"result_id", "student_id", "course_id", "semester_number",
+            "academic_year", "marks_obtained", "grade", "result_status"};
+    private static final String[] ROUTINE_COLUMNS = {"routine_id", "course_id", "faculty_id", "routine_type",
+            "day_of_week", "start_time", "end_time", "room_location", "academic_year", "semester_number"};
+    private static final String[] STUDENT_COLUMNS = {"student_id", "user_id", "program_id", "first_name", "last_name",
+            "date_of_birth", "gender", "email", "phone_number", "address", "enrollment_date", "major"};
+    private static final String[] SUBMISSION_COLUMNS = {"submission_id", "assignment_id", "student_id",
+            "submission_date", "file_path", "marks_obtained", "feedback"};
+    private static final String[] USER_COLUMNS = {"user_id", "username", "password_hash", "role", "created_at"};
+
+    private Object[][] announcementRows;
+    private Object[][] assignmentRows;
+    private Object[][] attendanceRows;
+    private Object[][] bookRows;
+    private Object[][] borrowingRows;
+    private Object[][] courseRows;
+    private Object[][] enrollmentRows;
+    private Object[][] facultyRows;
+    private Object[][] feesRows;
+    private Object[][] librarianRows;
+    private Object[][] programRows;
+    private Object[][] resultRows;
+    private Object[][] routineRows;
+    private Object[][] studentRows;
+    private Object[][] submissionRows;
+    private Object[][] userRows;
+
+    @Setup
+    public void setUp() {
+        Date day = Date.valueOf(LocalDate.of(2025, 1, 6));
+        Date dob = Date.valueOf(LocalDate.of(2001, 5, 17));
+        Timestamp at = Timestamp.valueOf(LocalDateTime.of(2024, 2, 1, 10, 30));
+        Time start = Time.valueOf(LocalTime.of(9, 0));
+        Time end = Time.valueOf(LocalTime.of(10, 30));
+        // Nullable columns are null in some rows, as in the generated data
+        announcementRows = rows(i -> new Object[]{i + 1, "Exam schedule " + i, "The schedule for the final exams is out.",
+                day, "Student", i % 4 == 0 ? null : 1});
+        assignmentRows = rows(i -> new Object[]{i + 1, 7, 3, "Lab report " + i, "Write up the results of lab " + i,
+                day, 100, at});
+        attendanceRows = rows(i -> new Object[]{i + 1, 1 + i % 50, 7, day, i % 10 == 0 ? "Absent" : "Present",
+                i % 5 == 0 ? null : 3});
+        bookRows = rows(i -> new Object[]{i + 1, String.format("978%010d", i), "Systems Design Vol. " + i, "Omar Khan",
+                "Novak Press", i % 7 == 0 ? null : 1990 + i % 30, "Technology", 5, 3, at});
+        borrowingRows = rows(i -> new Object[]{i + 1, 1 + i % 200, 1 + i % 50, day, day, i % 3 == 0 ? null : day, 0.0});
+        courseRows = rows(i -> new Object[]{i + 1, 1 + i % 8, 1 + i % 8, "CS" + (100 + i), "Data Structures " + i, 3,
+                "Lists, trees and graphs.", "Computer Science"});
+        enrollmentRows = rows(i -> new Object[]{i + 1, 1 + i % 50, 7, day, i % 2 == 0 ? null : "A"});
+        facultyRows = rows(i -> new Object[]{i + 1, i + 100, "Anil", "Karki", "anil.karki" + i + "@example.edu",
+                "9841000000", "Computer Science"});
+        feesRows = rows(i -> new Object[]{i + 1, 1 + i % 50, "Tuition", 45000.0, day, i % 2 == 0 ? null : day,
+                i % 2 == 0 ? "Pending" : "Paid"});
+        librarianRows = rows(i -> new Object[]{i + 1, i + 100, "Sita", "Thapa", "sita.thapa" + i + "@example.edu",
+                "9841000000"});
+        programRows = rows(i -> new Object[]{i + 1, "Bachelor of Program " + i});
+        resultRows = rows(i -> new Object[]{i + 1, 1 + i % 50, 7, 1 + i % 8, "2024-2025", i % 6 == 0 ? null : 72,
+                "B+", "Pass"});
+        routineRows = rows(i -> new Object[]{i + 1, 7, i % 4 == 0 ? null : 3, "Class", "Monday", start, end, "R" + i,
+                "2024-2025", 1 + i % 8});
+        studentRows = rows(i -> new Object[]{i + 1, i + 100, 1 + i % 8, "Priya", "Shrestha", dob, "Female",
+                "priya.shrestha" + i + "@students.example.edu", "9841000000", "12 Rai Street", day,
+                "Computer Science"});
+        submissionRows = rows(i -> new Object[]{i + 1, 1 + i % 40, 1 + i % 50, at, "uploads/report" + i + ".pdf",
+                i % 3 == 0 ? null : 88, i % 3 == 0 ? null : "Well done."});
+        userRows = rows(i -> new Object[]{i + 1, "user" + i, "$2a$10$abcdefghijklmnopqrstuv", "Student", at});
+    }
+
+    private static Object[][] rows(IntFunction<Object[]> row) {
+        Object[][] rows = new Object[ROWS][];
+        for (int i = 0; i < ROWS; i++) {
+            rows[i] = row.apply(i);
+        }
+        return rows;
+    }
+
+    /** The row mapping of one DAO. */
+    @FunctionalInterface
+    private interface Mapper {
+        Object map(ResultSet rs) throws SQLException;
+    }
+
+    private static void mapAll(String[] columns, Object[][] rows, Mapper mapper, Blackhole bh) throws SQLException {
+        ResultSet rs = FakeResultSet.of(columns, rows);
+        while (rs.next()) {
+            bh.consume(mapper.map(rs));
+        }
+    }
+
+    @Benchmark
+    public void announcementsByName(Blackhole bh) throws SQLException {
+        mapAll(ANNOUNCEMENT_COLUMNS, announcementRows, AnnouncementDAO::map, bh);
+    }
+
+    @Benchmark
+    public void assignmentsByName(Blackhole bh) throws SQLException {
+        mapAll(ASSIGNMENT_COLUMNS, assignmentRows, AssignmentDAO::map, bh);
+    }
+
+    @Benchmark
+    public void attendanceByName(Blackhole bh) throws SQLException {
+        mapAll(ATTENDANCE_COLUMNS, attendanceRows, AttendanceDAO::map, bh);
+    }
+
+    @Benchmark
+    public void booksByName(Blackhole bh) throws SQLException {
+        mapAll(BOOK_COLUMNS, bookRows, BookDAO::map, bh);
+    }
+
+    @Benchmark
+    public void borrowingsByName(Blackhole bh) throws SQLException {
+        mapAll(BORROWING_COLUMNS, borrowingRows, BorrowingDAO::map, bh);
+    }
+
+    @Benchmark
+    public void coursesByName(Blackhole bh) throws SQLException {
+        mapAll(COURSE_COLUMNS, courseRows, CourseDAO::map, bh);
+    }
+
+    @Benchmark
+    public void enrollmentsByName(Blackhole bh) throws SQLException {
+        mapAll(ENROLLMENT_COLUMNS, enrollmentRows, EnrollmentDAO::map, bh);
+    }
+
+    @Benchmark
+    public void facultyByName(Blackhole bh) throws SQLException {
+        mapAll(FACULTY_COLUMNS, facultyRows, FacultyDAO::map, bh);
+    }
+
+    @Benchmark
+    public void feesByName(Blackhole bh) throws SQLException {
+        mapAll(FEES_COLUMNS, feesRows, FeesDAO::map, bh);
+    }
+
+    @Benchmark
+    public void librariansByName(Blackhole bh) throws SQLException {
+        mapAll(LIBRARIAN_COLUMNS, librarianRows, LibrarianDAO::map, bh);
+    }
+
+    @Benchmark
+    public void programsByName(Blackhole bh) throws SQLException {
+        mapAll(PROGRAM_COLUMNS, programRows, ProgramDAO::map, bh);
+    }
+
+    @Benchmark
+    public void resultsByName(Blackhole bh) throws SQLException {
+        mapAll(RESULT_COLUMNS, resultRows, ResultDAO::map, bh);
+    }
+
+    @Benchmark
+    public void routinesByName(Blackhole bh) throws SQLException {
+        mapAll(ROUTINE_COLUMNS, routineRows, RoutineDAO::map, bh);
+    }
+
+    @Benchmark
+    public void studentsByName(Blackhole bh) throws SQLException {
+        mapAll(STUDENT_COLUMNS, studentRows, StudentDAO::map, bh);
+    }
+
+    @Benchmark
+    public void submissionsByName(Blackhole bh) throws SQLException {
+        mapAll(SUBMISSION_COLUMNS, submissionRows, SubmissionDAO::map, bh);
+    }
+
+    @Benchmark
+    public void usersByName(Blackhole bh) throws SQLException {
+        mapAll(USER_COLUMNS, userRows, UserDAO::map, bh);
+    }
+
+    /** Baseline for {@code studentsByName}: the same columns read by position. */
+    @Benchmark
+    public void studentsByIndex(Blackhole bh) throws SQLException {
+        ResultSet rs = FakeResultSet.of(STUDENT_COLUMNS, studentRows);
+        while (rs.next()) {
+            bh.consume(new Student(rs.getInt(1), rs.getInt(2), rs.getInt(3), rs.getString(4), rs.getString(5),
+                    rs.getDate(6).toLocalDate(), rs.getString(7), rs.getString(8), rs.getString(9),
+                    rs.getString(10), rs.getDate(11).toLocalDate(), rs.getString(12)));
+        }
+    }
+
+    /** Conversion cost alone: java.sql.Date to LocalDate, as every DAO does for DATE columns. */
+    @Benchmark
+    public void dateToLocalDate(Blackhole bh) {
+        for (Object[] row : attendanceRows) {
+            bh.consume(((Date) row[3]).toLocalDate());
+        }
+    }
+
+    /** Conversion cost alone: Timestamp to LocalDateTime, as BookDAO, AssignmentDAO and UserDAO do. */
+    @Benchmark
+    public void timestampToLocalDateTime(Blackhole bh) {
+        for (Object[] row : bookRows) {
+            bh.consume(((Timestamp) row[9]).toLocalDateTime());
+        }
+    }
+
+    /** Model construction alone, from already converted values. */
+    @Benchmark
+    public void constructStudents(Blackhole bh) {
+        LocalDate dob = LocalDate.of(2001, 5, 17);
+        LocalDate enrolled = LocalDate.of(2023, 8, 20);
+        for (int i = 0; i < ROWS; i++) {
+            bh.consume(new Student(i + 1, i + 100, 1, "Priya", "Shrestha", dob, "Female",
+                    "priya@students.example.edu", "9841000000", "12 Rai Street", enrolled, "Computer Science"));
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.demo;
+
+import com.example.demo.dao.AnnouncementDAO;
+import com.example.demo.dao.AssignmentDAO;
+import com.example.demo.dao.AttendanceDAO;
+import com.example.demo.dao.BookDAO;
+import com.example.demo.dao.BorrowingDAO;
+import com.example.demo.dao.CourseDAO;
+import com.example.demo.dao.EnrollmentDAO;
+import com.example.demo.dao.FacultyDAO;
+import com.example.demo.dao.FeesDAO;
+import com.example.demo.dao.LibrarianDAO;
+import com.example.demo.dao.ProgramDAO;
+import com.example.demo.dao.QueryCache;
+import com.example.demo.dao.ResultDAO;
+import com.example.demo.dao.RoutineDAO;
+import com.example.demo.dao.StudentDAO;
+import com.example.demo.dao.SubmissionDAO;
+import com.example.demo.dao.UserDAO;
+import com.example.demo.service.AnnouncementService;
+import com.example.demo.service.AssignmentService;
+import com.example.demo.service.AsyncService;
+import com.example.demo.service.AttendanceService;
+import com.example.demo.service.BookService;
+import com.example.demo.service.BorrowingService;
+import com.example.demo.service.CourseService;
+import com.example.demo.service.EnrollmentService;
+import com.example.demo.service.EntityCaches;
+import com.example.demo.service.FacultyService;
+import com.example.demo.service.FeesService;
+import com.example.demo.service.LibrarianService;
+import com.example.demo.service.ProgramService;
+import com.example.demo.service.ReferenceData;
+import com.example.demo.service.ResultImportService;
+import com.example.demo.service.ResultService;
+import com.example.demo.service.RoutineService;
+import com.example.demo.service.ServiceExecutor;
+import com.example.demo.service.StudentImportService;
+import com.example.demo.service.StudentService;
+import com.example.demo.service.SubmissionService;
+import com.example.demo.service.UserService;
+
+import java.sql.SQLException;
+
+/**
+ * The application's DAOs and services, each created once and wired together, plus the shared
+ * infrastructure they run on: the connection pool, the caches and the background executor.
+ * <p>
+ * Controllers take their services from {@link #get()} instead of constructing them, so opening a
+ * screen no longer builds a fresh object graph. The no-argument service constructors take their
+ * dependencies from here as well; the constructors with parameters are what this class uses to wire
+ * the graph, and can be given other implementations.
+ * <p>
+ * The context is created on first use. {@link #shutdown()} stops the executor, empties the caches and
+ * closes the pool; a later {@link #get()} starts over with a new context.
+ */
+public final class AppContext {
+
+    private static AppContext shared; // guarded by AppContext.class
+
+    private final UserDAO userDAO = new UserDAO();
+    private final ProgramDAO programDAO = new ProgramDAO();
+    private final CourseDAO courseDAO = new CourseDAO();
+    private final StudentDAO studentDAO = new StudentDAO(userDAO);
+    private final FacultyDAO facultyDAO = new FacultyDAO(userDAO);
+    private final LibrarianDAO librarianDAO = new LibrarianDAO(userDAO);
+    private final EnrollmentDAO enrollmentDAO = new EnrollmentDAO();
+    private final AttendanceDAO attendanceDAO = new AttendanceDAO();
+    private final ResultDAO resultDAO = new ResultDAO();
+    private final FeesDAO feesDAO = new FeesDAO();
+    private final BookDAO bookDAO = new BookDAO();
+    private final BorrowingDAO borrowingDAO = new BorrowingDAO(bookDAO);
+    private final RoutineDAO routineDAO = new RoutineDAO();
+    private final AssignmentDAO assignmentDAO = new AssignmentDAO();
+    private final SubmissionDAO submissionDAO = new SubmissionDAO();
+    private final AnnouncementDAO announcementDAO = new AnnouncementDAO();
+
+    // In dependency order: each service only uses the ones declared before it
+    private final UserService userService = new UserService(userDAO);
+    private final ProgramService programService = new ProgramService(programDAO);
+    private final CourseService courseService = new CourseService(courseDAO);
+    private final StudentService studentService = new StudentService(studentDAO, userService);
+    private final FacultyService facultyService = new FacultyService(facultyDAO, userService);
+    private final LibrarianService librarianService = new LibrarianService(librarianDAO, userService);
+    private final EnrollmentService enrollmentService = new EnrollmentService(enrollmentDAO, studentService, courseService);
+    private final AttendanceService attendanceService =
+            new AttendanceService(attendanceDAO, enrollmentDAO, studentService, courseService);
+    private final ResultService resultService = new ResultService(resultDAO, studentService);
+    private final FeesService feesService = new FeesService(feesDAO, studentService);
+    private final BookService bookService = new BookService(bookDAO);
+    private final BorrowingService borrowingService = new BorrowingService(borrowingDAO, bookService, studentService);
+    private final RoutineService routineService = new RoutineService(routineDAO, courseService);
+    private final AssignmentService assignmentService = new AssignmentService(assignmentDAO, courseService, facultyService);
+    private final SubmissionService submissionService = new SubmissionService(submissionDAO, assignmentService, studentService);
+    private final AnnouncementService announcementService = new AnnouncementService(announcementDAO, userService);
+    private final StudentImportService studentImportService = new StudentImportService(studentService);
+    private final ResultImportService resultImportService =
+            new ResultImportService(resultDAO, studentDAO, courseDAO, ResultImportService.DEFAULT_CHUNK_SIZE);
+
+    private final ServiceExecutor executor = ServiceExecutor.shared();
+
+    private AppContext() {
+    }
+
+    /**
+     * @return The application's context, created on first use.
+     */
+    public static synchronized AppContext get() {
+        if (shared == null) {
+            shared = new AppContext();
+        }
+        return shared;
+    }
+
+    /**
+     * Releases what the context uses, in reverse order of dependency: stops background service calls
+     * and waits briefly for them to end, empties the caches and closes the connection pool. Called
+     * when the application exits.
+     */
+    public static synchronized void shutdown() {
+        ServiceExecutor.shutdown();
+        QueryCache.clear();
+        EntityCaches.invalidateAll();
+        ReferenceData.invalidate();
+        DBController.shutdown();
+        shared = null;
+    }
+
+    /**
+     * Wraps a service of this context so its calls run on the background executor.
+     *
+     * @param service The service, e.g. {@code getStudentService()}.
+     * @param <S> The service type.
+     * @return The asynchronous facade.
+     */
+    public <S> AsyncService<S> async(S service) {
+        return new AsyncService<>(service, executor);
+    }
+
+    /**
+     * @return The current programs and courses snapshot, loaded if there is none.
+     * @throws SQLException If a database access error occurs while loading.
+     */
+    public ReferenceData getReferenceData() throws SQLException {
+        return ReferenceData.current();
+    }
+
+    public ServiceExecutor getExecutor() { return executor; }
+
+    public UserDAO getUserDAO() { return userDAO; }
+    public ProgramDAO getProgramDAO() { return programDAO; }
+    public CourseDAO getCourseDAO() { return courseDAO; }
+    public StudentDAO getStudentDAO() { return studentDAO; }
+    public FacultyDAO getFacultyDAO() { return facultyDAO; }
+    public LibrarianDAO getLibrarianDAO() { return librarianDAO; }
+    public EnrollmentDAO getEnrollmentDAO() { return enrollmentDAO; }
+    public AttendanceDAO getAttendanceDAO() { return attendanceDAO; }
+    public ResultDAO getResultDAO() { return resultDAO; }
+    public FeesDAO getFeesDAO() { return feesDAO; }
+    public BookDAO getBookDAO() { return bookDAO; }
+    public BorrowingDAO getBorrowingDAO() { return borrowingDAO; }
+    public RoutineDAO getRoutineDAO() { return routineDAO; }
+    public AssignmentDAO getAssignmentDAO() { return assignmentDAO; }
+    public SubmissionDAO getSubmissionDAO() { return submissionDAO; }
+    public AnnouncementDAO getAnnouncementDAO() { return announcementDAO; }
+
+    public UserService getUserService() { return userService; }
+    public ProgramService getProgramService() { return programService; }
+    public CourseService getCourseService() { return courseService; }
+    public StudentService getStudentService() { return studentService; }
+    public FacultyService getFacultyService() { return facultyService; }
+    public LibrarianService getLibrarianService() { return librarianService; }
+    public EnrollmentService getEnrollmentService() { return enrollmentService; }
+    public AttendanceService getAttendanceService() { return attendanceService; }
+    public ResultService getResultService() { return resultService; }
+    public FeesService getFeesService() { return feesService; }
+    public BookService getBookService() { return bookService; }
+    public BorrowingService getBorrowingService() { return borrowingService; }
+    public RoutineService getRoutineService() { return routineService; }
+    public AssignmentService getAssignmentService() { return assignmentService; }
+    public SubmissionService getSubmissionService() { return submissionService; }
+    public AnnouncementService getAnnouncementService() { return announcementService; }
+    public StudentImportService getStudentImportService() { return studentImportService; }
+    public ResultImportService getResultImportService() { return resultImportService; }
+}
@@ -1,35 +1,141 @@
 package com.example.demo;
 
+import com.example.demo.db.ConnectionPool;
+import com.example.demo.db.DBConfig;
+import com.example.demo.db.EmbeddedDatabase;
+import com.example.demo.db.Migrator;
+import com.example.demo.db.ReplicaRouter;
+import com.example.demo.db.SlowQueryLog;
+import com.example.demo.db.SqlMetrics;
+import com.example.demo.db.TransactionManager;
+
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.List;
 
 public class DBController {
 
-    // Database connection parameters
-    private static final String URL = "jdbc:mysql://localhost:3306/student_management_system"; // Ensure 'student_management_system' matches your MySQL database name
-    private static final String USER = "root"; // Your MySQL username
-    private static final String PASSWORD = "@Uchiha007"; // Your MySQL password
+    // Connection parameters and pool settings are read from DBConfig
+    // (defaults, optional db.properties on the classpath, then -Dsms.db.* system properties).
+    private static volatile ConnectionPool pool;
+    private static volatile ReplicaRouter replicaRouter; // Read replicas, see getReadConnection()
+    private static volatile int streamFetchSize;
 
     /**
-     * Establishes and returns a connection to the MySQL database.
-     * This method is called by DAOs to get a new connection for each database operation,
-     * ensuring proper resource management using try-with-resources in DAOs.
+     * Borrows a connection to the configured database (MySQL, or the embedded database when
+     * {@code db.profile=embedded}) from the shared connection pool.
+     * DAOs keep using try-with-resources: closing the returned connection hands it back
+     * to the pool instead of tearing down the physical connection.
+     * If a transaction is active on the current thread (see {@link TransactionManager}),
+     * the transaction's connection is returned so the caller joins it.
      *
      * @return A valid database Connection object.
-     * @throws SQLException If a database access error occurs or the JDBC driver is not found.
+     * @throws SQLException If a database access error occurs, the JDBC driver is not found,
+     *                      or no connection became available within the pool's acquire timeout.
      */
     public static Connection getConnection() throws SQLException {
-        try {
-            // Register the JDBC driver. This is typically not explicitly needed for JDBC 4.0+
-            // as drivers are automatically discovered, but it's good practice for clarity.
-            Class.forName("com.mysql.cj.jdbc.Driver");
-        } catch (ClassNotFoundException e) {
-            // If the driver is not found, throw a SQLException to indicate the problem.
-            throw new SQLException("MySQL JDBC Driver not found. Ensure 'mysql-connector-java' is in your classpath.", e);
+        Connection transactional = TransactionManager.currentConnection();
+        if (transactional != null) {
+            return transactional;
+        }
+        ConnectionPool primary = pool();
+        replicaRouter.markWrite(); // Keep this client's reads on the primary for a short while
+        return SqlMetrics.instrument(primary.borrow());
+    }
+
+    /**
+     * Borrows a connection for read-only work. DAO get/search methods use this instead of
+     * {@link #getConnection()} so their queries can be served by a read replica when
+     * {@code db.replica.urls} is configured. Falls back to the primary when there are no replicas,
+     * when this client wrote recently (read-your-writes), when all replicas are unavailable, or when a
+     * transaction is active on the current thread (the transaction's connection is returned).
+     *
+     * @return A database Connection object that must only be used for reads.
+     * @throws SQLException If a database access error occurs.
+     */
+    public static Connection getReadConnection() throws SQLException {
+        Connection transactional = TransactionManager.currentConnection();
+        if (transactional != null) {
+            return transactional;
         }
-        // Establish the connection to the database
-        return DriverManager.getConnection(URL, USER, PASSWORD);
+        ConnectionPool primary = pool();
+        Connection replica = replicaRouter.borrowForRead();
+        return SqlMetrics.instrument(replica != null ? replica : primary.borrow());
+    }
+
+    /**
+     * @return The fetch size for statements whose results are streamed row by row instead of being
+     *         read into memory ({@code db.stream.fetchSize}, resolved for the active profile).
+     * @throws SQLException If the pool could not be initialized.
+     */
+    public static int getStreamFetchSize() throws SQLException {
+        pool();
+        return streamFetchSize;
+    }
+
+    /**
+     * @return Current usage statistics of the connection pool.
+     * @throws SQLException If the pool could not be initialized.
+     */
+    public static ConnectionPool.Stats getPoolStats() throws SQLException {
+        return pool().getStats();
+    }
+
+    /**
+     * @return Usage statistics of each read replica pool (empty when no replicas are configured).
+     * @throws SQLException If the pools could not be initialized.
+     */
+    public static List<ConnectionPool.Stats> getReplicaPoolStats() throws SQLException {
+        pool();
+        return replicaRouter.getStats();
+    }
+
+    /**
+     * Closes all pooled connections. Called when the application exits.
+     */
+    public static synchronized void shutdown() {
+        SqlMetrics.stopPeriodicDump();
+        SlowQueryLog.shutdown();
+        if (pool != null) {
+            pool.close();
+            replicaRouter.close();
+            pool = null;
+        }
+    }
+
+    private static ConnectionPool pool() throws SQLException {
+        ConnectionPool p = pool;
+        if (p == null) {
+            synchronized (DBController.class) {
+                p = pool;
+                if (p == null) {
+                    DBConfig config = DBConfig.load();
+                    try {
+                        // Register the JDBC driver once. This is typically not explicitly needed for JDBC 4.0+
+                        // as drivers are automatically discovered, but it's good practice for clarity.
+                        Class.forName(config.getDriverClassName());
+                    } catch (ClassNotFoundException e) {
+                        // If the driver is not found, throw a SQLException to indicate the problem.
+                        throw new SQLException("JDBC Driver '" + config.getDriverClassName()
+                                + "' not found. Ensure '" + (config.isEmbedded() ? "h2" : "mysql-connector-java")
+                                + "' is in your classpath.", e);
+                    }
+                    if (config.isEmbedded()) {
+                        EmbeddedDatabase.initialize(config); // Create tables before the pool opens connections
+                    } else if (config.getBoolean("db.migrations.autoApply", false)) {
+                        Migrator.migrate(config);
+                    }
+                    SqlMetrics.setEnabled(config.getBoolean("db.metrics.enabled", true));
+                    SqlMetrics.startPeriodicDump(config.getLong("db.metrics.dumpIntervalMillis", 0));
+                    SlowQueryLog.configure(config);
+                    streamFetchSize = config.getStreamFetchSize();
+                    replicaRouter = new ReplicaRouter(config);
+                    p = new ConnectionPool("primary", config.getUrl(), config.getUser(), config.getPassword(), config);
+                    pool = p;
+                }
+            }
+        }
+        return p;
     }
 
     /**
@@ -53,7 +159,8 @@ public class DBController {
             System.err.println("Error Code: " + e.getErrorCode());
             System.err.println("Message: " + e.getMessage());
             e.printStackTrace();
+        } finally {
+            shutdown();
         }
     }
 }
-
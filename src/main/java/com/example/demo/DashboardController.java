@@ -13,6 +13,7 @@ import javafx.scene.Scene;
 import javafx.stage.Stage;
 
 import java.io.IOException;
+import java.net.URL;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -153,13 +154,21 @@ public class DashboardController {
         }
 
         String fxmlPath = modules.get(moduleName);
+        // Adjust path to be relative to the resource root, assuming FXMLs are in com/example/demo/
+        // and then potentially subdirectories like 'admin/', 'student/', etc.
+        URL location = getClass().getResource(fxmlPath);
+        if (location == null) {
+            System.err.println("Failed to load module FXML: " + fxmlPath + " - not found");
+            showAlert(Alert.AlertType.ERROR, "Loading Error", "Failed to load '" + moduleName + "'. Please try again or contact support.");
+            return;
+        }
+
+        // The FXML is parsed here, on the FX thread, so the module's controller is created and
+        // initialized there; it loads its data in the background. Replacing the previous module
+        // detaches it from the scene, which cancels the loads it still has running.
         try {
-            // Adjust path to be relative to the resource root, assuming FXMLs are in com/example/demo/
-            // and then potentially subdirectories like 'admin/', 'student/', etc.
-            FXMLLoader loader = new FXMLLoader(getClass().getResource(fxmlPath));
-            Node moduleContent = loader.load();
-            mainContent.getChildren().clear(); // Clear previous content
-            mainContent.getChildren().add(moduleContent); // Add new content
+            Node moduleContent = FXMLLoader.load(location);
+            mainContent.getChildren().setAll(moduleContent); // Replace previous content
         } catch (IOException e) {
             System.err.println("Failed to load module FXML: " + fxmlPath + " - " + e.getMessage());
             e.printStackTrace();
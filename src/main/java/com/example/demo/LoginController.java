@@ -33,7 +33,7 @@ public class LoginController {
     private UserService userService; // Instance of the UserService
 
     public LoginController() {
-        this.userService = new UserService(); // Initialize the UserService
+        this.userService = AppContext.get().getUserService(); // Shared with the rest of the application
     }
 
     // This method runs after FXML is loaded and controls are injected
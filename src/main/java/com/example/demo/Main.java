@@ -27,6 +27,12 @@ public class Main extends Application {
         }
     }
 
+    @Override
+    public void stop() {
+        // Stop background service calls, drop the caches and release pooled database connections when the window is closed
+        AppContext.shutdown();
+    }
+
     public static void main(String[] args) {
         // This is the entry point for your JavaFX application
         launch(args);
@@ -0,0 +1,182 @@
+package com.example.demo.controller;
+
+import com.example.demo.service.ServiceExecutor;
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanWrapper;
+import javafx.concurrent.Task;
+import javafx.concurrent.WorkerStateEvent;
+import javafx.scene.Node;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Runs a screen's database work as background {@link Task}s, so JDBC calls never block the JavaFX
+ * Application Thread. Results and errors are handed to callbacks on the FX thread.
+ * <p>
+ * Loads are keyed: starting a load cancels the running load with the same key, and the result of a
+ * load that has been replaced is dropped, so a slow old query can never overwrite newer data. All
+ * loads are cancelled when the screen is removed from the window (see {@link #cancelWhenDetached}).
+ * Writes are never cancelled, since the user is waiting for their outcome.
+ * <p>
+ * Tasks run on the {@link ServiceExecutor}, which caps concurrent work at the connection pool size.
+ * Methods may be called from any thread; calls from other threads are passed to the FX thread.
+ */
+public final class TaskRunner {
+
+    /** The background part of a task. */
+    @FunctionalInterface
+    public interface Work<T> {
+        T call() throws Exception;
+    }
+
+    private final Map<String, Task<?>> loads = new HashMap<>();
+    private final Set<Task<?>> running = new HashSet<>();
+    private final ReadOnlyBooleanWrapper busy = new ReadOnlyBooleanWrapper(false);
+    private final ReadOnlyBooleanWrapper writing = new ReadOnlyBooleanWrapper(false);
+    private int writes;
+
+    /**
+     * Loads data in the background, replacing a running load with the same key.
+     *
+     * @param key Identifies what is loaded, e.g. {@code "students"}.
+     * @param work The query.
+     * @param onSuccess Applies the result, on the FX thread; not called if the load was replaced or cancelled.
+     * @param onFailure Reports an error, on the FX thread.
+     * @param <T> The result type.
+     */
+    public <T> void load(String key, Work<T> work, Consumer<? super T> onSuccess, Consumer<Throwable> onFailure) {
+        if (!Platform.isFxApplicationThread()) {
+            Platform.runLater(() -> load(key, work, onSuccess, onFailure));
+            return;
+        }
+        Task<?> previous = loads.remove(key);
+        if (previous != null) {
+            previous.cancel();
+        }
+        Task<T> task = newTask(work);
+        loads.put(key, task);
+        // A load that was replaced or cancelled meanwhile must not apply its result
+        start(task, value -> {
+            if (loads.remove(key, task)) {
+                onSuccess.accept(value);
+            }
+        }, error -> {
+            if (loads.remove(key, task)) {
+                onFailure.accept(error);
+            }
+        });
+    }
+
+    /**
+     * Writes in the background. While writes are running, {@link #writingProperty()} is true.
+     *
+     * @param work The insert, update or delete.
+     * @param onSuccess Called with the result on the FX thread.
+     * @param onFailure Reports an error, on the FX thread.
+     * @param <T> The result type.
+     */
+    public <T> void write(Work<T> work, Consumer<? super T> onSuccess, Consumer<Throwable> onFailure) {
+        if (!Platform.isFxApplicationThread()) {
+            Platform.runLater(() -> write(work, onSuccess, onFailure));
+            return;
+        }
+        Task<T> task = newTask(work);
+        writes++;
+        writing.set(true);
+        whenFinished(task, () -> {
+            writes--;
+            writing.set(writes > 0);
+        });
+        start(task, onSuccess, onFailure);
+    }
+
+    /**
+     * Cancels the running load with the given key, if any; its result is dropped.
+     *
+     * @param key The key the load was started with.
+     */
+    public void cancel(String key) {
+        if (!Platform.isFxApplicationThread()) {
+            Platform.runLater(() -> cancel(key));
+            return;
+        }
+        Task<?> task = loads.remove(key);
+        if (task != null) {
+            task.cancel();
+        }
+    }
+
+    /**
+     * Cancels all running loads; their results are dropped.
+     */
+    public void cancelLoads() {
+        if (!Platform.isFxApplicationThread()) {
+            Platform.runLater(this::cancelLoads);
+            return;
+        }
+        for (Task<?> task : loads.values()) {
+            task.cancel();
+        }
+        loads.clear();
+    }
+
+    /**
+     * Cancels the running loads when a node of the screen leaves its scene, e.g. when the dashboard
+     * replaces the screen with another module.
+     *
+     * @param node A node of the screen.
+     */
+    public void cancelWhenDetached(Node node) {
+        node.sceneProperty().addListener((observable, oldScene, newScene) -> {
+            if (oldScene != null && newScene == null) {
+                cancelLoads();
+            }
+        });
+    }
+
+    /** @return true while any load or write is running; bind loading indicators to it. */
+    public ReadOnlyBooleanProperty busyProperty() {
+        return busy.getReadOnlyProperty();
+    }
+
+    /** @return true while a write is running; bind the disable state of the form to it. */
+    public ReadOnlyBooleanProperty writingProperty() {
+        return writing.getReadOnlyProperty();
+    }
+
+    private static <T> Task<T> newTask(Work<T> work) {
+        return new Task<T>() {
+            @Override
+            protected T call() throws Exception {
+                return work.call();
+            }
+        };
+    }
+
+    private static void whenFinished(Task<?> task, Runnable action) {
+        task.addEventHandler(WorkerStateEvent.WORKER_STATE_SUCCEEDED, e -> action.run());
+        task.addEventHandler(WorkerStateEvent.WORKER_STATE_FAILED, e -> action.run());
+        task.addEventHandler(WorkerStateEvent.WORKER_STATE_CANCELLED, e -> action.run());
+    }
+
+    private <T> void start(Task<T> task, Consumer<? super T> onSuccess, Consumer<Throwable> onFailure) {
+        running.add(task);
+        busy.set(true);
+        whenFinished(task, () -> {
+            running.remove(task);
+            busy.set(!running.isEmpty());
+        });
+        task.setOnSucceeded(e -> onSuccess.accept(task.getValue()));
+        task.setOnFailed(e -> onFailure.accept(task.getException()));
+        // No deadline: a load of a large table may legitimately take longer than a service call
+        ServiceExecutor.shared().submit(() -> {
+            task.run();
+            return null;
+        }, 0);
+    }
+}
@@ -1,9 +1,12 @@
 package com.example.demo.controller.admin;
 
+import com.example.demo.AppContext;
+import com.example.demo.controller.TaskRunner;
+import com.example.demo.export.ExportTables;
 import com.example.demo.model.Course;
 import com.example.demo.model.Program;
 import com.example.demo.service.CourseService;
-import com.example.demo.service.ProgramService;
+import com.example.demo.service.ReferenceData;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
@@ -12,6 +15,7 @@ import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
 import javafx.scene.control.ButtonType;
 import javafx.scene.control.ComboBox;
+import javafx.scene.control.ProgressIndicator;
 import javafx.scene.control.Spinner;
 import javafx.scene.control.SpinnerValueFactory;
 import javafx.scene.control.TableColumn;
@@ -20,8 +24,6 @@ import javafx.scene.control.TextArea;
 import javafx.scene.control.TextField;
 import javafx.scene.control.cell.PropertyValueFactory;
 
-import java.sql.SQLException;
-import java.util.List;
 import java.util.Optional;
 
 public class CourseManagementController {
@@ -68,17 +70,20 @@ public class CourseManagementController {
     private TableColumn<Course, String> descriptionCol;
     @FXML
     private TableColumn<Course, String> departmentCol;
+    @FXML
+    private ProgressIndicator loadingIndicator;
 
     private CourseService courseService;
-    private ProgramService programService;
     private ObservableList<Course> courseList;
     private ObservableList<Program> programOptions;
+    private TaskRunner tasks; // Runs the database calls off the FX thread
+    private ReferenceData referenceData; // Program names for the table, null until loaded
 
     public CourseManagementController() {
-        this.courseService = new CourseService();
-        this.programService = new ProgramService();
+        this.courseService = AppContext.get().getCourseService();
         this.courseList = FXCollections.observableArrayList();
         this.programOptions = FXCollections.observableArrayList();
+        this.tasks = new TaskRunner();
     }
 
     @FXML
@@ -87,8 +92,14 @@ public class CourseManagementController {
         semesterSpinner.setValueFactory(new SpinnerValueFactory.IntegerSpinnerValueFactory(1, 8, 1));
         creditsSpinner.setValueFactory(new SpinnerValueFactory.IntegerSpinnerValueFactory(1, 6, 3));
 
+        // Show progress while loading, block the form while saving, and stop loading when the screen is left
+        loadingIndicator.visibleProperty().bind(tasks.busyProperty());
+        loadingIndicator.managedProperty().bind(loadingIndicator.visibleProperty());
+        addButton.getParent().disableProperty().bind(tasks.writingProperty());
+        tasks.cancelWhenDetached(courseTable);
+
         // Load programs into ComboBox
-        loadProgramsIntoComboBox();
+        loadReferenceData();
         programComboBox.setItems(programOptions);
         // Set a string converter for Program objects in ComboBox
         programComboBox.setConverter(new javafx.util.StringConverter<Program>() {
@@ -108,17 +119,13 @@ public class CourseManagementController {
 
         // Configure TableView columns
         courseIdCol.setCellValueFactory(new PropertyValueFactory<>("courseId"));
-        // Custom cell value factory for programNameCol to fetch program name from ID
+        // Custom cell value factory for programNameCol to look up the program name in the snapshot
         programNameCol.setCellValueFactory(cellData -> {
-            int programId = cellData.getValue().getProgramId();
-            try {
-                Program program = programService.getProgramById(programId);
-                String programName = (program != null) ? program.getProgramName() : "N/A";
-                return new javafx.beans.property.SimpleStringProperty(programName);
-            } catch (SQLException e) {
-                System.err.println("Error fetching program name for course ID " + cellData.getValue().getCourseId() + ": " + e.getMessage());
-                return new javafx.beans.property.SimpleStringProperty("Error");
+            if (referenceData == null) {
+                return new javafx.beans.property.SimpleStringProperty("");
             }
+            String programName = referenceData.getProgramName(cellData.getValue().getProgramId());
+            return new javafx.beans.property.SimpleStringProperty(programName != null ? programName : "N/A");
         });
 
         semesterCol.setCellValueFactory(new PropertyValueFactory<>("semesterNumber"));
@@ -140,24 +147,18 @@ public class CourseManagementController {
         deleteButton.setDisable(true);
     }
 
-    private void loadProgramsIntoComboBox() {
-        try {
-            List<Program> programs = programService.getAllPrograms();
-            programOptions.setAll(programs);
-        } catch (SQLException e) {
-            showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to load programs for dropdown: " + e.getMessage());
-            e.printStackTrace();
-        }
+    private void loadReferenceData() {
+        tasks.load("reference", ReferenceData::current, data -> {
+            referenceData = data;
+            programOptions.setAll(data.getPrograms());
+            courseTable.refresh(); // Fill in the program names of rows shown before the snapshot arrived
+        }, e -> showFailure(e, "Input Error", "Failed to load programs for dropdown: "));
     }
 
     private void loadCourses() {
-        try {
-            List<Course> courses = courseService.getAllCourses();
-            courseList.setAll(courses);
-        } catch (SQLException e) {
-            showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to load courses: " + e.getMessage());
-            e.printStackTrace();
-        }
+        tasks.load("courses", courseService::getAllCourses,
+                courses -> courseList.setAll(courses),
+                e -> showFailure(e, "Input Error", "Failed to load courses: "));
     }
 
     private void showCourseDetails(Course course) {
@@ -169,12 +170,11 @@ public class CourseManagementController {
             departmentField.setText(course.getDepartment());
             descriptionArea.setText(course.getDescription());
 
-            // Select the correct program in the ComboBox
-            try {
-                Program program = programService.getProgramById(course.getProgramId());
+            // Select the correct program in the ComboBox, from the programs already loaded for it
+            Program program = findProgram(course.getProgramId());
+            if (program != null) {
                 programComboBox.getSelectionModel().select(program);
-            } catch (SQLException e) {
-                System.err.println("Error selecting program for course: " + e.getMessage());
+            } else {
                 programComboBox.getSelectionModel().clearSelection(); // Clear selection if program not found
             }
 
@@ -186,9 +186,40 @@ public class CourseManagementController {
         }
     }
 
+    private Program findProgram(int programId) {
+        // The snapshot's programs are the combo box items
+        return referenceData != null ? referenceData.getProgram(programId) : null;
+    }
+
     @FXML
     private void handleAddCourse(ActionEvent event) {
-        try {
+        String courseCode = courseCodeField.getText();
+        String courseName = courseNameField.getText();
+        int semester = semesterSpinner.getValue();
+        int credits = creditsSpinner.getValue();
+        String department = departmentField.getText();
+        String description = descriptionArea.getText();
+
+        Program selectedProgram = programComboBox.getSelectionModel().getSelectedItem();
+        if (selectedProgram == null) {
+            showAlert(Alert.AlertType.WARNING, "Input Error", "Please select a Program.");
+            return;
+        }
+        int programId = selectedProgram.getProgramId();
+
+        tasks.write(() -> courseService.addNewCourse(
+                programId, semester, courseCode, courseName, credits, description, department
+        ), newCourse -> {
+            showAlert(Alert.AlertType.INFORMATION, "Success", "Course '" + newCourse.getCourseName() + "' (" + newCourse.getCourseCode() + ") added successfully with ID: " + newCourse.getCourseId());
+            loadCourses();
+            handleClearSelection(null);
+        }, e -> showFailure(e, "Input Error", "Failed to add course: "));
+    }
+
+    @FXML
+    private void handleUpdateCourse(ActionEvent event) {
+        Course selectedCourse = courseTable.getSelectionModel().getSelectedItem();
+        if (selectedCourse != null) {
             String courseCode = courseCodeField.getText();
             String courseName = courseNameField.getText();
             int semester = semesterSpinner.getValue();
@@ -201,60 +232,25 @@ public class CourseManagementController {
                 showAlert(Alert.AlertType.WARNING, "Input Error", "Please select a Program.");
                 return;
             }
-            int programId = selectedProgram.getProgramId();
-
-            Course newCourse = courseService.addNewCourse(
-                    programId, semester, courseCode, courseName, credits, description, department
-            );
-            showAlert(Alert.AlertType.INFORMATION, "Success", "Course '" + newCourse.getCourseName() + "' (" + newCourse.getCourseCode() + ") added successfully with ID: " + newCourse.getCourseId());
-            loadCourses();
-            handleClearSelection(null);
-        } catch (IllegalArgumentException e) {
-            showAlert(Alert.AlertType.WARNING, "Input Error", e.getMessage());
-        } catch (SQLException e) {
-            showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to add course: " + e.getMessage());
-            e.printStackTrace();
-        }
-    }
-
-    @FXML
-    private void handleUpdateCourse(ActionEvent event) {
-        Course selectedCourse = courseTable.getSelectionModel().getSelectedItem();
-        if (selectedCourse != null) {
-            try {
-                String courseCode = courseCodeField.getText();
-                String courseName = courseNameField.getText();
-                int semester = semesterSpinner.getValue();
-                int credits = creditsSpinner.getValue();
-                String department = departmentField.getText();
-                String description = descriptionArea.getText();
-
-                Program selectedProgram = programComboBox.getSelectionModel().getSelectedItem();
-                if (selectedProgram == null) {
-                    showAlert(Alert.AlertType.WARNING, "Input Error", "Please select a Program.");
-                    return;
-                }
-                int newProgramId = selectedProgram.getProgramId();
-
-                // Update the selected course object
-                selectedCourse.setProgramId(newProgramId);
-                selectedCourse.setSemesterNumber(semester);
-                selectedCourse.setCourseCode(courseCode);
-                selectedCourse.setCourseName(courseName);
-                selectedCourse.setCredits(credits);
-                selectedCourse.setDescription(description);
-                selectedCourse.setDepartment(department);
-
+            int newProgramId = selectedProgram.getProgramId();
+
+            // Update the selected course object
+            selectedCourse.setProgramId(newProgramId);
+            selectedCourse.setSemesterNumber(semester);
+            selectedCourse.setCourseCode(courseCode);
+            selectedCourse.setCourseName(courseName);
+            selectedCourse.setCredits(credits);
+            selectedCourse.setDescription(description);
+            selectedCourse.setDepartment(department);
+
+            tasks.write(() -> {
                 courseService.updateCourse(selectedCourse);
+                return selectedCourse;
+            }, updated -> {
                 showAlert(Alert.AlertType.INFORMATION, "Success", "Course updated successfully.");
                 loadCourses();
                 handleClearSelection(null);
-            } catch (IllegalArgumentException e) {
-                showAlert(Alert.AlertType.WARNING, "Input Error", e.getMessage());
-            } catch (SQLException e) {
-                showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to update course: " + e.getMessage());
-                e.printStackTrace();
-            }
+            }, e -> showFailure(e, "Input Error", "Failed to update course: "));
         } else {
             showAlert(Alert.AlertType.WARNING, "No Selection", "Please select a course to update.");
         }
@@ -271,23 +267,26 @@ public class CourseManagementController {
 
             Optional<ButtonType> result = alert.showAndWait();
             if (result.isPresent() && result.get() == ButtonType.OK) {
-                try {
-                    courseService.deleteCourse(selectedCourse.getCourseId());
+                int courseId = selectedCourse.getCourseId();
+                tasks.write(() -> {
+                    courseService.deleteCourse(courseId);
+                    return courseId;
+                }, deletedId -> {
                     showAlert(Alert.AlertType.INFORMATION, "Success", "Course deleted successfully.");
                     loadCourses();
                     handleClearSelection(null);
-                } catch (SQLException e) {
-                    showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to delete course: " + e.getMessage());
-                    e.printStackTrace();
-                } catch (IllegalArgumentException e) {
-                    showAlert(Alert.AlertType.WARNING, "Deletion Error", e.getMessage());
-                }
+                }, e -> showFailure(e, "Deletion Error", "Failed to delete course: "));
             }
         } else {
             showAlert(Alert.AlertType.WARNING, "No Selection", "Please select a course to delete.");
         }
     }
 
+    @FXML
+    private void handleExport(ActionEvent event) {
+        ExportDialog.show(courseTable.getScene().getWindow(), ExportTables.courses());
+    }
+
     @FXML
     private void handleClearSelection(ActionEvent event) {
         courseTable.getSelectionModel().clearSelection();
@@ -304,6 +303,18 @@ public class CourseManagementController {
         deleteButton.setDisable(true);
     }
 
+    /**
+     * Reports a failed background call: validation errors as a warning, database errors as an error.
+     */
+    private void showFailure(Throwable e, String inputErrorTitle, String databaseErrorMessage) {
+        if (e instanceof IllegalArgumentException) {
+            showAlert(Alert.AlertType.WARNING, inputErrorTitle, e.getMessage());
+        } else {
+            showAlert(Alert.AlertType.ERROR, "Database Error", databaseErrorMessage + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
     /**
      * Helper method to display an alert dialog.
      */
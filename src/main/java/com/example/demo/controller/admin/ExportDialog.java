@@ -0,0 +1,175 @@
+package com.example.demo.controller.admin;
+
+import com.example.demo.export.ExportFormat;
+import com.example.demo.export.ExportTable;
+import com.example.demo.export.ExportTask;
+import com.example.demo.service.ServiceExecutor;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.control.Alert;
+import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
+import javafx.scene.layout.FlowPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+import javafx.stage.FileChooser;
+import javafx.stage.Modality;
+import javafx.stage.Stage;
+import javafx.stage.Window;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Dialog for exporting a management table to CSV or Excel. The user picks the columns and the
+ * format; the export then runs as an {@link ExportTask} on the {@link ServiceExecutor}, with a
+ * progress bar and a Cancel button, so the screen stays responsive for tables of any size.
+ */
+public class ExportDialog {
+
+    private final ExportTable<?> table;
+    private final Stage stage;
+    private final List<CheckBox> columnBoxes = new ArrayList<>();
+    private final ComboBox<ExportFormat> formatComboBox = new ComboBox<>();
+    private final ProgressBar progressBar = new ProgressBar(0);
+    private final Label statusLabel = new Label();
+    private final Button exportButton = new Button("Export...");
+    private final Button cancelButton = new Button("Close");
+    private ExportTask<?> task;
+
+    private ExportDialog(Window owner, ExportTable<?> table) {
+        this.table = table;
+        this.stage = new Stage();
+        stage.initOwner(owner);
+        stage.initModality(Modality.WINDOW_MODAL);
+        stage.setTitle("Export " + table.getName());
+
+        FlowPane columnsPane = new FlowPane(10, 8);
+        for (String name : table.getColumnNames()) {
+            CheckBox box = new CheckBox(name);
+            box.setSelected(true);
+            columnBoxes.add(box);
+            columnsPane.getChildren().add(box);
+        }
+
+        formatComboBox.getItems().addAll(ExportFormat.values());
+        formatComboBox.getSelectionModel().select(ExportFormat.CSV);
+
+        progressBar.setMaxWidth(Double.MAX_VALUE);
+        exportButton.setStyle("-fx-background-color: #28a745; -fx-text-fill: white; -fx-background-radius: 5;");
+        exportButton.setOnAction(e -> startExport());
+        cancelButton.setOnAction(e -> {
+            if (task != null && task.isRunning()) {
+                task.cancel();
+            } else {
+                stage.close();
+            }
+        });
+        // Closing the window stops a running export too
+        stage.setOnHidden(e -> {
+            if (task != null) {
+                task.cancel();
+            }
+        });
+
+        HBox buttons = new HBox(10, exportButton, cancelButton);
+        buttons.setAlignment(Pos.CENTER_RIGHT);
+        VBox root = new VBox(12,
+                new Label("Columns:"), columnsPane,
+                new HBox(10, new Label("Format:"), formatComboBox),
+                progressBar, statusLabel, buttons);
+        root.setPadding(new Insets(20));
+        stage.setScene(new Scene(root, 520, 320));
+    }
+
+    /**
+     * Opens the export dialog for a table.
+     *
+     * @param owner The window the dialog belongs to.
+     * @param table The table to export.
+     */
+    public static void show(Window owner, ExportTable<?> table) {
+        new ExportDialog(owner, table).stage.show();
+    }
+
+    private void startExport() {
+        List<String> columns = new ArrayList<>();
+        for (CheckBox box : columnBoxes) {
+            if (box.isSelected()) {
+                columns.add(box.getText());
+            }
+        }
+        if (columns.isEmpty()) {
+            showAlert(Alert.AlertType.WARNING, "Input Error", "Please select at least one column.");
+            return;
+        }
+        ExportFormat format = formatComboBox.getValue();
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Export " + table.getName());
+        chooser.setInitialFileName(table.getName().toLowerCase(Locale.ROOT) + "." + format.getExtension());
+        chooser.getExtensionFilters().add(
+                new FileChooser.ExtensionFilter(format.getDescription(), "*." + format.getExtension()));
+        File file = chooser.showSaveDialog(stage);
+        if (file == null) {
+            return;
+        }
+        run(new ExportTask<>(table, columns, format, file.toPath()));
+    }
+
+    private void run(ExportTask<?> exportTask) {
+        task = exportTask;
+        progressBar.progressProperty().bind(task.progressProperty());
+        statusLabel.textProperty().bind(task.messageProperty());
+        exportButton.setDisable(true);
+        cancelButton.setText("Cancel");
+
+        task.setOnSucceeded(e -> {
+            finish();
+            Path target = exportTask.getTarget();
+            statusLabel.setText("Exported " + exportTask.getValue() + " rows to " + target.getFileName() + ".");
+        });
+        task.setOnCancelled(e -> {
+            finish();
+            progressBar.setProgress(0);
+            statusLabel.setText("Export cancelled.");
+        });
+        task.setOnFailed(e -> {
+            finish();
+            progressBar.setProgress(0);
+            statusLabel.setText("Export failed.");
+            Throwable error = exportTask.getException();
+            System.err.println("Export of " + table.getName() + " failed: " + error);
+            showAlert(Alert.AlertType.ERROR, "Export Failed", error.getMessage());
+        });
+
+        // On the ServiceExecutor like the screens' other database work, so open export dialogs
+        // cannot hold more connections than it allows. No deadline: a large export takes a while.
+        ServiceExecutor.shared().submit(() -> {
+            exportTask.run();
+            return null;
+        }, 0);
+    }
+
+    private void finish() {
+        progressBar.progressProperty().unbind();
+        statusLabel.textProperty().unbind();
+        exportButton.setDisable(false);
+        cancelButton.setText("Close");
+    }
+
+    private void showAlert(Alert.AlertType type, String title, String msg) {
+        Alert alert = new Alert(type);
+        alert.initOwner(stage);
+        alert.setTitle(title);
+        alert.setHeaderText(null);
+        alert.setContentText(msg);
+        alert.showAndWait();
+    }
+}
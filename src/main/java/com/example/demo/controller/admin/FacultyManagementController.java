@@ -1,5 +1,8 @@
 package com.example.demo.controller.admin;
 
+import com.example.demo.AppContext;
+import com.example.demo.controller.TaskRunner;
+import com.example.demo.export.ExportTables;
 import com.example.demo.model.Faculty;
 import com.example.demo.model.User; // Potentially needed if updating user directly, but FacultyService handles it
 import com.example.demo.service.FacultyService;
@@ -12,13 +15,12 @@ import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
 import javafx.scene.control.ButtonType;
 import javafx.scene.control.PasswordField;
+import javafx.scene.control.ProgressIndicator;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 import javafx.scene.control.TextField;
 import javafx.scene.control.cell.PropertyValueFactory;
 
-import java.sql.SQLException;
-import java.util.List;
 import java.util.Optional;
 
 public class FacultyManagementController {
@@ -61,15 +63,19 @@ public class FacultyManagementController {
     private TableColumn<Faculty, String> phoneCol;
     @FXML
     private TableColumn<Faculty, String> departmentCol;
+    @FXML
+    private ProgressIndicator loadingIndicator;
 
     private FacultyService facultyService;
     private UserService userService; // To help manage user accounts directly if needed (e.g., getting username)
     private ObservableList<Faculty> facultyList;
+    private TaskRunner tasks; // Runs the database calls off the FX thread
 
     public FacultyManagementController() {
-        this.facultyService = new FacultyService();
-        this.userService = new UserService();
+        this.facultyService = AppContext.get().getFacultyService();
+        this.userService = AppContext.get().getUserService();
         this.facultyList = FXCollections.observableArrayList();
+        this.tasks = new TaskRunner();
     }
 
     @FXML
@@ -83,6 +89,12 @@ public class FacultyManagementController {
         departmentCol.setCellValueFactory(new PropertyValueFactory<>("department"));
 
         facultyTable.setItems(facultyList);
+
+        // Show progress while loading, block the form while saving, and stop loading when the screen is left
+        loadingIndicator.visibleProperty().bind(tasks.busyProperty());
+        loadingIndicator.managedProperty().bind(loadingIndicator.visibleProperty());
+        addButton.getParent().disableProperty().bind(tasks.writingProperty());
+        tasks.cancelWhenDetached(facultyTable);
         loadFaculty();
 
         // Add listener to table selection
@@ -95,16 +107,12 @@ public class FacultyManagementController {
     }
 
     /**
-     * Loads all faculty members from the database and updates the TableView.
+     * Loads all faculty members from the database in the background and updates the TableView.
      */
     private void loadFaculty() {
-        try {
-            List<Faculty> facultyMembers = facultyService.getAllFaculty();
-            facultyList.setAll(facultyMembers);
-        } catch (SQLException e) {
-            showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to load faculty members: " + e.getMessage());
-            e.printStackTrace();
-        }
+        tasks.load("faculty", facultyService::getAllFaculty,
+                facultyMembers -> facultyList.setAll(facultyMembers),
+                e -> showFailure(e, "Input Error", "Failed to load faculty members: "));
     }
 
     /**
@@ -119,18 +127,20 @@ public class FacultyManagementController {
             phoneField.setText(faculty.getPhoneNumber());
             departmentField.setText(faculty.getDepartment());
 
-            // For username field: Fetch the associated user's username
-            try {
-                User associatedUser = userService.getUserById(faculty.getUserId());
+            // For username field: Fetch the associated user's username in the background;
+            // selecting another row replaces the lookup
+            usernameField.setText("");
+            int userId = faculty.getUserId();
+            tasks.load("user", () -> userService.getUserById(userId), associatedUser -> {
                 if (associatedUser != null) {
                     usernameField.setText(associatedUser.getUsername());
                 } else {
                     usernameField.setText(""); // User not found
                 }
-            } catch (SQLException e) {
+            }, e -> {
                 System.err.println("Error fetching associated user for faculty ID " + faculty.getFacultyId() + ": " + e.getMessage());
                 usernameField.setText("Error");
-            }
+            });
             passwordField.setText(""); // Never pre-fill password field for security
 
             addButton.setDisable(true);
@@ -143,76 +153,69 @@ public class FacultyManagementController {
 
     @FXML
     private void handleAddFaculty(ActionEvent event) {
-        try {
-            String firstName = firstNameField.getText();
-            String lastName = lastNameField.getText();
-            String email = emailField.getText();
-            String phone = phoneField.getText();
-            String department = departmentField.getText();
-            String username = usernameField.getText();
-            String password = passwordField.getText();
+        String firstName = firstNameField.getText();
+        String lastName = lastNameField.getText();
+        String email = emailField.getText();
+        String phone = phoneField.getText();
+        String department = departmentField.getText();
+        String username = usernameField.getText();
+        String password = passwordField.getText();
 
-            Faculty newFaculty = facultyService.addNewFaculty(
-                    firstName, lastName, email, phone, department, username, password
-            );
+        tasks.write(() -> facultyService.addNewFaculty(
+                firstName, lastName, email, phone, department, username, password
+        ), newFaculty -> {
             showAlert(Alert.AlertType.INFORMATION, "Success", "Faculty '" + newFaculty.getFirstName() + " " + newFaculty.getLastName() + "' added successfully with ID: " + newFaculty.getFacultyId());
             loadFaculty();
             handleClearSelection(null);
-        } catch (IllegalArgumentException e) {
-            showAlert(Alert.AlertType.WARNING, "Input Error", e.getMessage());
-        } catch (SQLException e) {
-            showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to add faculty: " + e.getMessage());
-            e.printStackTrace();
-        }
+        }, e -> showFailure(e, "Input Error", "Failed to add faculty: "));
     }
 
     @FXML
     private void handleUpdateFaculty(ActionEvent event) {
         Faculty selectedFaculty = facultyTable.getSelectionModel().getSelectedItem();
         if (selectedFaculty != null) {
-            try {
-                String firstName = firstNameField.getText();
-                String lastName = lastNameField.getText();
-                String email = emailField.getText();
-                String phone = phoneField.getText();
-                String department = departmentField.getText();
-                String newUsername = usernameField.getText(); // Potentially new username
-                String newPassword = passwordField.getText(); // Potentially new password
+            String firstName = firstNameField.getText();
+            String lastName = lastNameField.getText();
+            String email = emailField.getText();
+            String phone = phoneField.getText();
+            String department = departmentField.getText();
+            String newUsername = usernameField.getText(); // Potentially new username
+            String newPassword = passwordField.getText(); // Potentially new password
 
-                // Update the selected faculty object
-                selectedFaculty.setFirstName(firstName);
-                selectedFaculty.setLastName(lastName);
-                selectedFaculty.setEmail(email);
-                selectedFaculty.setPhoneNumber(phone);
-                selectedFaculty.setDepartment(department);
+            // Update the selected faculty object
+            selectedFaculty.setFirstName(firstName);
+            selectedFaculty.setLastName(lastName);
+            selectedFaculty.setEmail(email);
+            selectedFaculty.setPhoneNumber(phone);
+            selectedFaculty.setDepartment(department);
 
+            // Returns false if the associated user account was not found
+            tasks.write(() -> {
                 facultyService.updateFaculty(selectedFaculty);
 
                 // If username or password fields are not empty, update user login details
                 if (!newUsername.isEmpty() || !newPassword.isEmpty()) {
                     User userToUpdate = userService.getUserById(selectedFaculty.getUserId());
-                    if (userToUpdate != null) {
-                        if (!newUsername.isEmpty()) {
-                            userToUpdate.setUsername(newUsername);
-                        }
-                        if (!newPassword.isEmpty()) {
-                            userToUpdate.setPasswordHash(newPassword); // In real app, hash newPassword
-                        }
-                        userService.updateUser(userToUpdate, newPassword); // Pass newPassword for service to handle hashing
-                    } else {
-                        showAlert(Alert.AlertType.WARNING, "User Not Found", "Associated user account not found for update.");
+                    if (userToUpdate == null) {
+                        return false;
                     }
+                    if (!newUsername.isEmpty()) {
+                        userToUpdate.setUsername(newUsername);
+                    }
+                    if (!newPassword.isEmpty()) {
+                        userToUpdate.setPasswordHash(newPassword); // In real app, hash newPassword
+                    }
+                    userService.updateUser(userToUpdate, newPassword); // Pass newPassword for service to handle hashing
+                }
+                return true;
+            }, userFound -> {
+                if (!userFound) {
+                    showAlert(Alert.AlertType.WARNING, "User Not Found", "Associated user account not found for update.");
                 }
-
                 showAlert(Alert.AlertType.INFORMATION, "Success", "Faculty updated successfully.");
                 loadFaculty();
                 handleClearSelection(null);
-            } catch (IllegalArgumentException e) {
-                showAlert(Alert.AlertType.WARNING, "Input Error", e.getMessage());
-            } catch (SQLException e) {
-                showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to update faculty: " + e.getMessage());
-                e.printStackTrace();
-            }
+            }, e -> showFailure(e, "Input Error", "Failed to update faculty: "));
         } else {
             showAlert(Alert.AlertType.WARNING, "No Selection", "Please select a faculty member to update.");
         }
@@ -229,26 +232,30 @@ public class FacultyManagementController {
 
             Optional<ButtonType> result = alert.showAndWait();
             if (result.isPresent() && result.get() == ButtonType.OK) {
-                try {
-                    facultyService.deleteFaculty(selectedFaculty.getFacultyId());
+                int facultyId = selectedFaculty.getFacultyId();
+                tasks.write(() -> {
+                    facultyService.deleteFaculty(facultyId);
+                    return facultyId;
+                }, deletedId -> {
                     showAlert(Alert.AlertType.INFORMATION, "Success", "Faculty deleted successfully.");
                     loadFaculty();
                     handleClearSelection(null);
-                } catch (SQLException e) {
-                    showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to delete faculty. It might be linked to other records or a system error occurred: " + e.getMessage());
-                    e.printStackTrace();
-                } catch (IllegalArgumentException e) {
-                    showAlert(Alert.AlertType.WARNING, "Deletion Error", e.getMessage());
-                }
+                }, e -> showFailure(e, "Deletion Error", "Failed to delete faculty. It might be linked to other records or a system error occurred: "));
             }
         } else {
             showAlert(Alert.AlertType.WARNING, "No Selection", "Please select a faculty member to delete.");
         }
     }
 
+    @FXML
+    private void handleExport(ActionEvent event) {
+        ExportDialog.show(facultyTable.getScene().getWindow(), ExportTables.faculty());
+    }
+
     @FXML
     private void handleClearSelection(ActionEvent event) {
         facultyTable.getSelectionModel().clearSelection();
+        tasks.cancel("user"); // A pending username lookup must not refill the cleared form
         firstNameField.clear();
         lastNameField.clear();
         emailField.clear();
@@ -262,6 +269,18 @@ public class FacultyManagementController {
         deleteButton.setDisable(true);
     }
 
+    /**
+     * Reports a failed background call: validation errors as a warning, database errors as an error.
+     */
+    private void showFailure(Throwable e, String inputErrorTitle, String databaseErrorMessage) {
+        if (e instanceof IllegalArgumentException) {
+            showAlert(Alert.AlertType.WARNING, inputErrorTitle, e.getMessage());
+        } else {
+            showAlert(Alert.AlertType.ERROR, "Database Error", databaseErrorMessage + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
     /**
      * Helper method to display an alert dialog.
      */
@@ -1,5 +1,8 @@
 package com.example.demo.controller.admin;
 
+import com.example.demo.AppContext;
+import com.example.demo.controller.TaskRunner;
+import com.example.demo.export.ExportTables;
 import com.example.demo.model.Librarian;
 import com.example.demo.model.User; // Potentially needed if updating user directly, but LibrarianService handles it
 import com.example.demo.service.LibrarianService;
@@ -12,13 +15,12 @@ import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
 import javafx.scene.control.ButtonType;
 import javafx.scene.control.PasswordField;
+import javafx.scene.control.ProgressIndicator;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 import javafx.scene.control.TextField;
 import javafx.scene.control.cell.PropertyValueFactory;
 
-import java.sql.SQLException;
-import java.util.List;
 import java.util.Optional;
 
 public class LibrarianManagementController {
@@ -57,15 +59,19 @@ public class LibrarianManagementController {
     private TableColumn<Librarian, String> emailCol;
     @FXML
     private TableColumn<Librarian, String> phoneCol;
+    @FXML
+    private ProgressIndicator loadingIndicator;
 
     private LibrarianService librarianService;
     private UserService userService; // To help manage user accounts directly if needed (e.g., getting username)
     private ObservableList<Librarian> librarianList;
+    private TaskRunner tasks; // Runs the database calls off the FX thread
 
     public LibrarianManagementController() {
-        this.librarianService = new LibrarianService();
-        this.userService = new UserService();
+        this.librarianService = AppContext.get().getLibrarianService();
+        this.userService = AppContext.get().getUserService();
         this.librarianList = FXCollections.observableArrayList();
+        this.tasks = new TaskRunner();
     }
 
     @FXML
@@ -78,6 +84,12 @@ public class LibrarianManagementController {
         phoneCol.setCellValueFactory(new PropertyValueFactory<>("phoneNumber"));
 
         librarianTable.setItems(librarianList);
+
+        // Show progress while loading, block the form while saving, and stop loading when the screen is left
+        loadingIndicator.visibleProperty().bind(tasks.busyProperty());
+        loadingIndicator.managedProperty().bind(loadingIndicator.visibleProperty());
+        addButton.getParent().disableProperty().bind(tasks.writingProperty());
+        tasks.cancelWhenDetached(librarianTable);
         loadLibrarians();
 
         // Add listener to table selection
@@ -90,16 +102,12 @@ public class LibrarianManagementController {
     }
 
     /**
-     * Loads all librarians from the database and updates the TableView.
+     * Loads all librarians from the database in the background and updates the TableView.
      */
     private void loadLibrarians() {
-        try {
-            List<Librarian> librarians = librarianService.getAllLibrarians();
-            librarianList.setAll(librarians);
-        } catch (SQLException e) {
-            showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to load librarians: " + e.getMessage());
-            e.printStackTrace();
-        }
+        tasks.load("librarians", librarianService::getAllLibrarians,
+                librarians -> librarianList.setAll(librarians),
+                e -> showFailure(e, "Input Error", "Failed to load librarians: "));
     }
 
     /**
@@ -113,18 +121,20 @@ public class LibrarianManagementController {
             emailField.setText(librarian.getEmail());
             phoneField.setText(librarian.getPhoneNumber());
 
-            // For username field: Fetch the associated user's username
-            try {
-                User associatedUser = userService.getUserById(librarian.getUserId());
+            // For username field: Fetch the associated user's username in the background;
+            // selecting another row replaces the lookup
+            usernameField.setText("");
+            int userId = librarian.getUserId();
+            tasks.load("user", () -> userService.getUserById(userId), associatedUser -> {
                 if (associatedUser != null) {
                     usernameField.setText(associatedUser.getUsername());
                 } else {
                     usernameField.setText(""); // User not found
                 }
-            } catch (SQLException e) {
+            }, e -> {
                 System.err.println("Error fetching associated user for librarian ID " + librarian.getLibrarianId() + ": " + e.getMessage());
                 usernameField.setText("Error");
-            }
+            });
             passwordField.setText(""); // Never pre-fill password field for security
 
             addButton.setDisable(true);
@@ -137,73 +147,66 @@ public class LibrarianManagementController {
 
     @FXML
     private void handleAddLibrarian(ActionEvent event) {
-        try {
-            String firstName = firstNameField.getText();
-            String lastName = lastNameField.getText();
-            String email = emailField.getText();
-            String phone = phoneField.getText();
-            String username = usernameField.getText();
-            String password = passwordField.getText();
+        String firstName = firstNameField.getText();
+        String lastName = lastNameField.getText();
+        String email = emailField.getText();
+        String phone = phoneField.getText();
+        String username = usernameField.getText();
+        String password = passwordField.getText();
 
-            Librarian newLibrarian = librarianService.addNewLibrarian(
-                    firstName, lastName, email, phone, username, password
-            );
+        tasks.write(() -> librarianService.addNewLibrarian(
+                firstName, lastName, email, phone, username, password
+        ), newLibrarian -> {
             showAlert(Alert.AlertType.INFORMATION, "Success", "Librarian '" + newLibrarian.getFirstName() + " " + newLibrarian.getLastName() + "' added successfully with ID: " + newLibrarian.getLibrarianId());
             loadLibrarians();
             handleClearSelection(null);
-        } catch (IllegalArgumentException e) {
-            showAlert(Alert.AlertType.WARNING, "Input Error", e.getMessage());
-        } catch (SQLException e) {
-            showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to add librarian: " + e.getMessage());
-            e.printStackTrace();
-        }
+        }, e -> showFailure(e, "Input Error", "Failed to add librarian: "));
     }
 
     @FXML
     private void handleUpdateLibrarian(ActionEvent event) {
         Librarian selectedLibrarian = librarianTable.getSelectionModel().getSelectedItem();
         if (selectedLibrarian != null) {
-            try {
-                String firstName = firstNameField.getText();
-                String lastName = lastNameField.getText();
-                String email = emailField.getText();
-                String phone = phoneField.getText();
-                String newUsername = usernameField.getText(); // Potentially new username
-                String newPassword = passwordField.getText(); // Potentially new password
+            String firstName = firstNameField.getText();
+            String lastName = lastNameField.getText();
+            String email = emailField.getText();
+            String phone = phoneField.getText();
+            String newUsername = usernameField.getText(); // Potentially new username
+            String newPassword = passwordField.getText(); // Potentially new password
 
-                // Update the selected librarian object
-                selectedLibrarian.setFirstName(firstName);
-                selectedLibrarian.setLastName(lastName);
-                selectedLibrarian.setEmail(email);
-                selectedLibrarian.setPhoneNumber(phone);
+            // Update the selected librarian object
+            selectedLibrarian.setFirstName(firstName);
+            selectedLibrarian.setLastName(lastName);
+            selectedLibrarian.setEmail(email);
+            selectedLibrarian.setPhoneNumber(phone);
 
+            // Returns false if the associated user account was not found
+            tasks.write(() -> {
                 librarianService.updateLibrarian(selectedLibrarian);
 
                 // If username or password fields are not empty, update user login details
                 if (!newUsername.isEmpty() || !newPassword.isEmpty()) {
                     User userToUpdate = userService.getUserById(selectedLibrarian.getUserId());
-                    if (userToUpdate != null) {
-                        if (!newUsername.isEmpty()) {
-                            userToUpdate.setUsername(newUsername);
-                        }
-                        if (!newPassword.isEmpty()) {
-                            userToUpdate.setPasswordHash(newPassword); // In real app, hash newPassword
-                        }
-                        userService.updateUser(userToUpdate, newPassword); // Pass newPassword for service to handle hashing
-                    } else {
-                        showAlert(Alert.AlertType.WARNING, "User Not Found", "Associated user account not found for update.");
+                    if (userToUpdate == null) {
+                        return false;
+                    }
+                    if (!newUsername.isEmpty()) {
+                        userToUpdate.setUsername(newUsername);
                     }
+                    if (!newPassword.isEmpty()) {
+                        userToUpdate.setPasswordHash(newPassword); // In real app, hash newPassword
+                    }
+                    userService.updateUser(userToUpdate, newPassword); // Pass newPassword for service to handle hashing
+                }
+                return true;
+            }, userFound -> {
+                if (!userFound) {
+                    showAlert(Alert.AlertType.WARNING, "User Not Found", "Associated user account not found for update.");
                 }
-
                 showAlert(Alert.AlertType.INFORMATION, "Success", "Librarian updated successfully.");
                 loadLibrarians();
                 handleClearSelection(null);
-            } catch (IllegalArgumentException e) {
-                showAlert(Alert.AlertType.WARNING, "Input Error", e.getMessage());
-            } catch (SQLException e) {
-                showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to update librarian: " + e.getMessage());
-                e.printStackTrace();
-            }
+            }, e -> showFailure(e, "Input Error", "Failed to update librarian: "));
         } else {
             showAlert(Alert.AlertType.WARNING, "No Selection", "Please select a librarian to update.");
         }
@@ -220,26 +223,30 @@ public class LibrarianManagementController {
 
             Optional<ButtonType> result = alert.showAndWait();
             if (result.isPresent() && result.get() == ButtonType.OK) {
-                try {
-                    librarianService.deleteLibrarian(selectedLibrarian.getLibrarianId());
+                int librarianId = selectedLibrarian.getLibrarianId();
+                tasks.write(() -> {
+                    librarianService.deleteLibrarian(librarianId);
+                    return librarianId;
+                }, deletedId -> {
                     showAlert(Alert.AlertType.INFORMATION, "Success", "Librarian deleted successfully.");
                     loadLibrarians();
                     handleClearSelection(null);
-                } catch (SQLException e) {
-                    showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to delete librarian. It might be linked to other records or a system error occurred: " + e.getMessage());
-                    e.printStackTrace();
-                } catch (IllegalArgumentException e) {
-                    showAlert(Alert.AlertType.WARNING, "Deletion Error", e.getMessage());
-                }
+                }, e -> showFailure(e, "Deletion Error", "Failed to delete librarian. It might be linked to other records or a system error occurred: "));
             }
         } else {
             showAlert(Alert.AlertType.WARNING, "No Selection", "Please select a librarian to delete.");
         }
     }
 
+    @FXML
+    private void handleExport(ActionEvent event) {
+        ExportDialog.show(librarianTable.getScene().getWindow(), ExportTables.librarians());
+    }
+
     @FXML
     private void handleClearSelection(ActionEvent event) {
         librarianTable.getSelectionModel().clearSelection();
+        tasks.cancel("user"); // A pending username lookup must not refill the cleared form
         firstNameField.clear();
         lastNameField.clear();
         emailField.clear();
@@ -252,6 +259,18 @@ public class LibrarianManagementController {
         deleteButton.setDisable(true);
     }
 
+    /**
+     * Reports a failed background call: validation errors as a warning, database errors as an error.
+     */
+    private void showFailure(Throwable e, String inputErrorTitle, String databaseErrorMessage) {
+        if (e instanceof IllegalArgumentException) {
+            showAlert(Alert.AlertType.WARNING, inputErrorTitle, e.getMessage());
+        } else {
+            showAlert(Alert.AlertType.ERROR, "Database Error", databaseErrorMessage + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
     /**
      * Helper method to display an alert dialog.
      */
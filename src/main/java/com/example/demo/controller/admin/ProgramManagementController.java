@@ -1,5 +1,8 @@
 package com.example.demo.controller.admin;
 
+import com.example.demo.AppContext;
+import com.example.demo.controller.TaskRunner;
+import com.example.demo.export.ExportTables;
 import com.example.demo.model.Program;
 import com.example.demo.service.ProgramService;
 import javafx.collections.FXCollections;
@@ -9,13 +12,12 @@ import javafx.fxml.FXML;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
 import javafx.scene.control.ButtonType;
+import javafx.scene.control.ProgressIndicator;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 import javafx.scene.control.TextField;
 import javafx.scene.control.cell.PropertyValueFactory;
 
-import java.sql.SQLException;
-import java.util.List;
 import java.util.Optional;
 
 public class ProgramManagementController {
@@ -36,13 +38,17 @@ public class ProgramManagementController {
     private TableColumn<Program, Integer> programIdCol;
     @FXML
     private TableColumn<Program, String> programNameCol;
+    @FXML
+    private ProgressIndicator loadingIndicator;
 
     private ProgramService programService;
     private ObservableList<Program> programList;
+    private TaskRunner tasks; // Runs the database calls off the FX thread
 
     public ProgramManagementController() {
-        this.programService = new ProgramService();
+        this.programService = AppContext.get().getProgramService();
         this.programList = FXCollections.observableArrayList();
+        this.tasks = new TaskRunner();
     }
 
     @FXML
@@ -54,6 +60,12 @@ public class ProgramManagementController {
         // Set the items for the table
         programTable.setItems(programList);
 
+        // Show progress while loading, block the form while saving, and stop loading when the screen is left
+        loadingIndicator.visibleProperty().bind(tasks.busyProperty());
+        loadingIndicator.managedProperty().bind(loadingIndicator.visibleProperty());
+        addButton.getParent().disableProperty().bind(tasks.writingProperty());
+        tasks.cancelWhenDetached(programTable);
+
         // Load existing programs from the database
         loadPrograms();
 
@@ -67,16 +79,12 @@ public class ProgramManagementController {
     }
 
     /**
-     * Loads all programs from the database and updates the TableView.
+     * Loads all programs from the database in the background and updates the TableView.
      */
     private void loadPrograms() {
-        try {
-            List<Program> programs = programService.getAllPrograms();
-            programList.setAll(programs); // Replaces all elements in the observable list
-        } catch (SQLException e) {
-            showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to load programs: " + e.getMessage());
-            e.printStackTrace();
-        }
+        tasks.load("programs", programService::getAllPrograms,
+                programs -> programList.setAll(programs), // Replaces all elements in the observable list
+                e -> showFailure(e, "Input Error", "Failed to load programs: "));
     }
 
     /**
@@ -97,17 +105,11 @@ public class ProgramManagementController {
     @FXML
     private void handleAddProgram(ActionEvent event) {
         String programName = programNameField.getText();
-        try {
-            Program newProgram = programService.addNewProgram(programName);
+        tasks.write(() -> programService.addNewProgram(programName), newProgram -> {
             showAlert(Alert.AlertType.INFORMATION, "Success", "Program '" + newProgram.getProgramName() + "' added successfully with ID: " + newProgram.getProgramId());
             loadPrograms(); // Refresh table
             handleClearSelection(null); // Clear fields and selection
-        } catch (IllegalArgumentException e) {
-            showAlert(Alert.AlertType.WARNING, "Input Error", e.getMessage());
-        } catch (SQLException e) {
-            showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to add program: " + e.getMessage());
-            e.printStackTrace();
-        }
+        }, e -> showFailure(e, "Input Error", "Failed to add program: "));
     }
 
     @FXML
@@ -115,18 +117,15 @@ public class ProgramManagementController {
         Program selectedProgram = programTable.getSelectionModel().getSelectedItem();
         if (selectedProgram != null) {
             String newProgramName = programNameField.getText();
-            try {
-                selectedProgram.setProgramName(newProgramName);
+            selectedProgram.setProgramName(newProgramName);
+            tasks.write(() -> {
                 programService.updateProgram(selectedProgram);
+                return selectedProgram;
+            }, updated -> {
                 showAlert(Alert.AlertType.INFORMATION, "Success", "Program updated successfully.");
                 loadPrograms(); // Refresh table
                 handleClearSelection(null); // Clear fields and selection
-            } catch (IllegalArgumentException e) {
-                showAlert(Alert.AlertType.WARNING, "Input Error", e.getMessage());
-            } catch (SQLException e) {
-                showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to update program: " + e.getMessage());
-                e.printStackTrace();
-            }
+            }, e -> showFailure(e, "Input Error", "Failed to update program: "));
         } else {
             showAlert(Alert.AlertType.WARNING, "No Selection", "Please select a program to update.");
         }
@@ -144,23 +143,26 @@ public class ProgramManagementController {
 
             Optional<ButtonType> result = alert.showAndWait();
             if (result.isPresent() && result.get() == ButtonType.OK) {
-                try {
-                    programService.deleteProgram(selectedProgram.getProgramId());
+                int programId = selectedProgram.getProgramId();
+                tasks.write(() -> {
+                    programService.deleteProgram(programId);
+                    return programId;
+                }, deletedId -> {
                     showAlert(Alert.AlertType.INFORMATION, "Success", "Program deleted successfully.");
                     loadPrograms(); // Refresh table
                     handleClearSelection(null); // Clear fields and selection
-                } catch (SQLException e) {
-                    showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to delete program. It might be linked to existing students or courses: " + e.getMessage());
-                    e.printStackTrace();
-                } catch (IllegalArgumentException e) {
-                    showAlert(Alert.AlertType.WARNING, "Deletion Error", e.getMessage());
-                }
+                }, e -> showFailure(e, "Deletion Error", "Failed to delete program. It might be linked to existing students or courses: "));
             }
         } else {
             showAlert(Alert.AlertType.WARNING, "No Selection", "Please select a program to delete.");
         }
     }
 
+    @FXML
+    private void handleExport(ActionEvent event) {
+        ExportDialog.show(programTable.getScene().getWindow(), ExportTables.programs());
+    }
+
     @FXML
     private void handleClearSelection(ActionEvent event) {
         programTable.getSelectionModel().clearSelection();
@@ -170,6 +172,18 @@ public class ProgramManagementController {
         deleteButton.setDisable(true);
     }
 
+    /**
+     * Reports a failed background call: validation errors as a warning, database errors as an error.
+     */
+    private void showFailure(Throwable e, String inputErrorTitle, String databaseErrorMessage) {
+        if (e instanceof IllegalArgumentException) {
+            showAlert(Alert.AlertType.WARNING, inputErrorTitle, e.getMessage());
+        } else {
+            showAlert(Alert.AlertType.ERROR, "Database Error", databaseErrorMessage + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
     /**
      * Helper method to display an alert dialog.
      */
@@ -1,9 +1,12 @@
 package com.example.demo.controller.admin;
 
+import com.example.demo.AppContext;
+import com.example.demo.controller.TaskRunner;
+import com.example.demo.export.ExportTables;
 import com.example.demo.model.Program;
 import com.example.demo.model.Student;
 import com.example.demo.model.User;
-import com.example.demo.service.ProgramService;
+import com.example.demo.service.ReferenceData;
 import com.example.demo.service.StudentService;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
@@ -13,9 +16,7 @@ import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 
-import java.sql.SQLException;
 import java.time.LocalDate;
-import java.util.List;
 import java.util.Optional;
 
 public class StudentManagementController {
@@ -50,24 +51,32 @@ public class StudentManagementController {
     @FXML private TableColumn<Student, String> addressCol;
     @FXML private TableColumn<Student, LocalDate> enrollmentDateCol;
     @FXML private TableColumn<Student, String> majorCol;
+    @FXML private ProgressIndicator loadingIndicator;
 
     private final StudentService studentService;
-    private final ProgramService programService;
     private final ObservableList<Student> studentList;
     private final ObservableList<Program> programOptions;
+    private final TaskRunner tasks; // Runs the database calls off the FX thread
+    private ReferenceData referenceData; // Program names for the table, null until loaded
 
     public StudentManagementController() {
-        this.studentService = new StudentService();
-        this.programService = new ProgramService();
+        this.studentService = AppContext.get().getStudentService();
         this.studentList = FXCollections.observableArrayList();
         this.programOptions = FXCollections.observableArrayList();
+        this.tasks = new TaskRunner();
     }
 
     @FXML
     public void initialize() {
         genderComboBox.getItems().addAll("Male", "Female", "Other");
 
-        loadProgramsIntoComboBox();
+        // Show progress while loading, block the form while saving, and stop loading when the screen is left
+        loadingIndicator.visibleProperty().bind(tasks.busyProperty());
+        loadingIndicator.managedProperty().bind(loadingIndicator.visibleProperty());
+        addButton.getParent().disableProperty().bind(tasks.writingProperty());
+        tasks.cancelWhenDetached(studentTable);
+
+        loadReferenceData();
         programComboBox.setItems(programOptions);
         programComboBox.setConverter(new javafx.util.StringConverter<>() {
             @Override
@@ -87,15 +96,13 @@ public class StudentManagementController {
         studentIdCol.setCellValueFactory(new PropertyValueFactory<>("studentId"));
         firstNameCol.setCellValueFactory(new PropertyValueFactory<>("firstName"));
         lastNameCol.setCellValueFactory(new PropertyValueFactory<>("lastName"));
+        // Looked up in the snapshot; a query per row would run again for every scrolled cell
         programNameCol.setCellValueFactory(cellData -> {
-            int programId = cellData.getValue().getProgramId();
-            try {
-                Program program = programService.getProgramById(programId);
-                return new SimpleStringProperty(program != null ? program.getProgramName() : "N/A");
-            } catch (SQLException e) {
-                System.err.println("Error fetching program name: " + e.getMessage());
-                return new SimpleStringProperty("Error");
+            if (referenceData == null) {
+                return new SimpleStringProperty("");
             }
+            String programName = referenceData.getProgramName(cellData.getValue().getProgramId());
+            return new SimpleStringProperty(programName != null ? programName : "N/A");
         });
         dobCol.setCellValueFactory(new PropertyValueFactory<>("dateOfBirth"));
         genderCol.setCellValueFactory(new PropertyValueFactory<>("gender"));
@@ -115,22 +122,18 @@ public class StudentManagementController {
         deleteButton.setDisable(true);
     }
 
-    private void loadProgramsIntoComboBox() {
-        try {
-            List<Program> programs = programService.getAllPrograms();
-            programOptions.setAll(programs);
-        } catch (SQLException e) {
-            showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to load programs.");
-        }
+    private void loadReferenceData() {
+        tasks.load("reference", ReferenceData::current, data -> {
+            referenceData = data;
+            programOptions.setAll(data.getPrograms());
+            studentTable.refresh(); // Fill in the program names of rows shown before the snapshot arrived
+        }, e -> showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to load programs."));
     }
 
     private void loadStudents() {
-        try {
-            List<Student> students = studentService.getAllStudents();
-            studentList.setAll(students);
-        } catch (SQLException e) {
-            showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to load students.");
-        }
+        tasks.load("students", studentService::getAllStudents,
+                students -> studentList.setAll(students),
+                e -> showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to load students."));
     }
 
     private void showStudentDetails(Student student) {
@@ -147,10 +150,10 @@ public class StudentManagementController {
             usernameField.setText("");
             passwordField.setText("");
 
-            try {
-                Program program = programService.getProgramById(student.getProgramId());
+            Program program = findProgram(student.getProgramId());
+            if (program != null) {
                 programComboBox.getSelectionModel().select(program);
-            } catch (SQLException e) {
+            } else {
                 programComboBox.getSelectionModel().clearSelection();
             }
 
@@ -162,55 +165,66 @@ public class StudentManagementController {
         }
     }
 
+    private Program findProgram(int programId) {
+        // The snapshot's programs are the combo box items
+        return referenceData != null ? referenceData.getProgram(programId) : null;
+    }
+
     @FXML
     private void handleAddStudent(ActionEvent event) {
-        try {
-            Program selectedProgram = programComboBox.getSelectionModel().getSelectedItem();
-            if (selectedProgram == null) {
-                showAlert(Alert.AlertType.WARNING, "Input Error", "Please select a Program.");
-                return;
-            }
-
-            Student newStudent = studentService.addNewStudent(
-                    firstNameField.getText(), lastNameField.getText(), dobPicker.getValue(),
-                    genderComboBox.getValue(), emailField.getText(), phoneField.getText(),
-                    addressField.getText(), enrollmentDatePicker.getValue(), majorField.getText(),
-                    selectedProgram.getProgramId(), usernameField.getText(), passwordField.getText()
-            );
+        Program selectedProgram = programComboBox.getSelectionModel().getSelectedItem();
+        if (selectedProgram == null) {
+            showAlert(Alert.AlertType.WARNING, "Input Error", "Please select a Program.");
+            return;
+        }
 
+        String firstName = firstNameField.getText();
+        String lastName = lastNameField.getText();
+        LocalDate dateOfBirth = dobPicker.getValue();
+        String gender = genderComboBox.getValue();
+        String email = emailField.getText();
+        String phone = phoneField.getText();
+        String address = addressField.getText();
+        LocalDate enrollmentDate = enrollmentDatePicker.getValue();
+        String major = majorField.getText();
+        String username = usernameField.getText();
+        String password = passwordField.getText();
+
+        tasks.write(() -> studentService.addNewStudent(
+                firstName, lastName, dateOfBirth, gender, email, phone, address, enrollmentDate, major,
+                selectedProgram.getProgramId(), username, password
+        ), newStudent -> {
             showAlert(Alert.AlertType.INFORMATION, "Success", "Student added: " + newStudent.getFirstName());
             loadStudents();
             handleClearSelection(null);
-        } catch (SQLException | IllegalArgumentException e) {
-            showAlert(Alert.AlertType.ERROR, "Error", e.getMessage());
-        }
+        }, e -> showAlert(Alert.AlertType.ERROR, "Error", e.getMessage()));
     }
 
     @FXML
     private void handleUpdateStudent(ActionEvent event) {
         Student selectedStudent = studentTable.getSelectionModel().getSelectedItem();
         if (selectedStudent != null) {
-            try {
-                Program selectedProgram = programComboBox.getSelectionModel().getSelectedItem();
-                if (selectedProgram == null) {
-                    showAlert(Alert.AlertType.WARNING, "Input Error", "Please select a Program.");
-                    return;
-                }
+            Program selectedProgram = programComboBox.getSelectionModel().getSelectedItem();
+            if (selectedProgram == null) {
+                showAlert(Alert.AlertType.WARNING, "Input Error", "Please select a Program.");
+                return;
+            }
 
-                selectedStudent.setFirstName(firstNameField.getText());
-                selectedStudent.setLastName(lastNameField.getText());
-                selectedStudent.setDateOfBirth(dobPicker.getValue());
-                selectedStudent.setGender(genderComboBox.getValue());
-                selectedStudent.setEmail(emailField.getText());
-                selectedStudent.setPhoneNumber(phoneField.getText());
-                selectedStudent.setAddress(addressField.getText());
-                selectedStudent.setEnrollmentDate(enrollmentDatePicker.getValue());
-                selectedStudent.setMajor(majorField.getText());
+            selectedStudent.setFirstName(firstNameField.getText());
+            selectedStudent.setLastName(lastNameField.getText());
+            selectedStudent.setDateOfBirth(dobPicker.getValue());
+            selectedStudent.setGender(genderComboBox.getValue());
+            selectedStudent.setEmail(emailField.getText());
+            selectedStudent.setPhoneNumber(phoneField.getText());
+            selectedStudent.setAddress(addressField.getText());
+            selectedStudent.setEnrollmentDate(enrollmentDatePicker.getValue());
+            selectedStudent.setMajor(majorField.getText());
 
-                studentService.updateStudent(selectedStudent, selectedProgram.getProgramId());
+            String newUsername = usernameField.getText();
+            String newPassword = passwordField.getText();
 
-                String newUsername = usernameField.getText();
-                String newPassword = passwordField.getText();
+            tasks.write(() -> {
+                studentService.updateStudent(selectedStudent, selectedProgram.getProgramId());
 
                 if (!newUsername.isEmpty() || !newPassword.isEmpty()) {
                     User userToUpdate = studentService.getUserService().getUserById(selectedStudent.getUserId());
@@ -220,13 +234,12 @@ public class StudentManagementController {
                         studentService.getUserService().updateUser(userToUpdate, newPassword);
                     }
                 }
-
+                return selectedStudent;
+            }, updated -> {
                 showAlert(Alert.AlertType.INFORMATION, "Updated", "Student updated successfully.");
                 loadStudents();
                 handleClearSelection(null);
-            } catch (SQLException e) {
-                showAlert(Alert.AlertType.ERROR, "Update Failed", e.getMessage());
-            }
+            }, e -> showAlert(Alert.AlertType.ERROR, "Update Failed", e.getMessage()));
         }
     }
 
@@ -241,18 +254,24 @@ public class StudentManagementController {
 
             Optional<ButtonType> result = confirm.showAndWait();
             if (result.isPresent() && result.get() == ButtonType.OK) {
-                try {
-                    studentService.deleteStudent(selected.getStudentId());
+                int studentId = selected.getStudentId();
+                tasks.write(() -> {
+                    studentService.deleteStudent(studentId);
+                    return studentId;
+                }, deletedId -> {
                     showAlert(Alert.AlertType.INFORMATION, "Deleted", "Student deleted.");
                     loadStudents();
                     handleClearSelection(null);
-                } catch (SQLException e) {
-                    showAlert(Alert.AlertType.ERROR, "Delete Failed", e.getMessage());
-                }
+                }, e -> showAlert(Alert.AlertType.ERROR, "Delete Failed", e.getMessage()));
             }
         }
     }
 
+    @FXML
+    private void handleExport(ActionEvent event) {
+        ExportDialog.show(studentTable.getScene().getWindow(), ExportTables.students());
+    }
+
     @FXML
     private void handleClearSelection(ActionEvent event) {
         studentTable.getSelectionModel().clearSelection();
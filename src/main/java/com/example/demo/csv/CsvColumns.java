@@ -0,0 +1,62 @@
+package com.example.demo.csv;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Finds fields by column name in the records of a CSV file with a header row. Names are matched
+ * case-insensitively, columns may come in any order, and unknown columns are ignored.
+ */
+public final class CsvColumns {
+
+    private final List<String> header;
+    private final Map<String, Integer> index = new HashMap<>();
+
+    /**
+     * @param header The header record. A UTF-8 byte order mark, as written by spreadsheet exports, is removed.
+     * @param required The column names every file must have (lower case).
+     * @param optional The column names a file may have (lower case); only used in the error message.
+     * @throws IllegalArgumentException If a required column is missing.
+     */
+    public CsvColumns(List<String> header, List<String> required, List<String> optional) {
+        this.header = new ArrayList<>(header);
+        if (!this.header.isEmpty()) {
+            this.header.set(0, this.header.get(0).replace("\uFEFF", ""));
+        }
+        for (int i = 0; i < this.header.size(); i++) {
+            index.putIfAbsent(this.header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        List<String> missing = new ArrayList<>();
+        for (String column : required) {
+            if (!index.containsKey(column)) {
+                missing.add(column);
+            }
+        }
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("The file is missing the column(s) " + missing
+                    + ". Expected a header with " + required + (optional.isEmpty() ? "" : " and optionally " + optional) + ".");
+        }
+    }
+
+    /**
+     * @return The header as read, without a byte order mark.
+     */
+    public List<String> getHeader() {
+        return header;
+    }
+
+    /**
+     * @return The trimmed field of the column, or null if the column is absent or the field empty.
+     */
+    public String get(List<String> fields, String column) {
+        Integer i = index.get(column);
+        if (i == null || i >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(i).trim();
+        return value.isEmpty() ? null : value;
+    }
+}
@@ -10,6 +10,7 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public class AnnouncementDAO {
@@ -35,6 +36,7 @@ public class AnnouncementDAO {
             }
 
             int affectedRows = stmt.executeUpdate();
+            QueryCache.tableChanged("Announcements");
             if (affectedRows == 0) {
                 throw new SQLException("Creating announcement record failed, no rows affected.");
             }
@@ -58,19 +60,12 @@ public class AnnouncementDAO {
      */
     public Announcement getAnnouncementById(int announcementId) throws SQLException {
         String sql = "SELECT announcement_id, title, content, publish_date, target_role, created_by_user_id FROM Announcements WHERE announcement_id = ?";
-        try (Connection conn = DBController.getConnection();
+        try (Connection conn = DBController.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, announcementId);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return new Announcement(
-                            rs.getInt("announcement_id"),
-                            rs.getString("title"),
-                            rs.getString("content"),
-                            rs.getDate("publish_date").toLocalDate(),
-                            rs.getString("target_role"),
-                            (Integer) rs.getObject("created_by_user_id")
-                    );
+                    return map(rs);
                 }
             }
         }
@@ -86,50 +81,69 @@ public class AnnouncementDAO {
     public List<Announcement> getAllAnnouncements() throws SQLException {
         List<Announcement> announcements = new ArrayList<>();
         String sql = "SELECT announcement_id, title, content, publish_date, target_role, created_by_user_id FROM Announcements ORDER BY publish_date DESC";
-        try (Connection conn = DBController.getConnection();
+        try (Connection conn = DBController.getReadConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             while (rs.next()) {
-                announcements.add(new Announcement(
-                        rs.getInt("announcement_id"),
-                        rs.getString("title"),
-                        rs.getString("content"),
-                        rs.getDate("publish_date").toLocalDate(),
-                        rs.getString("target_role"),
-                        (Integer) rs.getObject("created_by_user_id")
-                ));
+                announcements.add(map(rs));
             }
         }
         return announcements;
     }
 
     /**
-     * Retrieves all announcement records targeted to a specific role or 'All'.
+     * Retrieves one page of announcements, in ID order. Unlike {@link #getAllAnnouncements()}, only
+     * {@code pageSize} rows are read per call, so the whole table can be walked in constant memory
+     * by passing each page's token to the next call.
      *
-     * @param role The target role (e.g., 'Student', 'Faculty', 'Librarian', 'Admin').
-     * @return A list of Announcement objects relevant to the specified role.
+     * @param pageToken The next page token of the previous page, or null for the first page.
+     * @param pageSize The maximum number of rows to return (1 to {@link Page#MAX_PAGE_SIZE}).
+     * @return The page of Announcement objects.
+     * @throws IllegalArgumentException If the page token or page size is invalid.
      * @throws SQLException If a database access error occurs.
      */
-    public List<Announcement> getAnnouncementsByTargetRole(String role) throws SQLException {
+    public Page<Announcement> getAnnouncementPage(String pageToken, int pageSize) throws SQLException {
+        int afterId = Page.decodeToken(pageToken);
+        Page.checkPageSize(pageSize);
         List<Announcement> announcements = new ArrayList<>();
-        String sql = "SELECT announcement_id, title, content, publish_date, target_role, created_by_user_id FROM Announcements WHERE target_role = ? OR target_role = 'All' ORDER BY publish_date DESC";
-        try (Connection conn = DBController.getConnection();
+        String sql = "SELECT announcement_id, title, content, publish_date, target_role, created_by_user_id FROM Announcements WHERE announcement_id > ? ORDER BY announcement_id LIMIT ?";
+        try (Connection conn = DBController.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setString(1, role);
+            stmt.setInt(1, afterId);
+            stmt.setInt(2, pageSize + 1); // One extra row tells whether another page follows
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    announcements.add(new Announcement(
-                            rs.getInt("announcement_id"),
-                            rs.getString("title"),
-                            rs.getString("content"),
-                            rs.getDate("publish_date").toLocalDate(),
-                            rs.getString("target_role"),
-                            (Integer) rs.getObject("created_by_user_id")
-                    ));
+                    announcements.add(map(rs));
                 }
             }
         }
-        return announcements;
+        return Page.of(announcements, pageSize, Announcement::getAnnouncementId);
+    }
+
+    /**
+     * Retrieves all announcement records targeted to a specific role or 'All'.
+     * Results are shared through the {@link QueryCache} until the table changes.
+     *
+     * @param role The target role (e.g., 'Student', 'Faculty', 'Librarian', 'Admin').
+     * @return A list of Announcement objects relevant to the specified role.
+     * @throws SQLException If a database access error occurs.
+     */
+    public List<Announcement> getAnnouncementsByTargetRole(String role) throws SQLException {
+        return QueryCache.list("AnnouncementDAO.getAnnouncementsByTargetRole", Collections.singletonList(role),
+                new String[]{"Announcements"}, AnnouncementDAO::copy, () -> {
+            List<Announcement> announcements = new ArrayList<>();
+            String sql = "SELECT announcement_id, title, content, publish_date, target_role, created_by_user_id FROM Announcements WHERE target_role = ? OR target_role = 'All' ORDER BY publish_date DESC";
+            try (Connection conn = DBController.getReadConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setString(1, role);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        announcements.add(map(rs));
+                    }
+                }
+            }
+            return announcements;
+        });
     }
 
 
@@ -154,6 +168,7 @@ public class AnnouncementDAO {
             }
             stmt.setInt(6, announcement.getAnnouncementId());
             stmt.executeUpdate();
+            QueryCache.tableChanged("Announcements");
         }
     }
 
@@ -169,6 +184,30 @@ public class AnnouncementDAO {
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, announcementId);
             stmt.executeUpdate();
+            QueryCache.rowsDeleted("Announcements");
         }
     }
+
+    private static Announcement copy(Announcement a) {
+        return new Announcement(a.getAnnouncementId(), a.getTitle(), a.getContent(), a.getPublishDate(),
+                a.getTargetRole(), a.getCreatedByUserId());
+    }
+
+    /**
+     * Maps the current row of a query over the {@code Announcements} columns to a Announcement.
+     *
+     * @param rs The result set, positioned on a row.
+     * @return The Announcement.
+     * @throws SQLException If a column cannot be read.
+     */
+    static Announcement map(ResultSet rs) throws SQLException {
+        return new Announcement(
+                rs.getInt("announcement_id"),
+                rs.getString("title"),
+                rs.getString("content"),
+                rs.getDate("publish_date").toLocalDate(),
+                rs.getString("target_role"),
+                (Integer) rs.getObject("created_by_user_id")
+        );
+    }
 }
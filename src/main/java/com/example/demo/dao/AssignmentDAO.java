@@ -10,6 +10,7 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public class AssignmentDAO {
@@ -32,6 +33,7 @@ public class AssignmentDAO {
             stmt.setInt(6, assignment.getMaxMarks());
 
             int affectedRows = stmt.executeUpdate();
+            QueryCache.tableChanged("Assignments");
             if (affectedRows == 0) {
                 throw new SQLException("Creating assignment failed, no rows affected.");
             }
@@ -55,21 +57,12 @@ public class AssignmentDAO {
      */
     public Assignment getAssignmentById(int assignmentId) throws SQLException {
         String sql = "SELECT assignment_id, course_id, faculty_id, title, description, due_date, max_marks, created_at FROM Assignments WHERE assignment_id = ?";
-        try (Connection conn = DBController.getConnection();
+        try (Connection conn = DBController.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, assignmentId);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return new Assignment(
-                            rs.getInt("assignment_id"),
-                            rs.getInt("course_id"),
-                            rs.getInt("faculty_id"),
-                            rs.getString("title"),
-                            rs.getString("description"),
-                            rs.getDate("due_date").toLocalDate(),
-                            rs.getInt("max_marks"),
-                            rs.getTimestamp("created_at").toLocalDateTime()
-                    );
+                    return map(rs);
                 }
             }
         }
@@ -78,33 +71,28 @@ public class AssignmentDAO {
 
     /**
      * Retrieves all assignments for a specific course.
+     * Results are shared through the {@link QueryCache} until the table changes.
      *
      * @param courseId The ID of the course.
      * @return A list of Assignment objects for the given course.
      * @throws SQLException If a database access error occurs.
      */
     public List<Assignment> getAssignmentsByCourseId(int courseId) throws SQLException {
-        List<Assignment> assignments = new ArrayList<>();
-        String sql = "SELECT assignment_id, course_id, faculty_id, title, description, due_date, max_marks, created_at FROM Assignments WHERE course_id = ? ORDER BY due_date DESC";
-        try (Connection conn = DBController.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setInt(1, courseId);
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    assignments.add(new Assignment(
-                            rs.getInt("assignment_id"),
-                            rs.getInt("course_id"),
-                            rs.getInt("faculty_id"),
-                            rs.getString("title"),
-                            rs.getString("description"),
-                            rs.getDate("due_date").toLocalDate(),
-                            rs.getInt("max_marks"),
-                            rs.getTimestamp("created_at").toLocalDateTime()
-                    ));
+        return QueryCache.list("AssignmentDAO.getAssignmentsByCourseId", Collections.singletonList(courseId),
+                new String[]{"Assignments"}, AssignmentDAO::copy, () -> {
+            List<Assignment> assignments = new ArrayList<>();
+            String sql = "SELECT assignment_id, course_id, faculty_id, title, description, due_date, max_marks, created_at FROM Assignments WHERE course_id = ? ORDER BY due_date DESC";
+            try (Connection conn = DBController.getReadConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setInt(1, courseId);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        assignments.add(map(rs));
+                    }
                 }
             }
-        }
-        return assignments;
+            return assignments;
+        });
     }
 
     /**
@@ -117,21 +105,12 @@ public class AssignmentDAO {
     public List<Assignment> getAssignmentsByFacultyId(int facultyId) throws SQLException {
         List<Assignment> assignments = new ArrayList<>();
         String sql = "SELECT assignment_id, course_id, faculty_id, title, description, due_date, max_marks, created_at FROM Assignments WHERE faculty_id = ? ORDER BY due_date DESC";
-        try (Connection conn = DBController.getConnection();
+        try (Connection conn = DBController.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, facultyId);
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    assignments.add(new Assignment(
-                            rs.getInt("assignment_id"),
-                            rs.getInt("course_id"),
-                            rs.getInt("faculty_id"),
-                            rs.getString("title"),
-                            rs.getString("description"),
-                            rs.getDate("due_date").toLocalDate(),
-                            rs.getInt("max_marks"),
-                            rs.getTimestamp("created_at").toLocalDateTime()
-                    ));
+                    assignments.add(map(rs));
                 }
             }
         }
@@ -148,25 +127,45 @@ public class AssignmentDAO {
     public List<Assignment> getAllAssignments() throws SQLException {
         List<Assignment> assignments = new ArrayList<>();
         String sql = "SELECT assignment_id, course_id, faculty_id, title, description, due_date, max_marks, created_at FROM Assignments ORDER BY due_date DESC";
-        try (Connection conn = DBController.getConnection();
+        try (Connection conn = DBController.getReadConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             while (rs.next()) {
-                assignments.add(new Assignment(
-                        rs.getInt("assignment_id"),
-                        rs.getInt("course_id"),
-                        rs.getInt("faculty_id"),
-                        rs.getString("title"),
-                        rs.getString("description"),
-                        rs.getDate("due_date").toLocalDate(),
-                        rs.getInt("max_marks"),
-                        rs.getTimestamp("created_at").toLocalDateTime()
-                ));
+                assignments.add(map(rs));
             }
         }
         return assignments;
     }
 
+    /**
+     * Retrieves one page of assignments, in ID order. Unlike {@link #getAllAssignments()}, only
+     * {@code pageSize} rows are read per call, so the whole table can be walked in constant memory
+     * by passing each page's token to the next call.
+     *
+     * @param pageToken The next page token of the previous page, or null for the first page.
+     * @param pageSize The maximum number of rows to return (1 to {@link Page#MAX_PAGE_SIZE}).
+     * @return The page of Assignment objects.
+     * @throws IllegalArgumentException If the page token or page size is invalid.
+     * @throws SQLException If a database access error occurs.
+     */
+    public Page<Assignment> getAssignmentPage(String pageToken, int pageSize) throws SQLException {
+        int afterId = Page.decodeToken(pageToken);
+        Page.checkPageSize(pageSize);
+        List<Assignment> assignments = new ArrayList<>();
+        String sql = "SELECT assignment_id, course_id, faculty_id, title, description, due_date, max_marks, created_at FROM Assignments WHERE assignment_id > ? ORDER BY assignment_id LIMIT ?";
+        try (Connection conn = DBController.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, afterId);
+            stmt.setInt(2, pageSize + 1); // One extra row tells whether another page follows
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    assignments.add(map(rs));
+                }
+            }
+        }
+        return Page.of(assignments, pageSize, Assignment::getAssignmentId);
+    }
+
     /**
      * Updates an existing assignment's information.
      *
@@ -185,6 +184,7 @@ public class AssignmentDAO {
             stmt.setInt(6, assignment.getMaxMarks());
             stmt.setInt(7, assignment.getAssignmentId());
             stmt.executeUpdate();
+            QueryCache.tableChanged("Assignments");
         }
     }
 
@@ -200,6 +200,32 @@ public class AssignmentDAO {
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, assignmentId);
             stmt.executeUpdate();
+            QueryCache.rowsDeleted("Assignments");
         }
     }
+
+    private static Assignment copy(Assignment a) {
+        return new Assignment(a.getAssignmentId(), a.getCourseId(), a.getFacultyId(), a.getTitle(),
+                a.getDescription(), a.getDueDate(), a.getMaxMarks(), a.getCreatedAt());
+    }
+
+    /**
+     * Maps the current row of a query over the {@code Assignments} columns to a Assignment.
+     *
+     * @param rs The result set, positioned on a row.
+     * @return The Assignment.
+     * @throws SQLException If a column cannot be read.
+     */
+    static Assignment map(ResultSet rs) throws SQLException {
+        return new Assignment(
+                rs.getInt("assignment_id"),
+                rs.getInt("course_id"),
+                rs.getInt("faculty_id"),
+                rs.getString("title"),
+                rs.getString("description"),
+                rs.getDate("due_date").toLocalDate(),
+                rs.getInt("max_marks"),
+                rs.getTimestamp("created_at").toLocalDateTime()
+        );
+    }
 }
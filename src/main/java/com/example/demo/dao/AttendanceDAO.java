@@ -2,6 +2,7 @@ package com.example.demo.dao;
 
 import com.example.demo.model.Attendance;
 import com.example.demo.DBController; // Correctly referencing the DBController
+import com.example.demo.db.TransactionManager;
 import java.sql.Connection;
 import java.sql.Date;
 import java.sql.PreparedStatement;
@@ -10,7 +11,11 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
 
 public class AttendanceDAO {
 
@@ -49,6 +54,67 @@ public class AttendanceDAO {
         }
     }
 
+    /**
+     * Adds an attendance record unless the student already has one for the course on that date, as
+     * decided by the {@code uq_attendance_student_course_date} constraint.
+     *
+     * @param attendance The Attendance object to add. Its attendanceId is updated if it was added.
+     * @return True if the record was added, false if it already existed.
+     * @throws SQLException If a database access error occurs.
+     */
+    public boolean addAttendanceIfAbsent(Attendance attendance) throws SQLException {
+        try {
+            addAttendance(attendance);
+            return true;
+        } catch (SQLException e) {
+            if (SqlErrors.isDuplicateKey(e)) {
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Adds several attendance records with a single JDBC batch. Runs in a transaction (joining the
+     * caller's, if any), so either all records are added or none.
+     *
+     * @param attendanceList The records to add. Their attendanceIds are updated upon successful creation.
+     * @throws SQLException If a database access error occurs.
+     */
+    public void addAttendanceBatch(List<Attendance> attendanceList) throws SQLException {
+        if (attendanceList.isEmpty()) {
+            return;
+        }
+        String sql = "INSERT INTO Attendance (student_id, course_id, attendance_date, status, taken_by_faculty_id) VALUES (?, ?, ?, ?, ?)";
+        TransactionManager.runInTransaction(conn -> {
+            try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                for (Attendance attendance : attendanceList) {
+                    stmt.setInt(1, attendance.getStudentId());
+                    stmt.setInt(2, attendance.getCourseId());
+                    stmt.setDate(3, Date.valueOf(attendance.getAttendanceDate()));
+                    stmt.setString(4, attendance.getStatus());
+                    if (attendance.getTakenByFacultyId() != null) {
+                        stmt.setInt(5, attendance.getTakenByFacultyId());
+                    } else {
+                        stmt.setNull(5, java.sql.Types.INTEGER);
+                    }
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+
+                // Generated keys come back in batch order
+                try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                    for (Attendance attendance : attendanceList) {
+                        if (!generatedKeys.next()) {
+                            throw new SQLException("Creating attendance records failed, not all IDs obtained.");
+                        }
+                        attendance.setAttendanceId(generatedKeys.getInt(1));
+                    }
+                }
+            }
+        });
+    }
+
     /**
      * Retrieves an attendance record by its ID.
      *
@@ -58,19 +124,12 @@ public class AttendanceDAO {
      */
     public Attendance getAttendanceById(int attendanceId) throws SQLException {
         String sql = "SELECT attendance_id, student_id, course_id, attendance_date, status, taken_by_faculty_id FROM Attendance WHERE attendance_id = ?";
-        try (Connection conn = DBController.getConnection();
+        try (Connection conn = DBController.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, attendanceId);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return new Attendance(
-                            rs.getInt("attendance_id"),
-                            rs.getInt("student_id"),
-                            rs.getInt("course_id"),
-                            rs.getDate("attendance_date").toLocalDate(),
-                            rs.getString("status"),
-                            (Integer) rs.getObject("taken_by_faculty_id") // Use getObject for nullable int
-                    );
+                    return map(rs);
                 }
             }
         }
@@ -87,19 +146,12 @@ public class AttendanceDAO {
     public List<Attendance> getAttendanceByStudentId(int studentId) throws SQLException {
         List<Attendance> attendanceList = new ArrayList<>();
         String sql = "SELECT attendance_id, student_id, course_id, attendance_date, status, taken_by_faculty_id FROM Attendance WHERE student_id = ? ORDER BY attendance_date DESC";
-        try (Connection conn = DBController.getConnection();
+        try (Connection conn = DBController.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, studentId);
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    attendanceList.add(new Attendance(
-                            rs.getInt("attendance_id"),
-                            rs.getInt("student_id"),
-                            rs.getInt("course_id"),
-                            rs.getDate("attendance_date").toLocalDate(),
-                            rs.getString("status"),
-                            (Integer) rs.getObject("taken_by_faculty_id")
-                    ));
+                    attendanceList.add(map(rs));
                 }
             }
         }
@@ -117,20 +169,13 @@ public class AttendanceDAO {
     public List<Attendance> getAttendanceByCourseAndDate(int courseId, LocalDate attendanceDate) throws SQLException {
         List<Attendance> attendanceList = new ArrayList<>();
         String sql = "SELECT attendance_id, student_id, course_id, attendance_date, status, taken_by_faculty_id FROM Attendance WHERE course_id = ? AND attendance_date = ? ORDER BY student_id ASC";
-        try (Connection conn = DBController.getConnection();
+        try (Connection conn = DBController.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, courseId);
             stmt.setDate(2, Date.valueOf(attendanceDate));
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    attendanceList.add(new Attendance(
-                            rs.getInt("attendance_id"),
-                            rs.getInt("student_id"),
-                            rs.getInt("course_id"),
-                            rs.getDate("attendance_date").toLocalDate(),
-                            rs.getString("status"),
-                            (Integer) rs.getObject("taken_by_faculty_id")
-                    ));
+                    attendanceList.add(map(rs));
                 }
             }
         }
@@ -148,7 +193,7 @@ public class AttendanceDAO {
      */
     public boolean hasAttendanceBeenMarked(int studentId, int courseId, LocalDate attendanceDate) throws SQLException {
         String sql = "SELECT COUNT(*) FROM Attendance WHERE student_id = ? AND course_id = ? AND attendance_date = ?";
-        try (Connection conn = DBController.getConnection();
+        try (Connection conn = DBController.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, studentId);
             stmt.setInt(2, courseId);
@@ -162,6 +207,39 @@ public class AttendanceDAO {
         return false;
     }
 
+    /**
+     * Returns which of the given students already have attendance for a course and date, with one
+     * query per {@value SqlParams#MAX_IN_LIST} students instead of one query per student.
+     *
+     * @param courseId The ID of the course.
+     * @param attendanceDate The date of attendance.
+     * @param studentIds The IDs of the students to check.
+     * @return The subset of studentIds whose attendance has been marked.
+     * @throws SQLException If a database access error occurs.
+     */
+    public Set<Integer> getMarkedStudentIds(int courseId, LocalDate attendanceDate, Collection<Integer> studentIds) throws SQLException {
+        Set<Integer> marked = new HashSet<>();
+        if (studentIds.isEmpty()) {
+            return marked;
+        }
+        try (Connection conn = DBController.getReadConnection()) {
+            for (List<Integer> chunk : SqlParams.chunks(studentIds)) {
+                String sql = "SELECT student_id FROM Attendance WHERE course_id = ? AND attendance_date = ? AND student_id IN (" + SqlParams.placeholders(chunk.size()) + ")";
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setInt(1, courseId);
+                    stmt.setDate(2, Date.valueOf(attendanceDate));
+                    SqlParams.bindInts(stmt, 3, chunk);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            marked.add(rs.getInt(1));
+                        }
+                    }
+                }
+            }
+        }
+        return marked;
+    }
+
     /**
      * Retrieves all attendance records from the database.
      *
@@ -171,23 +249,74 @@ public class AttendanceDAO {
     public List<Attendance> getAllAttendance() throws SQLException {
         List<Attendance> attendanceList = new ArrayList<>();
         String sql = "SELECT attendance_id, student_id, course_id, attendance_date, status, taken_by_faculty_id FROM Attendance ORDER BY attendance_date DESC, student_id ASC";
-        try (Connection conn = DBController.getConnection();
+        try (Connection conn = DBController.getReadConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             while (rs.next()) {
-                attendanceList.add(new Attendance(
-                        rs.getInt("attendance_id"),
-                        rs.getInt("student_id"),
-                        rs.getInt("course_id"),
-                        rs.getDate("attendance_date").toLocalDate(),
-                        rs.getString("status"),
-                        (Integer) rs.getObject("taken_by_faculty_id")
-                ));
+                attendanceList.add(map(rs));
             }
         }
         return attendanceList;
     }
 
+    /**
+     * Retrieves one page of attendance records, in ID order. Unlike {@link #getAllAttendance()}, only
+     * {@code pageSize} rows are read per call, so the whole table can be walked in constant memory
+     * by passing each page's token to the next call.
+     *
+     * @param pageToken The next page token of the previous page, or null for the first page.
+     * @param pageSize The maximum number of rows to return (1 to {@link Page#MAX_PAGE_SIZE}).
+     * @return The page of Attendance objects.
+     * @throws IllegalArgumentException If the page token or page size is invalid.
+     * @throws SQLException If a database access error occurs.
+     */
+    public Page<Attendance> getAttendancePage(String pageToken, int pageSize) throws SQLException {
+        int afterId = Page.decodeToken(pageToken);
+        Page.checkPageSize(pageSize);
+        List<Attendance> attendanceList = new ArrayList<>();
+        String sql = "SELECT attendance_id, student_id, course_id, attendance_date, status, taken_by_faculty_id FROM Attendance WHERE attendance_id > ? ORDER BY attendance_id LIMIT ?";
+        try (Connection conn = DBController.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, afterId);
+            stmt.setInt(2, pageSize + 1); // One extra row tells whether another page follows
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    attendanceList.add(map(rs));
+                }
+            }
+        }
+        return Page.of(attendanceList, pageSize, Attendance::getAttendanceId);
+    }
+
+    /**
+     * Streams all attendance records in ID order without reading them into memory first; rows are mapped as the
+     * stream is consumed. The stream holds a database connection until its last row has been read or it
+     * is closed, so use it in a try-with-resources block.
+     *
+     * @return A lazily populated stream of Attendance objects.
+     * @throws SQLException If the query cannot be started. Errors while reading rows are thrown as
+     *                      {@link UncheckedSQLException}.
+     */
+    public Stream<Attendance> streamAllAttendance() throws SQLException {
+        String sql = "SELECT attendance_id, student_id, course_id, attendance_date, status, taken_by_faculty_id FROM Attendance ORDER BY attendance_id";
+        return ResultSetStream.query(sql, AttendanceDAO::map);
+    }
+
+    /**
+     * Counts the attendance records, e.g. to report the progress of a streamAllAttendance consumer.
+     *
+     * @return The number of rows in the Attendance table.
+     * @throws SQLException If a database access error occurs.
+     */
+    public long countAttendance() throws SQLException {
+        String sql = "SELECT COUNT(*) FROM Attendance";
+        try (Connection conn = DBController.getReadConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
     /**
      * Updates an existing attendance record.
      *
@@ -226,4 +355,22 @@ public class AttendanceDAO {
             stmt.executeUpdate();
         }
     }
+
+    /**
+     * Maps the current row of a query over the {@code Attendance} columns to a Attendance.
+     *
+     * @param rs The result set, positioned on a row.
+     * @return The Attendance.
+     * @throws SQLException If a column cannot be read.
+     */
+    static Attendance map(ResultSet rs) throws SQLException {
+        return new Attendance(
+                rs.getInt("attendance_id"),
+                rs.getInt("student_id"),
+                rs.getInt("course_id"),
+                rs.getDate("attendance_date").toLocalDate(),
+                rs.getString("status"),
+                (Integer) rs.getObject("taken_by_faculty_id") // Use getObject for nullable int
+        );
+    }
 }
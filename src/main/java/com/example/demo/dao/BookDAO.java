@@ -65,26 +65,12 @@ public class BookDAO {
      */
     public Book getBookById(int bookId) throws SQLException {
         String sql = "SELECT book_id, isbn, title, author, publisher, publication_year, genre, total_copies, available_copies, added_date FROM Books WHERE book_id = ?";
-        try (Connection conn = DBController.getConnection();
+        try (Connection conn = DBController.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, bookId);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    Timestamp addedTimestamp = rs.getTimestamp("added_date");
-                    LocalDateTime addedDateTime = (addedTimestamp != null) ? addedTimestamp.toLocalDateTime() : null;
-
-                    return new Book(
-                            rs.getInt("book_id"),
-                            rs.getString("isbn"),
-                            rs.getString("title"),
-                            rs.getString("author"),
-                            rs.getString("publisher"),
-                            (Integer) rs.getObject("publication_year"), // For nullable INT
-                            rs.getString("genre"),
-                            rs.getInt("total_copies"),
-                            rs.getInt("available_copies"),
-                            addedDateTime
-                    );
+                    return map(rs);
                 }
             }
         }
@@ -100,26 +86,12 @@ public class BookDAO {
      */
     public Book getBookByIsbn(String isbn) throws SQLException {
         String sql = "SELECT book_id, isbn, title, author, publisher, publication_year, genre, total_copies, available_copies, added_date FROM Books WHERE isbn = ?";
-        try (Connection conn = DBController.getConnection();
+        try (Connection conn = DBController.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, isbn);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    Timestamp addedTimestamp = rs.getTimestamp("added_date");
-                    LocalDateTime addedDateTime = (addedTimestamp != null) ? addedTimestamp.toLocalDateTime() : null;
-
-                    return new Book(
-                            rs.getInt("book_id"),
-                            rs.getString("isbn"),
-                            rs.getString("title"),
-                            rs.getString("author"),
-                            rs.getString("publisher"),
-                            (Integer) rs.getObject("publication_year"),
-                            rs.getString("genre"),
-                            rs.getInt("total_copies"),
-                            rs.getInt("available_copies"),
-                            addedDateTime
-                    );
+                    return map(rs);
                 }
             }
         }
@@ -143,7 +115,7 @@ public class BookDAO {
         }
         sql.append(" ORDER BY title ASC");
 
-        try (Connection conn = DBController.getConnection();
+        try (Connection conn = DBController.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
 
             if (hasSearchTerm) {
@@ -155,31 +127,46 @@ public class BookDAO {
 
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    Timestamp addedTimestamp = rs.getTimestamp("added_date");
-                    LocalDateTime addedDateTime = (addedTimestamp != null) ? addedTimestamp.toLocalDateTime() : null;
-
-                    books.add(new Book(
-                            rs.getInt("book_id"),
-                            rs.getString("isbn"),
-                            rs.getString("title"),
-                            rs.getString("author"),
-                            rs.getString("publisher"),
-                            (Integer) rs.getObject("publication_year"),
-                            rs.getString("genre"),
-                            rs.getInt("total_copies"),
-                            rs.getInt("available_copies"),
-                            addedDateTime
-                    ));
+                    books.add(map(rs));
                 }
             }
         }
         return books;
     }
 
+    /**
+     * Retrieves one page of books, in ID order. Unlike {@link #searchBooks(String) searchBooks(null)}, only
+     * {@code pageSize} rows are read per call, so the whole table can be walked in constant memory
+     * by passing each page's token to the next call.
+     *
+     * @param pageToken The next page token of the previous page, or null for the first page.
+     * @param pageSize The maximum number of rows to return (1 to {@link Page#MAX_PAGE_SIZE}).
+     * @return The page of Book objects.
+     * @throws IllegalArgumentException If the page token or page size is invalid.
+     * @throws SQLException If a database access error occurs.
+     */
+    public Page<Book> getBookPage(String pageToken, int pageSize) throws SQLException {
+        int afterId = Page.decodeToken(pageToken);
+        Page.checkPageSize(pageSize);
+        List<Book> books = new ArrayList<>();
+        String sql = "SELECT book_id, isbn, title, author, publisher, publication_year, genre, total_copies, available_copies, added_date FROM Books WHERE book_id > ? ORDER BY book_id LIMIT ?";
+        try (Connection conn = DBController.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, afterId);
+            stmt.setInt(2, pageSize + 1); // One extra row tells whether another page follows
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    books.add(map(rs));
+                }
+            }
+        }
+        return Page.of(books, pageSize, Book::getBookId);
+    }
+
 
     /**
      * Updates an existing book's information.
-     * This method does not allow updating available_copies directly; use updateAvailableCopies.
+     * This method does not allow updating available_copies directly; use adjustAvailableCopies.
      *
      * @param book The Book object with updated details (excluding available_copies).
      * @throws SQLException If a database access error occurs.
@@ -205,19 +192,24 @@ public class BookDAO {
     }
 
     /**
-     * Updates the available copies of a book. This method should be used when books are borrowed or returned.
+     * Changes the available copies of a book by a relative amount when a copy is borrowed or returned.
+     * The count is changed in the database rather than written back, so concurrent borrowings cannot
+     * overwrite each other, and the change is only made if the count stays between 0 and total_copies.
      *
      * @param bookId The ID of the book to update.
-     * @param newAvailableCopies The new count of available copies.
+     * @param delta The change, e.g. -1 for a borrowed copy and +1 for a returned one.
+     * @return True if the count was changed, false if the book does not exist or the count would leave its range.
      * @throws SQLException If a database access error occurs.
      */
-    public void updateAvailableCopies(int bookId, int newAvailableCopies) throws SQLException {
-        String sql = "UPDATE Books SET available_copies=? WHERE book_id=?";
+    public boolean adjustAvailableCopies(int bookId, int delta) throws SQLException {
+        String sql = "UPDATE Books SET available_copies = available_copies + ? "
+                + "WHERE book_id = ? AND available_copies + ? BETWEEN 0 AND total_copies";
         try (Connection conn = DBController.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setInt(1, newAvailableCopies);
+            stmt.setInt(1, delta);
             stmt.setInt(2, bookId);
-            stmt.executeUpdate();
+            stmt.setInt(3, delta);
+            return stmt.executeUpdate() > 0;
         }
     }
 
@@ -235,4 +227,28 @@ public class BookDAO {
             stmt.executeUpdate();
         }
     }
+
+    /**
+     * Maps the current row of a query over the {@code Books} columns to a Book.
+     *
+     * @param rs The result set, positioned on a row.
+     * @return The Book.
+     * @throws SQLException If a column cannot be read.
+     */
+    static Book map(ResultSet rs) throws SQLException {
+        Timestamp addedTimestamp = rs.getTimestamp("added_date");
+        LocalDateTime addedDateTime = (addedTimestamp != null) ? addedTimestamp.toLocalDateTime() : null;
+        return new Book(
+                rs.getInt("book_id"),
+                rs.getString("isbn"),
+                rs.getString("title"),
+                rs.getString("author"),
+                rs.getString("publisher"),
+                (Integer) rs.getObject("publication_year"), // For nullable INT
+                rs.getString("genre"),
+                rs.getInt("total_copies"),
+                rs.getInt("available_copies"),
+                addedDateTime
+        );
+    }
 }
@@ -2,6 +2,7 @@ package com.example.demo.dao;
 
 import com.example.demo.model.Borrowing;
 import com.example.demo.DBController; // Correctly referencing the DBController
+import com.example.demo.db.TransactionManager;
 import java.sql.Connection;
 import java.sql.Date;
 import java.sql.PreparedStatement;
@@ -11,32 +12,33 @@ import java.sql.Statement;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 
 public class BorrowingDAO {
 
     private BookDAO bookDAO; // To update book counts when borrowing/returning
 
     public BorrowingDAO() {
-        this.bookDAO = new BookDAO();
+        this(new BookDAO());
+    }
+
+    public BorrowingDAO(BookDAO bookDAO) {
+        this.bookDAO = bookDAO;
     }
 
     /**
      * Adds a new book borrowing record. This is a transactional operation:
-     * it adds the borrowing record and decreases the available copies of the book.
+     * it decreases the available copies of the book and adds the borrowing record.
      *
      * @param borrowing The Borrowing object to add. Its borrowingId will be updated upon successful creation.
-     * @param bookAvailableCopies The current available copies of the book to be borrowed.
-     * @throws SQLException If a database access error occurs or if there are no copies available.
+     * @return True if the book was borrowed, false if no copy was available (nothing is written then).
+     * @throws SQLException If a database access error occurs.
      */
-    public void addBorrowing(Borrowing borrowing, int bookAvailableCopies) throws SQLException {
-        Connection conn = null;
-        try {
-            conn = DBController.getConnection();
-            conn.setAutoCommit(false); // Start transaction
-
-            // 1. Check if book is available
-            if (bookAvailableCopies <= 0) {
-                throw new SQLException("Book is not available for borrowing.");
+    public boolean addBorrowing(Borrowing borrowing) throws SQLException {
+        return TransactionManager.inTransaction(conn -> {
+            // 1. Take a copy; the conditional update decides, so two borrowers cannot both get the last copy
+            if (!bookDAO.adjustAvailableCopies(borrowing.getBookId(), -1)) { // Joins this transaction
+                return false;
             }
 
             // 2. Add the borrowing record
@@ -66,30 +68,8 @@ public class BorrowingDAO {
                     }
                 }
             }
-
-            // 3. Decrease available copies of the book
-            bookDAO.updateAvailableCopies(borrowing.getBookId(), bookAvailableCopies - 1);
-
-            conn.commit(); // Commit transaction
-        } catch (SQLException e) {
-            if (conn != null) {
-                try {
-                    conn.rollback(); // Rollback if any part of the transaction fails
-                } catch (SQLException ex) {
-                    System.err.println("Rollback failed: " + ex.getMessage());
-                }
-            }
-            throw e; // Re-throw the original exception
-        } finally {
-            if (conn != null) {
-                try {
-                    conn.setAutoCommit(true); // Reset auto-commit mode
-                    conn.close(); // Close the connection
-                } catch (SQLException ex) {
-                    System.err.println("Closing connection failed: " + ex.getMessage());
-                }
-            }
-        }
+            return true;
+        });
     }
 
     /**
@@ -101,24 +81,12 @@ public class BorrowingDAO {
      */
     public Borrowing getBorrowingById(int borrowingId) throws SQLException {
         String sql = "SELECT borrowing_id, book_id, student_id, borrow_date, return_due_date, return_date, fine_amount FROM Borrowings WHERE borrowing_id = ?";
-        try (Connection conn = DBController.getConnection();
+        try (Connection conn = DBController.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, borrowingId);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    LocalDate returnDate = null;
-                    if (rs.getDate("return_date") != null) {
-                        returnDate = rs.getDate("return_date").toLocalDate();
-                    }
-                    return new Borrowing(
-                            rs.getInt("borrowing_id"),
-                            rs.getInt("book_id"),
-                            rs.getInt("student_id"),
-                            rs.getDate("borrow_date").toLocalDate(),
-                            rs.getDate("return_due_date").toLocalDate(),
-                            returnDate,
-                            rs.getDouble("fine_amount")
-                    );
+                    return map(rs);
                 }
             }
         }
@@ -135,20 +103,12 @@ public class BorrowingDAO {
     public List<Borrowing> getActiveBorrowingsByStudentId(int studentId) throws SQLException {
         List<Borrowing> borrowings = new ArrayList<>();
         String sql = "SELECT borrowing_id, book_id, student_id, borrow_date, return_due_date, return_date, fine_amount FROM Borrowings WHERE student_id = ? AND return_date IS NULL ORDER BY return_due_date ASC";
-        try (Connection conn = DBController.getConnection();
+        try (Connection conn = DBController.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, studentId);
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    borrowings.add(new Borrowing(
-                            rs.getInt("borrowing_id"),
-                            rs.getInt("book_id"),
-                            rs.getInt("student_id"),
-                            rs.getDate("borrow_date").toLocalDate(),
-                            rs.getDate("return_due_date").toLocalDate(),
-                            null, // return_date is NULL for active borrowings
-                            rs.getDouble("fine_amount")
-                    ));
+                    borrowings.add(map(rs));
                 }
             }
         }
@@ -165,24 +125,12 @@ public class BorrowingDAO {
     public List<Borrowing> getBorrowingsByBookId(int bookId) throws SQLException {
         List<Borrowing> borrowings = new ArrayList<>();
         String sql = "SELECT borrowing_id, book_id, student_id, borrow_date, return_due_date, return_date, fine_amount FROM Borrowings WHERE book_id = ? ORDER BY borrow_date DESC";
-        try (Connection conn = DBController.getConnection();
+        try (Connection conn = DBController.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, bookId);
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    LocalDate returnDate = null;
-                    if (rs.getDate("return_date") != null) {
-                        returnDate = rs.getDate("return_date").toLocalDate();
-                    }
-                    borrowings.add(new Borrowing(
-                            rs.getInt("borrowing_id"),
-                            rs.getInt("book_id"),
-                            rs.getInt("student_id"),
-                            rs.getDate("borrow_date").toLocalDate(),
-                            rs.getDate("return_due_date").toLocalDate(),
-                            returnDate,
-                            rs.getDouble("fine_amount")
-                    ));
+                    borrowings.add(map(rs));
                 }
             }
         }
@@ -198,44 +146,71 @@ public class BorrowingDAO {
     public List<Borrowing> getAllBorrowings() throws SQLException {
         List<Borrowing> borrowings = new ArrayList<>();
         String sql = "SELECT borrowing_id, book_id, student_id, borrow_date, return_due_date, return_date, fine_amount FROM Borrowings ORDER BY borrow_date DESC";
-        try (Connection conn = DBController.getConnection();
+        try (Connection conn = DBController.getReadConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             while (rs.next()) {
-                LocalDate returnDate = null;
-                if (rs.getDate("return_date") != null) {
-                    returnDate = rs.getDate("return_date").toLocalDate();
-                }
-                borrowings.add(new Borrowing(
-                        rs.getInt("borrowing_id"),
-                        rs.getInt("book_id"),
-                        rs.getInt("student_id"),
-                        rs.getDate("borrow_date").toLocalDate(),
-                        rs.getDate("return_due_date").toLocalDate(),
-                        returnDate,
-                        rs.getDouble("fine_amount")
-                ));
+                borrowings.add(map(rs));
             }
         }
         return borrowings;
     }
 
+    /**
+     * Retrieves one page of borrowing records, in ID order. Unlike {@link #getAllBorrowings()}, only
+     * {@code pageSize} rows are read per call, so the whole table can be walked in constant memory
+     * by passing each page's token to the next call.
+     *
+     * @param pageToken The next page token of the previous page, or null for the first page.
+     * @param pageSize The maximum number of rows to return (1 to {@link Page#MAX_PAGE_SIZE}).
+     * @return The page of Borrowing objects.
+     * @throws IllegalArgumentException If the page token or page size is invalid.
+     * @throws SQLException If a database access error occurs.
+     */
+    public Page<Borrowing> getBorrowingPage(String pageToken, int pageSize) throws SQLException {
+        int afterId = Page.decodeToken(pageToken);
+        Page.checkPageSize(pageSize);
+        List<Borrowing> borrowings = new ArrayList<>();
+        String sql = "SELECT borrowing_id, book_id, student_id, borrow_date, return_due_date, return_date, fine_amount FROM Borrowings WHERE borrowing_id > ? ORDER BY borrowing_id LIMIT ?";
+        try (Connection conn = DBController.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, afterId);
+            stmt.setInt(2, pageSize + 1); // One extra row tells whether another page follows
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    borrowings.add(map(rs));
+                }
+            }
+        }
+        return Page.of(borrowings, pageSize, Borrowing::getBorrowingId);
+    }
+
+    /**
+     * Streams all borrowing records in ID order without reading them into memory first; rows are mapped as the
+     * stream is consumed. The stream holds a database connection until its last row has been read or it
+     * is closed, so use it in a try-with-resources block.
+     *
+     * @return A lazily populated stream of Borrowing objects.
+     * @throws SQLException If the query cannot be started. Errors while reading rows are thrown as
+     *                      {@link UncheckedSQLException}.
+     */
+    public Stream<Borrowing> streamAllBorrowings() throws SQLException {
+        String sql = "SELECT borrowing_id, book_id, student_id, borrow_date, return_due_date, return_date, fine_amount FROM Borrowings ORDER BY borrowing_id";
+        return ResultSetStream.query(sql, BorrowingDAO::map);
+    }
+
     /**
      * Marks a book as returned and updates the available copies.
      * This is a transactional operation.
      *
      * @param borrowing The Borrowing object with updated return_date and fine_amount.
-     * @param bookAvailableCopies The current available copies of the book.
-     * @throws SQLException If a database access error occurs.
+     * @return True if the book was returned, false if the borrowing was already returned (nothing is written then).
+     * @throws SQLException If a database access error occurs, or the book's copy count cannot be increased.
      */
-    public void returnBook(Borrowing borrowing, int bookAvailableCopies) throws SQLException {
-        Connection conn = null;
-        try {
-            conn = DBController.getConnection();
-            conn.setAutoCommit(false); // Start transaction
-
-            // 1. Update the borrowing record with return date and fine
-            String sql = "UPDATE Borrowings SET return_date=?, fine_amount=? WHERE borrowing_id=?";
+    public boolean returnBook(Borrowing borrowing) throws SQLException {
+        return TransactionManager.inTransaction(conn -> {
+            // 1. Update the borrowing record with return date and fine, unless it was returned already
+            String sql = "UPDATE Borrowings SET return_date=?, fine_amount=? WHERE borrowing_id=? AND return_date IS NULL";
             try (PreparedStatement stmt = conn.prepareStatement(sql)) {
                 if (borrowing.getReturnDate() != null) {
                     stmt.setDate(1, Date.valueOf(borrowing.getReturnDate()));
@@ -244,32 +219,17 @@ public class BorrowingDAO {
                 }
                 stmt.setDouble(2, borrowing.getFineAmount());
                 stmt.setInt(3, borrowing.getBorrowingId());
-                stmt.executeUpdate();
+                if (stmt.executeUpdate() == 0) {
+                    return false;
+                }
             }
 
             // 2. Increase available copies of the book
-            bookDAO.updateAvailableCopies(borrowing.getBookId(), bookAvailableCopies + 1);
-
-            conn.commit(); // Commit transaction
-        } catch (SQLException e) {
-            if (conn != null) {
-                try {
-                    conn.rollback(); // Rollback if any part of the transaction fails
-                } catch (SQLException ex) {
-                    System.err.println("Rollback failed during book return: " + ex.getMessage());
-                }
+            if (!bookDAO.adjustAvailableCopies(borrowing.getBookId(), 1)) { // Joins this transaction
+                throw new SQLException("Available copies of book ID " + borrowing.getBookId() + " cannot be increased.");
             }
-            throw e; // Re-throw the original exception
-        } finally {
-            if (conn != null) {
-                try {
-                    conn.setAutoCommit(true); // Reset auto-commit mode
-                    conn.close(); // Close the connection
-                } catch (SQLException ex) {
-                    System.err.println("Closing connection failed: " + ex.getMessage());
-                }
-            }
-        }
+            return true;
+        });
     }
 
     /**
@@ -287,4 +247,27 @@ public class BorrowingDAO {
             stmt.executeUpdate();
         }
     }
+
+    /**
+     * Maps the current row of a query over the {@code Borrowings} columns to a Borrowing.
+     *
+     * @param rs The result set, positioned on a row.
+     * @return The Borrowing.
+     * @throws SQLException If a column cannot be read.
+     */
+    static Borrowing map(ResultSet rs) throws SQLException {
+        LocalDate returnDate = null;
+        if (rs.getDate("return_date") != null) {
+            returnDate = rs.getDate("return_date").toLocalDate();
+        }
+        return new Borrowing(
+                rs.getInt("borrowing_id"),
+                rs.getInt("book_id"),
+                rs.getInt("student_id"),
+                rs.getDate("borrow_date").toLocalDate(),
+                rs.getDate("return_due_date").toLocalDate(),
+                returnDate,
+                rs.getDouble("fine_amount")
+        );
+    }
 }
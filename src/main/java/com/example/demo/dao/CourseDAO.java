@@ -8,7 +8,11 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.stream.Stream;
+import java.util.Set;
 
 public class CourseDAO {
 
@@ -31,6 +35,7 @@ public class CourseDAO {
             stmt.setString(7, course.getDepartment());
 
             int affectedRows = stmt.executeUpdate();
+            QueryCache.tableChanged("Courses");
             if (affectedRows == 0) {
                 throw new SQLException("Creating course failed, no rows affected.");
             }
@@ -54,21 +59,12 @@ public class CourseDAO {
      */
     public Course getCourseById(int courseId) throws SQLException {
         String sql = "SELECT course_id, program_id, semester_number, course_code, course_name, credits, description, department FROM Courses WHERE course_id = ?";
-        try (Connection conn = DBController.getConnection();
+        try (Connection conn = DBController.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, courseId);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return new Course(
-                            rs.getInt("course_id"),
-                            rs.getInt("program_id"),
-                            rs.getInt("semester_number"),
-                            rs.getString("course_code"),
-                            rs.getString("course_name"),
-                            rs.getInt("credits"),
-                            rs.getString("description"),
-                            rs.getString("department")
-                    );
+                    return map(rs);
                 }
             }
         }
@@ -85,22 +81,13 @@ public class CourseDAO {
      */
     public Course getCourseByCodeAndProgram(String courseCode, int programId) throws SQLException {
         String sql = "SELECT course_id, program_id, semester_number, course_code, course_name, credits, description, department FROM Courses WHERE course_code = ? AND program_id = ?";
-        try (Connection conn = DBController.getConnection();
+        try (Connection conn = DBController.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, courseCode);
             stmt.setInt(2, programId);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return new Course(
-                            rs.getInt("course_id"),
-                            rs.getInt("program_id"),
-                            rs.getInt("semester_number"),
-                            rs.getString("course_code"),
-                            rs.getString("course_name"),
-                            rs.getInt("credits"),
-                            rs.getString("description"),
-                            rs.getString("department")
-                    );
+                    return map(rs);
                 }
             }
         }
@@ -109,6 +96,7 @@ public class CourseDAO {
 
     /**
      * Retrieves all courses for a specific program and semester.
+     * Results are shared through the {@link QueryCache} until the table changes.
      *
      * @param programId The ID of the program.
      * @param semesterNumber The semester number.
@@ -116,28 +104,42 @@ public class CourseDAO {
      * @throws SQLException If a database access error occurs.
      */
     public List<Course> getCoursesByProgramAndSemester(int programId, int semesterNumber) throws SQLException {
-        List<Course> courses = new ArrayList<>();
-        String sql = "SELECT course_id, program_id, semester_number, course_code, course_name, credits, description, department FROM Courses WHERE program_id = ? AND semester_number = ? ORDER BY course_code";
-        try (Connection conn = DBController.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setInt(1, programId);
-            stmt.setInt(2, semesterNumber);
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    courses.add(new Course(
-                            rs.getInt("course_id"),
-                            rs.getInt("program_id"),
-                            rs.getInt("semester_number"),
-                            rs.getString("course_code"),
-                            rs.getString("course_name"),
-                            rs.getInt("credits"),
-                            rs.getString("description"),
-                            rs.getString("department")
-                    ));
+        return QueryCache.list("CourseDAO.getCoursesByProgramAndSemester", Arrays.asList(programId, semesterNumber),
+                new String[]{"Courses"}, CourseDAO::copy, () -> {
+            List<Course> courses = new ArrayList<>();
+            String sql = "SELECT course_id, program_id, semester_number, course_code, course_name, credits, description, department FROM Courses WHERE program_id = ? AND semester_number = ? ORDER BY course_code";
+            try (Connection conn = DBController.getReadConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setInt(1, programId);
+                stmt.setInt(2, semesterNumber);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        courses.add(map(rs));
+                    }
                 }
             }
+            return courses;
+        });
+    }
+
+    /**
+     * Retrieves the IDs of all courses, without the rest of each row. Meant for validating many
+     * references at once (e.g. an import) against an in-memory set instead of one lookup per reference.
+     *
+     * @return The set of Course IDs.
+     * @throws SQLException If a database access error occurs.
+     */
+    public Set<Integer> getAllCourseIds() throws SQLException {
+        Set<Integer> ids = new HashSet<>();
+        String sql = "SELECT course_id FROM Courses";
+        try (Connection conn = DBController.getReadConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                ids.add(rs.getInt(1));
+            }
         }
-        return courses;
+        return ids;
     }
 
     /**
@@ -149,25 +151,74 @@ public class CourseDAO {
     public List<Course> getAllCourses() throws SQLException {
         List<Course> courses = new ArrayList<>();
         String sql = "SELECT course_id, program_id, semester_number, course_code, course_name, credits, description, department FROM Courses ORDER BY program_id, semester_number, course_code";
-        try (Connection conn = DBController.getConnection();
+        try (Connection conn = DBController.getReadConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             while (rs.next()) {
-                courses.add(new Course(
-                        rs.getInt("course_id"),
-                        rs.getInt("program_id"),
-                        rs.getInt("semester_number"),
-                        rs.getString("course_code"),
-                        rs.getString("course_name"),
-                        rs.getInt("credits"),
-                        rs.getString("description"),
-                        rs.getString("department")
-                ));
+                courses.add(map(rs));
             }
         }
         return courses;
     }
 
+    /**
+     * Retrieves one page of courses, in ID order. Unlike {@link #getAllCourses()}, only
+     * {@code pageSize} rows are read per call, so the whole table can be walked in constant memory
+     * by passing each page's token to the next call.
+     *
+     * @param pageToken The next page token of the previous page, or null for the first page.
+     * @param pageSize The maximum number of rows to return (1 to {@link Page#MAX_PAGE_SIZE}).
+     * @return The page of Course objects.
+     * @throws IllegalArgumentException If the page token or page size is invalid.
+     * @throws SQLException If a database access error occurs.
+     */
+    public Page<Course> getCoursePage(String pageToken, int pageSize) throws SQLException {
+        int afterId = Page.decodeToken(pageToken);
+        Page.checkPageSize(pageSize);
+        List<Course> courses = new ArrayList<>();
+        String sql = "SELECT course_id, program_id, semester_number, course_code, course_name, credits, description, department FROM Courses WHERE course_id > ? ORDER BY course_id LIMIT ?";
+        try (Connection conn = DBController.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, afterId);
+            stmt.setInt(2, pageSize + 1); // One extra row tells whether another page follows
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    courses.add(map(rs));
+                }
+            }
+        }
+        return Page.of(courses, pageSize, Course::getCourseId);
+    }
+
+    /**
+     * Streams all courses in ID order without reading them into memory first; rows are mapped as the
+     * stream is consumed. The stream holds a database connection until its last row has been read or it
+     * is closed, so use it in a try-with-resources block.
+     *
+     * @return A lazily populated stream of Course objects.
+     * @throws SQLException If the query cannot be started. Errors while reading rows are thrown as
+     *                      {@link UncheckedSQLException}.
+     */
+    public Stream<Course> streamAllCourses() throws SQLException {
+        String sql = "SELECT course_id, program_id, semester_number, course_code, course_name, credits, description, department FROM Courses ORDER BY course_id";
+        return ResultSetStream.query(sql, CourseDAO::map);
+    }
+
+    /**
+     * Counts the courses, e.g. to report the progress of a streamAllCourses consumer.
+     *
+     * @return The number of rows in the Courses table.
+     * @throws SQLException If a database access error occurs.
+     */
+    public long countCourses() throws SQLException {
+        String sql = "SELECT COUNT(*) FROM Courses";
+        try (Connection conn = DBController.getReadConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
     /**
      * Updates an existing course's information.
      *
@@ -187,6 +238,7 @@ public class CourseDAO {
             stmt.setString(7, course.getDepartment());
             stmt.setInt(8, course.getCourseId());
             stmt.executeUpdate();
+            QueryCache.tableChanged("Courses");
         }
     }
 
@@ -202,6 +254,32 @@ public class CourseDAO {
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, courseId);
             stmt.executeUpdate();
+            QueryCache.rowsDeleted("Courses");
         }
     }
+
+    private static Course copy(Course c) {
+        return new Course(c.getCourseId(), c.getProgramId(), c.getSemesterNumber(), c.getCourseCode(),
+                c.getCourseName(), c.getCredits(), c.getDescription(), c.getDepartment());
+    }
+
+    /**
+     * Maps the current row of a query over the {@code Courses} columns to a Course.
+     *
+     * @param rs The result set, positioned on a row.
+     * @return The Course.
+     * @throws SQLException If a column cannot be read.
+     */
+    static Course map(ResultSet rs) throws SQLException {
+        return new Course(
+                rs.getInt("course_id"),
+                rs.getInt("program_id"),
+                rs.getInt("semester_number"),
+                rs.getString("course_code"),
+                rs.getString("course_name"),
+                rs.getInt("credits"),
+                rs.getString("description"),
+                rs.getString("department")
+        );
+    }
 }
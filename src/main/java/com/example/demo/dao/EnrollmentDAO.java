@@ -10,7 +10,11 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 public class EnrollmentDAO {
 
@@ -44,6 +48,26 @@ public class EnrollmentDAO {
         }
     }
 
+    /**
+     * Adds an enrollment unless the student is already enrolled in the course
+     * ({@code uq_enrollments_student_course}).
+     *
+     * @param enrollment The Enrollment object to add. Its enrollmentId is updated if it was added.
+     * @return True if the record was added, false if it already existed.
+     * @throws SQLException If a database access error occurs.
+     */
+    public boolean addEnrollmentIfAbsent(Enrollment enrollment) throws SQLException {
+        try {
+            addEnrollment(enrollment);
+            return true;
+        } catch (SQLException e) {
+            if (SqlErrors.isDuplicateKey(e)) {
+                return false;
+            }
+            throw e;
+        }
+    }
+
     /**
      * Retrieves an enrollment record by its ID.
      *
@@ -53,18 +77,12 @@ public class EnrollmentDAO {
      */
     public Enrollment getEnrollmentById(int enrollmentId) throws SQLException {
         String sql = "SELECT enrollment_id, student_id, course_id, enrollment_date, grade FROM Enrollments WHERE enrollment_id = ?";
-        try (Connection conn = DBController.getConnection();
+        try (Connection conn = DBController.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, enrollmentId);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return new Enrollment(
-                            rs.getInt("enrollment_id"),
-                            rs.getInt("student_id"),
-                            rs.getInt("course_id"),
-                            rs.getDate("enrollment_date").toLocalDate(),
-                            rs.getString("grade")
-                    );
+                    return map(rs);
                 }
             }
         }
@@ -81,18 +99,12 @@ public class EnrollmentDAO {
     public List<Enrollment> getEnrollmentsByStudentId(int studentId) throws SQLException {
         List<Enrollment> enrollments = new ArrayList<>();
         String sql = "SELECT enrollment_id, student_id, course_id, enrollment_date, grade FROM Enrollments WHERE student_id = ?";
-        try (Connection conn = DBController.getConnection();
+        try (Connection conn = DBController.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, studentId);
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    enrollments.add(new Enrollment(
-                            rs.getInt("enrollment_id"),
-                            rs.getInt("student_id"),
-                            rs.getInt("course_id"),
-                            rs.getDate("enrollment_date").toLocalDate(),
-                            rs.getString("grade")
-                    ));
+                    enrollments.add(map(rs));
                 }
             }
         }
@@ -109,18 +121,12 @@ public class EnrollmentDAO {
     public List<Enrollment> getEnrollmentsByCourseId(int courseId) throws SQLException {
         List<Enrollment> enrollments = new ArrayList<>();
         String sql = "SELECT enrollment_id, student_id, course_id, enrollment_date, grade FROM Enrollments WHERE course_id = ?";
-        try (Connection conn = DBController.getConnection();
+        try (Connection conn = DBController.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, courseId);
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    enrollments.add(new Enrollment(
-                            rs.getInt("enrollment_id"),
-                            rs.getInt("student_id"),
-                            rs.getInt("course_id"),
-                            rs.getDate("enrollment_date").toLocalDate(),
-                            rs.getString("grade")
-                    ));
+                    enrollments.add(map(rs));
                 }
             }
         }
@@ -137,7 +143,7 @@ public class EnrollmentDAO {
      */
     public boolean isStudentEnrolledInCourse(int studentId, int courseId) throws SQLException {
         String sql = "SELECT COUNT(*) FROM Enrollments WHERE student_id = ? AND course_id = ?";
-        try (Connection conn = DBController.getConnection();
+        try (Connection conn = DBController.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, studentId);
             stmt.setInt(2, courseId);
@@ -150,6 +156,153 @@ public class EnrollmentDAO {
         return false;
     }
 
+    /**
+     * Returns which of the given students are enrolled in a course, with one query per
+     * {@value SqlParams#MAX_IN_LIST} students instead of one query per student.
+     *
+     * @param courseId The ID of the course.
+     * @param studentIds The IDs of the students to check.
+     * @return The subset of studentIds that are enrolled in the course.
+     * @throws SQLException If a database access error occurs.
+     */
+    public Set<Integer> getEnrolledStudentIds(int courseId, Collection<Integer> studentIds) throws SQLException {
+        Set<Integer> enrolled = new HashSet<>();
+        if (studentIds.isEmpty()) {
+            return enrolled;
+        }
+        try (Connection conn = DBController.getReadConnection()) {
+            for (List<Integer> chunk : SqlParams.chunks(studentIds)) {
+                String sql = "SELECT student_id FROM Enrollments WHERE course_id = ? AND student_id IN (" + SqlParams.placeholders(chunk.size()) + ")";
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setInt(1, courseId);
+                    SqlParams.bindInts(stmt, 2, chunk);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            enrolled.add(rs.getInt(1));
+                        }
+                    }
+                }
+            }
+        }
+        return enrolled;
+    }
+
+    /**
+     * Counts the students of a program cohort, selected the same way as by {@link #enrollCohort}.
+     *
+     * @param programId The ID of the program.
+     * @param admittedFrom Only students admitted (Students.enrollment_date) on or after this date, or null.
+     * @param admittedTo Only students admitted on or before this date, or null.
+     * @param studentIds Only these students, or null for the whole cohort.
+     * @return The number of matching students.
+     * @throws SQLException If a database access error occurs.
+     */
+    public int countCohortStudents(int programId, LocalDate admittedFrom, LocalDate admittedTo,
+                                   Collection<Integer> studentIds) throws SQLException {
+        if (studentIds != null && studentIds.isEmpty()) {
+            return 0;
+        }
+        int count = 0;
+        try (Connection conn = DBController.getReadConnection()) {
+            for (List<Integer> chunk : cohortChunks(studentIds)) {
+                String sql = "SELECT COUNT(*) FROM Students s WHERE " + cohortCondition(admittedFrom, admittedTo, chunk);
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    bindCohort(stmt, 1, programId, admittedFrom, admittedTo, chunk);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        if (rs.next()) {
+                            count += rs.getInt(1);
+                        }
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Enrolls every student of a program cohort in every given course with set-based
+     * {@code INSERT ... SELECT} statements: the database pairs students with courses and skips pairs
+     * that are already enrolled, so a whole cohort costs one statement (one per
+     * {@value SqlParams#MAX_IN_LIST} students when studentIds is given) instead of several round
+     * trips per student and course.
+     * <p>
+     * A pair enrolled concurrently between the existence check and the insert makes the statement fail
+     * on the uq_enrollments_student_course constraint; the statement is then retried once, which skips it.
+     *
+     * @param programId The ID of the program whose students are enrolled.
+     * @param courseIds The IDs of the courses to enroll them in.
+     * @param admittedFrom Only students admitted (Students.enrollment_date) on or after this date, or null.
+     * @param admittedTo Only students admitted on or before this date, or null.
+     * @param studentIds Only these students, or null for the whole cohort.
+     * @param enrollmentDate The enrollment date of the new records.
+     * @return The number of enrollments added.
+     * @throws SQLException If a database access error occurs.
+     */
+    public int enrollCohort(int programId, Collection<Integer> courseIds, LocalDate admittedFrom, LocalDate admittedTo,
+                            Collection<Integer> studentIds, LocalDate enrollmentDate) throws SQLException {
+        if (courseIds.isEmpty() || (studentIds != null && studentIds.isEmpty())) {
+            return 0;
+        }
+        int added = 0;
+        try (Connection conn = DBController.getConnection()) {
+            for (List<Integer> chunk : cohortChunks(studentIds)) {
+                String sql = "INSERT INTO Enrollments (student_id, course_id, enrollment_date, grade) "
+                        + "SELECT s.student_id, c.course_id, ?, NULL FROM Students s CROSS JOIN Courses c "
+                        + "WHERE c.course_id IN (" + SqlParams.placeholders(courseIds.size()) + ") AND "
+                        + cohortCondition(admittedFrom, admittedTo, chunk)
+                        + " AND NOT EXISTS (SELECT 1 FROM Enrollments e WHERE e.student_id = s.student_id AND e.course_id = c.course_id)";
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setDate(1, Date.valueOf(enrollmentDate));
+                    int index = SqlParams.bindInts(stmt, 2, courseIds);
+                    bindCohort(stmt, index, programId, admittedFrom, admittedTo, chunk);
+                    try {
+                        added += stmt.executeUpdate();
+                    } catch (SQLException e) {
+                        if (!SqlErrors.isDuplicateKey(e)) {
+                            throw e;
+                        }
+                        added += stmt.executeUpdate(); // Lost a race with a single enrollment; the retry skips it
+                    }
+                }
+            }
+        }
+        return added;
+    }
+
+    // A null studentIds selects the whole cohort with a single statement
+    private static List<List<Integer>> cohortChunks(Collection<Integer> studentIds) {
+        return studentIds == null ? Collections.singletonList(null) : SqlParams.chunks(studentIds);
+    }
+
+    private static String cohortCondition(LocalDate admittedFrom, LocalDate admittedTo, List<Integer> studentIds) {
+        StringBuilder sb = new StringBuilder("s.program_id = ?");
+        if (admittedFrom != null) {
+            sb.append(" AND s.enrollment_date >= ?");
+        }
+        if (admittedTo != null) {
+            sb.append(" AND s.enrollment_date <= ?");
+        }
+        if (studentIds != null) {
+            sb.append(" AND s.student_id IN (").append(SqlParams.placeholders(studentIds.size())).append(')');
+        }
+        return sb.toString();
+    }
+
+    private static void bindCohort(PreparedStatement stmt, int firstIndex, int programId, LocalDate admittedFrom,
+                                   LocalDate admittedTo, List<Integer> studentIds) throws SQLException {
+        int index = firstIndex;
+        stmt.setInt(index++, programId);
+        if (admittedFrom != null) {
+            stmt.setDate(index++, Date.valueOf(admittedFrom));
+        }
+        if (admittedTo != null) {
+            stmt.setDate(index++, Date.valueOf(admittedTo));
+        }
+        if (studentIds != null) {
+            SqlParams.bindInts(stmt, index, studentIds);
+        }
+    }
+
     /**
      * Retrieves all enrollment records from the database.
      *
@@ -159,22 +312,45 @@ public class EnrollmentDAO {
     public List<Enrollment> getAllEnrollments() throws SQLException {
         List<Enrollment> enrollments = new ArrayList<>();
         String sql = "SELECT enrollment_id, student_id, course_id, enrollment_date, grade FROM Enrollments";
-        try (Connection conn = DBController.getConnection();
+        try (Connection conn = DBController.getReadConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             while (rs.next()) {
-                enrollments.add(new Enrollment(
-                        rs.getInt("enrollment_id"),
-                        rs.getInt("student_id"),
-                        rs.getInt("course_id"),
-                        rs.getDate("enrollment_date").toLocalDate(),
-                        rs.getString("grade")
-                ));
+                enrollments.add(map(rs));
             }
         }
         return enrollments;
     }
 
+    /**
+     * Retrieves one page of enrollment records, in ID order. Unlike {@link #getAllEnrollments()}, only
+     * {@code pageSize} rows are read per call, so the whole table can be walked in constant memory
+     * by passing each page's token to the next call.
+     *
+     * @param pageToken The next page token of the previous page, or null for the first page.
+     * @param pageSize The maximum number of rows to return (1 to {@link Page#MAX_PAGE_SIZE}).
+     * @return The page of Enrollment objects.
+     * @throws IllegalArgumentException If the page token or page size is invalid.
+     * @throws SQLException If a database access error occurs.
+     */
+    public Page<Enrollment> getEnrollmentPage(String pageToken, int pageSize) throws SQLException {
+        int afterId = Page.decodeToken(pageToken);
+        Page.checkPageSize(pageSize);
+        List<Enrollment> enrollments = new ArrayList<>();
+        String sql = "SELECT enrollment_id, student_id, course_id, enrollment_date, grade FROM Enrollments WHERE enrollment_id > ? ORDER BY enrollment_id LIMIT ?";
+        try (Connection conn = DBController.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, afterId);
+            stmt.setInt(2, pageSize + 1); // One extra row tells whether another page follows
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    enrollments.add(map(rs));
+                }
+            }
+        }
+        return Page.of(enrollments, pageSize, Enrollment::getEnrollmentId);
+    }
+
     /**
      * Updates an existing enrollment record's grade or enrollment date.
      *
@@ -208,4 +384,21 @@ public class EnrollmentDAO {
             stmt.executeUpdate();
         }
     }
+
+    /**
+     * Maps the current row of a query over the {@code Enrollments} columns to a Enrollment.
+     *
+     * @param rs The result set, positioned on a row.
+     * @return The Enrollment.
+     * @throws SQLException If a column cannot be read.
+     */
+    static Enrollment map(ResultSet rs) throws SQLException {
+        return new Enrollment(
+                rs.getInt("enrollment_id"),
+                rs.getInt("student_id"),
+                rs.getInt("course_id"),
+                rs.getDate("enrollment_date").toLocalDate(),
+                rs.getString("grade")
+        );
+    }
 }
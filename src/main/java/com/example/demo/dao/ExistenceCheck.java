@@ -0,0 +1,120 @@
+package com.example.demo.dao;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Checks that the rows a write refers to exist, with one query for all of them.
+ * <p>
+ * A write such as marking attendance refers to a student, a course and a faculty member. Loading each
+ * of them to see whether it is null costs a round trip per reference; this check sends one
+ * {@code UNION ALL} of primary key probes instead and reports the references that matched no row:
+ * <pre>{@code
+ * ExistenceCheck.Reference missing = new ExistenceCheck()
+ *         .require(ExistenceCheck.Entity.STUDENT, studentId)
+ *         .require(ExistenceCheck.Entity.COURSE, courseId)
+ *         .findFirstMissing();
+ * }</pre>
+ * The query runs on the primary (inside the current transaction, if any), so rows deleted a moment
+ * ago are reported as missing. A check is built for one write and is not thread-safe.
+ */
+public final class ExistenceCheck {
+
+    /**
+     * The tables a check can probe, with their primary key column. Table names are part of the SQL,
+     * so only these can be checked.
+     */
+    public enum Entity {
+        STUDENT("Student", "Students", "student_id"),
+        COURSE("Course", "Courses", "course_id"),
+        FACULTY("Faculty", "Faculty", "faculty_id");
+
+        private final String label;
+        private final String table;
+        private final String idColumn;
+
+        Entity(String label, String table, String idColumn) {
+            this.label = label;
+            this.table = table;
+            this.idColumn = idColumn;
+        }
+
+        /** @return The name used in messages, e.g. {@code "Student"}. */
+        public String getLabel() { return label; }
+        public String getTable() { return table; }
+        public String getIdColumn() { return idColumn; }
+    }
+
+    /**
+     * A referenced row: the entity and its ID.
+     */
+    public static final class Reference {
+        private final Entity entity;
+        private final int id;
+
+        Reference(Entity entity, int id) {
+            this.entity = entity;
+            this.id = id;
+        }
+
+        public Entity getEntity() { return entity; }
+        public int getId() { return id; }
+
+        /** @return E.g. {@code "Student with ID 42"}, as used in "does not exist" messages. */
+        @Override
+        public String toString() {
+            return entity.getLabel() + " with ID " + id;
+        }
+    }
+
+    private final List<Reference> references = new ArrayList<>();
+
+    /**
+     * Adds a reference to check.
+     *
+     * @param entity The table the row belongs to.
+     * @param id The row's ID; null for an optional reference that is not set, which is skipped.
+     * @return This check, to chain further references.
+     */
+    public ExistenceCheck require(Entity entity, Integer id) {
+        if (id != null) {
+            references.add(new Reference(entity, id));
+        }
+        return this;
+    }
+
+    /**
+     * Runs the check.
+     *
+     * @return The references without a matching row, in the order they were added; empty if all exist.
+     * @throws SQLException If a database access error occurs.
+     */
+    public List<Reference> findMissing() throws SQLException {
+        if (references.isEmpty()) {
+            return Collections.emptyList();
+        }
+        BitSet found = ReferenceDAO.findExisting(references);
+        List<Reference> missing = new ArrayList<>();
+        for (int i = 0; i < references.size(); i++) {
+            if (!found.get(i)) {
+                missing.add(references.get(i));
+            }
+        }
+        return missing;
+    }
+
+    /**
+     * Runs the check and returns the first reference without a matching row, which is what a service
+     * reports when it rejects the write.
+     *
+     * @return The first missing reference in the order they were added, or null if all exist.
+     * @throws SQLException If a database access error occurs.
+     */
+    public Reference findFirstMissing() throws SQLException {
+        List<Reference> missing = findMissing();
+        return missing.isEmpty() ? null : missing.get(0);
+    }
+}
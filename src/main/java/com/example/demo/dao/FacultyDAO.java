@@ -3,6 +3,7 @@ package com.example.demo.dao;
 import com.example.demo.model.Faculty;
 import com.example.demo.model.User; // Required to handle user creation for faculty
 import com.example.demo.DBController; // Correctly referencing the DBController
+import com.example.demo.db.TransactionManager;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -10,13 +11,18 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 
 public class FacultyDAO {
 
     private UserDAO userDAO; // To manage user accounts associated with faculty
 
     public FacultyDAO() {
-        this.userDAO = new UserDAO();
+        this(new UserDAO());
+    }
+
+    public FacultyDAO(UserDAO userDAO) {
+        this.userDAO = userDAO;
     }
 
     /**
@@ -29,16 +35,12 @@ public class FacultyDAO {
      * @throws SQLException If a database access error occurs during user or faculty creation.
      */
     public void addFacultyWithUser(Faculty faculty, String username, String password) throws SQLException {
-        Connection conn = null;
-        try {
-            conn = DBController.getConnection();
-            conn.setAutoCommit(false); // Start transaction
-
+        TransactionManager.runInTransaction(conn -> {
             // 1. Create a new user for the faculty
             // IMPORTANT: In a real app, hash the password here (e.g., String hashedPassword = BCrypt.hashpw(password, BCrypt.gensalt());)
             // For now, using plain text as per project constraints for simplicity.
             User newUser = new User(username, password, "Faculty"); // Role is fixed as "Faculty"
-            userDAO.addUser(newUser); // This method will set newUser.userId
+            userDAO.addUser(newUser); // Joins this transaction; sets newUser.userId
 
             // Set the generated userId to the faculty object
             faculty.setUserId(newUser.getUserId());
@@ -66,27 +68,7 @@ public class FacultyDAO {
                     }
                 }
             }
-
-            conn.commit(); // Commit transaction if both user and faculty are added successfully
-        } catch (SQLException e) {
-            if (conn != null) {
-                try {
-                    conn.rollback(); // Rollback if any part of the transaction fails
-                } catch (SQLException ex) {
-                    System.err.println("Rollback failed: " + ex.getMessage());
-                }
-            }
-            throw e; // Re-throw the original exception
-        } finally {
-            if (conn != null) {
-                try {
-                    conn.setAutoCommit(true); // Reset auto-commit mode
-                    conn.close(); // Close the connection
-                } catch (SQLException ex) {
-                    System.err.println("Closing connection failed: " + ex.getMessage());
-                }
-            }
-        }
+        });
     }
 
     /**
@@ -98,20 +80,12 @@ public class FacultyDAO {
      */
     public Faculty getFacultyById(int facultyId) throws SQLException {
         String sql = "SELECT faculty_id, user_id, first_name, last_name, email, phone_number, department FROM Faculty WHERE faculty_id = ?";
-        try (Connection conn = DBController.getConnection();
+        try (Connection conn = DBController.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, facultyId);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return new Faculty(
-                            rs.getInt("faculty_id"),
-                            rs.getInt("user_id"),
-                            rs.getString("first_name"),
-                            rs.getString("last_name"),
-                            rs.getString("email"),
-                            rs.getString("phone_number"),
-                            rs.getString("department")
-                    );
+                    return map(rs);
                 }
             }
         }
@@ -127,20 +101,12 @@ public class FacultyDAO {
      */
     public Faculty getFacultyByUserId(int userId) throws SQLException {
         String sql = "SELECT faculty_id, user_id, first_name, last_name, email, phone_number, department FROM Faculty WHERE user_id = ?";
-        try (Connection conn = DBController.getConnection();
+        try (Connection conn = DBController.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, userId);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return new Faculty(
-                            rs.getInt("faculty_id"),
-                            rs.getInt("user_id"),
-                            rs.getString("first_name"),
-                            rs.getString("last_name"),
-                            rs.getString("email"),
-                            rs.getString("phone_number"),
-                            rs.getString("department")
-                    );
+                    return map(rs);
                 }
             }
         }
@@ -156,24 +122,74 @@ public class FacultyDAO {
     public List<Faculty> getAllFaculty() throws SQLException {
         List<Faculty> facultyList = new ArrayList<>();
         String sql = "SELECT faculty_id, user_id, first_name, last_name, email, phone_number, department FROM Faculty";
-        try (Connection conn = DBController.getConnection();
+        try (Connection conn = DBController.getReadConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             while (rs.next()) {
-                facultyList.add(new Faculty(
-                        rs.getInt("faculty_id"),
-                        rs.getInt("user_id"),
-                        rs.getString("first_name"),
-                        rs.getString("last_name"),
-                        rs.getString("email"),
-                        rs.getString("phone_number"),
-                        rs.getString("department")
-                ));
+                facultyList.add(map(rs));
             }
         }
         return facultyList;
     }
 
+    /**
+     * Retrieves one page of faculty members, in ID order. Unlike {@link #getAllFaculty()}, only
+     * {@code pageSize} rows are read per call, so the whole table can be walked in constant memory
+     * by passing each page's token to the next call.
+     *
+     * @param pageToken The next page token of the previous page, or null for the first page.
+     * @param pageSize The maximum number of rows to return (1 to {@link Page#MAX_PAGE_SIZE}).
+     * @return The page of Faculty objects.
+     * @throws IllegalArgumentException If the page token or page size is invalid.
+     * @throws SQLException If a database access error occurs.
+     */
+    public Page<Faculty> getFacultyPage(String pageToken, int pageSize) throws SQLException {
+        int afterId = Page.decodeToken(pageToken);
+        Page.checkPageSize(pageSize);
+        List<Faculty> facultyList = new ArrayList<>();
+        String sql = "SELECT faculty_id, user_id, first_name, last_name, email, phone_number, department FROM Faculty WHERE faculty_id > ? ORDER BY faculty_id LIMIT ?";
+        try (Connection conn = DBController.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, afterId);
+            stmt.setInt(2, pageSize + 1); // One extra row tells whether another page follows
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    facultyList.add(map(rs));
+                }
+            }
+        }
+        return Page.of(facultyList, pageSize, Faculty::getFacultyId);
+    }
+
+    /**
+     * Streams all faculty members in ID order without reading them into memory first; rows are mapped as the
+     * stream is consumed. The stream holds a database connection until its last row has been read or it
+     * is closed, so use it in a try-with-resources block.
+     *
+     * @return A lazily populated stream of Faculty objects.
+     * @throws SQLException If the query cannot be started. Errors while reading rows are thrown as
+     *                      {@link UncheckedSQLException}.
+     */
+    public Stream<Faculty> streamAllFaculty() throws SQLException {
+        String sql = "SELECT faculty_id, user_id, first_name, last_name, email, phone_number, department FROM Faculty ORDER BY faculty_id";
+        return ResultSetStream.query(sql, FacultyDAO::map);
+    }
+
+    /**
+     * Counts the faculty members, e.g. to report the progress of a streamAllFaculty consumer.
+     *
+     * @return The number of rows in the Faculty table.
+     * @throws SQLException If a database access error occurs.
+     */
+    public long countFaculty() throws SQLException {
+        String sql = "SELECT COUNT(*) FROM Faculty";
+        try (Connection conn = DBController.getReadConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
     /**
      * Updates an existing faculty member's information.
      *
@@ -202,11 +218,7 @@ public class FacultyDAO {
      * @throws SQLException If a database access error occurs during deletion.
      */
     public void deleteFaculty(int facultyId) throws SQLException {
-        Connection conn = null;
-        try {
-            conn = DBController.getConnection();
-            conn.setAutoCommit(false); // Start transaction
-
+        TransactionManager.runInTransaction(conn -> {
             // 1. Get the user_id associated with the faculty
             int userIdToDelete = -1;
             String getUserIdSql = "SELECT user_id FROM Faculty WHERE faculty_id = ?";
@@ -226,32 +238,32 @@ public class FacultyDAO {
             try (PreparedStatement stmt = conn.prepareStatement(deleteFacultySql)) {
                 stmt.setInt(1, facultyId);
                 stmt.executeUpdate();
+                QueryCache.rowsDeleted("Faculty");
             }
 
             // 3. Delete the associated user account
             if (userIdToDelete != -1) {
-                userDAO.deleteUser(userIdToDelete); // Deletes from Users table
+                userDAO.deleteUser(userIdToDelete); // Deletes from Users table in the same transaction
             }
+        });
+    }
 
-            conn.commit(); // Commit transaction
-        } catch (SQLException e) {
-            if (conn != null) {
-                try {
-                    conn.rollback(); // Rollback if any part of the transaction fails
-                } catch (SQLException ex) {
-                    System.err.println("Rollback failed during faculty deletion: " + ex.getMessage());
-                }
-            }
-            throw e; // Re-throw the original exception
-        } finally {
-            if (conn != null) {
-                try {
-                    conn.setAutoCommit(true); // Reset auto-commit mode
-                    conn.close(); // Close the connection
-                } catch (SQLException ex) {
-                    System.err.println("Closing connection failed: " + ex.getMessage());
-                }
-            }
-        }
+    /**
+     * Maps the current row of a query over the {@code Faculty} columns to a Faculty.
+     *
+     * @param rs The result set, positioned on a row.
+     * @return The Faculty.
+     * @throws SQLException If a column cannot be read.
+     */
+    static Faculty map(ResultSet rs) throws SQLException {
+        return new Faculty(
+                rs.getInt("faculty_id"),
+                rs.getInt("user_id"),
+                rs.getString("first_name"),
+                rs.getString("last_name"),
+                rs.getString("email"),
+                rs.getString("phone_number"),
+                rs.getString("department")
+        );
     }
 }
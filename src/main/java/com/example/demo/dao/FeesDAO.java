@@ -11,6 +11,7 @@ import java.sql.Statement;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 
 public class FeesDAO {
 
@@ -59,24 +60,12 @@ public class FeesDAO {
      */
     public Fees getFeesById(int feeId) throws SQLException {
         String sql = "SELECT fee_id, student_id, fee_type, amount, due_date, payment_date, status FROM Fees WHERE fee_id = ?";
-        try (Connection conn = DBController.getConnection();
+        try (Connection conn = DBController.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, feeId);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    LocalDate paymentDate = null;
-                    if (rs.getDate("payment_date") != null) {
-                        paymentDate = rs.getDate("payment_date").toLocalDate();
-                    }
-                    return new Fees(
-                            rs.getInt("fee_id"),
-                            rs.getInt("student_id"),
-                            rs.getString("fee_type"),
-                            rs.getDouble("amount"),
-                            rs.getDate("due_date").toLocalDate(),
-                            paymentDate,
-                            rs.getString("status")
-                    );
+                    return map(rs);
                 }
             }
         }
@@ -93,24 +82,12 @@ public class FeesDAO {
     public List<Fees> getFeesByStudentId(int studentId) throws SQLException {
         List<Fees> feesList = new ArrayList<>();
         String sql = "SELECT fee_id, student_id, fee_type, amount, due_date, payment_date, status FROM Fees WHERE student_id = ? ORDER BY due_date ASC";
-        try (Connection conn = DBController.getConnection();
+        try (Connection conn = DBController.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, studentId);
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    LocalDate paymentDate = null;
-                    if (rs.getDate("payment_date") != null) {
-                        paymentDate = rs.getDate("payment_date").toLocalDate();
-                    }
-                    feesList.add(new Fees(
-                            rs.getInt("fee_id"),
-                            rs.getInt("student_id"),
-                            rs.getString("fee_type"),
-                            rs.getDouble("amount"),
-                            rs.getDate("due_date").toLocalDate(),
-                            paymentDate,
-                            rs.getString("status")
-                    ));
+                    feesList.add(map(rs));
                 }
             }
         }
@@ -126,28 +103,74 @@ public class FeesDAO {
     public List<Fees> getAllFees() throws SQLException {
         List<Fees> feesList = new ArrayList<>();
         String sql = "SELECT fee_id, student_id, fee_type, amount, due_date, payment_date, status FROM Fees ORDER BY due_date ASC";
-        try (Connection conn = DBController.getConnection();
+        try (Connection conn = DBController.getReadConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             while (rs.next()) {
-                LocalDate paymentDate = null;
-                if (rs.getDate("payment_date") != null) {
-                    paymentDate = rs.getDate("payment_date").toLocalDate();
-                }
-                feesList.add(new Fees(
-                        rs.getInt("fee_id"),
-                        rs.getInt("student_id"),
-                        rs.getString("fee_type"),
-                        rs.getDouble("amount"),
-                        rs.getDate("due_date").toLocalDate(),
-                        paymentDate,
-                        rs.getString("status")
-                ));
+                feesList.add(map(rs));
             }
         }
         return feesList;
     }
 
+    /**
+     * Retrieves one page of fee records, in ID order. Unlike {@link #getAllFees()}, only
+     * {@code pageSize} rows are read per call, so the whole table can be walked in constant memory
+     * by passing each page's token to the next call.
+     *
+     * @param pageToken The next page token of the previous page, or null for the first page.
+     * @param pageSize The maximum number of rows to return (1 to {@link Page#MAX_PAGE_SIZE}).
+     * @return The page of Fees objects.
+     * @throws IllegalArgumentException If the page token or page size is invalid.
+     * @throws SQLException If a database access error occurs.
+     */
+    public Page<Fees> getFeesPage(String pageToken, int pageSize) throws SQLException {
+        int afterId = Page.decodeToken(pageToken);
+        Page.checkPageSize(pageSize);
+        List<Fees> feesList = new ArrayList<>();
+        String sql = "SELECT fee_id, student_id, fee_type, amount, due_date, payment_date, status FROM Fees WHERE fee_id > ? ORDER BY fee_id LIMIT ?";
+        try (Connection conn = DBController.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, afterId);
+            stmt.setInt(2, pageSize + 1); // One extra row tells whether another page follows
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    feesList.add(map(rs));
+                }
+            }
+        }
+        return Page.of(feesList, pageSize, Fees::getFeeId);
+    }
+
+    /**
+     * Streams all fee records in ID order without reading them into memory first; rows are mapped as the
+     * stream is consumed. The stream holds a database connection until its last row has been read or it
+     * is closed, so use it in a try-with-resources block.
+     *
+     * @return A lazily populated stream of Fees objects.
+     * @throws SQLException If the query cannot be started. Errors while reading rows are thrown as
+     *                      {@link UncheckedSQLException}.
+     */
+    public Stream<Fees> streamAllFees() throws SQLException {
+        String sql = "SELECT fee_id, student_id, fee_type, amount, due_date, payment_date, status FROM Fees ORDER BY fee_id";
+        return ResultSetStream.query(sql, FeesDAO::map);
+    }
+
+    /**
+     * Counts the fee records, e.g. to report the progress of a streamAllFees consumer.
+     *
+     * @return The number of rows in the Fees table.
+     * @throws SQLException If a database access error occurs.
+     */
+    public long countFees() throws SQLException {
+        String sql = "SELECT COUNT(*) FROM Fees";
+        try (Connection conn = DBController.getReadConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
     /**
      * Updates an existing fee record.
      *
@@ -187,4 +210,27 @@ public class FeesDAO {
             stmt.executeUpdate();
         }
     }
+
+    /**
+     * Maps the current row of a query over the {@code Fees} columns to a Fees.
+     *
+     * @param rs The result set, positioned on a row.
+     * @return The Fees.
+     * @throws SQLException If a column cannot be read.
+     */
+    static Fees map(ResultSet rs) throws SQLException {
+        LocalDate paymentDate = null;
+        if (rs.getDate("payment_date") != null) {
+            paymentDate = rs.getDate("payment_date").toLocalDate();
+        }
+        return new Fees(
+                rs.getInt("fee_id"),
+                rs.getInt("student_id"),
+                rs.getString("fee_type"),
+                rs.getDouble("amount"),
+                rs.getDate("due_date").toLocalDate(),
+                paymentDate,
+                rs.getString("status")
+        );
+    }
 }
@@ -3,6 +3,7 @@ package com.example.demo.dao;
 import com.example.demo.model.Librarian;
 import com.example.demo.model.User; // Required to handle user creation for librarian
 import com.example.demo.DBController; // Correctly referencing the DBController
+import com.example.demo.db.TransactionManager;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -16,7 +17,11 @@ public class LibrarianDAO {
     private UserDAO userDAO; // To manage user accounts associated with the librarian
 
     public LibrarianDAO() {
-        this.userDAO = new UserDAO();
+        this(new UserDAO());
+    }
+
+    public LibrarianDAO(UserDAO userDAO) {
+        this.userDAO = userDAO;
     }
 
     /**
@@ -29,15 +34,11 @@ public class LibrarianDAO {
      * @throws SQLException If a database access error occurs during user or librarian creation.
      */
     public void addLibrarianWithUser(Librarian librarian, String username, String password) throws SQLException {
-        Connection conn = null;
-        try {
-            conn = DBController.getConnection();
-            conn.setAutoCommit(false); // Start transaction
-
+        TransactionManager.runInTransaction(conn -> {
             // 1. Create a new user for the librarian
             // IMPORTANT: In a real app, hash the password here
             User newUser = new User(username, password, "Librarian"); // Role is fixed as "Librarian"
-            userDAO.addUser(newUser); // This method will set newUser.userId
+            userDAO.addUser(newUser); // Joins this transaction; sets newUser.userId
 
             // Set the generated userId to the librarian object
             librarian.setUserId(newUser.getUserId());
@@ -64,27 +65,7 @@ public class LibrarianDAO {
                     }
                 }
             }
-
-            conn.commit(); // Commit transaction if both user and librarian are added successfully
-        } catch (SQLException e) {
-            if (conn != null) {
-                try {
-                    conn.rollback(); // Rollback if any part of the transaction fails
-                } catch (SQLException ex) {
-                    System.err.println("Rollback failed: " + ex.getMessage());
-                }
-            }
-            throw e; // Re-throw the original exception
-        } finally {
-            if (conn != null) {
-                try {
-                    conn.setAutoCommit(true); // Reset auto-commit mode
-                    conn.close(); // Close the connection
-                } catch (SQLException ex) {
-                    System.err.println("Closing connection failed: " + ex.getMessage());
-                }
-            }
-        }
+        });
     }
 
     /**
@@ -96,19 +77,12 @@ public class LibrarianDAO {
      */
     public Librarian getLibrarianById(int librarianId) throws SQLException {
         String sql = "SELECT librarian_id, user_id, first_name, last_name, email, phone_number FROM Librarian WHERE librarian_id = ?";
-        try (Connection conn = DBController.getConnection();
+        try (Connection conn = DBController.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, librarianId);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return new Librarian(
-                            rs.getInt("librarian_id"),
-                            rs.getInt("user_id"),
-                            rs.getString("first_name"),
-                            rs.getString("last_name"),
-                            rs.getString("email"),
-                            rs.getString("phone_number")
-                    );
+                    return map(rs);
                 }
             }
         }
@@ -124,19 +98,12 @@ public class LibrarianDAO {
      */
     public Librarian getLibrarianByUserId(int userId) throws SQLException {
         String sql = "SELECT librarian_id, user_id, first_name, last_name, email, phone_number FROM Librarian WHERE user_id = ?";
-        try (Connection conn = DBController.getConnection();
+        try (Connection conn = DBController.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, userId);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return new Librarian(
-                            rs.getInt("librarian_id"),
-                            rs.getInt("user_id"),
-                            rs.getString("first_name"),
-                            rs.getString("last_name"),
-                            rs.getString("email"),
-                            rs.getString("phone_number")
-                    );
+                    return map(rs);
                 }
             }
         }
@@ -152,23 +119,45 @@ public class LibrarianDAO {
     public List<Librarian> getAllLibrarians() throws SQLException {
         List<Librarian> librarianList = new ArrayList<>();
         String sql = "SELECT librarian_id, user_id, first_name, last_name, email, phone_number FROM Librarian";
-        try (Connection conn = DBController.getConnection();
+        try (Connection conn = DBController.getReadConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             while (rs.next()) {
-                librarianList.add(new Librarian(
-                        rs.getInt("librarian_id"),
-                        rs.getInt("user_id"),
-                        rs.getString("first_name"),
-                        rs.getString("last_name"),
-                        rs.getString("email"),
-                        rs.getString("phone_number")
-                ));
+                librarianList.add(map(rs));
             }
         }
         return librarianList;
     }
 
+    /**
+     * Retrieves one page of librarians, in ID order. Unlike {@link #getAllLibrarians()}, only
+     * {@code pageSize} rows are read per call, so the whole table can be walked in constant memory
+     * by passing each page's token to the next call.
+     *
+     * @param pageToken The next page token of the previous page, or null for the first page.
+     * @param pageSize The maximum number of rows to return (1 to {@link Page#MAX_PAGE_SIZE}).
+     * @return The page of Librarian objects.
+     * @throws IllegalArgumentException If the page token or page size is invalid.
+     * @throws SQLException If a database access error occurs.
+     */
+    public Page<Librarian> getLibrarianPage(String pageToken, int pageSize) throws SQLException {
+        int afterId = Page.decodeToken(pageToken);
+        Page.checkPageSize(pageSize);
+        List<Librarian> librarianList = new ArrayList<>();
+        String sql = "SELECT librarian_id, user_id, first_name, last_name, email, phone_number FROM Librarian WHERE librarian_id > ? ORDER BY librarian_id LIMIT ?";
+        try (Connection conn = DBController.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, afterId);
+            stmt.setInt(2, pageSize + 1); // One extra row tells whether another page follows
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    librarianList.add(map(rs));
+                }
+            }
+        }
+        return Page.of(librarianList, pageSize, Librarian::getLibrarianId);
+    }
+
     /**
      * Updates an existing librarian's information.
      *
@@ -196,11 +185,7 @@ public class LibrarianDAO {
      * @throws SQLException If a database access error occurs during deletion.
      */
     public void deleteLibrarian(int librarianId) throws SQLException {
-        Connection conn = null;
-        try {
-            conn = DBController.getConnection();
-            conn.setAutoCommit(false); // Start transaction
-
+        TransactionManager.runInTransaction(conn -> {
             // 1. Get the user_id associated with the librarian
             int userIdToDelete = -1;
             String getUserIdSql = "SELECT user_id FROM Librarian WHERE librarian_id = ?";
@@ -220,33 +205,31 @@ public class LibrarianDAO {
             try (PreparedStatement stmt = conn.prepareStatement(deleteLibrarianSql)) {
                 stmt.setInt(1, librarianId);
                 stmt.executeUpdate();
+                QueryCache.rowsDeleted("Librarian");
             }
 
             // 3. Delete the associated user account
             if (userIdToDelete != -1) {
-                userDAO.deleteUser(userIdToDelete); // Deletes from Users table
+                userDAO.deleteUser(userIdToDelete); // Deletes from Users table in the same transaction
             }
+        });
+    }
 
-            conn.commit(); // Commit transaction
-        } catch (SQLException e) {
-            if (conn != null) {
-                try {
-                    conn.rollback(); // Rollback if any part of the transaction fails
-                } catch (SQLException ex) {
-                    System.err.println("Rollback failed during librarian deletion: " + ex.getMessage());
-                }
-            }
-            throw e; // Re-throw the original exception
-        } finally {
-            if (conn != null) {
-                try {
-                    conn.setAutoCommit(true); // Reset auto-commit mode
-                    conn.close(); // Close the connection
-                } catch (SQLException ex) {
-                    System.err.println("Closing connection failed: " + ex.getMessage());
-                }
-            }
-        }
+    /**
+     * Maps the current row of a query over the {@code Librarian} columns to a Librarian.
+     *
+     * @param rs The result set, positioned on a row.
+     * @return The Librarian.
+     * @throws SQLException If a column cannot be read.
+     */
+    static Librarian map(ResultSet rs) throws SQLException {
+        return new Librarian(
+                rs.getInt("librarian_id"),
+                rs.getInt("user_id"),
+                rs.getString("first_name"),
+                rs.getString("last_name"),
+                rs.getString("email"),
+                rs.getString("phone_number")
+        );
     }
 }
-
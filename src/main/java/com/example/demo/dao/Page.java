@@ -0,0 +1,102 @@
+package com.example.demo.dao;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * One page of a keyset-paginated read, returned by the DAO {@code get*Page} methods.
+ * <p>
+ * Pages are ordered by primary key and each query starts after the last key of the previous page
+ * ({@code WHERE id > ? ORDER BY id LIMIT ?}), so every page costs one index range read no matter how
+ * deep into the table it is, and rows inserted or deleted between calls never shift later pages.
+ * The continuation token is opaque to callers: pass {@link #getNextPageToken()} to the next call,
+ * or null to start from the beginning.
+ *
+ * @param <T> The model type.
+ */
+public final class Page<T> {
+
+    public static final int MAX_PAGE_SIZE = 1000;
+    private static final String TOKEN_PREFIX = "id:";
+
+    private final List<T> items;
+    private final String nextPageToken;
+
+    private Page(List<T> items, String nextPageToken) {
+        this.items = Collections.unmodifiableList(items);
+        this.nextPageToken = nextPageToken;
+    }
+
+    /**
+     * Builds a page from rows read with {@code LIMIT pageSize + 1}; the extra row, if present, only
+     * signals that another page follows and is dropped.
+     *
+     * @param rows The rows read, in key order.
+     * @param pageSize The requested page size.
+     * @param keyOf Extracts the primary key of a row.
+     * @return The page.
+     */
+    static <T> Page<T> of(List<T> rows, int pageSize, ToIntFunction<T> keyOf) {
+        if (rows.size() <= pageSize) {
+            return new Page<>(rows, null);
+        }
+        List<T> items = rows.subList(0, pageSize);
+        return new Page<>(items, encodeToken(keyOf.applyAsInt(items.get(pageSize - 1))));
+    }
+
+    /**
+     * @param pageSize The requested page size.
+     * @throws IllegalArgumentException If the size is not between 1 and {@link #MAX_PAGE_SIZE}.
+     */
+    static void checkPageSize(int pageSize) {
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE + ".");
+        }
+    }
+
+    /**
+     * @param pageToken A token from {@link #getNextPageToken()}, or null for the first page.
+     * @return The last key of the previous page (0 for the first page; generated keys start at 1).
+     * @throws IllegalArgumentException If the token was not produced by this class.
+     */
+    static int decodeToken(String pageToken) {
+        if (pageToken == null || pageToken.isEmpty()) {
+            return 0;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(pageToken), StandardCharsets.UTF_8);
+            if (decoded.startsWith(TOKEN_PREFIX)) {
+                int key = Integer.parseInt(decoded.substring(TOKEN_PREFIX.length()));
+                if (key > 0) {
+                    return key;
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            // Not Base64 or not a number; reported below
+        }
+        throw new IllegalArgumentException("Invalid page token.");
+    }
+
+    static String encodeToken(int key) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((TOKEN_PREFIX + key).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * @return The token for the following page, or null if this is the last page.
+     */
+    public String getNextPageToken() {
+        return nextPageToken;
+    }
+
+    public boolean hasNextPage() {
+        return nextPageToken != null;
+    }
+}
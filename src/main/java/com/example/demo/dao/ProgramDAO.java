@@ -48,15 +48,12 @@ public class ProgramDAO {
      */
     public Program getProgramById(int programId) throws SQLException {
         String sql = "SELECT program_id, program_name FROM Programs WHERE program_id = ?";
-        try (Connection conn = DBController.getConnection();
+        try (Connection conn = DBController.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, programId);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return new Program(
-                            rs.getInt("program_id"),
-                            rs.getString("program_name")
-                    );
+                    return map(rs);
                 }
             }
         }
@@ -72,15 +69,12 @@ public class ProgramDAO {
      */
     public Program getProgramByName(String programName) throws SQLException {
         String sql = "SELECT program_id, program_name FROM Programs WHERE program_name = ?";
-        try (Connection conn = DBController.getConnection();
+        try (Connection conn = DBController.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, programName);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return new Program(
-                            rs.getInt("program_id"),
-                            rs.getString("program_name")
-                    );
+                    return map(rs);
                 }
             }
         }
@@ -97,19 +91,45 @@ public class ProgramDAO {
     public List<Program> getAllPrograms() throws SQLException {
         List<Program> programs = new ArrayList<>();
         String sql = "SELECT program_id, program_name FROM Programs ORDER BY program_name ASC";
-        try (Connection conn = DBController.getConnection();
+        try (Connection conn = DBController.getReadConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             while (rs.next()) {
-                programs.add(new Program(
-                        rs.getInt("program_id"),
-                        rs.getString("program_name")
-                ));
+                programs.add(map(rs));
             }
         }
         return programs;
     }
 
+    /**
+     * Retrieves one page of programs, in ID order. Unlike {@link #getAllPrograms()}, only
+     * {@code pageSize} rows are read per call, so the whole table can be walked in constant memory
+     * by passing each page's token to the next call.
+     *
+     * @param pageToken The next page token of the previous page, or null for the first page.
+     * @param pageSize The maximum number of rows to return (1 to {@link Page#MAX_PAGE_SIZE}).
+     * @return The page of Program objects.
+     * @throws IllegalArgumentException If the page token or page size is invalid.
+     * @throws SQLException If a database access error occurs.
+     */
+    public Page<Program> getProgramPage(String pageToken, int pageSize) throws SQLException {
+        int afterId = Page.decodeToken(pageToken);
+        Page.checkPageSize(pageSize);
+        List<Program> programs = new ArrayList<>();
+        String sql = "SELECT program_id, program_name FROM Programs WHERE program_id > ? ORDER BY program_id LIMIT ?";
+        try (Connection conn = DBController.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, afterId);
+            stmt.setInt(2, pageSize + 1); // One extra row tells whether another page follows
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    programs.add(map(rs));
+                }
+            }
+        }
+        return Page.of(programs, pageSize, Program::getProgramId);
+    }
+
     /**
      * Updates an existing academic program's information.
      *
@@ -138,6 +158,21 @@ public class ProgramDAO {
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, programId);
             stmt.executeUpdate();
+            QueryCache.rowsDeleted("Programs"); // Deletes the program's courses and their routines and assignments
         }
     }
+
+    /**
+     * Maps the current row of a query over the {@code Programs} columns to a Program.
+     *
+     * @param rs The result set, positioned on a row.
+     * @return The Program.
+     * @throws SQLException If a column cannot be read.
+     */
+    static Program map(ResultSet rs) throws SQLException {
+        return new Program(
+                rs.getInt("program_id"),
+                rs.getString("program_name")
+        );
+    }
 }
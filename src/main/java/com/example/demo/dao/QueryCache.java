@@ -0,0 +1,375 @@
+package com.example.demo.dao;
+
+import com.example.demo.db.DBConfig;
+import com.example.demo.db.TransactionManager;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
+
+/**
+ * Caches the results of list queries that many users run and that rarely change, such as the
+ * announcements of a role or the class routine of a semester.
+ * <p>
+ * Results are keyed by DAO method and parameters, and each result remembers the version of every table
+ * it was read from. The DAOs call {@link #tableChanged} after inserting or updating rows of a table and
+ * {@link #rowsDeleted} after deleting rows, which also covers the tables the schema's
+ * {@code ON DELETE CASCADE / SET NULL} foreign keys change. A cached result whose tables have changed
+ * since it was read is never returned. Results are additionally reloaded after
+ * {@code db.cache.query.ttlMillis}, which bounds how long changes made by other clients go unnoticed.
+ * <p>
+ * Callers that miss on the same key at the same time share one query. At most
+ * {@code db.cache.query.maxEntries} results are kept (0 disables the cache); the least recently used
+ * are evicted. Model objects are mutable, so results are stored and returned as copies.
+ * Results read inside a transaction are not stored, and a table change made inside a transaction is
+ * applied again when the transaction completes, so uncommitted rows never enter the cache.
+ */
+public final class QueryCache {
+
+    /** Runs the query on a miss. */
+    @FunctionalInterface
+    public interface Query<T> {
+        List<T> run() throws SQLException;
+    }
+
+    // Child tables changed by ON DELETE CASCADE / SET NULL when rows of the parent table are deleted (see V1__baseline_schema.sql)
+    private static final Map<String, List<String>> DELETE_DEPENDENTS = new HashMap<>();
+    static {
+        DELETE_DEPENDENTS.put("Users", Arrays.asList("Students", "Faculty", "Librarian", "Announcements"));
+        DELETE_DEPENDENTS.put("Programs", Arrays.asList("Students", "Courses"));
+        DELETE_DEPENDENTS.put("Students", Arrays.asList("Enrollments", "Attendance", "Results", "Fees", "Borrowings", "Submissions"));
+        DELETE_DEPENDENTS.put("Faculty", Arrays.asList("Attendance", "Routines", "Assignments"));
+        DELETE_DEPENDENTS.put("Courses", Arrays.asList("Enrollments", "Attendance", "Results", "Routines", "Assignments"));
+        DELETE_DEPENDENTS.put("Books", Collections.singletonList("Borrowings"));
+        DELETE_DEPENDENTS.put("Assignments", Collections.singletonList("Submissions"));
+    }
+
+    private static final DBConfig CONFIG = DBConfig.load();
+    private static final int MAX_ENTRIES = CONFIG.getInt("db.cache.query.maxEntries", 500);
+    private static final long TTL_NANOS = toNanos(CONFIG.getLong("db.cache.query.ttlMillis", 300_000));
+
+    private static final Map<String, AtomicLong> VERSIONS = new ConcurrentHashMap<>();
+    private static final LinkedHashMap<Key, Entry> ENTRIES = new LinkedHashMap<>(64, 0.75f, true); // Access order; guarded by itself
+    private static final Map<Key, Load> LOADING = new ConcurrentHashMap<>();
+    private static final Map<String, MethodStats> STATS = new ConcurrentHashMap<>();
+    private static final AtomicLong evictions = new AtomicLong();
+
+    private QueryCache() {
+    }
+
+    /**
+     * Returns copies of the cached result of a query, or runs the query and caches its result.
+     *
+     * @param daoMethod The DAO method, e.g. {@code "AnnouncementDAO.getAnnouncementsByTargetRole"}.
+     * @param params The query parameters; they must have value-based {@code equals} and {@code hashCode}.
+     * @param tables The tables the query reads.
+     * @param copier Copies one row object.
+     * @param query Runs the query on a miss.
+     * @param <T> The row type.
+     * @return A new list of copies; the caller may modify it.
+     * @throws SQLException If the query fails.
+     */
+    public static <T> List<T> list(String daoMethod, List<?> params, String[] tables, UnaryOperator<T> copier,
+                                   Query<T> query) throws SQLException {
+        MethodStats stats = STATS.computeIfAbsent(daoMethod, MethodStats::new);
+        if (MAX_ENTRIES <= 0) {
+            stats.misses.incrementAndGet();
+            return query.run();
+        }
+        Key key = new Key(daoMethod, params);
+        long[] versions = versionsOf(tables);
+        synchronized (ENTRIES) {
+            Entry entry = ENTRIES.get(key);
+            if (entry != null) {
+                if (Arrays.equals(entry.versions, versions) && System.nanoTime() - entry.loadedAt < TTL_NANOS) {
+                    stats.hits.incrementAndGet();
+                    return copyAll(entry.rows, copier);
+                }
+                ENTRIES.remove(key); // A table changed or the entry is too old
+                stats.stale.incrementAndGet();
+            }
+        }
+        if (TransactionManager.isActive()) {
+            stats.misses.incrementAndGet(); // May see the transaction's own uncommitted rows, so not shared
+            return query.run();
+        }
+
+        // Callers that miss at the same time wait for one query instead of all running it
+        Load load = new Load(versions);
+        Load running = LOADING.putIfAbsent(key, load);
+        if (running != null) {
+            if (Arrays.equals(running.versions, versions)) {
+                stats.hits.incrementAndGet();
+                return copyAll(running.await(), copier);
+            }
+            stats.misses.incrementAndGet();
+            return query.run();
+        }
+        stats.misses.incrementAndGet();
+        try {
+            List<T> rows = query.run();
+            List<T> cached = copyAll(rows, copier);
+            load.complete(cached, null);
+            // Tables changed while the query ran may or may not be reflected in its result
+            if (Arrays.equals(versions, versionsOf(tables))) {
+                store(key, new Entry(versions, cached));
+            }
+            return rows;
+        } catch (SQLException | RuntimeException | Error e) {
+            load.complete(null, e);
+            throw e;
+        } finally {
+            LOADING.remove(key, load);
+        }
+    }
+
+    private static void store(Key key, Entry entry) {
+        synchronized (ENTRIES) {
+            ENTRIES.put(key, entry);
+            Iterator<Entry> eldest = ENTRIES.values().iterator();
+            while (ENTRIES.size() > MAX_ENTRIES && eldest.hasNext()) {
+                eldest.next();
+                eldest.remove();
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Marks rows of a table as inserted or updated, so cached results that read it are reloaded. Inside
+     * a transaction the table is marked again when the transaction completes.
+     *
+     * @param table The table name as used in the SQL, e.g. {@code "Announcements"}.
+     */
+    public static void tableChanged(String table) {
+        bump(Collections.singleton(table));
+    }
+
+    /**
+     * Marks rows of a table as deleted, together with the tables its foreign keys cascade to.
+     *
+     * @param table The table name as used in the SQL, e.g. {@code "Courses"}.
+     */
+    public static void rowsDeleted(String table) {
+        Set<String> tables = new HashSet<>();
+        collectDependents(table, tables);
+        bump(tables);
+    }
+
+    /**
+     * Drops all cached results, e.g. after rows were changed with SQL outside the DAOs.
+     */
+    public static void clear() {
+        synchronized (ENTRIES) {
+            ENTRIES.clear();
+        }
+    }
+
+    private static void bump(Set<String> tables) {
+        Runnable bump = () -> {
+            for (String table : tables) {
+                VERSIONS.computeIfAbsent(table, t -> new AtomicLong()).incrementAndGet();
+            }
+        };
+        bump.run();
+        TransactionManager.afterCompletion(bump); // Another thread may re-read the old rows before the commit
+    }
+
+    private static void collectDependents(String table, Set<String> tables) {
+        if (tables.add(table)) {
+            for (String dependent : DELETE_DEPENDENTS.getOrDefault(table, Collections.emptyList())) {
+                collectDependents(dependent, tables);
+            }
+        }
+    }
+
+    private static long[] versionsOf(String[] tables) {
+        long[] versions = new long[tables.length];
+        for (int i = 0; i < tables.length; i++) {
+            versions[i] = VERSIONS.computeIfAbsent(tables[i], t -> new AtomicLong()).get();
+        }
+        return versions;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> List<T> copyAll(List<?> rows, UnaryOperator<T> copier) {
+        List<T> copies = new ArrayList<>(rows.size());
+        for (Object row : rows) {
+            copies.add(copier.apply((T) row));
+        }
+        return copies;
+    }
+
+    private static long toNanos(long ttlMillis) {
+        return ttlMillis > 0 ? ttlMillis * 1_000_000L : Long.MAX_VALUE;
+    }
+
+    /**
+     * @return The number of cached results.
+     */
+    public static int size() {
+        synchronized (ENTRIES) {
+            return ENTRIES.size();
+        }
+    }
+
+    /**
+     * @return Hit and miss counts per DAO method, most lookups first.
+     */
+    public static List<Snapshot> snapshot() {
+        List<Snapshot> list = new ArrayList<>();
+        for (MethodStats s : STATS.values()) {
+            list.add(new Snapshot(s.daoMethod, s.hits.get(), s.misses.get(), s.stale.get()));
+        }
+        list.sort(Comparator.comparingLong((Snapshot s) -> s.getHits() + s.getMisses()).reversed());
+        return list;
+    }
+
+    /**
+     * Clears the statistics; cached results are kept.
+     */
+    public static void resetStats() {
+        STATS.clear();
+        evictions.set(0);
+    }
+
+    /**
+     * Formats the statistics as plain text, one line per DAO method.
+     *
+     * @return The report.
+     */
+    public static String report() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Query cache: %d/%d results, %d evictions%n", size(), MAX_ENTRIES, evictions.get()));
+        for (Snapshot s : snapshot()) {
+            sb.append(String.format("  %-55s %8d hits %8d misses %6d stale %6.1f%%%n",
+                    s.getDaoMethod(), s.getHits(), s.getMisses(), s.getStale(), s.getHitRate() * 100));
+        }
+        return sb.toString();
+    }
+
+    private static final class Key {
+        final String daoMethod;
+        final List<?> params;
+
+        Key(String daoMethod, List<?> params) {
+            this.daoMethod = daoMethod;
+            this.params = params;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return daoMethod.equals(other.daoMethod) && params.equals(other.params);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * daoMethod.hashCode() + params.hashCode();
+        }
+    }
+
+    private static final class Entry {
+        final long[] versions;
+        final List<?> rows; // Never handed out; callers get copies
+        final long loadedAt = System.nanoTime();
+
+        Entry(long[] versions, List<?> rows) {
+            this.versions = versions;
+            this.rows = rows;
+        }
+    }
+
+    /** A query in progress that concurrent callers with the same key wait for. */
+    private static final class Load {
+        final long[] versions;
+        private final CountDownLatch done = new CountDownLatch(1);
+        private volatile List<?> rows;
+        private volatile Throwable error;
+
+        Load(long[] versions) {
+            this.versions = versions;
+        }
+
+        void complete(List<?> rows, Throwable error) {
+            this.rows = rows;
+            this.error = error;
+            done.countDown();
+        }
+
+        List<?> await() throws SQLException {
+            try {
+                done.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for a query of another thread.", e);
+            }
+            if (error instanceof SQLException) {
+                throw new SQLException(error.getMessage(), ((SQLException) error).getSQLState(), error);
+            }
+            if (error instanceof RuntimeException) {
+                throw (RuntimeException) error;
+            }
+            if (error != null) {
+                throw (Error) error;
+            }
+            return rows;
+        }
+    }
+
+    private static final class MethodStats {
+        final String daoMethod;
+        final AtomicLong hits = new AtomicLong();
+        final AtomicLong misses = new AtomicLong();
+        final AtomicLong stale = new AtomicLong();
+
+        MethodStats(String daoMethod) {
+            this.daoMethod = daoMethod;
+        }
+    }
+
+    /**
+     * A point-in-time copy of the statistics of one DAO method.
+     */
+    public static final class Snapshot {
+        private final String daoMethod;
+        private final long hits;
+        private final long misses;
+        private final long stale;
+
+        Snapshot(String daoMethod, long hits, long misses, long stale) {
+            this.daoMethod = daoMethod;
+            this.hits = hits;
+            this.misses = misses;
+            this.stale = stale;
+        }
+
+        public String getDaoMethod() { return daoMethod; }
+        public long getHits() { return hits; }
+        public long getMisses() { return misses; }
+        /** @return Cached results found but discarded because a table changed or they had expired. */
+        public long getStale() { return stale; }
+
+        /** @return Hits as a fraction of all lookups, or 0 if there were none. */
+        public double getHitRate() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0 : (double) hits / lookups;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.example.demo.dao;
 
 import com.example.demo.model.Result;
 import com.example.demo.DBController; // Correctly referencing the DBController
+import com.example.demo.db.TransactionManager;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -9,6 +10,7 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 
 public class ResultDAO {
 
@@ -50,6 +52,66 @@ public class ResultDAO {
         }
     }
 
+    /**
+     * Adds a result record unless the student already has a result for the course in that academic
+     * year ({@code uq_results_student_course_year}).
+     *
+     * @param result The Result object to add. Its resultId is updated if it was added.
+     * @return True if the record was added, false if it already existed.
+     * @throws SQLException If a database access error occurs.
+     */
+    public boolean addResultIfAbsent(Result result) throws SQLException {
+        try {
+            addResult(result);
+            return true;
+        } catch (SQLException e) {
+            if (SqlErrors.isDuplicateKey(e)) {
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Adds or replaces several result records with a single JDBC batch. A record whose student,
+     * course and academic year already have a result (the uq_results_student_course_year constraint)
+     * overwrites that result's semester, marks, grade and status instead of failing, so re-running
+     * an import is harmless. Runs in a transaction (joining the caller's, if any), so either all
+     * records are written or none.
+     * <p>
+     * The resultIds of the records are not updated: an update does not generate a key.
+     *
+     * @param results The records to add or replace.
+     * @throws SQLException If a database access error occurs.
+     */
+    public void upsertResults(List<Result> results) throws SQLException {
+        if (results.isEmpty()) {
+            return;
+        }
+        String sql = "INSERT INTO Results (student_id, course_id, semester_number, academic_year, marks_obtained, grade, result_status) VALUES (?, ?, ?, ?, ?, ?, ?) "
+                + "ON DUPLICATE KEY UPDATE semester_number = VALUES(semester_number), marks_obtained = VALUES(marks_obtained), "
+                + "grade = VALUES(grade), result_status = VALUES(result_status)";
+        TransactionManager.runInTransaction(conn -> {
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                for (Result result : results) {
+                    stmt.setInt(1, result.getStudentId());
+                    stmt.setInt(2, result.getCourseId());
+                    stmt.setInt(3, result.getSemesterNumber());
+                    stmt.setString(4, result.getAcademicYear());
+                    if (result.getMarksObtained() != null) {
+                        stmt.setInt(5, result.getMarksObtained());
+                    } else {
+                        stmt.setNull(5, java.sql.Types.INTEGER);
+                    }
+                    stmt.setString(6, result.getGrade());
+                    stmt.setString(7, result.getResultStatus());
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+            }
+        });
+    }
+
     /**
      * Retrieves a result record by its ID.
      *
@@ -59,21 +121,12 @@ public class ResultDAO {
      */
     public Result getResultById(int resultId) throws SQLException {
         String sql = "SELECT result_id, student_id, course_id, semester_number, academic_year, marks_obtained, grade, result_status FROM Results WHERE result_id = ?";
-        try (Connection conn = DBController.getConnection();
+        try (Connection conn = DBController.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, resultId);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return new Result(
-                            rs.getInt("result_id"),
-                            rs.getInt("student_id"),
-                            rs.getInt("course_id"),
-                            rs.getInt("semester_number"),
-                            rs.getString("academic_year"),
-                            (Integer) rs.getObject("marks_obtained"), // For nullable INT
-                            rs.getString("grade"),
-                            rs.getString("result_status")
-                    );
+                    return map(rs);
                 }
             }
         }
@@ -90,21 +143,12 @@ public class ResultDAO {
     public List<Result> getResultsByStudentId(int studentId) throws SQLException {
         List<Result> results = new ArrayList<>();
         String sql = "SELECT result_id, student_id, course_id, semester_number, academic_year, marks_obtained, grade, result_status FROM Results WHERE student_id = ? ORDER BY academic_year DESC, semester_number ASC, course_id ASC";
-        try (Connection conn = DBController.getConnection();
+        try (Connection conn = DBController.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, studentId);
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    results.add(new Result(
-                            rs.getInt("result_id"),
-                            rs.getInt("student_id"),
-                            rs.getInt("course_id"),
-                            rs.getInt("semester_number"),
-                            rs.getString("academic_year"),
-                            (Integer) rs.getObject("marks_obtained"),
-                            rs.getString("grade"),
-                            rs.getString("result_status")
-                    ));
+                    results.add(map(rs));
                 }
             }
         }
@@ -122,23 +166,14 @@ public class ResultDAO {
      */
     public Result getResultByStudentCourseAndYear(int studentId, int courseId, String academicYear) throws SQLException {
         String sql = "SELECT result_id, student_id, course_id, semester_number, academic_year, marks_obtained, grade, result_status FROM Results WHERE student_id = ? AND course_id = ? AND academic_year = ?";
-        try (Connection conn = DBController.getConnection();
+        try (Connection conn = DBController.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, studentId);
             stmt.setInt(2, courseId);
             stmt.setString(3, academicYear);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return new Result(
-                            rs.getInt("result_id"),
-                            rs.getInt("student_id"),
-                            rs.getInt("course_id"),
-                            rs.getInt("semester_number"),
-                            rs.getString("academic_year"),
-                            (Integer) rs.getObject("marks_obtained"),
-                            rs.getString("grade"),
-                            rs.getString("result_status")
-                    );
+                    return map(rs);
                 }
             }
         }
@@ -154,25 +189,74 @@ public class ResultDAO {
     public List<Result> getAllResults() throws SQLException {
         List<Result> results = new ArrayList<>();
         String sql = "SELECT result_id, student_id, course_id, semester_number, academic_year, marks_obtained, grade, result_status FROM Results ORDER BY academic_year DESC, student_id ASC, course_id ASC";
-        try (Connection conn = DBController.getConnection();
+        try (Connection conn = DBController.getReadConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             while (rs.next()) {
-                results.add(new Result(
-                        rs.getInt("result_id"),
-                        rs.getInt("student_id"),
-                        rs.getInt("course_id"),
-                        rs.getInt("semester_number"),
-                        rs.getString("academic_year"),
-                        (Integer) rs.getObject("marks_obtained"),
-                        rs.getString("grade"),
-                        rs.getString("result_status")
-                ));
+                results.add(map(rs));
             }
         }
         return results;
     }
 
+    /**
+     * Retrieves one page of results, in ID order. Unlike {@link #getAllResults()}, only
+     * {@code pageSize} rows are read per call, so the whole table can be walked in constant memory
+     * by passing each page's token to the next call.
+     *
+     * @param pageToken The next page token of the previous page, or null for the first page.
+     * @param pageSize The maximum number of rows to return (1 to {@link Page#MAX_PAGE_SIZE}).
+     * @return The page of Result objects.
+     * @throws IllegalArgumentException If the page token or page size is invalid.
+     * @throws SQLException If a database access error occurs.
+     */
+    public Page<Result> getResultPage(String pageToken, int pageSize) throws SQLException {
+        int afterId = Page.decodeToken(pageToken);
+        Page.checkPageSize(pageSize);
+        List<Result> results = new ArrayList<>();
+        String sql = "SELECT result_id, student_id, course_id, semester_number, academic_year, marks_obtained, grade, result_status FROM Results WHERE result_id > ? ORDER BY result_id LIMIT ?";
+        try (Connection conn = DBController.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, afterId);
+            stmt.setInt(2, pageSize + 1); // One extra row tells whether another page follows
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    results.add(map(rs));
+                }
+            }
+        }
+        return Page.of(results, pageSize, Result::getResultId);
+    }
+
+    /**
+     * Streams all results in ID order without reading them into memory first; rows are mapped as the
+     * stream is consumed. The stream holds a database connection until its last row has been read or it
+     * is closed, so use it in a try-with-resources block.
+     *
+     * @return A lazily populated stream of Result objects.
+     * @throws SQLException If the query cannot be started. Errors while reading rows are thrown as
+     *                      {@link UncheckedSQLException}.
+     */
+    public Stream<Result> streamAllResults() throws SQLException {
+        String sql = "SELECT result_id, student_id, course_id, semester_number, academic_year, marks_obtained, grade, result_status FROM Results ORDER BY result_id";
+        return ResultSetStream.query(sql, ResultDAO::map);
+    }
+
+    /**
+     * Counts the result records, e.g. to report the progress of a streamAllResults consumer.
+     *
+     * @return The number of rows in the Results table.
+     * @throws SQLException If a database access error occurs.
+     */
+    public long countResults() throws SQLException {
+        String sql = "SELECT COUNT(*) FROM Results";
+        try (Connection conn = DBController.getReadConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
     /**
      * Updates an existing result record.
      *
@@ -213,4 +297,24 @@ public class ResultDAO {
             stmt.executeUpdate();
         }
     }
+
+    /**
+     * Maps the current row of a query over the {@code Results} columns to a Result.
+     *
+     * @param rs The result set, positioned on a row.
+     * @return The Result.
+     * @throws SQLException If a column cannot be read.
+     */
+    static Result map(ResultSet rs) throws SQLException {
+        return new Result(
+                rs.getInt("result_id"),
+                rs.getInt("student_id"),
+                rs.getInt("course_id"),
+                rs.getInt("semester_number"),
+                rs.getString("academic_year"),
+                (Integer) rs.getObject("marks_obtained"), // For nullable INT
+                rs.getString("grade"),
+                rs.getString("result_status")
+        );
+    }
 }
@@ -0,0 +1,154 @@
+package com.example.demo.dao;
+
+import com.example.demo.DBController;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Runs a query on a read connection and exposes its rows as a lazily mapped {@link Stream}.
+ * <p>
+ * The statement is forward-only and read-only with the streaming fetch size from
+ * {@link DBController#getStreamFetchSize()}, so the driver hands rows over as they are consumed instead
+ * of reading the whole result into memory. The stream owns its connection, statement and result set:
+ * they are closed when the last row has been read or when the stream is closed, whichever comes first,
+ * so callers must close the stream (try-with-resources) if they may stop early.
+ * <p>
+ * On MySQL a streaming result blocks its connection until it is closed. Inside a transaction the stream
+ * uses the transaction's connection, so no other statement may run in that transaction until it is closed.
+ */
+final class ResultSetStream {
+
+    /**
+     * Maps the current row of a result set.
+     */
+    @FunctionalInterface
+    interface RowMapper<T> {
+        T map(ResultSet rs) throws SQLException;
+    }
+
+    /**
+     * Binds the query's parameters.
+     */
+    @FunctionalInterface
+    interface Binder {
+        void bind(PreparedStatement stmt) throws SQLException;
+    }
+
+    private ResultSetStream() {
+    }
+
+    static <T> Stream<T> query(String sql, RowMapper<T> mapper) throws SQLException {
+        return query(sql, stmt -> { }, mapper);
+    }
+
+    /**
+     * Executes the query and returns a stream over its rows.
+     *
+     * @param sql The SELECT statement.
+     * @param binder Sets the statement's parameters.
+     * @param mapper Maps each row; called once per row as the stream is consumed.
+     * @return A sequential, ordered stream that must be closed.
+     * @throws SQLException If the query cannot be started. Errors while reading rows are thrown as
+     *                      {@link UncheckedSQLException} from the stream operation that hit them.
+     */
+    static <T> Stream<T> query(String sql, Binder binder, RowMapper<T> mapper) throws SQLException {
+        Connection conn = DBController.getReadConnection();
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+        try {
+            stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            stmt.setFetchSize(DBController.getStreamFetchSize());
+            binder.bind(stmt);
+            rs = stmt.executeQuery();
+        } catch (SQLException | RuntimeException e) {
+            close(rs, stmt, conn);
+            throw e;
+        }
+        Rows<T> rows = new Rows<>(conn, stmt, rs, mapper);
+        return StreamSupport.stream(rows, false).onClose(rows::close);
+    }
+
+    private static void close(ResultSet rs, PreparedStatement stmt, Connection conn) {
+        SQLException failure = closeChained(rs, null);
+        failure = closeChained(stmt, failure);
+        failure = closeChained(conn, failure);
+        if (failure != null) {
+            System.err.println("Closing streamed query failed: " + failure.getMessage());
+        }
+    }
+
+    /**
+     * Closes one resource, keeping the first failure and adding later ones to it as suppressed.
+     *
+     * @return The first failure so far, or null if there was none.
+     */
+    private static SQLException closeChained(AutoCloseable resource, SQLException failure) {
+        if (resource == null) {
+            return failure;
+        }
+        try {
+            resource.close();
+        } catch (Exception e) {
+            SQLException wrapped = e instanceof SQLException ? (SQLException) e : new SQLException(e);
+            if (failure == null) {
+                return wrapped;
+            }
+            failure.addSuppressed(wrapped);
+        }
+        return failure;
+    }
+
+    /**
+     * Reads one row per {@code tryAdvance}, closing everything after the last row.
+     */
+    private static final class Rows<T> extends Spliterators.AbstractSpliterator<T> {
+        private final Connection conn;
+        private final PreparedStatement stmt;
+        private final ResultSet rs;
+        private final RowMapper<T> mapper;
+        private boolean closed;
+
+        Rows(Connection conn, PreparedStatement stmt, ResultSet rs, RowMapper<T> mapper) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.conn = conn;
+            this.stmt = stmt;
+            this.rs = rs;
+            this.mapper = mapper;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (closed) {
+                return false;
+            }
+            T row;
+            try {
+                if (!rs.next()) {
+                    close();
+                    return false;
+                }
+                row = mapper.map(rs);
+            } catch (SQLException e) {
+                close();
+                throw new UncheckedSQLException(e);
+            }
+            action.accept(row);
+            return true;
+        }
+
+        void close() {
+            if (!closed) {
+                closed = true;
+                ResultSetStream.close(rs, stmt, conn);
+            }
+        }
+    }
+}
@@ -10,6 +10,7 @@ import java.sql.Statement;
 import java.sql.Time; // For LocalTime
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 public class RoutineDAO {
@@ -39,6 +40,7 @@ public class RoutineDAO {
             stmt.setInt(9, routine.getSemesterNumber());
 
             int affectedRows = stmt.executeUpdate();
+            QueryCache.tableChanged("Routines");
             if (affectedRows == 0) {
                 throw new SQLException("Creating routine record failed, no rows affected.");
             }
@@ -62,23 +64,12 @@ public class RoutineDAO {
      */
     public Routine getRoutineById(int routineId) throws SQLException {
         String sql = "SELECT routine_id, course_id, faculty_id, routine_type, day_of_week, start_time, end_time, room_location, academic_year, semester_number FROM Routines WHERE routine_id = ?";
-        try (Connection conn = DBController.getConnection();
+        try (Connection conn = DBController.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, routineId);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return new Routine(
-                            rs.getInt("routine_id"),
-                            rs.getInt("course_id"),
-                            (Integer) rs.getObject("faculty_id"), // For nullable INT
-                            rs.getString("routine_type"),
-                            rs.getString("day_of_week"),
-                            rs.getTime("start_time").toLocalTime(),
-                            rs.getTime("end_time").toLocalTime(),
-                            rs.getString("room_location"),
-                            rs.getString("academic_year"),
-                            rs.getInt("semester_number")
-                    );
+                    return map(rs);
                 }
             }
         }
@@ -95,23 +86,12 @@ public class RoutineDAO {
     public List<Routine> getRoutinesByCourseId(int courseId) throws SQLException {
         List<Routine> routines = new ArrayList<>();
         String sql = "SELECT routine_id, course_id, faculty_id, routine_type, day_of_week, start_time, end_time, room_location, academic_year, semester_number FROM Routines WHERE course_id = ? ORDER BY day_of_week ASC, start_time ASC";
-        try (Connection conn = DBController.getConnection();
+        try (Connection conn = DBController.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, courseId);
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    routines.add(new Routine(
-                            rs.getInt("routine_id"),
-                            rs.getInt("course_id"),
-                            (Integer) rs.getObject("faculty_id"),
-                            rs.getString("routine_type"),
-                            rs.getString("day_of_week"),
-                            rs.getTime("start_time").toLocalTime(),
-                            rs.getTime("end_time").toLocalTime(),
-                            rs.getString("room_location"),
-                            rs.getString("academic_year"),
-                            rs.getInt("semester_number")
-                    ));
+                    routines.add(map(rs));
                 }
             }
         }
@@ -120,6 +100,7 @@ public class RoutineDAO {
 
     /**
      * Retrieves all class routine records for a specific academic year and semester.
+     * Results are shared through the {@link QueryCache} until the table changes.
      *
      * @param academicYear The academic year (e.g., "2023-2024").
      * @param semesterNumber The semester number.
@@ -127,30 +108,22 @@ public class RoutineDAO {
      * @throws SQLException If a database access error occurs.
      */
     public List<Routine> getClassRoutinesByYearAndSemester(String academicYear, int semesterNumber) throws SQLException {
-        List<Routine> routines = new ArrayList<>();
-        String sql = "SELECT routine_id, course_id, faculty_id, routine_type, day_of_week, start_time, end_time, room_location, academic_year, semester_number FROM Routines WHERE routine_type = 'Class' AND academic_year = ? AND semester_number = ? ORDER BY day_of_week ASC, start_time ASC";
-        try (Connection conn = DBController.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setString(1, academicYear);
-            stmt.setInt(2, semesterNumber);
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    routines.add(new Routine(
-                            rs.getInt("routine_id"),
-                            rs.getInt("course_id"),
-                            (Integer) rs.getObject("faculty_id"),
-                            rs.getString("routine_type"),
-                            rs.getString("day_of_week"),
-                            rs.getTime("start_time").toLocalTime(),
-                            rs.getTime("end_time").toLocalTime(),
-                            rs.getString("room_location"),
-                            rs.getString("academic_year"),
-                            rs.getInt("semester_number")
-                    ));
+        return QueryCache.list("RoutineDAO.getClassRoutinesByYearAndSemester", Arrays.asList(academicYear, semesterNumber),
+                new String[]{"Routines"}, RoutineDAO::copy, () -> {
+            List<Routine> routines = new ArrayList<>();
+            String sql = "SELECT routine_id, course_id, faculty_id, routine_type, day_of_week, start_time, end_time, room_location, academic_year, semester_number FROM Routines WHERE routine_type = 'Class' AND academic_year = ? AND semester_number = ? ORDER BY day_of_week ASC, start_time ASC";
+            try (Connection conn = DBController.getReadConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setString(1, academicYear);
+                stmt.setInt(2, semesterNumber);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        routines.add(map(rs));
+                    }
                 }
             }
-        }
-        return routines;
+            return routines;
+        });
     }
 
     /**
@@ -162,27 +135,45 @@ public class RoutineDAO {
     public List<Routine> getAllRoutines() throws SQLException {
         List<Routine> routines = new ArrayList<>();
         String sql = "SELECT routine_id, course_id, faculty_id, routine_type, day_of_week, start_time, end_time, room_location, academic_year, semester_number FROM Routines ORDER BY academic_year DESC, semester_number ASC, day_of_week ASC, start_time ASC";
-        try (Connection conn = DBController.getConnection();
+        try (Connection conn = DBController.getReadConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             while (rs.next()) {
-                routines.add(new Routine(
-                        rs.getInt("routine_id"),
-                        rs.getInt("course_id"),
-                        (Integer) rs.getObject("faculty_id"),
-                        rs.getString("routine_type"),
-                        rs.getString("day_of_week"),
-                        rs.getTime("start_time").toLocalTime(),
-                        rs.getTime("end_time").toLocalTime(),
-                        rs.getString("room_location"),
-                        rs.getString("academic_year"),
-                        rs.getInt("semester_number")
-                ));
+                routines.add(map(rs));
             }
         }
         return routines;
     }
 
+    /**
+     * Retrieves one page of routines, in ID order. Unlike {@link #getAllRoutines()}, only
+     * {@code pageSize} rows are read per call, so the whole table can be walked in constant memory
+     * by passing each page's token to the next call.
+     *
+     * @param pageToken The next page token of the previous page, or null for the first page.
+     * @param pageSize The maximum number of rows to return (1 to {@link Page#MAX_PAGE_SIZE}).
+     * @return The page of Routine objects.
+     * @throws IllegalArgumentException If the page token or page size is invalid.
+     * @throws SQLException If a database access error occurs.
+     */
+    public Page<Routine> getRoutinePage(String pageToken, int pageSize) throws SQLException {
+        int afterId = Page.decodeToken(pageToken);
+        Page.checkPageSize(pageSize);
+        List<Routine> routines = new ArrayList<>();
+        String sql = "SELECT routine_id, course_id, faculty_id, routine_type, day_of_week, start_time, end_time, room_location, academic_year, semester_number FROM Routines WHERE routine_id > ? ORDER BY routine_id LIMIT ?";
+        try (Connection conn = DBController.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, afterId);
+            stmt.setInt(2, pageSize + 1); // One extra row tells whether another page follows
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    routines.add(map(rs));
+                }
+            }
+        }
+        return Page.of(routines, pageSize, Routine::getRoutineId);
+    }
+
     /**
      * Updates an existing routine record.
      *
@@ -208,6 +199,7 @@ public class RoutineDAO {
             stmt.setInt(9, routine.getSemesterNumber());
             stmt.setInt(10, routine.getRoutineId());
             stmt.executeUpdate();
+            QueryCache.tableChanged("Routines");
         }
     }
 
@@ -223,6 +215,34 @@ public class RoutineDAO {
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, routineId);
             stmt.executeUpdate();
+            QueryCache.rowsDeleted("Routines");
         }
     }
+
+    private static Routine copy(Routine r) {
+        return new Routine(r.getRoutineId(), r.getCourseId(), r.getFacultyId(), r.getRoutineType(), r.getDayOfWeek(),
+                r.getStartTime(), r.getEndTime(), r.getRoomLocation(), r.getAcademicYear(), r.getSemesterNumber());
+    }
+
+    /**
+     * Maps the current row of a query over the {@code Routines} columns to a Routine.
+     *
+     * @param rs The result set, positioned on a row.
+     * @return The Routine.
+     * @throws SQLException If a column cannot be read.
+     */
+    static Routine map(ResultSet rs) throws SQLException {
+        return new Routine(
+                rs.getInt("routine_id"),
+                rs.getInt("course_id"),
+                (Integer) rs.getObject("faculty_id"), // For nullable INT
+                rs.getString("routine_type"),
+                rs.getString("day_of_week"),
+                rs.getTime("start_time").toLocalTime(),
+                rs.getTime("end_time").toLocalTime(),
+                rs.getString("room_location"),
+                rs.getString("academic_year"),
+                rs.getInt("semester_number")
+        );
+    }
 }
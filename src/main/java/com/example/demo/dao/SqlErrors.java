@@ -0,0 +1,33 @@
+package com.example.demo.dao;
+
+import java.sql.SQLException;
+
+/**
+ * Classifies database errors that DAOs turn into results instead of failures.
+ */
+final class SqlErrors {
+
+    private static final int MYSQL_DUPLICATE_ENTRY = 1062;
+    private static final int MYSQL_DUPLICATE_ENTRY_WITH_KEY_NAME = 1586;
+    private static final int H2_DUPLICATE_KEY = 23505;
+
+    private SqlErrors() {
+    }
+
+    /**
+     * @return True if the exception, or one chained to it (e.g. inside a batch failure), reports a
+     *         violated primary key or unique constraint. Foreign key and NOT NULL violations share
+     *         MySQL's SQLState 23000, so the vendor error code is checked instead.
+     */
+    static boolean isDuplicateKey(SQLException e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof SQLException) {
+                int code = ((SQLException) t).getErrorCode();
+                if (code == MYSQL_DUPLICATE_ENTRY || code == MYSQL_DUPLICATE_ENTRY_WITH_KEY_NAME || code == H2_DUPLICATE_KEY) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
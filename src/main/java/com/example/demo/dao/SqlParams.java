@@ -0,0 +1,58 @@
+package com.example.demo.dao;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Helpers for statements with a variable number of parameters, such as {@code IN (?, ?, ?)} lists.
+ */
+final class SqlParams {
+
+    /**
+     * Largest IN list sent in one statement. Longer id lists are split, which keeps each statement
+     * well below driver and server parameter limits and lets the statement cache reuse a few shapes.
+     */
+    static final int MAX_IN_LIST = 500;
+
+    private SqlParams() {
+    }
+
+    /**
+     * @return {@code "?, ?, ?"} with {@code count} placeholders.
+     */
+    static String placeholders(int count) {
+        StringBuilder sb = new StringBuilder(count * 3);
+        for (int i = 0; i < count; i++) {
+            sb.append(i > 0 ? ", ?" : "?");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Binds the ids as consecutive int parameters.
+     *
+     * @return The index of the next parameter.
+     */
+    static int bindInts(PreparedStatement stmt, int firstIndex, Collection<Integer> ids) throws SQLException {
+        int index = firstIndex;
+        for (Integer id : ids) {
+            stmt.setInt(index++, id);
+        }
+        return index;
+    }
+
+    /**
+     * Splits ids into chunks of at most {@link #MAX_IN_LIST}.
+     */
+    static List<List<Integer>> chunks(Collection<Integer> ids) {
+        List<Integer> all = new ArrayList<>(ids);
+        List<List<Integer>> chunks = new ArrayList<>();
+        for (int from = 0; from < all.size(); from += MAX_IN_LIST) {
+            chunks.add(all.subList(from, Math.min(all.size(), from + MAX_IN_LIST)));
+        }
+        return chunks;
+    }
+}
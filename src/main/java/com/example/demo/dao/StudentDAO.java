@@ -3,6 +3,7 @@ package com.example.demo.dao;
 import com.example.demo.model.Student;
 import com.example.demo.model.User; // Required to handle user creation for students
 import com.example.demo.DBController; // Correctly referencing the DBController
+import com.example.demo.db.TransactionManager;
 import java.sql.Connection;
 import java.sql.Date;
 import java.sql.PreparedStatement;
@@ -10,14 +11,23 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.stream.Stream;
+import java.util.Locale;
+import java.util.Set;
 
 public class StudentDAO {
 
     private UserDAO userDAO; // To manage user accounts associated with students
 
     public StudentDAO() {
-        this.userDAO = new UserDAO();
+        this(new UserDAO());
+    }
+
+    public StudentDAO(UserDAO userDAO) {
+        this.userDAO = userDAO;
     }
 
     /**
@@ -30,16 +40,12 @@ public class StudentDAO {
      * @throws SQLException If a database access error occurs during user or student creation.
      */
     public void addStudentWithUser(Student student, String username, String password) throws SQLException {
-        Connection conn = null;
-        try {
-            conn = DBController.getConnection();
-            conn.setAutoCommit(false); // Start transaction
-
+        TransactionManager.runInTransaction(conn -> {
             // 1. Create a new user for the student
             // IMPORTANT: In a real app, hash the password here (e.g., String hashedPassword = BCrypt.hashpw(password, BCrypt.gensalt());)
             // For now, using plain text as per project constraints for simplicity.
             User newUser = new User(username, password, "Student"); // Role is fixed as "Student"
-            userDAO.addUser(newUser); // This method will set newUser.userId
+            userDAO.addUser(newUser); // Joins this transaction; sets newUser.userId
 
             // Set the generated userId to the student object
             student.setUserId(newUser.getUserId());
@@ -72,29 +78,120 @@ public class StudentDAO {
                     }
                 }
             }
+        });
+    }
+
 
-            conn.commit(); // Commit transaction if both user and student are added successfully
-        } catch (SQLException e) {
-            if (conn != null) {
-                try {
-                    conn.rollback(); // Rollback if any part of the transaction fails
-                } catch (SQLException ex) {
-                    System.err.println("Rollback failed: " + ex.getMessage());
+    /**
+     * Adds several students and their user accounts with two JDBC batches, one for Users and one for
+     * Students, instead of two statements per student. Runs in a transaction (joining the caller's,
+     * if any), so either all students are added or none.
+     *
+     * @param students The students to add. Their userId and studentId are updated upon successful creation.
+     * @param users The user account of each student, in the same order. Their userId is updated upon successful creation.
+     * @throws IllegalArgumentException If the lists differ in size.
+     * @throws SQLException If a database access error occurs, e.g. a username or email is already taken.
+     */
+    public void addStudentsWithUsers(List<Student> students, List<User> users) throws SQLException {
+        if (students.size() != users.size()) {
+            throw new IllegalArgumentException("Every student needs exactly one user account.");
+        }
+        if (students.isEmpty()) {
+            return;
+        }
+        TransactionManager.runInTransaction(conn -> {
+            // 1. Create the user accounts and hand their generated IDs to the students
+            String userSql = "INSERT INTO Users (username, password_hash, role) VALUES (?, ?, ?)";
+            try (PreparedStatement stmt = conn.prepareStatement(userSql, Statement.RETURN_GENERATED_KEYS)) {
+                for (User user : users) {
+                    stmt.setString(1, user.getUsername());
+                    stmt.setString(2, user.getPasswordHash());
+                    stmt.setString(3, user.getRole());
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+
+                // Generated keys come back in batch order
+                try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                    for (int i = 0; i < users.size(); i++) {
+                        if (!generatedKeys.next()) {
+                            throw new SQLException("Creating users failed, not all IDs obtained.");
+                        }
+                        users.get(i).setUserId(generatedKeys.getInt(1));
+                        students.get(i).setUserId(users.get(i).getUserId());
+                    }
                 }
             }
-            throw e; // Re-throw the original exception
-        } finally {
-            if (conn != null) {
-                try {
-                    conn.setAutoCommit(true); // Reset auto-commit mode
-                    conn.close(); // Close the connection
-                } catch (SQLException ex) {
-                    System.err.println("Closing connection failed: " + ex.getMessage());
+
+            // 2. Add the student details
+            String studentSql = "INSERT INTO Students (user_id, program_id, first_name, last_name, date_of_birth, gender, email, phone_number, address, enrollment_date, major) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+            try (PreparedStatement stmt = conn.prepareStatement(studentSql, Statement.RETURN_GENERATED_KEYS)) {
+                for (Student student : students) {
+                    stmt.setInt(1, student.getUserId());
+                    stmt.setInt(2, student.getProgramId());
+                    stmt.setString(3, student.getFirstName());
+                    stmt.setString(4, student.getLastName());
+                    stmt.setDate(5, Date.valueOf(student.getDateOfBirth()));
+                    stmt.setString(6, student.getGender());
+                    stmt.setString(7, student.getEmail());
+                    stmt.setString(8, student.getPhoneNumber());
+                    stmt.setString(9, student.getAddress());
+                    stmt.setDate(10, Date.valueOf(student.getEnrollmentDate()));
+                    stmt.setString(11, student.getMajor());
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+
+                try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                    for (Student student : students) {
+                        if (!generatedKeys.next()) {
+                            throw new SQLException("Creating students failed, not all IDs obtained.");
+                        }
+                        student.setStudentId(generatedKeys.getInt(1));
+                    }
                 }
             }
-        }
+        });
     }
 
+    /**
+     * Returns which of the given names are already in use as a username or as a student email, with
+     * one query per {@value SqlParams#MAX_IN_LIST} names instead of a lookup per name. Used to check
+     * the usernames and emails of a whole intake at once.
+     *
+     * @param names The usernames and emails to check.
+     * @return The names that are taken, in lower case (MySQL compares them case-insensitively).
+     * @throws SQLException If a database access error occurs.
+     */
+    public Set<String> getTakenUsernamesAndEmails(Collection<String> names) throws SQLException {
+        Set<String> taken = new HashSet<>();
+        if (names.isEmpty()) {
+            return taken;
+        }
+        List<String> all = new ArrayList<>(names);
+        try (Connection conn = DBController.getReadConnection()) {
+            for (int from = 0; from < all.size(); from += SqlParams.MAX_IN_LIST) {
+                List<String> chunk = all.subList(from, Math.min(all.size(), from + SqlParams.MAX_IN_LIST));
+                String in = SqlParams.placeholders(chunk.size());
+                String sql = "SELECT username FROM Users WHERE username IN (" + in + ") "
+                        + "UNION SELECT email FROM Students WHERE email IN (" + in + ")";
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    int index = 1;
+                    for (int pass = 0; pass < 2; pass++) {
+                        for (String name : chunk) {
+                            stmt.setString(index++, name);
+                        }
+                    }
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            taken.add(rs.getString(1).toLowerCase(Locale.ROOT));
+                        }
+                    }
+                }
+            }
+        }
+        return taken;
+    }
 
     /**
      * Retrieves a student by their student ID.
@@ -105,25 +202,12 @@ public class StudentDAO {
      */
     public Student getStudentById(int studentId) throws SQLException {
         String sql = "SELECT student_id, user_id, program_id, first_name, last_name, date_of_birth, gender, email, phone_number, address, enrollment_date, major FROM Students WHERE student_id = ?";
-        try (Connection conn = DBController.getConnection();
+        try (Connection conn = DBController.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, studentId);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return new Student(
-                            rs.getInt("student_id"),
-                            rs.getInt("user_id"),
-                            rs.getInt("program_id"),
-                            rs.getString("first_name"),
-                            rs.getString("last_name"),
-                            rs.getDate("date_of_birth").toLocalDate(),
-                            rs.getString("gender"),
-                            rs.getString("email"),
-                            rs.getString("phone_number"),
-                            rs.getString("address"),
-                            rs.getDate("enrollment_date").toLocalDate(),
-                            rs.getString("major")
-                    );
+                    return map(rs);
                 }
             }
         }
@@ -139,31 +223,38 @@ public class StudentDAO {
      */
     public Student getStudentByUserId(int userId) throws SQLException {
         String sql = "SELECT student_id, user_id, program_id, first_name, last_name, date_of_birth, gender, email, phone_number, address, enrollment_date, major FROM Students WHERE user_id = ?";
-        try (Connection conn = DBController.getConnection();
+        try (Connection conn = DBController.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, userId);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return new Student(
-                            rs.getInt("student_id"),
-                            rs.getInt("user_id"),
-                            rs.getInt("program_id"),
-                            rs.getString("first_name"),
-                            rs.getString("last_name"),
-                            rs.getDate("date_of_birth").toLocalDate(),
-                            rs.getString("gender"),
-                            rs.getString("email"),
-                            rs.getString("phone_number"),
-                            rs.getString("address"),
-                            rs.getDate("enrollment_date").toLocalDate(),
-                            rs.getString("major")
-                    );
+                    return map(rs);
                 }
             }
         }
         return null;
     }
 
+    /**
+     * Retrieves the IDs of all students, without the rest of each row. Meant for validating many
+     * references at once (e.g. an import) against an in-memory set instead of one lookup per reference.
+     *
+     * @return The set of Student IDs.
+     * @throws SQLException If a database access error occurs.
+     */
+    public Set<Integer> getAllStudentIds() throws SQLException {
+        Set<Integer> ids = new HashSet<>();
+        String sql = "SELECT student_id FROM Students";
+        try (Connection conn = DBController.getReadConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                ids.add(rs.getInt(1));
+            }
+        }
+        return ids;
+    }
+
     /**
      * Retrieves all students from the database.
      *
@@ -173,29 +264,74 @@ public class StudentDAO {
     public List<Student> getAllStudents() throws SQLException {
         List<Student> students = new ArrayList<>();
         String sql = "SELECT student_id, user_id, program_id, first_name, last_name, date_of_birth, gender, email, phone_number, address, enrollment_date, major FROM Students";
-        try (Connection conn = DBController.getConnection();
+        try (Connection conn = DBController.getReadConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             while (rs.next()) {
-                students.add(new Student(
-                        rs.getInt("student_id"),
-                        rs.getInt("user_id"),
-                        rs.getInt("program_id"),
-                        rs.getString("first_name"),
-                        rs.getString("last_name"),
-                        rs.getDate("date_of_birth").toLocalDate(),
-                        rs.getString("gender"),
-                        rs.getString("email"),
-                        rs.getString("phone_number"),
-                        rs.getString("address"),
-                        rs.getDate("enrollment_date").toLocalDate(),
-                        rs.getString("major")
-                ));
+                students.add(map(rs));
             }
         }
         return students;
     }
 
+    /**
+     * Retrieves one page of students, in ID order. Unlike {@link #getAllStudents()}, only
+     * {@code pageSize} rows are read per call, so the whole table can be walked in constant memory
+     * by passing each page's token to the next call.
+     *
+     * @param pageToken The next page token of the previous page, or null for the first page.
+     * @param pageSize The maximum number of rows to return (1 to {@link Page#MAX_PAGE_SIZE}).
+     * @return The page of Student objects.
+     * @throws IllegalArgumentException If the page token or page size is invalid.
+     * @throws SQLException If a database access error occurs.
+     */
+    public Page<Student> getStudentPage(String pageToken, int pageSize) throws SQLException {
+        int afterId = Page.decodeToken(pageToken);
+        Page.checkPageSize(pageSize);
+        List<Student> students = new ArrayList<>();
+        String sql = "SELECT student_id, user_id, program_id, first_name, last_name, date_of_birth, gender, email, phone_number, address, enrollment_date, major FROM Students WHERE student_id > ? ORDER BY student_id LIMIT ?";
+        try (Connection conn = DBController.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, afterId);
+            stmt.setInt(2, pageSize + 1); // One extra row tells whether another page follows
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    students.add(map(rs));
+                }
+            }
+        }
+        return Page.of(students, pageSize, Student::getStudentId);
+    }
+
+    /**
+     * Streams all students in ID order without reading them into memory first; rows are mapped as the
+     * stream is consumed. The stream holds a database connection until its last row has been read or it
+     * is closed, so use it in a try-with-resources block.
+     *
+     * @return A lazily populated stream of Student objects.
+     * @throws SQLException If the query cannot be started. Errors while reading rows are thrown as
+     *                      {@link UncheckedSQLException}.
+     */
+    public Stream<Student> streamAllStudents() throws SQLException {
+        String sql = "SELECT student_id, user_id, program_id, first_name, last_name, date_of_birth, gender, email, phone_number, address, enrollment_date, major FROM Students ORDER BY student_id";
+        return ResultSetStream.query(sql, StudentDAO::map);
+    }
+
+    /**
+     * Counts the students, e.g. to report the progress of a streamAllStudents consumer.
+     *
+     * @return The number of rows in the Students table.
+     * @throws SQLException If a database access error occurs.
+     */
+    public long countStudents() throws SQLException {
+        String sql = "SELECT COUNT(*) FROM Students";
+        try (Connection conn = DBController.getReadConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
     /**
      * Updates an existing student's information.
      *
@@ -229,11 +365,7 @@ public class StudentDAO {
      * @throws SQLException If a database access error occurs during deletion.
      */
     public void deleteStudent(int studentId) throws SQLException {
-        Connection conn = null;
-        try {
-            conn = DBController.getConnection();
-            conn.setAutoCommit(false); // Start transaction
-
+        TransactionManager.runInTransaction(conn -> {
             // 1. Get the user_id associated with the student
             int userIdToDelete = -1;
             String getUserIdSql = "SELECT user_id FROM Students WHERE student_id = ?";
@@ -253,32 +385,37 @@ public class StudentDAO {
             try (PreparedStatement stmt = conn.prepareStatement(deleteStudentSql)) {
                 stmt.setInt(1, studentId);
                 stmt.executeUpdate();
+                QueryCache.rowsDeleted("Students");
             }
 
             // 3. Delete the associated user account
             if (userIdToDelete != -1) {
-                userDAO.deleteUser(userIdToDelete); // Deletes from Users table
+                userDAO.deleteUser(userIdToDelete); // Deletes from Users table in the same transaction
             }
+        });
+    }
 
-            conn.commit(); // Commit transaction
-        } catch (SQLException e) {
-            if (conn != null) {
-                try {
-                    conn.rollback(); // Rollback if any part of the transaction fails
-                } catch (SQLException ex) {
-                    System.err.println("Rollback failed during student deletion: " + ex.getMessage());
-                }
-            }
-            throw e; // Re-throw the original exception
-        } finally {
-            if (conn != null) {
-                try {
-                    conn.setAutoCommit(true); // Reset auto-commit mode
-                    conn.close(); // Close the connection
-                } catch (SQLException ex) {
-                    System.err.println("Closing connection failed: " + ex.getMessage());
-                }
-            }
-        }
+    /**
+     * Maps the current row of a query over the {@code Students} columns to a Student.
+     *
+     * @param rs The result set, positioned on a row.
+     * @return The Student.
+     * @throws SQLException If a column cannot be read.
+     */
+    static Student map(ResultSet rs) throws SQLException {
+        return new Student(
+                rs.getInt("student_id"),
+                rs.getInt("user_id"),
+                rs.getInt("program_id"),
+                rs.getString("first_name"),
+                rs.getString("last_name"),
+                rs.getDate("date_of_birth").toLocalDate(),
+                rs.getString("gender"),
+                rs.getString("email"),
+                rs.getString("phone_number"),
+                rs.getString("address"),
+                rs.getDate("enrollment_date").toLocalDate(),
+                rs.getString("major")
+        );
     }
 }
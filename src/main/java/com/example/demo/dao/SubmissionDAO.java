@@ -46,6 +46,26 @@ public class SubmissionDAO {
         }
     }
 
+    /**
+     * Adds a submission unless the student has already submitted the assignment
+     * ({@code uq_submissions_assignment_student}).
+     *
+     * @param submission The Submission object to add. Its submissionId is updated if it was added.
+     * @return True if the record was added, false if it already existed.
+     * @throws SQLException If a database access error occurs.
+     */
+    public boolean addSubmissionIfAbsent(Submission submission) throws SQLException {
+        try {
+            addSubmission(submission);
+            return true;
+        } catch (SQLException e) {
+            if (SqlErrors.isDuplicateKey(e)) {
+                return false;
+            }
+            throw e;
+        }
+    }
+
     /**
      * Retrieves a submission by its ID.
      *
@@ -55,24 +75,12 @@ public class SubmissionDAO {
      */
     public Submission getSubmissionById(int submissionId) throws SQLException {
         String sql = "SELECT submission_id, assignment_id, student_id, submission_date, file_path, marks_obtained, feedback FROM Submissions WHERE submission_id = ?";
-        try (Connection conn = DBController.getConnection();
+        try (Connection conn = DBController.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, submissionId);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    Timestamp submissionTimestamp = rs.getTimestamp("submission_date");
-                    LocalDateTime submissionDateTime = (submissionTimestamp != null) ? submissionTimestamp.toLocalDateTime() : null;
-
-                    return new Submission(
-                            rs.getInt("submission_id"),
-                            rs.getInt("assignment_id"),
-                            rs.getInt("student_id"),
-                            submissionDateTime,
-                            rs.getString("file_path"),
-                            // Use rs.getObject for nullable INT columns
-                            (Integer) rs.getObject("marks_obtained"),
-                            rs.getString("feedback")
-                    );
+                    return map(rs);
                 }
             }
         }
@@ -89,23 +97,12 @@ public class SubmissionDAO {
     public List<Submission> getSubmissionsByAssignmentId(int assignmentId) throws SQLException {
         List<Submission> submissions = new ArrayList<>();
         String sql = "SELECT submission_id, assignment_id, student_id, submission_date, file_path, marks_obtained, feedback FROM Submissions WHERE assignment_id = ? ORDER BY submission_date DESC";
-        try (Connection conn = DBController.getConnection();
+        try (Connection conn = DBController.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, assignmentId);
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    Timestamp submissionTimestamp = rs.getTimestamp("submission_date");
-                    LocalDateTime submissionDateTime = (submissionTimestamp != null) ? submissionTimestamp.toLocalDateTime() : null;
-
-                    submissions.add(new Submission(
-                            rs.getInt("submission_id"),
-                            rs.getInt("assignment_id"),
-                            rs.getInt("student_id"),
-                            submissionDateTime,
-                            rs.getString("file_path"),
-                            (Integer) rs.getObject("marks_obtained"),
-                            rs.getString("feedback")
-                    ));
+                    submissions.add(map(rs));
                 }
             }
         }
@@ -122,24 +119,13 @@ public class SubmissionDAO {
      */
     public Submission getSubmissionByAssignmentAndStudent(int assignmentId, int studentId) throws SQLException {
         String sql = "SELECT submission_id, assignment_id, student_id, submission_date, file_path, marks_obtained, feedback FROM Submissions WHERE assignment_id = ? AND student_id = ?";
-        try (Connection conn = DBController.getConnection();
+        try (Connection conn = DBController.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, assignmentId);
             stmt.setInt(2, studentId);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    Timestamp submissionTimestamp = rs.getTimestamp("submission_date");
-                    LocalDateTime submissionDateTime = (submissionTimestamp != null) ? submissionTimestamp.toLocalDateTime() : null;
-
-                    return new Submission(
-                            rs.getInt("submission_id"),
-                            rs.getInt("assignment_id"),
-                            rs.getInt("student_id"),
-                            submissionDateTime,
-                            rs.getString("file_path"),
-                            (Integer) rs.getObject("marks_obtained"),
-                            rs.getString("feedback")
-                    );
+                    return map(rs);
                 }
             }
         }
@@ -185,4 +171,26 @@ public class SubmissionDAO {
             stmt.executeUpdate();
         }
     }
+
+    /**
+     * Maps the current row of a query over the {@code Submissions} columns to a Submission.
+     *
+     * @param rs The result set, positioned on a row.
+     * @return The Submission.
+     * @throws SQLException If a column cannot be read.
+     */
+    static Submission map(ResultSet rs) throws SQLException {
+        Timestamp submissionTimestamp = rs.getTimestamp("submission_date");
+        LocalDateTime submissionDateTime = (submissionTimestamp != null) ? submissionTimestamp.toLocalDateTime() : null;
+        return new Submission(
+                rs.getInt("submission_id"),
+                rs.getInt("assignment_id"),
+                rs.getInt("student_id"),
+                submissionDateTime,
+                rs.getString("file_path"),
+                // Use rs.getObject for nullable INT columns
+                (Integer) rs.getObject("marks_obtained"),
+                rs.getString("feedback")
+        );
+    }
 }
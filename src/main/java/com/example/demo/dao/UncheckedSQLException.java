@@ -0,0 +1,21 @@
+package com.example.demo.dao;
+
+import java.sql.SQLException;
+
+/**
+ * Wraps a {@link SQLException} thrown while a streamed result is being read, where the
+ * {@link java.util.stream.Stream} API does not allow checked exceptions.
+ */
+public class UncheckedSQLException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public UncheckedSQLException(SQLException cause) {
+        super(cause.getMessage(), cause);
+    }
+
+    @Override
+    public synchronized SQLException getCause() {
+        return (SQLException) super.getCause();
+    }
+}
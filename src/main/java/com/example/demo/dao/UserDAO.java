@@ -12,20 +12,14 @@ public class UserDAO {
 
     public User authenticateUser(String username, String password, String role) throws SQLException {
         String sql = "SELECT user_id, username, password_hash, role, created_at FROM Users WHERE username = ? AND password_hash = ? AND role = ?";
-        try (Connection conn = DBController.getConnection();
+        try (Connection conn = DBController.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, username);
             stmt.setString(2, password);
             stmt.setString(3, role);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return new User(
-                            rs.getInt("user_id"),
-                            rs.getString("username"),
-                            rs.getString("password_hash"),
-                            rs.getString("role"),
-                            rs.getTimestamp("created_at").toLocalDateTime()
-                    );
+                    return map(rs);
                 }
             }
         }
@@ -57,18 +51,12 @@ public class UserDAO {
 
     public User getUserById(int userId) throws SQLException {
         String sql = "SELECT user_id, username, password_hash, role, created_at FROM Users WHERE user_id = ?";
-        try (Connection conn = DBController.getConnection();
+        try (Connection conn = DBController.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, userId);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return new User(
-                            rs.getInt("user_id"),
-                            rs.getString("username"),
-                            rs.getString("password_hash"),
-                            rs.getString("role"),
-                            rs.getTimestamp("created_at").toLocalDateTime()
-                    );
+                    return map(rs);
                 }
             }
         }
@@ -77,18 +65,12 @@ public class UserDAO {
 
     public User getUserByUsername(String username) throws SQLException {
         String sql = "SELECT user_id, username, password_hash, role, created_at FROM Users WHERE username = ?";
-        try (Connection conn = DBController.getConnection();
+        try (Connection conn = DBController.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, username);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return new User(
-                            rs.getInt("user_id"),
-                            rs.getString("username"),
-                            rs.getString("password_hash"),
-                            rs.getString("role"),
-                            rs.getTimestamp("created_at").toLocalDateTime()
-                    );
+                    return map(rs);
                 }
             }
         }
@@ -113,6 +95,7 @@ public class UserDAO {
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, userId);
             stmt.executeUpdate();
+            QueryCache.rowsDeleted("Users"); // Deletes the user's student, faculty or librarian record
         }
     }
 
@@ -121,22 +104,63 @@ public class UserDAO {
         List<User> userList = new ArrayList<>();
         String sql = "SELECT user_id, username, password_hash, role, created_at FROM Users";
 
-        try (Connection conn = DBController.getConnection();
+        try (Connection conn = DBController.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
 
             while (rs.next()) {
-                User user = new User(
-                        rs.getInt("user_id"),
-                        rs.getString("username"),
-                        rs.getString("password_hash"),
-                        rs.getString("role"),
-                        rs.getTimestamp("created_at").toLocalDateTime()
-                );
+                User user = map(rs);
                 userList.add(user);
             }
         }
 
         return userList;
     }
+
+    /**
+     * Retrieves one page of users, in ID order. Unlike {@link #getAllUsers()}, only
+     * {@code pageSize} rows are read per call, so the whole table can be walked in constant memory
+     * by passing each page's token to the next call.
+     *
+     * @param pageToken The next page token of the previous page, or null for the first page.
+     * @param pageSize The maximum number of rows to return (1 to {@link Page#MAX_PAGE_SIZE}).
+     * @return The page of User objects.
+     * @throws IllegalArgumentException If the page token or page size is invalid.
+     * @throws SQLException If a database access error occurs.
+     */
+    public Page<User> getUserPage(String pageToken, int pageSize) throws SQLException {
+        int afterId = Page.decodeToken(pageToken);
+        Page.checkPageSize(pageSize);
+        List<User> userList = new ArrayList<>();
+        String sql = "SELECT user_id, username, password_hash, role, created_at FROM Users WHERE user_id > ? ORDER BY user_id LIMIT ?";
+        try (Connection conn = DBController.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, afterId);
+            stmt.setInt(2, pageSize + 1); // One extra row tells whether another page follows
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    User user = map(rs);
+                    userList.add(user);
+                }
+            }
+        }
+        return Page.of(userList, pageSize, User::getUserId);
+    }
+
+    /**
+     * Maps the current row of a query over the {@code Users} columns to a User.
+     *
+     * @param rs The result set, positioned on a row.
+     * @return The User.
+     * @throws SQLException If a column cannot be read.
+     */
+    static User map(ResultSet rs) throws SQLException {
+        return new User(
+                rs.getInt("user_id"),
+                rs.getString("username"),
+                rs.getString("password_hash"),
+                rs.getString("role"),
+                rs.getTimestamp("created_at").toLocalDateTime()
+        );
+    }
 }
@@ -0,0 +1,66 @@
+package com.example.demo.datagen;
+
+import com.example.demo.csv.CsvWriter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writes each table to {@code <directory>/<table>.csv} with a header row (RFC 4180 quoting, NULL as an
+ * empty field).
+ */
+public class CsvDataSink implements DataSink {
+
+    private final Path directory;
+
+    public CsvDataSink(Path directory) throws IOException {
+        this.directory = directory;
+        Files.createDirectories(directory);
+    }
+
+    @Override
+    public TableWriter open(String table, String... columns) throws IOException {
+        BufferedWriter out = Files.newBufferedWriter(directory.resolve(table + ".csv"), StandardCharsets.UTF_8);
+        CsvTableWriter writer = new CsvTableWriter(out);
+        writer.writeRow((Object[]) columns);
+        return writer;
+    }
+
+    @Override
+    public void close() {
+        // Each table's file is closed by its writer
+    }
+
+    private static final class CsvTableWriter implements TableWriter {
+        private final CsvWriter out;
+        private long rows;
+
+        CsvTableWriter(Writer out) {
+            this.out = new CsvWriter(out);
+        }
+
+        @Override
+        public void add(Object... values) throws IOException {
+            out.writeRecord(values);
+            rows++;
+        }
+
+        void writeRow(Object... values) throws IOException {
+            out.writeRecord(values);
+        }
+
+        @Override
+        public long getRowCount() {
+            return rows;
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+}
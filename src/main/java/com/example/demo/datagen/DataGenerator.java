@@ -0,0 +1,736 @@
+package com.example.demo.datagen;
+
+import com.example.demo.DBController;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.SplittableRandom;
+
+/**
+ * Generates a synthetic, internally consistent campus dataset for load and scaling tests.
+ * <p>
+ * The output depends only on the {@link Scale} and the seed: every row is derived from its own
+ * ids (student, course, book...) with a random generator seeded from them, so tables can be
+ * produced one after another without keeping earlier tables in memory. Ids are assigned explicitly
+ * starting at 1, which lets child tables reference their parents without reading generated keys back.
+ * <p>
+ * The data respects the rules the services enforce: unique usernames, emails, ISBNs and course codes
+ * per program, one enrollment per student and course, one attendance row per student, course and
+ * date, one result per student, course and academic year, one submission per student and assignment,
+ * semesters 1-8, marks 0-100, passwords of at least 6 characters, and no dates in the future.
+ * Books' available copies account for the borrowings that are still open.
+ * <p>
+ * Run {@link #main(String[])} to fill the configured database (which must be empty, or pass
+ * {@code --clear}) or to write CSV files:
+ * <pre>
+ * DataGenerator [--scale campus|small] [--seed 42] [--csv DIR] [--clear]
+ * </pre>
+ */
+public class DataGenerator {
+
+    /** All dates are relative to this day so that regenerating never changes the data. */
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 30);
+    private static final LocalDate TERM_START = LocalDate.of(2025, 1, 6);
+    private static final String ACADEMIC_YEAR = "2024-2025";
+
+    /** Child tables first; used by {@code --clear}. */
+    private static final String[] TABLES_IN_DELETE_ORDER = {
+            "Submissions", "Assignments", "Borrowings", "Books", "Fees", "Routines", "Results",
+            "Attendance", "Enrollments", "Courses", "Announcements", "Students", "Librarian",
+            "Faculty", "Programs", "Users"
+    };
+
+    private static final String[] FIRST_NAMES = {
+            "Aarav", "Aisha", "Ben", "Chen", "Diego", "Elena", "Farah", "Gabriel", "Hana", "Ivan",
+            "Jia", "Kofi", "Laila", "Mateo", "Nadia", "Omar", "Priya", "Quinn", "Rafael", "Sara",
+            "Tomas", "Uma", "Victor", "Wen", "Ximena", "Yusuf", "Zara", "Anil", "Bina", "Dipesh"
+    };
+    private static final String[] LAST_NAMES = {
+            "Acharya", "Brown", "Costa", "Dahal", "Evans", "Fernandes", "Gurung", "Haddad", "Ito",
+            "Jensen", "Khan", "Lopez", "Maharjan", "Novak", "Okafor", "Patel", "Quispe", "Rai",
+            "Shrestha", "Tamang", "Uchida", "Varga", "Wang", "Xu", "Yadav", "Zimmerman"
+    };
+    private static final String[] DEPARTMENTS = {
+            "Computer Science", "Electrical Engineering", "Mechanical Engineering", "Civil Engineering",
+            "Business Administration", "Economics", "Mathematics", "Physics", "Chemistry", "Biology",
+            "English", "History", "Psychology", "Architecture", "Law", "Medicine"
+    };
+    private static final String[] DEPARTMENT_CODES = {
+            "CS", "EE", "ME", "CE", "BA", "EC", "MA", "PH", "CH", "BI", "EN", "HI", "PS", "AR", "LA", "MD"
+    };
+    private static final String[] COURSE_TOPICS = {
+            "Foundations", "Methods", "Systems", "Theory", "Laboratory", "Design", "Analysis",
+            "Seminar", "Applications", "Project", "Modelling", "Ethics"
+    };
+    private static final String[] GENRES = {
+            "Fiction", "Science", "Technology", "History", "Biography", "Mathematics", "Engineering",
+            "Business", "Philosophy", "Reference"
+    };
+    private static final String[] FEE_TYPES = {"Tuition", "Library", "Exam", "Hostel", "Transport", "Laboratory"};
+    private static final String[] DAYS = {"Monday", "Tuesday", "Wednesday", "Thursday", "Friday"};
+    private static final String[] TARGET_ROLES = {"All", "Student", "Faculty", "Admin", "Librarian"};
+
+    private final Scale scale;
+    private final long seed;
+
+    public DataGenerator(Scale scale, long seed) {
+        this.scale = scale;
+        this.seed = seed;
+    }
+
+    /**
+     * Writes every table to the sink, parents before children.
+     *
+     * @param sink The destination.
+     * @throws IOException If the sink fails.
+     */
+    public void generate(DataSink sink) throws IOException {
+        writeUsers(sink);
+        writePrograms(sink);
+        writeFaculty(sink);
+        writeLibrarians(sink);
+        writeStudents(sink);
+        writeCourses(sink);
+        writeEnrollments(sink);
+        writeAttendance(sink);
+        writeResults(sink);
+        writeRoutines(sink);
+        writeFees(sink);
+        int[] openBorrowings = countOpenBorrowings();
+        writeBooks(sink, openBorrowings);
+        writeBorrowings(sink);
+        writeAssignments(sink);
+        writeSubmissions(sink);
+        writeAnnouncements(sink);
+    }
+
+    // --- Ids and relationships, all pure functions of the scale and seed ---
+
+    private int facultyUserId(int facultyId) {
+        return 1 + facultyId; // user 1 is the administrator
+    }
+
+    private int librarianUserId(int librarianId) {
+        return 1 + scale.faculty + librarianId;
+    }
+
+    private int studentUserId(int studentId) {
+        return 1 + scale.faculty + scale.librarians + studentId;
+    }
+
+    private int programOfStudent(int studentId) {
+        return (studentId - 1) % scale.programs + 1;
+    }
+
+    private int programOfCourse(int courseId) {
+        return (courseId - 1) % scale.programs + 1;
+    }
+
+    /** Position of the course within its program's course list (0-based). */
+    private int indexInProgram(int courseId) {
+        return (courseId - 1) / scale.programs;
+    }
+
+    private int semesterOfCourse(int courseId) {
+        return indexInProgram(courseId) % 8 + 1;
+    }
+
+    private int facultyOfCourse(int courseId) {
+        return (courseId - 1) % scale.faculty + 1;
+    }
+
+    private int coursesInProgram(int programId) {
+        int full = scale.courses / scale.programs;
+        return full + (programId <= scale.courses % scale.programs ? 1 : 0);
+    }
+
+    private int courseAt(int programId, int index) {
+        return index * scale.programs + programId;
+    }
+
+    private String departmentOfProgram(int programId) {
+        return DEPARTMENTS[(programId - 1) % DEPARTMENTS.length];
+    }
+
+    /**
+     * The courses a student is enrolled in: a run of consecutive courses of the student's program,
+     * starting at a position chosen from the student's id. Distinct by construction.
+     */
+    private int[] coursesOfStudent(int studentId) {
+        int program = programOfStudent(studentId);
+        int available = coursesInProgram(program);
+        int count = Math.min(scale.coursesPerStudent, available);
+        int start = random("enrollment", studentId).nextInt(Math.max(1, available));
+        int[] courses = new int[count];
+        for (int i = 0; i < count; i++) {
+            courses[i] = courseAt(program, (start + i) % available);
+        }
+        return courses;
+    }
+
+    /** Class dates of a course: one per week on the course's weekday, starting with the term. */
+    private LocalDate sessionDate(int courseId, int session) {
+        return TERM_START.plusDays(courseId % DAYS.length).plusWeeks(session);
+    }
+
+    private int assignmentId(int courseId, int index) {
+        return (courseId - 1) * scale.assignmentsPerCourse + index + 1;
+    }
+
+    private int maxMarks(int assignmentId) {
+        return (2 + random("assignment-marks", assignmentId).nextInt(9)) * 10;
+    }
+
+    private int totalCopies(int bookId) {
+        return 2 + random("book", bookId).nextInt(9);
+    }
+
+    /**
+     * A random generator dedicated to one entity, so that any row can be regenerated on its own.
+     */
+    private SplittableRandom random(String stream, long id) {
+        return new SplittableRandom(seed * 0x9E3779B97F4A7C15L + stream.hashCode() * 0xBF58476D1CE4E5B9L + id);
+    }
+
+    // --- Tables ---
+
+    private void writeUsers(DataSink sink) throws IOException {
+        try (DataSink.TableWriter w = sink.open("Users", "user_id", "username", "password_hash", "role")) {
+            w.add(1, "admin", "admin123", "Admin");
+            for (int f = 1; f <= scale.faculty; f++) {
+                w.add(facultyUserId(f), String.format("fac%06d", f), "password", "Faculty");
+            }
+            for (int l = 1; l <= scale.librarians; l++) {
+                w.add(librarianUserId(l), String.format("lib%06d", l), "password", "Librarian");
+            }
+            for (int s = 1; s <= scale.students; s++) {
+                w.add(studentUserId(s), String.format("stu%07d", s), "password", "Student");
+            }
+            report(w, "Users");
+        }
+    }
+
+    private void writePrograms(DataSink sink) throws IOException {
+        String[] levels = {"BSc", "BA", "MSc", "MA", "BEng", "MBA", "PhD"};
+        try (DataSink.TableWriter w = sink.open("Programs", "program_id", "program_name")) {
+            for (int p = 1; p <= scale.programs; p++) {
+                int level = (p - 1) / DEPARTMENTS.length;
+                String prefix = level < levels.length ? levels[level] : "Program " + (level + 1);
+                w.add(p, prefix + " " + departmentOfProgram(p));
+            }
+            report(w, "Programs");
+        }
+    }
+
+    private void writeFaculty(DataSink sink) throws IOException {
+        try (DataSink.TableWriter w = sink.open("Faculty",
+                "faculty_id", "user_id", "first_name", "last_name", "email", "phone_number", "department")) {
+            for (int f = 1; f <= scale.faculty; f++) {
+                SplittableRandom r = random("faculty", f);
+                String first = pick(r, FIRST_NAMES);
+                String last = pick(r, LAST_NAMES);
+                w.add(f, facultyUserId(f), first, last,
+                        email(first, last, f, "faculty.example.edu"), phone(r), pick(r, DEPARTMENTS));
+            }
+            report(w, "Faculty");
+        }
+    }
+
+    private void writeLibrarians(DataSink sink) throws IOException {
+        try (DataSink.TableWriter w = sink.open("Librarian",
+                "librarian_id", "user_id", "first_name", "last_name", "email", "phone_number")) {
+            for (int l = 1; l <= scale.librarians; l++) {
+                SplittableRandom r = random("librarian", l);
+                String first = pick(r, FIRST_NAMES);
+                String last = pick(r, LAST_NAMES);
+                w.add(l, librarianUserId(l), first, last, email(first, last, l, "library.example.edu"), phone(r));
+            }
+            report(w, "Librarian");
+        }
+    }
+
+    private void writeStudents(DataSink sink) throws IOException {
+        try (DataSink.TableWriter w = sink.open("Students",
+                "student_id", "user_id", "program_id", "first_name", "last_name", "date_of_birth", "gender",
+                "email", "phone_number", "address", "enrollment_date", "major")) {
+            for (int s = 1; s <= scale.students; s++) {
+                SplittableRandom r = random("student", s);
+                String first = pick(r, FIRST_NAMES);
+                String last = pick(r, LAST_NAMES);
+                int program = programOfStudent(s);
+                LocalDate dob = LocalDate.of(1998, 1, 1).plusDays(r.nextInt(8 * 365));
+                LocalDate enrolled = LocalDate.of(2021 + r.nextInt(4), 8, 15).plusDays(r.nextInt(30));
+                w.add(s, studentUserId(s), program, first, last, Date.valueOf(dob),
+                        r.nextInt(100) < 49 ? "Male" : r.nextInt(100) < 96 ? "Female" : "Other",
+                        email(first, last, s, "students.example.edu"), phone(r),
+                        (1 + r.nextInt(999)) + " " + pick(r, LAST_NAMES) + " Street",
+                        Date.valueOf(enrolled), departmentOfProgram(program));
+            }
+            report(w, "Students");
+        }
+    }
+
+    private void writeCourses(DataSink sink) throws IOException {
+        try (DataSink.TableWriter w = sink.open("Courses",
+                "course_id", "program_id", "semester_number", "course_code", "course_name", "credits",
+                "description", "department")) {
+            for (int c = 1; c <= scale.courses; c++) {
+                SplittableRandom r = random("course", c);
+                int program = programOfCourse(c);
+                int semester = semesterOfCourse(c);
+                String department = departmentOfProgram(program);
+                String code = DEPARTMENT_CODES[(program - 1) % DEPARTMENT_CODES.length]
+                        + semester + String.format("%02d", indexInProgram(c) / 8 + 1);
+                String name = department + " " + pick(r, COURSE_TOPICS) + " " + (indexInProgram(c) / 8 + 1);
+                w.add(c, program, semester, code, name, 2 + r.nextInt(3),
+                        "Semester " + semester + " course in " + department + ".", department);
+            }
+            report(w, "Courses");
+        }
+    }
+
+    private void writeEnrollments(DataSink sink) throws IOException {
+        try (DataSink.TableWriter w = sink.open("Enrollments",
+                "enrollment_id", "student_id", "course_id", "enrollment_date", "grade")) {
+            long id = 0;
+            Date enrolled = Date.valueOf(TERM_START.minusDays(14));
+            for (int s = 1; s <= scale.students; s++) {
+                for (int course : coursesOfStudent(s)) {
+                    w.add(++id, s, course, enrolled, null);
+                }
+            }
+            report(w, "Enrollments");
+        }
+    }
+
+    private void writeAttendance(DataSink sink) throws IOException {
+        try (DataSink.TableWriter w = sink.open("Attendance",
+                "attendance_id", "student_id", "course_id", "attendance_date", "status", "taken_by_faculty_id")) {
+            long id = 0;
+            for (int s = 1; s <= scale.students; s++) {
+                SplittableRandom r = random("attendance", s);
+                for (int course : coursesOfStudent(s)) {
+                    int faculty = facultyOfCourse(course);
+                    for (int session = 0; session < scale.sessionsPerCourse; session++) {
+                        int roll = r.nextInt(100);
+                        String status = roll < 80 ? "Present" : roll < 90 ? "Absent" : roll < 97 ? "Late" : "Excused";
+                        w.add(++id, s, course, Date.valueOf(sessionDate(course, session)), status, faculty);
+                    }
+                }
+            }
+            report(w, "Attendance");
+        }
+    }
+
+    private void writeResults(DataSink sink) throws IOException {
+        try (DataSink.TableWriter w = sink.open("Results",
+                "result_id", "student_id", "course_id", "semester_number", "academic_year", "marks_obtained",
+                "grade", "result_status")) {
+            long id = 0;
+            for (int s = 1; s <= scale.students; s++) {
+                SplittableRandom r = random("result", s);
+                for (int course : coursesOfStudent(s)) {
+                    if (r.nextInt(100) < 2) {
+                        w.add(++id, s, course, semesterOfCourse(course), ACADEMIC_YEAR, null, null, "Incomplete");
+                        continue;
+                    }
+                    int marks = Math.max(0, Math.min(100, (int) Math.round(65 + 15 * gaussian(r))));
+                    w.add(++id, s, course, semesterOfCourse(course), ACADEMIC_YEAR, marks, grade(marks),
+                            marks >= 40 ? "Pass" : "Fail");
+                }
+            }
+            report(w, "Results");
+        }
+    }
+
+    private void writeRoutines(DataSink sink) throws IOException {
+        try (DataSink.TableWriter w = sink.open("Routines",
+                "routine_id", "course_id", "faculty_id", "routine_type", "day_of_week", "start_time", "end_time",
+                "room_location", "academic_year", "semester_number")) {
+            long id = 0;
+            for (int c = 1; c <= scale.courses; c++) {
+                SplittableRandom r = random("routine", c);
+                for (int i = 0; i < scale.routinesPerCourse; i++) {
+                    int hour = 8 + r.nextInt(9);
+                    boolean exam = i > 0 && i == scale.routinesPerCourse - 1;
+                    w.add(++id, c, facultyOfCourse(c), exam ? "Exam" : "Class", pick(r, DAYS),
+                            Time.valueOf(hour + ":00:00"), Time.valueOf((hour + (exam ? 2 : 1)) + ":00:00"),
+                            "Block " + (char) ('A' + r.nextInt(6)) + "-" + (100 + r.nextInt(400)),
+                            ACADEMIC_YEAR, semesterOfCourse(c));
+                }
+            }
+            report(w, "Routines");
+        }
+    }
+
+    private void writeFees(DataSink sink) throws IOException {
+        try (DataSink.TableWriter w = sink.open("Fees",
+                "fee_id", "student_id", "fee_type", "amount", "due_date", "payment_date", "status")) {
+            long id = 0;
+            for (int s = 1; s <= scale.students; s++) {
+                SplittableRandom r = random("fees", s);
+                for (int i = 0; i < scale.feesPerStudent; i++) {
+                    String type = FEE_TYPES[i % FEE_TYPES.length];
+                    BigDecimal amount = BigDecimal.valueOf(i == 0 ? 150_000 + r.nextInt(100_000) : 500 + r.nextInt(20_000), 0);
+                    LocalDate due = TODAY.plusMonths(2 - r.nextInt(18)).withDayOfMonth(15);
+                    int roll = r.nextInt(100);
+                    if (roll < 70) {
+                        LocalDate paid = due.minusDays(r.nextInt(20));
+                        w.add(++id, s, type, amount, Date.valueOf(due), Date.valueOf(paid.isAfter(TODAY) ? TODAY : paid), "Paid");
+                    } else if (roll < 95) {
+                        w.add(++id, s, type, amount, Date.valueOf(due), null, due.isBefore(TODAY) ? "Overdue" : "Due");
+                    } else {
+                        w.add(++id, s, type, amount, Date.valueOf(due), null, "Waived");
+                    }
+                }
+            }
+            report(w, "Fees");
+        }
+    }
+
+    private void writeBooks(DataSink sink, int[] openBorrowings) throws IOException {
+        try (DataSink.TableWriter w = sink.open("Books",
+                "book_id", "isbn", "title", "author", "publisher", "publication_year", "genre", "total_copies",
+                "available_copies")) {
+            for (int b = 1; b <= scale.books; b++) {
+                SplittableRandom r = random("book-details", b);
+                String genre = pick(r, GENRES);
+                int total = totalCopies(b);
+                w.add(b, String.format("978%010d", b), genre + " " + pick(r, COURSE_TOPICS) + " Vol. " + b,
+                        pick(r, FIRST_NAMES) + " " + pick(r, LAST_NAMES), pick(r, LAST_NAMES) + " Press",
+                        1950 + r.nextInt(75), genre, total, total - openBorrowings[b]);
+            }
+            report(w, "Books");
+        }
+    }
+
+    /**
+     * Replays the borrowing generation without writing anything to learn how many copies of each book
+     * are still out, so the Books table (written first) can carry the right available copies.
+     */
+    private int[] countOpenBorrowings() {
+        int[] open = new int[scale.books + 1];
+        forEachBorrowing(open, (id, book, student, borrowed, due, returned, fine) -> { });
+        return open;
+    }
+
+    private void writeBorrowings(DataSink sink) throws IOException {
+        try (DataSink.TableWriter w = sink.open("Borrowings",
+                "borrowing_id", "book_id", "student_id", "borrow_date", "return_due_date", "return_date", "fine_amount")) {
+            try {
+                forEachBorrowing(new int[scale.books + 1], (id, book, student, borrowed, due, returned, fine) ->
+                        w.add(id, book, student, Date.valueOf(borrowed), Date.valueOf(due),
+                                returned != null ? Date.valueOf(returned) : null, fine));
+            } catch (BorrowingFailure e) {
+                throw e.ioException;
+            }
+            report(w, "Borrowings");
+        }
+    }
+
+    /**
+     * Generates borrowings in id order. A borrowing is only left open if a copy of the book is still
+     * on the shelf, tracked in {@code open} (copies out per book).
+     */
+    private void forEachBorrowing(int[] open, BorrowingConsumer consumer) {
+        if (scale.books == 0) {
+            return;
+        }
+        long id = 0;
+        for (int s = 1; s <= scale.students; s++) {
+            SplittableRandom r = random("borrowing", s);
+            for (int i = 0; i < scale.borrowingsPerStudent; i++) {
+                int book = 1 + r.nextInt(scale.books);
+                LocalDate borrowed = TODAY.minusDays(1 + r.nextInt(700));
+                LocalDate due = borrowed.plusDays(14);
+                boolean wantsOpen = borrowed.isAfter(TODAY.minusDays(30)) && r.nextInt(100) < 60;
+                int lateDays = r.nextInt(100) < 15 ? 1 + r.nextInt(20) : 0;
+                LocalDate returned = null;
+                BigDecimal fine = BigDecimal.ZERO.setScale(2);
+                if (wantsOpen && open[book] < totalCopies(book)) {
+                    open[book]++;
+                } else {
+                    returned = lateDays > 0 ? due.plusDays(lateDays) : borrowed.plusDays(1 + r.nextInt(14));
+                    if (returned.isAfter(TODAY)) {
+                        returned = TODAY;
+                    }
+                    long late = returned.toEpochDay() - due.toEpochDay();
+                    if (late > 0) {
+                        fine = BigDecimal.valueOf(late * 10).setScale(2);
+                    }
+                }
+                try {
+                    consumer.accept(++id, book, s, borrowed, due, returned, fine);
+                } catch (IOException e) {
+                    throw new BorrowingFailure(e);
+                }
+            }
+        }
+    }
+
+    private void writeAssignments(DataSink sink) throws IOException {
+        try (DataSink.TableWriter w = sink.open("Assignments",
+                "assignment_id", "course_id", "faculty_id", "title", "description", "due_date", "max_marks", "created_at")) {
+            for (int c = 1; c <= scale.courses; c++) {
+                for (int i = 0; i < scale.assignmentsPerCourse; i++) {
+                    int assignment = assignmentId(c, i);
+                    LocalDate due = TERM_START.plusWeeks(3L * (i + 1));
+                    w.add(assignment, c, facultyOfCourse(c), "Assignment " + (i + 1),
+                            "Coursework " + (i + 1) + " for course " + c + ".", Date.valueOf(due),
+                            maxMarks(assignment), Timestamp.valueOf(due.minusWeeks(2).atTime(9, 0)));
+                }
+            }
+            report(w, "Assignments");
+        }
+    }
+
+    private void writeSubmissions(DataSink sink) throws IOException {
+        try (DataSink.TableWriter w = sink.open("Submissions",
+                "submission_id", "assignment_id", "student_id", "submission_date", "file_path", "marks_obtained", "feedback")) {
+            long id = 0;
+            for (int s = 1; s <= scale.students; s++) {
+                SplittableRandom r = random("submission", s);
+                for (int course : coursesOfStudent(s)) {
+                    for (int i = 0; i < scale.assignmentsPerCourse; i++) {
+                        if (r.nextInt(100) >= scale.submissionPercent) {
+                            continue;
+                        }
+                        int assignment = assignmentId(course, i);
+                        LocalDateTime submitted = TERM_START.plusWeeks(3L * (i + 1)).minusDays(r.nextInt(7)).atTime(8 + r.nextInt(14), r.nextInt(60));
+                        boolean graded = r.nextInt(100) < 75;
+                        w.add(++id, assignment, s, Timestamp.valueOf(submitted),
+                                "/submissions/" + assignment + "/" + s + ".pdf",
+                                graded ? r.nextInt(maxMarks(assignment) + 1) : null,
+                                graded ? "Reviewed" : null);
+                    }
+                }
+            }
+            report(w, "Submissions");
+        }
+    }
+
+    private void writeAnnouncements(DataSink sink) throws IOException {
+        try (DataSink.TableWriter w = sink.open("Announcements",
+                "announcement_id", "title", "content", "publish_date", "target_role", "created_by_user_id")) {
+            for (int a = 1; a <= scale.announcements; a++) {
+                SplittableRandom r = random("announcement", a);
+                String role = pick(r, TARGET_ROLES);
+                w.add(a, "Notice " + a, "Announcement " + a + " for " + role + " users.",
+                        Date.valueOf(TODAY.minusDays(r.nextInt(365))), role, 1);
+            }
+            report(w, "Announcements");
+        }
+    }
+
+    // --- Helpers ---
+
+    private static String pick(SplittableRandom r, String[] values) {
+        return values[r.nextInt(values.length)];
+    }
+
+    private static String email(String first, String last, int id, String domain) {
+        return (first + "." + last + id + "@" + domain).toLowerCase();
+    }
+
+    private static String phone(SplittableRandom r) {
+        return "98" + (10_000_000 + r.nextInt(90_000_000));
+    }
+
+    /** Standard normal value via the Box-Muller transform (SplittableRandom has no nextGaussian). */
+    private static double gaussian(SplittableRandom r) {
+        double u = 1.0 - r.nextDouble();
+        return Math.sqrt(-2 * Math.log(u)) * Math.cos(2 * Math.PI * r.nextDouble());
+    }
+
+    private static String grade(int marks) {
+        if (marks >= 90) return "A+";
+        if (marks >= 80) return "A";
+        if (marks >= 70) return "B+";
+        if (marks >= 60) return "B";
+        if (marks >= 50) return "C+";
+        if (marks >= 40) return "C";
+        return "F";
+    }
+
+    private void report(DataSink.TableWriter w, String table) {
+        System.out.println(String.format("  %-14s %,12d rows", table, w.getRowCount()));
+    }
+
+    @FunctionalInterface
+    private interface BorrowingConsumer {
+        void accept(long id, int book, int student, LocalDate borrowed, LocalDate due, LocalDate returned,
+                    BigDecimal fine) throws IOException;
+    }
+
+    /** Carries a sink failure out of the borrowing loop. */
+    private static final class BorrowingFailure extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        final IOException ioException;
+
+        BorrowingFailure(IOException ioException) {
+            super(ioException);
+            this.ioException = ioException;
+        }
+    }
+
+    /**
+     * Deletes all rows from every table, children first.
+     *
+     * @param conn The connection to use.
+     * @throws SQLException If a delete fails.
+     */
+    public static void clearAllTables(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            for (String table : TABLES_IN_DELETE_ORDER) {
+                stmt.executeUpdate("DELETE FROM " + table);
+            }
+        }
+    }
+
+    /**
+     * Command line entry point; see the class documentation for the options.
+     *
+     * @param args Command line arguments.
+     */
+    public static void main(String[] args) {
+        Scale scale = Scale.campus();
+        long seed = 42;
+        String csvDirectory = null;
+        boolean clear = false;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--scale":
+                    scale = Scale.named(args[++i]);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(args[++i]);
+                    break;
+                case "--csv":
+                    csvDirectory = args[++i];
+                    break;
+                case "--clear":
+                    clear = true;
+                    break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    System.err.println("Usage: DataGenerator [--scale campus|small] [--seed 42] [--csv DIR] [--clear]");
+                    return;
+            }
+        }
+
+        DataGenerator generator = new DataGenerator(scale, seed);
+        long start = System.nanoTime();
+        System.out.println("Generating " + scale + " with seed " + seed);
+        try {
+            if (csvDirectory != null) {
+                try (DataSink sink = new CsvDataSink(Paths.get(csvDirectory))) {
+                    generator.generate(sink);
+                }
+            } else {
+                try (Connection conn = DBController.getConnection()) {
+                    if (clear) {
+                        clearAllTables(conn);
+                    }
+                    try (DataSink sink = new JdbcDataSink(conn, 500, 20)) {
+                        generator.generate(sink);
+                    }
+                }
+            }
+            System.out.println(String.format("Done in %.1f s", (System.nanoTime() - start) / 1e9));
+        } catch (IOException | SQLException e) {
+            System.err.println("Data generation failed: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            DBController.shutdown();
+        }
+    }
+
+    /**
+     * Dataset size. {@link #campus()} is the full-size campus; {@link #small()} is a hundredth of it
+     * for quick local runs.
+     */
+    public static final class Scale {
+        final String name;
+        final int programs;
+        final int students;
+        final int faculty;
+        final int librarians;
+        final int courses;
+        final int coursesPerStudent;
+        final int sessionsPerCourse;
+        final int routinesPerCourse;
+        final int feesPerStudent;
+        final int books;
+        final int borrowingsPerStudent;
+        final int assignmentsPerCourse;
+        final int submissionPercent;
+        final int announcements;
+
+        public Scale(String name, int programs, int students, int faculty, int librarians, int courses,
+                     int coursesPerStudent, int sessionsPerCourse, int routinesPerCourse, int feesPerStudent,
+                     int books, int borrowingsPerStudent, int assignmentsPerCourse, int submissionPercent,
+                     int announcements) {
+            if (programs <= 0 || faculty <= 0 || courses < programs) {
+                throw new IllegalArgumentException("A scale needs at least one program, one faculty member and one course per program.");
+            }
+            this.name = name;
+            this.programs = programs;
+            this.students = students;
+            this.faculty = faculty;
+            this.librarians = librarians;
+            this.courses = courses;
+            this.coursesPerStudent = coursesPerStudent;
+            this.sessionsPerCourse = sessionsPerCourse;
+            this.routinesPerCourse = routinesPerCourse;
+            this.feesPerStudent = feesPerStudent;
+            this.books = books;
+            this.borrowingsPerStudent = borrowingsPerStudent;
+            this.assignmentsPerCourse = assignmentsPerCourse;
+            this.submissionPercent = submissionPercent;
+            this.announcements = announcements;
+        }
+
+        /**
+         * 200k students, 5k courses, 1.6M enrollments and results, 32M attendance rows,
+         * 2M borrowings and about 5M submissions.
+         */
+        public static Scale campus() {
+            return new Scale("campus", 40, 200_000, 2_000, 40, 5_000, 8, 20, 2, 4, 50_000, 10, 4, 80, 1_000);
+        }
+
+        /** 2k students and 200 courses. */
+        public static Scale small() {
+            return new Scale("small", 8, 2_000, 50, 3, 200, 6, 10, 2, 2, 1_000, 3, 2, 80, 20);
+        }
+
+        public static Scale named(String name) {
+            switch (name) {
+                case "campus":
+                    return campus();
+                case "small":
+                    return small();
+                default:
+                    throw new IllegalArgumentException("Unknown scale '" + name + "'. Use 'campus' or 'small'.");
+            }
+        }
+
+        public int getStudents() { return students; }
+        public int getCourses() { return courses; }
+
+        @Override
+        public String toString() {
+            return "Scale{" + name + ": " + students + " students, " + courses + " courses, "
+                    + programs + " programs, " + books + " books}";
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.demo.datagen;
+
+import java.io.IOException;
+
+/**
+ * Destination for generated rows. Tables are written one at a time, in foreign key order.
+ */
+public interface DataSink extends AutoCloseable {
+
+    /**
+     * Starts writing a table.
+     *
+     * @param table   The table name, e.g. {@code Students}.
+     * @param columns The column names, in the order values are passed to {@link TableWriter#add}.
+     * @return A writer that must be closed before the next table is opened.
+     * @throws IOException If the destination cannot be written.
+     */
+    TableWriter open(String table, String... columns) throws IOException;
+
+    @Override
+    void close() throws IOException;
+
+    /**
+     * Receives the rows of one table.
+     */
+    interface TableWriter extends AutoCloseable {
+
+        /**
+         * Adds one row. The writer may buffer it; rows are only guaranteed written after {@link #close()}.
+         *
+         * @param values One value per column. Dates and times are {@code java.sql} types.
+         * @throws IOException If the destination cannot be written.
+         */
+        void add(Object... values) throws IOException;
+
+        /**
+         * @return Number of rows added so far.
+         */
+        long getRowCount();
+
+        @Override
+        void close() throws IOException;
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.demo.datagen;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Inserts rows with multi-row {@code INSERT ... VALUES (...), (...), ...} statements.
+ * <p>
+ * Rows are buffered until a full statement's worth is available, so the database sees one round trip
+ * per {@code rowsPerStatement} rows; the connection commits every {@code statementsPerCommit} statements
+ * to keep transactions (and undo logs) small. The caller owns the connection.
+ */
+public class JdbcDataSink implements DataSink {
+
+    private static final int MAX_PARAMETERS = 65_535; // MySQL's limit on placeholders per statement
+
+    private final Connection conn;
+    private final int rowsPerStatement;
+    private final int statementsPerCommit;
+    private final boolean originalAutoCommit;
+
+    public JdbcDataSink(Connection conn, int rowsPerStatement, int statementsPerCommit) throws IOException {
+        if (rowsPerStatement <= 0 || statementsPerCommit <= 0) {
+            throw new IllegalArgumentException("Rows per statement and statements per commit must be positive.");
+        }
+        this.conn = conn;
+        this.rowsPerStatement = rowsPerStatement;
+        this.statementsPerCommit = statementsPerCommit;
+        try {
+            this.originalAutoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+        } catch (SQLException e) {
+            throw new IOException("Failed to start a transaction: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public TableWriter open(String table, String... columns) {
+        int rows = Math.max(1, Math.min(rowsPerStatement, MAX_PARAMETERS / columns.length));
+        return new JdbcTableWriter(table, columns, rows);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            conn.setAutoCommit(originalAutoCommit);
+        } catch (SQLException e) {
+            throw new IOException("Failed to restore auto-commit: " + e.getMessage(), e);
+        }
+    }
+
+    static String insertSql(String table, String[] columns, int rows) {
+        StringBuilder sb = new StringBuilder("INSERT INTO ").append(table).append(" (")
+                .append(String.join(", ", columns)).append(") VALUES ");
+        StringBuilder row = new StringBuilder("(");
+        for (int c = 0; c < columns.length; c++) {
+            row.append(c == 0 ? "?" : ", ?");
+        }
+        row.append(')');
+        for (int r = 0; r < rows; r++) {
+            if (r > 0) {
+                sb.append(", ");
+            }
+            sb.append(row);
+        }
+        return sb.toString();
+    }
+
+    private final class JdbcTableWriter implements TableWriter {
+        private final String table;
+        private final String[] columns;
+        private final int rowsPerChunk;
+        private final Object[] buffer;
+        private PreparedStatement fullChunk; // prepared on first use, reused for every full chunk
+        private int buffered;
+        private int uncommittedStatements;
+        private long rows;
+
+        JdbcTableWriter(String table, String[] columns, int rowsPerChunk) {
+            this.table = table;
+            this.columns = columns;
+            this.rowsPerChunk = rowsPerChunk;
+            this.buffer = new Object[rowsPerChunk * columns.length];
+        }
+
+        @Override
+        public void add(Object... values) throws IOException {
+            if (values.length != columns.length) {
+                throw new IllegalArgumentException("Expected " + columns.length + " values for " + table + ", got " + values.length);
+            }
+            System.arraycopy(values, 0, buffer, buffered * columns.length, columns.length);
+            buffered++;
+            rows++;
+            if (buffered == rowsPerChunk) {
+                try {
+                    if (fullChunk == null) {
+                        fullChunk = conn.prepareStatement(insertSql(table, columns, rowsPerChunk));
+                    }
+                    execute(fullChunk, buffered);
+                } catch (SQLException e) {
+                    throw failure(e);
+                }
+            }
+        }
+
+        private void execute(PreparedStatement stmt, int rowCount) throws SQLException {
+            int parameters = rowCount * columns.length;
+            for (int i = 0; i < parameters; i++) {
+                stmt.setObject(i + 1, buffer[i]);
+            }
+            stmt.executeUpdate();
+            buffered = 0;
+            if (++uncommittedStatements >= statementsPerCommit) {
+                conn.commit();
+                uncommittedStatements = 0;
+            }
+        }
+
+        private IOException failure(SQLException e) {
+            try {
+                conn.rollback();
+            } catch (SQLException rollbackError) {
+                e.addSuppressed(rollbackError);
+            }
+            return new IOException("Failed to insert into " + table + " near row " + rows + ": " + e.getMessage(), e);
+        }
+
+        @Override
+        public long getRowCount() {
+            return rows;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                if (buffered > 0) {
+                    try (PreparedStatement tail = conn.prepareStatement(insertSql(table, columns, buffered))) {
+                        execute(tail, buffered);
+                    }
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                throw failure(e);
+            } finally {
+                if (fullChunk != null) {
+                    try {
+                        fullChunk.close();
+                    } catch (SQLException ignored) {
+                        // The connection is still usable for the next table
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,479 @@
+package com.example.demo.db;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A bounded JDBC connection pool.
+ * <p>
+ * Physical connections are opened once and reused; callers receive a proxy whose {@code close()}
+ * returns the connection to the pool instead of closing the socket. The pool never holds more than
+ * {@code maxSize} physical connections, keeps at least {@code minSize} open, evicts connections that
+ * sit idle longer than the idle timeout, validates connections on borrow and reports connections that
+ * are held longer than the leak detection threshold. Each physical connection keeps its own
+ * {@link StatementCache}, so the constant SQL of the DAOs is prepared once per connection.
+ */
+public class ConnectionPool implements AutoCloseable {
+
+    private final String name;
+    private final String url;
+    private final Properties connectionProperties;
+
+    private final int minSize;
+    private final int maxSize;
+    private final long idleTimeoutNanos;
+    private final long acquireTimeoutNanos;
+    private final long validationIntervalNanos;
+    private final int validationTimeoutSeconds;
+    private final long leakThresholdNanos;
+    private final int statementCacheSize;
+    private final StatementCache.Counters statementCounters = new StatementCache.Counters();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private final Deque<PooledEntry> idle = new ArrayDeque<>(); // guarded by lock, most recently returned first
+    private final Set<PooledEntry> borrowed = ConcurrentHashMap.newKeySet();
+    private int totalConnections; // guarded by lock, includes connections being opened
+    private int waiters;          // guarded by lock
+    private boolean shutdown;     // guarded by lock
+
+    private final ScheduledExecutorService housekeeper;
+
+    // Statistics
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong borrowNanosTotal = new AtomicLong();
+    private final AtomicLong createdCount = new AtomicLong();
+    private final AtomicLong destroyedCount = new AtomicLong();
+    private final AtomicLong timeoutCount = new AtomicLong();
+
+    /**
+     * Creates a pool for the given JDBC URL using the pool settings of the configuration.
+     *
+     * @param name A short name used in log messages and thread names (e.g. "primary").
+     * @param url The JDBC URL of the database.
+     * @param user The database user.
+     * @param password The database password.
+     * @param config The configuration providing the {@code db.pool.*} settings.
+     */
+    public ConnectionPool(String name, String url, String user, String password, DBConfig config) {
+        this.name = name;
+        this.url = url;
+        this.connectionProperties = new Properties();
+        if (user != null) {
+            connectionProperties.setProperty("user", user);
+        }
+        if (password != null) {
+            connectionProperties.setProperty("password", password);
+        }
+        if (url.startsWith("jdbc:mysql:") && config.getBoolean("db.useServerPrepStmts", true)) {
+            // Let MySQL keep the parsed statement on the server; our own cache keeps it open on the client
+            connectionProperties.setProperty("useServerPrepStmts", "true");
+        }
+        if (url.startsWith("jdbc:mysql:") && config.getBoolean("db.rewriteBatchedStatements", true)) {
+            // Send a JDBC batch of INSERTs as multi-row INSERTs instead of one round trip per row
+            connectionProperties.setProperty("rewriteBatchedStatements", "true");
+        }
+
+        this.maxSize = Math.max(1, config.getInt("db.pool.maxSize", 10));
+        this.minSize = Math.min(Math.max(0, config.getInt("db.pool.minSize", 2)), maxSize);
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(config.getLong("db.pool.idleTimeoutMillis", 300_000));
+        this.acquireTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(config.getLong("db.pool.acquireTimeoutMillis", 5_000));
+        this.validationIntervalNanos = TimeUnit.MILLISECONDS.toNanos(config.getLong("db.pool.validationIntervalMillis", 1_000));
+        this.validationTimeoutSeconds = config.getInt("db.pool.validationTimeoutSeconds", 2);
+        this.leakThresholdNanos = TimeUnit.MILLISECONDS.toNanos(config.getLong("db.pool.leakDetectionThresholdMillis", 30_000));
+        this.statementCacheSize = Math.max(0, config.getInt("db.pool.statementCacheSize", 64));
+
+        long housekeepingMillis = Math.max(100, config.getLong("db.pool.housekeepingIntervalMillis", 15_000));
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "db-pool-" + name + "-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        housekeeper.scheduleWithFixedDelay(this::housekeep, 0, housekeepingMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrows a connection from the pool, opening a new physical connection if none is idle and the
+     * pool has not reached its maximum size. Closing the returned connection hands it back to the pool.
+     *
+     * @return A validated, pooled connection.
+     * @throws SQLException If no connection became available within the acquire timeout,
+     *                      the pool is shut down, or a new connection could not be opened.
+     */
+    public Connection borrow() throws SQLException {
+        long start = System.nanoTime();
+        long deadline = start + acquireTimeoutNanos;
+
+        while (true) {
+            PooledEntry entry = null;
+            boolean create = false;
+
+            lock.lock();
+            try {
+                while (true) {
+                    if (shutdown) {
+                        throw new SQLException("Connection pool '" + name + "' has been shut down.");
+                    }
+                    entry = idle.pollFirst();
+                    if (entry != null) {
+                        break;
+                    }
+                    if (totalConnections < maxSize) {
+                        totalConnections++;
+                        create = true;
+                        break;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        timeoutCount.incrementAndGet();
+                        throw new SQLTransientConnectionException("Timed out after "
+                                + TimeUnit.NANOSECONDS.toMillis(acquireTimeoutNanos) + " ms waiting for a connection from pool '"
+                                + name + "' (active=" + borrowed.size() + ", idle=" + idle.size() + ", max=" + maxSize + ").");
+                    }
+                    waiters++;
+                    try {
+                        available.awaitNanos(remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new SQLException("Interrupted while waiting for a database connection.", e);
+                    } finally {
+                        waiters--;
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            if (create) {
+                try {
+                    entry = newEntry(openPhysical());
+                } catch (SQLException | RuntimeException e) {
+                    discardSlot();
+                    throw e;
+                }
+            } else if (!isUsable(entry)) {
+                destroy(entry);
+                continue; // Try the next idle connection or open a fresh one
+            }
+
+            entry.borrowedAt = System.nanoTime();
+            entry.borrowSite = leakThresholdNanos > 0 ? new Throwable("Connection borrowed here") : null;
+            entry.leakReported = false;
+            borrowed.add(entry);
+
+            borrowCount.incrementAndGet();
+            borrowNanosTotal.addAndGet(entry.borrowedAt - start);
+            return PooledConnectionHandler.wrap(this, entry);
+        }
+    }
+
+    /**
+     * Returns a connection to the pool. Called by the pooled connection proxy on {@code close()}.
+     * Connections that are broken or were left in a bad state are destroyed instead of being reused.
+     */
+    void release(PooledEntry entry, boolean reusable) {
+        borrowed.remove(entry);
+        entry.borrowSite = null;
+        if (!reusable) {
+            destroy(entry);
+            return;
+        }
+        entry.lastReturnedAt = System.nanoTime();
+        boolean closeIt = false;
+        lock.lock();
+        try {
+            if (shutdown) {
+                closeIt = true;
+            } else {
+                idle.addFirst(entry);
+                available.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (closeIt) {
+            destroy(entry);
+        }
+    }
+
+    /**
+     * Closes all idle connections and stops the housekeeping thread.
+     * Connections that are still borrowed are closed when they are returned.
+     */
+    @Override
+    public void close() {
+        List<PooledEntry> toClose;
+        lock.lock();
+        try {
+            if (shutdown) {
+                return;
+            }
+            shutdown = true;
+            toClose = new ArrayList<>(idle);
+            idle.clear();
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        housekeeper.shutdownNow();
+        for (PooledEntry entry : toClose) {
+            destroy(entry);
+        }
+    }
+
+    /**
+     * @return A point-in-time snapshot of the pool's size and usage counters.
+     */
+    public Stats getStats() {
+        lock.lock();
+        try {
+            long borrows = borrowCount.get();
+            return new Stats(name, totalConnections, idle.size(), borrowed.size(), waiters, maxSize,
+                    borrows, borrows == 0 ? 0 : borrowNanosTotal.get() / borrows,
+                    createdCount.get(), destroyedCount.get(), timeoutCount.get(),
+                    statementCounters.hits.get(), statementCounters.misses.get(), statementCounters.evictions.get());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    private PooledEntry newEntry(Connection physical) {
+        StatementCache cache = statementCacheSize > 0 ? new StatementCache(statementCacheSize, statementCounters) : null;
+        return new PooledEntry(physical, cache);
+    }
+
+    private Connection openPhysical() throws SQLException {
+        Connection conn = DriverManager.getConnection(url, connectionProperties);
+        createdCount.incrementAndGet();
+        return conn;
+    }
+
+    /**
+     * A connection that was used within the validation interval is trusted without a round trip;
+     * anything older is checked with {@link Connection#isValid(int)}.
+     */
+    private boolean isUsable(PooledEntry entry) {
+        if (System.nanoTime() - entry.lastReturnedAt < validationIntervalNanos) {
+            return true;
+        }
+        try {
+            return entry.physical.isValid(validationTimeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void destroy(PooledEntry entry) {
+        try {
+            entry.physical.close();
+        } catch (SQLException e) {
+            System.err.println("Closing pooled connection failed: " + e.getMessage());
+        }
+        destroyedCount.incrementAndGet();
+        discardSlot();
+    }
+
+    private void discardSlot() {
+        lock.lock();
+        try {
+            totalConnections--;
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Periodic maintenance: evicts connections idle for longer than the idle timeout (down to the
+     * minimum size), tops the pool back up to the minimum size, and reports suspected leaks.
+     */
+    private void housekeep() {
+        try {
+            List<PooledEntry> expired = new ArrayList<>();
+            long now = System.nanoTime();
+            lock.lock();
+            try {
+                if (shutdown) {
+                    return;
+                }
+                // Oldest idle connections sit at the tail of the deque
+                Iterator<PooledEntry> it = idle.descendingIterator();
+                while (it.hasNext() && totalConnections - expired.size() > minSize) {
+                    PooledEntry entry = it.next();
+                    if (now - entry.lastReturnedAt > idleTimeoutNanos) {
+                        it.remove();
+                        expired.add(entry);
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+            for (PooledEntry entry : expired) {
+                destroy(entry);
+            }
+
+            fillToMinimum();
+            detectLeaks(now);
+        } catch (RuntimeException e) {
+            System.err.println("Connection pool '" + name + "' housekeeping failed: " + e.getMessage());
+        }
+    }
+
+    private void fillToMinimum() {
+        while (true) {
+            lock.lock();
+            try {
+                if (shutdown || totalConnections >= minSize) {
+                    return;
+                }
+                totalConnections++;
+            } finally {
+                lock.unlock();
+            }
+            try {
+                PooledEntry entry = newEntry(openPhysical());
+                release(entry, true);
+            } catch (SQLException e) {
+                discardSlot();
+                System.err.println("Connection pool '" + name + "' could not open a connection: " + e.getMessage());
+                return;
+            }
+        }
+    }
+
+    private void detectLeaks(long now) {
+        if (leakThresholdNanos <= 0) {
+            return;
+        }
+        for (PooledEntry entry : borrowed) {
+            Throwable site = entry.borrowSite;
+            if (!entry.leakReported && site != null && now - entry.borrowedAt > leakThresholdNanos) {
+                entry.leakReported = true;
+                System.err.println("Possible connection leak in pool '" + name + "': connection held for "
+                        + TimeUnit.NANOSECONDS.toMillis(now - entry.borrowedAt) + " ms without being closed.");
+                site.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * A physical connection plus the bookkeeping the pool keeps about it.
+     */
+    static final class PooledEntry {
+        final Connection physical;
+        final StatementCache statementCache; // null when statement caching is disabled
+        volatile long lastReturnedAt;
+        volatile long borrowedAt;
+        volatile Throwable borrowSite;
+        volatile boolean leakReported;
+
+        PooledEntry(Connection physical, StatementCache statementCache) {
+            this.physical = physical;
+            this.statementCache = statementCache;
+            this.lastReturnedAt = System.nanoTime();
+        }
+    }
+
+    /**
+     * Immutable snapshot of pool usage.
+     */
+    public static final class Stats {
+        private final String poolName;
+        private final int total;
+        private final int idle;
+        private final int active;
+        private final int waiting;
+        private final int max;
+        private final long borrows;
+        private final long averageAcquireNanos;
+        private final long created;
+        private final long destroyed;
+        private final long timeouts;
+        private final long statementCacheHits;
+        private final long statementCacheMisses;
+        private final long statementCacheEvictions;
+
+        Stats(String poolName, int total, int idle, int active, int waiting, int max, long borrows,
+              long averageAcquireNanos, long created, long destroyed, long timeouts,
+              long statementCacheHits, long statementCacheMisses, long statementCacheEvictions) {
+            this.poolName = poolName;
+            this.total = total;
+            this.idle = idle;
+            this.active = active;
+            this.waiting = waiting;
+            this.max = max;
+            this.borrows = borrows;
+            this.averageAcquireNanos = averageAcquireNanos;
+            this.created = created;
+            this.destroyed = destroyed;
+            this.timeouts = timeouts;
+            this.statementCacheHits = statementCacheHits;
+            this.statementCacheMisses = statementCacheMisses;
+            this.statementCacheEvictions = statementCacheEvictions;
+        }
+
+        public String getPoolName() { return poolName; }
+        public int getTotal() { return total; }
+        public int getIdle() { return idle; }
+        public int getActive() { return active; }
+        public int getWaiting() { return waiting; }
+        public int getMax() { return max; }
+        public long getBorrows() { return borrows; }
+        public long getAverageAcquireNanos() { return averageAcquireNanos; }
+        public long getCreated() { return created; }
+        public long getDestroyed() { return destroyed; }
+        public long getTimeouts() { return timeouts; }
+        public long getStatementCacheHits() { return statementCacheHits; }
+        public long getStatementCacheMisses() { return statementCacheMisses; }
+        public long getStatementCacheEvictions() { return statementCacheEvictions; }
+
+        public double getStatementCacheHitRate() {
+            long lookups = statementCacheHits + statementCacheMisses;
+            return lookups == 0 ? 0.0 : (double) statementCacheHits / lookups;
+        }
+
+        @Override
+        public String toString() {
+            return "Pool{" +
+                    "name='" + poolName + '\'' +
+                    ", total=" + total +
+                    ", idle=" + idle +
+                    ", active=" + active +
+                    ", waiting=" + waiting +
+                    ", max=" + max +
+                    ", borrows=" + borrows +
+                    ", avgAcquireMicros=" + (averageAcquireNanos / 1_000) +
+                    ", created=" + created +
+                    ", destroyed=" + destroyed +
+                    ", timeouts=" + timeouts +
+                    ", stmtCacheHits=" + statementCacheHits +
+                    ", stmtCacheMisses=" + statementCacheMisses +
+                    ", stmtCacheEvictions=" + statementCacheEvictions +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.demo.db;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+/**
+ * Database and connection pool settings.
+ * Values are resolved in this order (later wins):
+ * built-in defaults, an optional {@code db.properties} file at the root of the classpath,
+ * and JVM system properties prefixed with {@code sms.} (e.g. {@code -Dsms.db.pool.maxSize=20}).
+ * <p>
+ * {@code db.profile} selects the database: {@code mysql} (default) uses {@code db.url} and friends,
+ * {@code embedded} uses the in-process H2 database in MySQL mode described by {@code db.embedded.*}
+ * (see {@link EmbeddedDatabase}).
+ */
+public final class DBConfig {
+
+    private static final String RESOURCE_NAME = "/db.properties";
+    private static final String SYSTEM_PREFIX = "sms.";
+    public static final String PROFILE_MYSQL = "mysql";
+    public static final String PROFILE_EMBEDDED = "embedded";
+
+    private final Properties props;
+
+    private DBConfig(Properties props) {
+        this.props = props;
+    }
+
+    /**
+     * Loads the configuration from defaults, the classpath resource and system properties.
+     *
+     * @return The resolved configuration.
+     */
+    public static DBConfig load() {
+        Properties props = defaults();
+
+        try (InputStream in = DBConfig.class.getResourceAsStream(RESOURCE_NAME)) {
+            if (in != null) {
+                props.load(in);
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to read " + RESOURCE_NAME + ", using defaults: " + e.getMessage());
+        }
+
+        for (String name : System.getProperties().stringPropertyNames()) {
+            if (name.startsWith(SYSTEM_PREFIX)) {
+                props.setProperty(name.substring(SYSTEM_PREFIX.length()), System.getProperty(name));
+            }
+        }
+        return new DBConfig(props);
+    }
+
+    private static Properties defaults() {
+        Properties p = new Properties();
+        p.setProperty("db.profile", PROFILE_MYSQL);
+
+        // Connection parameters (ensure 'student_management_system' matches your MySQL database name)
+        p.setProperty("db.driver", "com.mysql.cj.jdbc.Driver");
+        p.setProperty("db.url", "jdbc:mysql://localhost:3306/student_management_system");
+        p.setProperty("db.user", "root");
+        p.setProperty("db.password", "@Uchiha007");
+
+        // Embedded profile: in-memory H2 in MySQL mode, created by the db/migration scripts on first use
+        p.setProperty("db.embedded.driver", "org.h2.Driver");
+        p.setProperty("db.embedded.url",
+                "jdbc:h2:mem:student_management_system;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        p.setProperty("db.embedded.user", "sa");
+        p.setProperty("db.embedded.password", "");
+        p.setProperty("db.embedded.initSchema", "true");
+        p.setProperty("db.embedded.seed", "true");
+
+        // Apply pending db/migration scripts to MySQL at startup (the embedded profile uses db.embedded.initSchema)
+        p.setProperty("db.migrations.autoApply", "false");
+
+        // Pool sizing and housekeeping
+        p.setProperty("db.pool.minSize", "2");
+        p.setProperty("db.pool.maxSize", "10");
+        p.setProperty("db.pool.idleTimeoutMillis", "300000");
+        p.setProperty("db.pool.acquireTimeoutMillis", "5000");
+        p.setProperty("db.pool.validationTimeoutSeconds", "2");
+        p.setProperty("db.pool.validationIntervalMillis", "1000");
+        p.setProperty("db.pool.leakDetectionThresholdMillis", "30000");
+        p.setProperty("db.pool.housekeepingIntervalMillis", "15000");
+
+        // Prepared statements kept open per pooled connection (0 disables the cache)
+        p.setProperty("db.pool.statementCacheSize", "64");
+        p.setProperty("db.useServerPrepStmts", "true");
+        p.setProperty("db.rewriteBatchedStatements", "true");
+
+        // Fetch size for streamed reads. Connector/J streams row by row only with Integer.MIN_VALUE
+        // (or with a positive size when useCursorFetch=true); H2 takes it as a plain hint.
+        p.setProperty("db.stream.fetchSize", String.valueOf(Integer.MIN_VALUE));
+        p.setProperty("db.embedded.stream.fetchSize", "1000");
+
+        // Read replicas (comma separated JDBC URLs; empty means all reads go to the primary)
+        p.setProperty("db.replica.urls", "");
+        p.setProperty("db.replica.readYourWritesWindowMillis", "5000");
+        p.setProperty("db.replica.retryAfterMillis", "30000");
+
+        // Background service calls (see service.ServiceExecutor); a max concurrency of 0 means db.pool.maxSize,
+        // a timeout of 0 means none
+        p.setProperty("db.async.maxConcurrency", "0");
+        p.setProperty("db.async.timeoutMillis", "0");
+
+        // Entity caches in front of the ID lookups (see service.EntityCaches); the budget is per cache in
+        // estimated bytes, 0 disables caching; a TTL of 0 keeps entries until they are evicted
+        p.setProperty("db.cache.entity.maxBytes", "4194304");
+        p.setProperty("db.cache.entity.ttlMillis", "60000");
+
+        // Result cache for frequently read lists (see dao.QueryCache); 0 entries disables it
+        p.setProperty("db.cache.query.maxEntries", "500");
+        p.setProperty("db.cache.query.ttlMillis", "300000");
+
+        // SQL execution metrics (see SqlMetrics); a dump interval of 0 disables the console dump
+        p.setProperty("db.metrics.enabled", "true");
+        p.setProperty("db.metrics.dumpIntervalMillis", "0");
+
+        // Slow query log (see SlowQueryLog); a negative threshold disables it
+        p.setProperty("db.slowQuery.thresholdMillis", "200");
+        p.setProperty("db.slowQuery.explain", "true");
+        p.setProperty("db.slowQuery.file", "logs/slow-query.log");
+        p.setProperty("db.slowQuery.maxFileBytes", "10485760");
+        p.setProperty("db.slowQuery.maxFiles", "5");
+        p.setProperty("db.slowQuery.queueCapacity", "1024");
+        return p;
+    }
+
+    public String getString(String key) {
+        return props.getProperty(key);
+    }
+
+    public String getString(String key, String defaultValue) {
+        return props.getProperty(key, defaultValue);
+    }
+
+    public int getInt(String key, int defaultValue) {
+        String value = props.getProperty(key);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid integer for '" + key + "': " + value + ", using " + defaultValue);
+            return defaultValue;
+        }
+    }
+
+    public long getLong(String key, long defaultValue) {
+        String value = props.getProperty(key);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid number for '" + key + "': " + value + ", using " + defaultValue);
+            return defaultValue;
+        }
+    }
+
+    public boolean getBoolean(String key, boolean defaultValue) {
+        String value = props.getProperty(key);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        return Boolean.parseBoolean(value.trim());
+    }
+
+    public String getProfile() {
+        return getString("db.profile", PROFILE_MYSQL).trim().toLowerCase();
+    }
+
+    public boolean isEmbedded() {
+        return PROFILE_EMBEDDED.equals(getProfile());
+    }
+
+    // --- Typed accessors for the common settings (resolved for the active profile) ---
+    public String getDriverClassName() { return getString(isEmbedded() ? "db.embedded.driver" : "db.driver"); }
+    public String getUrl() { return getString(isEmbedded() ? "db.embedded.url" : "db.url"); }
+    public String getUser() { return getString(isEmbedded() ? "db.embedded.user" : "db.user"); }
+    public String getPassword() { return getString(isEmbedded() ? "db.embedded.password" : "db.password"); }
+    public int getStreamFetchSize() {
+        return isEmbedded() ? getInt("db.embedded.stream.fetchSize", 1000) : getInt("db.stream.fetchSize", Integer.MIN_VALUE);
+    }
+}
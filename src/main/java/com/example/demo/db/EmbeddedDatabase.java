@@ -0,0 +1,56 @@
+package com.example.demo.db;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+
+/**
+ * Prepares the in-process database used by the {@code embedded} profile.
+ * <p>
+ * The embedded profile needs no external services, which makes it the profile for performance
+ * tests and load simulations on build machines. H2 runs in MySQL mode so the DAOs' SQL works
+ * unchanged, and the schema comes from the same versioned migrations ({@link Migrator}) that
+ * build the MySQL tables.
+ */
+public final class EmbeddedDatabase {
+
+    public static final String SEED_SCRIPT = "/db/seed.sql";
+
+    private EmbeddedDatabase() {
+    }
+
+    /**
+     * Applies pending schema migrations (if {@code db.embedded.initSchema}) and the reference data
+     * (if {@code db.embedded.seed}). Both steps are idempotent, so this is safe to call on
+     * every startup, including against a file-based H2 URL that already holds data.
+     *
+     * @param config The configuration; must use the embedded profile.
+     * @throws SQLException If the database cannot be opened or a script fails.
+     */
+    public static void initialize(DBConfig config) throws SQLException {
+        if (!config.isEmbedded()) {
+            throw new IllegalArgumentException("Embedded database requested but db.profile is '" + config.getProfile() + "'.");
+        }
+        boolean schema = config.getBoolean("db.embedded.initSchema", true);
+        boolean seed = config.getBoolean("db.embedded.seed", true);
+        if (!schema && !seed) {
+            return;
+        }
+        try (Connection conn = DriverManager.getConnection(config.getUrl(), config.getUser(), config.getPassword())) {
+            if (schema) {
+                Migrator.migrate(conn);
+            }
+            if (!seed) {
+                return;
+            }
+            conn.setAutoCommit(false);
+            try {
+                SqlScript.load(SEED_SCRIPT).execute(conn);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.demo.db;
+
+/**
+ * Receives every successful statement execution on an instrumented connection, with its bound
+ * parameters. Used by tools such as {@link QueryPlanChecker} that need the SQL the DAOs really run.
+ * Called on the executing thread, so implementations must be quick and thread-safe.
+ */
+public interface ExecutionListener {
+
+    /**
+     * @param sql The SQL text as prepared or executed.
+     * @param params The bound parameters by index (index 0 unused), or null if none were bound.
+     * @param daoMethod The DAO method that created the statement, e.g. {@code StudentDAO.getStudentById}.
+     */
+    void executed(String sql, Object[] params, String daoMethod);
+}
@@ -0,0 +1,128 @@
+package com.example.demo.db;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The database's EXPLAIN output for one statement, shared by {@link SlowQueryLog} and {@link QueryPlanChecker}.
+ * Understands the plan formats of MySQL (a row per table; {@code type} {@code ALL} is a table scan and
+ * {@code index} a scan of a whole index) and H2 (a single PLAN column; a table followed by an index
+ * comment without a condition, such as {@code /* public.books.tableScan *\/}, is read in full).
+ */
+final class ExplainPlan {
+
+    private static final Pattern EXPLAINABLE = Pattern.compile("(?is)^\\s*(?:select|update|delete|with)\\b.*");
+    private static final Pattern H2_FULL_SCAN =
+            Pattern.compile("(?i)\\b(?:FROM|JOIN)\\s+(?:\"?\\w+\"?\\.)?\"?(\\w+)\"?[^/]*?/\\*\\s*[\\w.\"]+\\s*\\*/");
+
+    private final List<String> columns;
+    private final List<String[]> rows;
+
+    private ExplainPlan(List<String> columns, List<String[]> rows) {
+        this.columns = columns;
+        this.rows = rows;
+    }
+
+    /**
+     * @return Whether the database can EXPLAIN the statement (SELECT, UPDATE, DELETE and WITH).
+     */
+    static boolean isExplainable(String sql) {
+        return sql != null && EXPLAINABLE.matcher(sql).matches();
+    }
+
+    /**
+     * Runs EXPLAIN for the statement with the given parameters bound.
+     *
+     * @param conn The connection to run EXPLAIN on; should not be instrumented.
+     * @param sql An explainable statement.
+     * @param params The parameters by index (index 0 unused), or null.
+     */
+    static ExplainPlan of(Connection conn, String sql, Object[] params) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("EXPLAIN " + sql)) {
+            if (params != null) {
+                for (int i = 1; i < params.length; i++) {
+                    stmt.setObject(i, params[i]);
+                }
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                ResultSetMetaData meta = rs.getMetaData();
+                List<String> columns = new ArrayList<>();
+                for (int c = 1; c <= meta.getColumnCount(); c++) {
+                    columns.add(meta.getColumnLabel(c));
+                }
+                List<String[]> rows = new ArrayList<>();
+                while (rs.next()) {
+                    String[] row = new String[columns.size()];
+                    for (int c = 0; c < row.length; c++) {
+                        row[c] = String.valueOf(rs.getString(c + 1));
+                    }
+                    rows.add(row);
+                }
+                return new ExplainPlan(Collections.unmodifiableList(columns), rows);
+            }
+        }
+    }
+
+    /**
+     * @return The tables the plan reads in full, in plan order (empty if every table is read through an index).
+     */
+    Set<String> fullScanTables() {
+        Set<String> tables = new LinkedHashSet<>();
+        int type = indexOf("type");
+        int table = indexOf("table");
+        for (String[] row : rows) {
+            if (type >= 0) {
+                if ("ALL".equalsIgnoreCase(row[type]) || "index".equalsIgnoreCase(row[type])) {
+                    tables.add(table >= 0 ? row[table] : "?");
+                }
+            } else {
+                for (String value : row) {
+                    Matcher m = H2_FULL_SCAN.matcher(value);
+                    while (m.find()) {
+                        tables.add(m.group(1).toLowerCase(Locale.ROOT));
+                    }
+                }
+            }
+        }
+        return tables;
+    }
+
+    /**
+     * Formats the plan as a table indented by four spaces, one line per row, with a header of column labels.
+     */
+    String format() {
+        String nl = System.lineSeparator();
+        StringBuilder sb = new StringBuilder();
+        for (int c = 0; c < columns.size(); c++) {
+            sb.append(c > 0 ? " | " : "    ").append(columns.get(c));
+        }
+        sb.append(nl);
+        for (String[] row : rows) {
+            for (int c = 0; c < row.length; c++) {
+                sb.append(c > 0 ? " | " : "    ").append(row[c].replace("\n", nl + "    "));
+            }
+            sb.append(nl);
+        }
+        return sb.toString();
+    }
+
+    private int indexOf(String column) {
+        for (int c = 0; c < columns.size(); c++) {
+            if (columns.get(c).equalsIgnoreCase(column)) {
+                return c;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,233 @@
+package com.example.demo.db;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * JDBC proxies that time statement executions and count rows for {@link SqlMetrics}, and hand
+ * executions over the {@link SlowQueryLog} threshold to the slow query log (and every execution to the
+ * {@link ExecutionListener}, if one is installed).
+ * The DAO method is captured once when a statement is created, not on every execution.
+ */
+final class InstrumentationHandlers {
+
+    private InstrumentationHandlers() {
+    }
+
+    static Connection wrapConnection(Connection conn) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new ConnectionHandler(conn));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Wraps statements created from the connection.
+     */
+    private static final class ConnectionHandler implements InvocationHandler {
+        private final Connection target;
+
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return target.toString();
+                default:
+                    break;
+            }
+            Object result = InstrumentationHandlers.invoke(target, method, args);
+            if (result instanceof Statement && !SlowQueryLog.isWriterThread()) {
+                String sql = (name.equals("prepareStatement") || name.equals("prepareCall")) ? (String) args[0] : null;
+                Class<?> type = result instanceof CallableStatement ? CallableStatement.class
+                        : result instanceof PreparedStatement ? PreparedStatement.class
+                        : Statement.class;
+                return Proxy.newProxyInstance(
+                        Statement.class.getClassLoader(),
+                        new Class<?>[]{type},
+                        new StatementHandler((Statement) result, sql, SqlMetrics.currentDaoMethod()));
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Times execute* calls and wraps query results to count rows.
+     */
+    private static final class StatementHandler implements InvocationHandler {
+        private final Statement target;
+        private final String preparedSql; // null for plain Statements, whose SQL comes with each execute
+        private final String daoMethod;
+        private Object[] params; // bound parameters by index, captured only while the slow log or a listener is on
+
+        StatementHandler(Statement target, String preparedSql, String daoMethod) {
+            this.target = target;
+            this.preparedSql = preparedSql;
+            this.daoMethod = daoMethod;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return target.toString();
+                default:
+                    break;
+            }
+            if (!name.startsWith("execute")) {
+                if (preparedSql != null && (SlowQueryLog.isEnabled() || SqlMetrics.executionListener() != null)) {
+                    captureParameter(name, args);
+                }
+                return InstrumentationHandlers.invoke(target, method, args);
+            }
+
+            String sql = preparedSql;
+            if (args != null && args.length > 0 && args[0] instanceof String) {
+                sql = (String) args[0];
+            }
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = InstrumentationHandlers.invoke(target, method, args);
+            } catch (Throwable t) {
+                SqlMetrics.record(sql, daoMethod, System.nanoTime() - start, 0, true);
+                throw t;
+            }
+            long elapsed = System.nanoTime() - start;
+            ExecutionListener listener = SqlMetrics.executionListener();
+            if (listener != null) {
+                listener.executed(sql, params != null ? params.clone() : null, daoMethod);
+            }
+
+            if (result instanceof ResultSet) {
+                SqlMetrics.record(sql, daoMethod, elapsed, 0, false);
+                // A slow query is logged when its result set is closed, once the row count is known
+                boolean slow = SlowQueryLog.isSlow(elapsed);
+                return Proxy.newProxyInstance(
+                        ResultSet.class.getClassLoader(),
+                        new Class<?>[]{ResultSet.class},
+                        new ResultSetHandler((ResultSet) result, sql, daoMethod,
+                                slow ? elapsed : -1, slow && params != null ? params.clone() : null));
+            }
+            long rows = updateCount(result);
+            SqlMetrics.record(sql, daoMethod, elapsed, rows, false);
+            if (SlowQueryLog.isSlow(elapsed)) {
+                SlowQueryLog.submit(sql, params, elapsed, rows, daoMethod);
+            }
+            return result;
+        }
+
+        /**
+         * Remembers the value passed to a parameter setter such as {@code setString(1, "x")}.
+         */
+        private void captureParameter(String name, Object[] args) {
+            if (name.equals("clearParameters")) {
+                params = null;
+            } else if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                int index = (Integer) args[0];
+                if (params == null || index >= params.length) {
+                    Object[] grown = new Object[index + 1];
+                    if (params != null) {
+                        System.arraycopy(params, 0, grown, 0, params.length);
+                    }
+                    params = grown;
+                }
+                params[index] = name.equals("setNull") ? null : args[1];
+            }
+        }
+
+        private static long updateCount(Object result) {
+            if (result instanceof Integer || result instanceof Long) {
+                return Math.max(0, ((Number) result).longValue());
+            }
+            long total = 0;
+            if (result instanceof int[]) {
+                for (int n : (int[]) result) {
+                    total += Math.max(0, n);
+                }
+            } else if (result instanceof long[]) {
+                for (long n : (long[]) result) {
+                    total += Math.max(0, n);
+                }
+            }
+            return total;
+        }
+    }
+
+    /**
+     * Counts rows as the caller iterates and reports them when the result set is closed.
+     */
+    private static final class ResultSetHandler implements InvocationHandler {
+        private final ResultSet target;
+        private final String sql;
+        private final String daoMethod;
+        private final long slowNanos; // execution time if over the slow query threshold, else -1
+        private final Object[] params;
+        private long rows;
+        private boolean reported;
+
+        ResultSetHandler(ResultSet target, String sql, String daoMethod, long slowNanos, Object[] params) {
+            this.target = target;
+            this.sql = sql;
+            this.daoMethod = daoMethod;
+            this.slowNanos = slowNanos;
+            this.params = params;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "next":
+                    Object hasRow = InstrumentationHandlers.invoke(target, method, args);
+                    if (Boolean.TRUE.equals(hasRow)) {
+                        rows++;
+                    }
+                    return hasRow;
+                case "close":
+                    if (!reported) {
+                        reported = true;
+                        SqlMetrics.addRows(sql, daoMethod, rows);
+                        if (slowNanos >= 0) {
+                            SlowQueryLog.submit(sql, params, slowNanos, rows, daoMethod);
+                        }
+                    }
+                    return InstrumentationHandlers.invoke(target, method, args);
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return InstrumentationHandlers.invoke(target, method, args);
+            }
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package com.example.demo.db;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * Applies the versioned schema migrations in {@code /db/migration}.
+ * <p>
+ * Scripts are named {@code V<version>__<description>.sql} and listed, in order, in
+ * {@code /db/migration/migrations.list} (classpath directories cannot be listed reliably from a jar).
+ * Applied versions are recorded in the {@code schema_version} table with a checksum of the script;
+ * a script that changed after it was applied is reported instead of silently skipped.
+ * <p>
+ * Each migration and its history row are committed together. MySQL commits DDL implicitly, so a
+ * migration that fails halfway on MySQL may leave earlier statements applied; fix the database and
+ * rerun rather than editing the applied part of the script.
+ */
+public final class Migrator {
+
+    public static final String MIGRATION_LIST = "/db/migration/migrations.list";
+    private static final String MIGRATION_DIRECTORY = "/db/migration/";
+    private static final Pattern SCRIPT_NAME = Pattern.compile("V(\\d+)__(\\w+)\\.sql");
+
+    private static final String CREATE_HISTORY =
+            "CREATE TABLE IF NOT EXISTS schema_version ("
+                    + "version INT PRIMARY KEY, "
+                    + "description VARCHAR(200) NOT NULL, "
+                    + "script VARCHAR(200) NOT NULL, "
+                    + "checksum BIGINT NOT NULL, "
+                    + "installed_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, "
+                    + "execution_millis BIGINT NOT NULL)";
+
+    private Migrator() {
+    }
+
+    /**
+     * Applies every pending migration, in version order.
+     *
+     * @param conn A connection with DDL rights; its auto-commit setting is restored afterwards.
+     * @return The migrations applied by this call (empty if the schema was already current).
+     * @throws SQLException If a script is missing or fails, or an applied script has changed.
+     */
+    public static synchronized List<Migration> migrate(Connection conn) throws SQLException {
+        List<Migration> available = availableMigrations();
+        boolean autoCommit = conn.getAutoCommit();
+        List<Migration> applied = new ArrayList<>();
+        try {
+            conn.setAutoCommit(true);
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute(CREATE_HISTORY);
+            }
+            Map<Integer, Long> installed = installedChecksums(conn);
+
+            conn.setAutoCommit(false);
+            for (Migration migration : available) {
+                Long checksum = installed.get(migration.getVersion());
+                if (checksum != null) {
+                    if (checksum != migration.getChecksum()) {
+                        throw new SQLException("Migration " + migration.getScriptName()
+                                + " was changed after it was applied (checksum " + checksum + " in schema_version, "
+                                + migration.getChecksum() + " now). Add a new migration instead.");
+                    }
+                    continue;
+                }
+                apply(conn, migration);
+                applied.add(migration);
+            }
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+        return applied;
+    }
+
+    /**
+     * Opens a direct connection with the configured credentials and applies pending migrations.
+     * Used at startup, before the pool exists.
+     *
+     * @param config The configuration.
+     * @return The migrations applied.
+     * @throws SQLException If the database cannot be reached or a migration fails.
+     */
+    public static List<Migration> migrate(DBConfig config) throws SQLException {
+        try (Connection conn = DriverManager.getConnection(config.getUrl(), config.getUser(), config.getPassword())) {
+            return migrate(conn);
+        }
+    }
+
+    /**
+     * @return All migrations listed in {@link #MIGRATION_LIST}, in version order.
+     * @throws SQLException If the list or a script cannot be read, or versions are out of order.
+     */
+    public static List<Migration> availableMigrations() throws SQLException {
+        List<Migration> migrations = new ArrayList<>();
+        for (String scriptName : readList()) {
+            Matcher m = SCRIPT_NAME.matcher(scriptName);
+            if (!m.matches()) {
+                throw new SQLException("Invalid migration name '" + scriptName + "', expected V<version>__<description>.sql");
+            }
+            int version = Integer.parseInt(m.group(1));
+            if (!migrations.isEmpty() && version <= migrations.get(migrations.size() - 1).getVersion()) {
+                throw new SQLException("Migration " + scriptName + " is listed out of version order in " + MIGRATION_LIST);
+            }
+            SqlScript script = SqlScript.load(MIGRATION_DIRECTORY + scriptName);
+            migrations.add(new Migration(version, m.group(2).replace('_', ' '), scriptName, script));
+        }
+        return migrations;
+    }
+
+    private static List<String> readList() throws SQLException {
+        InputStream in = Migrator.class.getResourceAsStream(MIGRATION_LIST);
+        if (in == null) {
+            throw new SQLException("Migration list '" + MIGRATION_LIST + "' not found on the classpath.");
+        }
+        List<String> names = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (!line.isEmpty() && !line.startsWith("#")) {
+                    names.add(line);
+                }
+            }
+        } catch (IOException e) {
+            throw new SQLException("Failed to read " + MIGRATION_LIST + ".", e);
+        }
+        return names;
+    }
+
+    private static Map<Integer, Long> installedChecksums(Connection conn) throws SQLException {
+        Map<Integer, Long> installed = new HashMap<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT version, checksum FROM schema_version")) {
+            while (rs.next()) {
+                installed.put(rs.getInt("version"), rs.getLong("checksum"));
+            }
+        }
+        return installed;
+    }
+
+    private static void apply(Connection conn, Migration migration) throws SQLException {
+        long start = System.nanoTime();
+        try {
+            migration.script.execute(conn);
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "INSERT INTO schema_version (version, description, script, checksum, execution_millis) VALUES (?, ?, ?, ?, ?)")) {
+                stmt.setInt(1, migration.getVersion());
+                stmt.setString(2, migration.getDescription());
+                stmt.setString(3, migration.getScriptName());
+                stmt.setLong(4, migration.getChecksum());
+                stmt.setLong(5, (System.nanoTime() - start) / 1_000_000);
+                stmt.executeUpdate();
+            }
+            conn.commit();
+            System.out.println("Applied migration " + migration.getScriptName()
+                    + " in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+        } catch (SQLException e) {
+            conn.rollback();
+            throw new SQLException("Migration " + migration.getScriptName() + " failed: " + e.getMessage(),
+                    e.getSQLState(), e.getErrorCode(), e);
+        }
+    }
+
+    /**
+     * One migration script.
+     */
+    public static final class Migration {
+        private final int version;
+        private final String description;
+        private final String scriptName;
+        private final SqlScript script;
+        private final long checksum;
+
+        Migration(int version, String description, String scriptName, SqlScript script) {
+            this.version = version;
+            this.description = description;
+            this.scriptName = scriptName;
+            this.script = script;
+            CRC32 crc = new CRC32();
+            for (String statement : script.getStatements()) {
+                crc.update(statement.getBytes(StandardCharsets.UTF_8));
+                crc.update(';');
+            }
+            this.checksum = crc.getValue();
+        }
+
+        public int getVersion() { return version; }
+        public String getDescription() { return description; }
+        public String getScriptName() { return scriptName; }
+        public long getChecksum() { return checksum; }
+
+        @Override
+        public String toString() {
+            return scriptName;
+        }
+    }
+
+    /**
+     * Applies pending migrations to the configured database.
+     *
+     * @param args Command line arguments (not used).
+     */
+    public static void main(String[] args) {
+        DBConfig config = DBConfig.load();
+        try {
+            List<Migration> applied = migrate(config);
+            System.out.println(applied.isEmpty() ? "Schema is up to date." : "Applied " + applied.size() + " migration(s).");
+        } catch (SQLException e) {
+            System.err.println("Migration failed: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.demo.db;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Proxy handler for a borrowed connection. {@code close()} returns the physical connection to its
+ * pool after closing any statements the borrower left open and restoring auto-commit mode, so a DAO
+ * that forgets to reset its transaction state cannot poison the next borrower.
+ * {@code prepareStatement} is served from the connection's {@link StatementCache} when enabled.
+ */
+final class PooledConnectionHandler implements InvocationHandler {
+
+    private final ConnectionPool pool;
+    private final ConnectionPool.PooledEntry entry;
+    private final List<Statement> openStatements = new ArrayList<>();
+    private boolean closed;
+
+    private PooledConnectionHandler(ConnectionPool pool, ConnectionPool.PooledEntry entry) {
+        this.pool = pool;
+        this.entry = entry;
+    }
+
+    static Connection wrap(ConnectionPool pool, ConnectionPool.PooledEntry entry) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new PooledConnectionHandler(pool, entry));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        String name = method.getName();
+        switch (name) {
+            case "close":
+                closeLogical();
+                return null;
+            case "isClosed":
+                return closed || entry.physical.isClosed();
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "toString":
+                return "PooledConnection[" + pool.getName() + (closed ? ", closed]" : "]");
+            default:
+                break;
+        }
+        if (closed) {
+            throw new SQLException("Connection is closed.", "08003");
+        }
+
+        if (name.equals("prepareStatement") && entry.statementCache != null && isCacheable(args)) {
+            int keys = args.length == 2 ? (Integer) args[1] : Statement.NO_GENERATED_KEYS;
+            PreparedStatement cached = entry.statementCache.checkout(entry.physical, (String) args[0], keys);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        Object result;
+        try {
+            result = method.invoke(entry.physical, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+        if (result instanceof Statement) {
+            openStatements.add((Statement) result);
+        }
+        return result;
+    }
+
+    /**
+     * Only {@code prepareStatement(String)} and {@code prepareStatement(String, int)} are cached;
+     * the variants with column lists or result set options are rare and go straight to the driver.
+     */
+    private static boolean isCacheable(Object[] args) {
+        return args.length == 1 || (args.length == 2 && args[1] instanceof Integer);
+    }
+
+    private void closeLogical() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        boolean reusable = true;
+        for (Statement stmt : openStatements) {
+            try {
+                stmt.close();
+            } catch (SQLException e) {
+                reusable = false;
+            }
+        }
+        openStatements.clear();
+        if (entry.statementCache != null) {
+            entry.statementCache.releaseAll();
+        }
+
+        Connection physical = entry.physical;
+        try {
+            if (!physical.getAutoCommit()) {
+                // An unfinished transaction must never leak into the next borrower
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+            if (physical.isReadOnly()) {
+                physical.setReadOnly(false);
+            }
+            physical.clearWarnings();
+        } catch (SQLException e) {
+            reusable = false;
+        }
+        pool.release(entry, reusable);
+    }
+}
@@ -0,0 +1,249 @@
+package com.example.demo.db;
+
+import com.example.demo.DBController;
+import com.example.demo.dao.AnnouncementDAO;
+import com.example.demo.dao.AssignmentDAO;
+import com.example.demo.dao.AttendanceDAO;
+import com.example.demo.dao.BookDAO;
+import com.example.demo.dao.BorrowingDAO;
+import com.example.demo.dao.CourseDAO;
+import com.example.demo.dao.EnrollmentDAO;
+import com.example.demo.dao.FacultyDAO;
+import com.example.demo.dao.FeesDAO;
+import com.example.demo.dao.LibrarianDAO;
+import com.example.demo.dao.Page;
+import com.example.demo.dao.ProgramDAO;
+import com.example.demo.dao.ResultDAO;
+import com.example.demo.dao.RoutineDAO;
+import com.example.demo.dao.StudentDAO;
+import com.example.demo.dao.SubmissionDAO;
+import com.example.demo.dao.UserDAO;
+import com.example.demo.datagen.DataGenerator;
+import com.example.demo.datagen.JdbcDataSink;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Runs every read method of every DAO once and reports the statements whose EXPLAIN plan reads a
+ * whole table. Run it after adding a query or a migration to check the query is served by an index.
+ * <p>
+ * By default it starts the embedded database, applies the migrations and loads the {@code small}
+ * synthetic dataset, so the optimizer sees realistic table sizes. With {@code --configured} it uses
+ * the database from {@code db.properties} as it is. Findings come in two groups: full scans in
+ * statements with a WHERE clause, which usually mean a missing index or a predicate that cannot
+ * use one, and full scans in unfiltered {@code getAll*} reads, which are expected but read every
+ * row on each call. The exit status is 1 when the first group is not empty.
+ */
+public final class QueryPlanChecker {
+
+    private static final List<Class<?>> DAOS = Arrays.asList(
+            AnnouncementDAO.class, AssignmentDAO.class, AttendanceDAO.class, BookDAO.class, BorrowingDAO.class,
+            CourseDAO.class, EnrollmentDAO.class, FacultyDAO.class, FeesDAO.class, LibrarianDAO.class,
+            ProgramDAO.class, ResultDAO.class, RoutineDAO.class, StudentDAO.class, SubmissionDAO.class, UserDAO.class);
+    private static final Pattern READ_METHOD = Pattern.compile("(get|search|has|is|authenticate)[A-Z].*");
+    private static final Pattern WHERE = Pattern.compile("(?is).*\\bwhere\\b.*");
+    private static final LocalDate SAMPLE_DATE = LocalDate.of(2025, 6, 30);
+
+    private QueryPlanChecker() {
+    }
+
+    /**
+     * The plan of one statement that reads at least one table in full.
+     */
+    public static final class Finding {
+        private final String daoMethod;
+        private final String sql;
+        private final Set<String> tables;
+        private final String plan;
+
+        Finding(String daoMethod, String sql, Set<String> tables, String plan) {
+            this.daoMethod = daoMethod;
+            this.sql = sql;
+            this.tables = tables;
+            this.plan = plan;
+        }
+
+        public String getDaoMethod() { return daoMethod; }
+        public String getSql() { return sql; }
+        public Set<String> getTables() { return tables; }
+        public String getPlan() { return plan; }
+
+        public boolean isFiltered() {
+            return WHERE.matcher(sql).matches();
+        }
+    }
+
+    /**
+     * Invokes every DAO read method through {@link DBController} and EXPLAINs each distinct statement.
+     *
+     * @param config The configuration whose database the DAOs use; EXPLAIN runs on a separate, uninstrumented connection.
+     * @return The statements that read a whole table, ordered by DAO method.
+     * @throws SQLException If the database cannot be reached.
+     */
+    public static List<Finding> check(DBConfig config) throws SQLException {
+        Map<String, Object[]> params = new LinkedHashMap<>();
+        Map<String, String> daoMethods = new LinkedHashMap<>();
+        SqlMetrics.setExecutionListener((sql, bound, daoMethod) -> {
+            synchronized (params) {
+                if (!params.containsKey(sql)) {
+                    params.put(sql, bound);
+                    daoMethods.put(sql, daoMethod);
+                }
+            }
+        });
+        try {
+            for (Class<?> dao : DAOS) {
+                invokeReadMethods(dao);
+            }
+        } finally {
+            SqlMetrics.setExecutionListener(null);
+        }
+
+        List<Finding> findings = new ArrayList<>();
+        try (Connection conn = DriverManager.getConnection(config.getUrl(), config.getUser(), config.getPassword())) {
+            for (Map.Entry<String, Object[]> e : params.entrySet()) {
+                String sql = e.getKey();
+                if (!ExplainPlan.isExplainable(sql)) {
+                    continue;
+                }
+                ExplainPlan plan = ExplainPlan.of(conn, sql, e.getValue());
+                Set<String> tables = plan.fullScanTables();
+                if (!tables.isEmpty()) {
+                    findings.add(new Finding(daoMethods.get(sql), sql, tables, plan.format()));
+                }
+            }
+        }
+        findings.sort(Comparator.comparing(Finding::getDaoMethod));
+        return findings;
+    }
+
+    private static void invokeReadMethods(Class<?> daoClass) {
+        Object dao;
+        try {
+            dao = daoClass.getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            System.err.println("Skipping " + daoClass.getSimpleName() + ": " + e);
+            return;
+        }
+        Method[] methods = daoClass.getDeclaredMethods();
+        Arrays.sort(methods, Comparator.comparing(Method::getName));
+        for (Method method : methods) {
+            if (!Modifier.isPublic(method.getModifiers()) || !READ_METHOD.matcher(method.getName()).matches()) {
+                continue;
+            }
+            Object[] args = sampleArguments(method);
+            if (args == null) {
+                System.err.println("Skipping " + daoClass.getSimpleName() + "." + method.getName() + ": unsupported parameter types");
+                continue;
+            }
+            try {
+                Object result = method.invoke(dao, args);
+                if (result instanceof Page) {
+                    // The first page has no key condition; read a following page too, so the
+                    // continuation query (WHERE key > ? ORDER BY key) is checked as well
+                    String token = ((Page<?>) method.invoke(dao, null, 1)).getNextPageToken();
+                    if (token != null) {
+                        method.invoke(dao, token, args[1]);
+                    } else {
+                        System.err.println("Skipping the next page of " + daoClass.getSimpleName() + "." + method.getName() + ": too few rows");
+                    }
+                }
+            } catch (InvocationTargetException e) {
+                System.err.println(daoClass.getSimpleName() + "." + method.getName() + " failed: " + e.getCause());
+            } catch (IllegalAccessException e) {
+                System.err.println("Skipping " + daoClass.getSimpleName() + "." + method.getName() + ": " + e);
+            }
+        }
+    }
+
+    /**
+     * Arguments for a read method. The values only need to be of the right type: plans depend on
+     * the statement and the table statistics, not on whether the sample value matches a row.
+     * Page methods get the first page ({@code null} token) of 50 rows; the following page is read with
+     * a real token afterwards.
+     */
+    private static Object[] sampleArguments(Method method) {
+        Class<?>[] types = method.getParameterTypes();
+        Object[] args = new Object[types.length];
+        if (method.getName().endsWith("Page") && Arrays.equals(types, new Class<?>[]{String.class, int.class})) {
+            args[1] = 50;
+            return args;
+        }
+        for (int i = 0; i < types.length; i++) {
+            if (types[i] == int.class || types[i] == Integer.class) {
+                args[i] = 1;
+            } else if (types[i] == String.class) {
+                args[i] = "sample";
+            } else if (types[i] == LocalDate.class) {
+                args[i] = SAMPLE_DATE;
+            } else {
+                return null;
+            }
+        }
+        return args;
+    }
+
+    private static void print(String title, List<Finding> findings) {
+        System.out.println(title + " (" + findings.size() + ")");
+        for (Finding f : findings) {
+            System.out.println("  " + f.getDaoMethod() + " scans " + String.join(", ", f.getTables()));
+            System.out.println("    SQL: " + f.getSql().replaceAll("\\s+", " ").trim());
+            System.out.print(f.getPlan().replaceAll("(?m)^", "  "));
+        }
+        System.out.println();
+    }
+
+    /**
+     * Command line entry point.
+     *
+     * @param args {@code --configured} to check the configured database instead of a generated embedded one.
+     */
+    public static void main(String[] args) {
+        boolean configured = args.length > 0 && args[0].equals("--configured");
+        if (!configured) {
+            System.setProperty("sms.db.profile", DBConfig.PROFILE_EMBEDDED);
+            System.setProperty("sms.db.embedded.seed", "false");
+        }
+        System.setProperty("sms.db.slowQuery.thresholdMillis", "-1");
+        int status = 0;
+        try {
+            if (!configured) {
+                try (Connection conn = DBController.getConnection();
+                     JdbcDataSink sink = new JdbcDataSink(conn, 500, 20)) {
+                    new DataGenerator(DataGenerator.Scale.small(), 42).generate(sink);
+                }
+            }
+            List<Finding> findings = check(DBConfig.load());
+            List<Finding> filtered = new ArrayList<>();
+            List<Finding> unfiltered = new ArrayList<>();
+            for (Finding f : findings) {
+                (f.isFiltered() ? filtered : unfiltered).add(f);
+            }
+            print("Full scans in filtered statements", filtered);
+            print("Full scans in unfiltered reads", unfiltered);
+            status = filtered.isEmpty() ? 0 : 1;
+        } catch (IOException | SQLException e) {
+            System.err.println("Query plan check failed: " + e.getMessage());
+            e.printStackTrace();
+            status = 2;
+        } finally {
+            DBController.shutdown();
+        }
+        System.exit(status);
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.demo.db;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Routes read-only work to a set of read replica pools.
+ * <p>
+ * Replicas are listed in {@code db.replica.urls} (comma separated) and share the primary's credentials
+ * unless {@code db.replica.user} / {@code db.replica.password} are set. Reads are spread round-robin;
+ * a replica that fails to hand out a connection is skipped for {@code db.replica.retryAfterMillis}.
+ * <p>
+ * Read-your-writes: for {@code db.replica.readYourWritesWindowMillis} after this client last asked for
+ * a write connection, reads stay on the primary so the user never sees a table that is missing the
+ * row they just saved because a replica has not caught up yet. A desktop client is one user session,
+ * so the window is tracked per process rather than per thread.
+ */
+public class ReplicaRouter implements AutoCloseable {
+
+    private final List<ConnectionPool> replicas;
+    private final AtomicInteger next = new AtomicInteger();
+    private final AtomicLongArray unavailableUntil; // per replica, nanoTime before which it is skipped (0 = healthy)
+    private final long windowNanos;
+    private final long retryNanos;
+    private volatile long lastWriteAt;
+    private volatile boolean wroteOnce;
+
+    /**
+     * Creates the replica pools described by the configuration. With no {@code db.replica.urls}
+     * the router has no replicas and {@link #borrowForRead()} always returns null.
+     *
+     * @param config The configuration.
+     */
+    public ReplicaRouter(DBConfig config) {
+        List<ConnectionPool> pools = new ArrayList<>();
+        String urls = config.getString("db.replica.urls", "");
+        String user = config.getString("db.replica.user", config.getUser());
+        String password = config.getString("db.replica.password", config.getPassword());
+        int index = 1;
+        for (String url : urls.split(",")) {
+            if (!url.trim().isEmpty()) {
+                pools.add(new ConnectionPool("replica-" + index++, url.trim(), user, password, config));
+            }
+        }
+        this.replicas = Collections.unmodifiableList(pools);
+        this.unavailableUntil = new AtomicLongArray(pools.size());
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(config.getLong("db.replica.readYourWritesWindowMillis", 5_000));
+        this.retryNanos = TimeUnit.MILLISECONDS.toNanos(config.getLong("db.replica.retryAfterMillis", 30_000));
+    }
+
+    /**
+     * Records that a write connection was handed out, starting the read-your-writes window.
+     */
+    public void markWrite() {
+        lastWriteAt = System.nanoTime();
+        wroteOnce = true;
+    }
+
+    /**
+     * Borrows a connection from the next healthy replica.
+     *
+     * @return A replica connection, or null if there are no replicas, the read-your-writes window is
+     *         open, or every replica failed (the caller then reads from the primary).
+     */
+    public Connection borrowForRead() {
+        if (replicas.isEmpty() || (wroteOnce && System.nanoTime() - lastWriteAt < windowNanos)) {
+            return null;
+        }
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            int index = (start + i) % replicas.size();
+            long now = System.nanoTime();
+            long until = unavailableUntil.get(index);
+            if (until != 0 && now - until < 0) {
+                continue; // Failed recently, give it time to recover
+            }
+            ConnectionPool replica = replicas.get(index);
+            try {
+                return replica.borrow();
+            } catch (SQLException e) {
+                unavailableUntil.set(index, now + retryNanos);
+                System.err.println("Read replica '" + replica.getName() + "' unavailable, skipping it for now: " + e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    public boolean hasReplicas() {
+        return !replicas.isEmpty();
+    }
+
+    /**
+     * @return Usage statistics of each replica pool.
+     */
+    public List<ConnectionPool.Stats> getStats() {
+        List<ConnectionPool.Stats> stats = new ArrayList<>();
+        for (ConnectionPool replica : replicas) {
+            stats.add(replica.getStats());
+        }
+        return stats;
+    }
+
+    @Override
+    public void close() {
+        for (ConnectionPool replica : replicas) {
+            replica.close();
+        }
+    }
+}
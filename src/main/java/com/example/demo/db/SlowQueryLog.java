@@ -0,0 +1,426 @@
+package com.example.demo.db;
+
+import com.example.demo.DBController;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Logs individual statement executions that take longer than {@code db.slowQuery.thresholdMillis}.
+ * <p>
+ * Each entry holds the SQL, its bound parameters (values bound to password columns are replaced by
+ * {@code ***}), the elapsed time, the row count, the DAO method and, for SELECT/UPDATE/DELETE, the
+ * database's EXPLAIN output. Entries are handed to a background thread through a bounded queue, so
+ * the executing thread never waits on EXPLAIN or file I/O; when the queue is full the entry is dropped
+ * and counted. The log file rotates once it reaches {@code db.slowQuery.maxFileBytes}, keeping
+ * {@code db.slowQuery.maxFiles} old files ({@code slow-query.log.1} is the newest).
+ */
+public final class SlowQueryLog {
+
+    private static final Pattern SENSITIVE_COMPARISON =
+            Pattern.compile("(?i)\\b\\w*password\\w*\\s*(?:=|<>|!=|\\blike\\b)\\s*$");
+    private static final Pattern INSERT_COLUMNS =
+            Pattern.compile("(?is)^\\s*(?:insert|replace)\\s+(?:ignore\\s+)?into\\s+\\S+\\s*\\(([^)]*)\\)\\s*values\\s*\\(");
+    private static final int MAX_VALUE_LENGTH = 200;
+    private static final int MAX_CACHED_SQL = 10_000;
+    private static final boolean[] NOTHING_REDACTED = new boolean[0];
+
+    private static final Map<String, boolean[]> REDACTED_PARAMETERS = new ConcurrentHashMap<>();
+    private static final AtomicLong LOGGED = new AtomicLong();
+    private static final AtomicLong DROPPED = new AtomicLong();
+
+    private static volatile long thresholdNanos = -1; // negative = disabled
+    private static volatile boolean explain;
+    private static volatile Writer writer; // guarded by SlowQueryLog.class for writes
+
+    private SlowQueryLog() {
+    }
+
+    /**
+     * Applies the {@code db.slowQuery.*} settings and starts the background writer.
+     * A negative threshold disables the log.
+     *
+     * @param config The configuration.
+     */
+    public static synchronized void configure(DBConfig config) {
+        shutdown();
+        long thresholdMillis = config.getLong("db.slowQuery.thresholdMillis", 200);
+        explain = config.getBoolean("db.slowQuery.explain", true);
+        if (thresholdMillis < 0) {
+            thresholdNanos = -1;
+            return;
+        }
+        Path file = Paths.get(config.getString("db.slowQuery.file", "logs/slow-query.log"));
+        writer = new Writer(file,
+                config.getLong("db.slowQuery.maxFileBytes", 10L * 1024 * 1024),
+                Math.max(1, config.getInt("db.slowQuery.maxFiles", 5)),
+                Math.max(16, config.getInt("db.slowQuery.queueCapacity", 1024)));
+        writer.start();
+        thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+    }
+
+    /**
+     * Stops the background writer after it has written the entries already queued.
+     */
+    public static synchronized void shutdown() {
+        thresholdNanos = -1;
+        Writer w = writer;
+        writer = null;
+        if (w != null) {
+            w.stopAndDrain();
+        }
+    }
+
+    /**
+     * Uninstalls a writer that stopped because the log file cannot be written, so later slow
+     * executions are neither captured nor counted as logged.
+     */
+    private static synchronized void uninstall(Writer failed) {
+        if (writer == failed) {
+            thresholdNanos = -1;
+            writer = null;
+        }
+    }
+
+    /**
+     * @return Whether bound parameters should be captured; true while the log is enabled.
+     */
+    static boolean isEnabled() {
+        return thresholdNanos >= 0;
+    }
+
+    /**
+     * @return Whether an execution that took {@code nanos} must be logged.
+     */
+    static boolean isSlow(long nanos) {
+        long threshold = thresholdNanos;
+        return threshold >= 0 && nanos >= threshold;
+    }
+
+    /**
+     * @return True on the writer thread, whose own EXPLAIN statements must not be instrumented.
+     */
+    static boolean isWriterThread() {
+        Writer w = writer;
+        return w != null && Thread.currentThread() == w.thread;
+    }
+
+    /**
+     * Queues a slow execution. Never blocks; drops the entry if the writer is behind.
+     *
+     * @param params The bound parameters by index (index 0 unused), or null for plain statements.
+     */
+    static void submit(String sql, Object[] params, long nanos, long rows, String daoMethod) {
+        Writer w = writer;
+        if (w == null || w.failed) {
+            return;
+        }
+        Entry entry = new Entry(LocalDateTime.now(), sql, params != null ? params.clone() : null, nanos, rows, daoMethod);
+        if (w.queue.offer(entry)) {
+            LOGGED.incrementAndGet();
+        } else {
+            DROPPED.incrementAndGet();
+        }
+    }
+
+    /**
+     * @return Number of slow executions queued for the log since startup.
+     */
+    public static long getLoggedCount() {
+        return LOGGED.get();
+    }
+
+    /**
+     * @return Number of slow executions dropped because the writer queue was full.
+     */
+    public static long getDroppedCount() {
+        return DROPPED.get();
+    }
+
+    /**
+     * Formats bound parameters for the log, replacing values bound to password columns.
+     *
+     * @param sql    The SQL the parameters were bound to.
+     * @param params The parameters by index (index 0 unused).
+     * @return Text such as {@code [1='CS101', 2=***]}.
+     */
+    static String formatParameters(String sql, Object[] params) {
+        boolean[] redacted = redactedParameters(sql);
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 1; i < params.length; i++) {
+            if (sb.length() > 1) {
+                sb.append(", ");
+            }
+            sb.append(i).append('=');
+            if (i < redacted.length && redacted[i]) {
+                sb.append("***");
+            } else {
+                sb.append(formatValue(params[i]));
+            }
+        }
+        return sb.append(']').toString();
+    }
+
+    /**
+     * Works out which placeholders receive a password: those compared with a {@code *password*}
+     * column ({@code password_hash = ?}) and, for {@code INSERT ... (cols) VALUES (?, ...)}, those in
+     * the same position as a {@code *password*} column.
+     *
+     * @return Flags by parameter index (index 0 unused).
+     */
+    static boolean[] redactedParameters(String sql) {
+        boolean[] cached = REDACTED_PARAMETERS.get(sql);
+        if (cached != null) {
+            return cached;
+        }
+        List<Integer> placeholders = placeholderOffsets(sql);
+        boolean[] redacted = new boolean[placeholders.size() + 1];
+        boolean any = false;
+
+        for (int i = 0; i < placeholders.size(); i++) {
+            String before = sql.substring(Math.max(0, placeholders.get(i) - 64), placeholders.get(i));
+            if (SENSITIVE_COMPARISON.matcher(before).find()) {
+                redacted[i + 1] = true;
+                any = true;
+            }
+        }
+
+        Matcher insert = INSERT_COLUMNS.matcher(sql);
+        if (insert.find()) {
+            String[] columns = insert.group(1).split(",");
+            for (int c = 0; c < columns.length && c < placeholders.size(); c++) {
+                if (columns[c].trim().toLowerCase(Locale.ROOT).contains("password")) {
+                    // Multi-row VALUES lists repeat the column order
+                    for (int p = c; p < placeholders.size(); p += columns.length) {
+                        redacted[p + 1] = true;
+                    }
+                    any = true;
+                }
+            }
+        }
+
+        boolean[] result = any ? redacted : NOTHING_REDACTED;
+        if (REDACTED_PARAMETERS.size() < MAX_CACHED_SQL) {
+            REDACTED_PARAMETERS.put(sql, result);
+        }
+        return result;
+    }
+
+    private static List<Integer> placeholderOffsets(String sql) {
+        List<Integer> offsets = new ArrayList<>();
+        boolean inString = false;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (c == '\'') {
+                inString = !inString;
+            } else if (c == '?' && !inString) {
+                offsets.add(i);
+            }
+        }
+        return offsets;
+    }
+
+    private static String formatValue(Object value) {
+        if (value == null) {
+            return "NULL";
+        }
+        if (value instanceof byte[] || value instanceof InputStream || value instanceof Reader
+                || value instanceof Blob || value instanceof Clob) {
+            return "<binary>";
+        }
+        String text = value.toString();
+        if (text.length() > MAX_VALUE_LENGTH) {
+            text = text.substring(0, MAX_VALUE_LENGTH) + "...";
+        }
+        return value instanceof CharSequence ? "'" + text + "'" : text;
+    }
+
+    /**
+     * Runs EXPLAIN for the statement with the same parameters bound and formats the plan as a table.
+     */
+    private static String explain(Entry entry) {
+        if (!ExplainPlan.isExplainable(entry.sql)) {
+            return null;
+        }
+        try (Connection conn = DBController.getReadConnection()) {
+            return ExplainPlan.of(conn, entry.sql, entry.params).format();
+        } catch (SQLException e) {
+            return "    (EXPLAIN failed: " + e.getMessage() + ")" + System.lineSeparator();
+        }
+    }
+
+    /**
+     * One slow execution waiting to be written.
+     */
+    private static final class Entry {
+        final LocalDateTime at;
+        final String sql;
+        final Object[] params;
+        final long nanos;
+        final long rows;
+        final String daoMethod;
+
+        Entry(LocalDateTime at, String sql, Object[] params, long nanos, long rows, String daoMethod) {
+            this.at = at;
+            this.sql = sql;
+            this.params = params;
+            this.nanos = nanos;
+            this.rows = rows;
+            this.daoMethod = daoMethod;
+        }
+
+        String format(String plan) {
+            String nl = System.lineSeparator();
+            StringBuilder sb = new StringBuilder();
+            sb.append(at).append(String.format(" slow query %.1f ms, %d rows, ", nanos / 1e6, rows))
+                    .append(daoMethod).append(nl);
+            sb.append("  SQL: ").append(sql).append(nl);
+            if (params != null && params.length > 1) {
+                sb.append("  Params: ").append(formatParameters(sql, params)).append(nl);
+            }
+            if (plan != null) {
+                sb.append("  EXPLAIN:").append(nl).append(plan);
+            }
+            return sb.append(nl).toString();
+        }
+    }
+
+    /**
+     * Background thread that runs EXPLAIN and appends entries to the rotating log file.
+     */
+    private static final class Writer implements Runnable {
+        private static final Entry STOP = new Entry(null, null, null, 0, 0, null);
+
+        final BlockingQueue<Entry> queue;
+        final Thread thread;
+        private final Path file;
+        private final long maxFileBytes;
+        private final int maxFiles;
+        private BufferedWriter out;
+        private long size;
+        volatile boolean failed; // Set before the thread exits on a write error
+
+        Writer(Path file, long maxFileBytes, int maxFiles, int queueCapacity) {
+            this.file = file;
+            this.maxFileBytes = maxFileBytes;
+            this.maxFiles = maxFiles;
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+            this.thread = new Thread(this, "slow-query-log");
+            this.thread.setDaemon(true);
+        }
+
+        void start() {
+            thread.start();
+        }
+
+        void stopAndDrain() {
+            if (failed || !thread.isAlive()) {
+                return; // Nothing takes from the queue any more, so put(STOP) could block forever
+            }
+            try {
+                if (queue.offer(STOP, 5, TimeUnit.SECONDS)) {
+                    thread.join(TimeUnit.SECONDS.toMillis(5));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (true) {
+                    Entry entry = queue.take();
+                    if (entry == STOP) {
+                        break;
+                    }
+                    write(entry.format(explain ? explain(entry) : null));
+                    if (queue.isEmpty() && out != null) {
+                        out.flush();
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException e) {
+                System.err.println("Slow query log disabled, cannot write " + file + ": " + e.getMessage());
+                failed = true;
+                uninstall(this);
+            } finally {
+                closeQuietly();
+            }
+        }
+
+        private void write(String text) throws IOException {
+            byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+            if (out == null) {
+                open();
+            } else if (size + bytes.length > maxFileBytes) {
+                rotate();
+            }
+            out.write(text);
+            size += bytes.length;
+        }
+
+        private void open() throws IOException {
+            Path dir = file.toAbsolutePath().getParent();
+            if (dir != null) {
+                Files.createDirectories(dir);
+            }
+            out = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            size = Files.size(file);
+        }
+
+        private void rotate() throws IOException {
+            out.close();
+            Files.deleteIfExists(rotated(maxFiles));
+            for (int i = maxFiles - 1; i >= 1; i--) {
+                Path from = rotated(i);
+                if (Files.exists(from)) {
+                    Files.move(from, rotated(i + 1), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            Files.move(file, rotated(1), StandardCopyOption.REPLACE_EXISTING);
+            open();
+        }
+
+        private Path rotated(int index) {
+            return file.resolveSibling(file.getFileName() + "." + index);
+        }
+
+        private void closeQuietly() {
+            if (out != null) {
+                try {
+                    out.close();
+                } catch (IOException ignored) {
+                    // Nothing left to do with the file
+                }
+                out = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,336 @@
+package com.example.demo.db;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Per-statement and per-DAO-method execution statistics for all SQL run through {@link #instrument}.
+ * <p>
+ * Every execution records its latency in a {@link LatencyHistogram} and its row count (rows read from
+ * a query's result set, or the update count) under two keys: the normalized SQL text and the DAO method
+ * that prepared the statement (e.g. {@code StudentDAO.getStudentById}). Use {@link #snapshot()} to read
+ * the numbers or {@link #startPeriodicDump(long)} to print them to the console at a fixed interval.
+ */
+public final class SqlMetrics {
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w$])-?\\d+(?:\\.\\d+)?(?![\\w$])");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final String DAO_PACKAGE = "com.example.demo.dao.";
+    private static final int MAX_NORMALIZED_CACHE = 10_000;
+
+    private static final Map<String, StatementStats> BY_SQL = new ConcurrentHashMap<>();
+    private static final Map<String, StatementStats> BY_DAO_METHOD = new ConcurrentHashMap<>();
+    private static final Map<String, String> NORMALIZED = new ConcurrentHashMap<>();
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+
+    private static volatile boolean enabled = true;
+    private static volatile ExecutionListener listener;
+    private static ScheduledExecutorService dumper; // guarded by SqlMetrics.class
+
+    private SqlMetrics() {
+    }
+
+    /**
+     * Wraps a connection so that statements created from it report their executions here.
+     * Returns the connection unchanged when metrics are disabled.
+     *
+     * @param conn The connection to instrument.
+     * @return The instrumented connection.
+     */
+    public static Connection instrument(Connection conn) {
+        return enabled ? InstrumentationHandlers.wrapConnection(conn) : conn;
+    }
+
+    public static void setEnabled(boolean on) {
+        enabled = on;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Installs a listener that is told about every successful execution, or removes it with null.
+     * Bound parameters are captured while a listener is installed, which costs an allocation per statement.
+     *
+     * @param executionListener The listener, or null.
+     */
+    public static void setExecutionListener(ExecutionListener executionListener) {
+        listener = executionListener;
+    }
+
+    static ExecutionListener executionListener() {
+        return listener;
+    }
+
+    /**
+     * Records one statement execution. Called by the instrumenting proxies.
+     */
+    static void record(String sql, String daoMethod, long nanos, long rows, boolean failed) {
+        String key = normalize(sql);
+        BY_SQL.computeIfAbsent(key, StatementStats::new).record(nanos, rows, failed);
+        BY_DAO_METHOD.computeIfAbsent(daoMethod, StatementStats::new).record(nanos, rows, failed);
+    }
+
+    /**
+     * Adds rows read from a result set after the query's execution was recorded.
+     */
+    static void addRows(String sql, String daoMethod, long rows) {
+        if (rows <= 0) {
+            return;
+        }
+        StatementStats bySql = BY_SQL.get(normalize(sql));
+        if (bySql != null) {
+            bySql.rows.addAndGet(rows);
+        }
+        StatementStats byMethod = BY_DAO_METHOD.get(daoMethod);
+        if (byMethod != null) {
+            byMethod.rows.addAndGet(rows);
+        }
+    }
+
+    /**
+     * Returns the DAO method currently on the call stack, e.g. {@code "StudentDAO.getStudentById"},
+     * or {@code "(outside DAO)"} if the SQL is not issued from the DAO layer. Helpers in the DAO package
+     * (classes not named {@code *DAO}, such as the streaming query runner) are skipped so the statement
+     * is attributed to the DAO method that called them.
+     */
+    static String currentDaoMethod() {
+        return STACK_WALKER.walk(frames -> frames
+                .filter(f -> f.getClassName().startsWith(DAO_PACKAGE) && f.getClassName().endsWith("DAO"))
+                .findFirst()
+                .map(f -> simpleName(f.getClassName()) + "." + cleanMethodName(f.getMethodName()))
+                .orElse("(outside DAO)"));
+    }
+
+    /**
+     * Normalizes SQL so that executions differing only in literals or IN-list length share one entry.
+     *
+     * @param sql The SQL text.
+     * @return The normalized text.
+     */
+    public static String normalize(String sql) {
+        if (sql == null) {
+            return "(unknown)";
+        }
+        String cached = NORMALIZED.get(sql);
+        if (cached != null) {
+            return cached;
+        }
+        String n = STRING_LITERAL.matcher(sql).replaceAll("?");
+        n = NUMBER_LITERAL.matcher(n).replaceAll("?");
+        n = IN_LIST.matcher(n).replaceAll("(?, ...)");
+        n = WHITESPACE.matcher(n).replaceAll(" ").trim();
+        if (NORMALIZED.size() < MAX_NORMALIZED_CACHE) { // DAO SQL is constant; don't let ad-hoc SQL grow the map
+            NORMALIZED.put(sql, n);
+        }
+        return n;
+    }
+
+    /**
+     * @return Statistics per normalized SQL statement, slowest total time first.
+     */
+    public static List<Snapshot> snapshotBySql() {
+        return snapshotOf(BY_SQL);
+    }
+
+    /**
+     * @return Statistics per DAO method, slowest total time first.
+     */
+    public static List<Snapshot> snapshotByDaoMethod() {
+        return snapshotOf(BY_DAO_METHOD);
+    }
+
+    /**
+     * @return Both views: DAO methods followed by SQL statements.
+     */
+    public static List<Snapshot> snapshot() {
+        List<Snapshot> all = new ArrayList<>(snapshotByDaoMethod());
+        all.addAll(snapshotBySql());
+        return all;
+    }
+
+    /**
+     * Clears all recorded statistics.
+     */
+    public static void reset() {
+        BY_SQL.clear();
+        BY_DAO_METHOD.clear();
+    }
+
+    /**
+     * Formats the current statistics as a plain-text table.
+     *
+     * @param limit Maximum number of rows per section.
+     * @return The report.
+     */
+    public static String report(int limit) {
+        StringBuilder sb = new StringBuilder();
+        appendSection(sb, "DAO method", snapshotByDaoMethod(), limit);
+        appendSection(sb, "SQL", snapshotBySql(), limit);
+        return sb.toString();
+    }
+
+    /**
+     * Prints {@link #report(int)} to standard output every {@code intervalMillis} on a daemon thread.
+     * Calling it again replaces the previous schedule; an interval of 0 stops dumping.
+     *
+     * @param intervalMillis The dump interval in milliseconds.
+     */
+    public static synchronized void startPeriodicDump(long intervalMillis) {
+        stopPeriodicDump();
+        if (intervalMillis <= 0) {
+            return;
+        }
+        dumper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "sql-metrics-dump");
+            t.setDaemon(true);
+            return t;
+        });
+        dumper.scheduleAtFixedRate(() -> {
+            if (!BY_SQL.isEmpty()) {
+                System.out.println("=== SQL metrics ===\n" + report(25));
+            }
+        }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public static synchronized void stopPeriodicDump() {
+        if (dumper != null) {
+            dumper.shutdownNow();
+            dumper = null;
+        }
+    }
+
+    private static List<Snapshot> snapshotOf(Map<String, StatementStats> source) {
+        List<Snapshot> list = new ArrayList<>();
+        for (StatementStats stats : source.values()) {
+            list.add(stats.snapshot());
+        }
+        list.sort(Comparator.comparingLong(Snapshot::getTotalNanos).reversed());
+        return list;
+    }
+
+    private static void appendSection(StringBuilder sb, String title, List<Snapshot> rows, int limit) {
+        sb.append(String.format("%-10s %8s %10s %9s %9s %9s %9s %9s  %s%n",
+                "", "calls", "rows", "p50 ms", "p95 ms", "p99 ms", "max ms", "total ms", title));
+        int n = 0;
+        for (Snapshot s : rows) {
+            if (n++ >= limit) {
+                break;
+            }
+            sb.append(String.format("%-10s %8d %10d %9.3f %9.3f %9.3f %9.3f %9.1f  %s%n",
+                    s.getErrors() > 0 ? "errors=" + s.getErrors() : "",
+                    s.getCount(), s.getRows(),
+                    s.getP50Nanos() / 1e6, s.getP95Nanos() / 1e6, s.getP99Nanos() / 1e6,
+                    s.getMaxNanos() / 1e6, s.getTotalNanos() / 1e6, s.getKey()));
+        }
+    }
+
+    private static String simpleName(String className) {
+        return className.substring(className.lastIndexOf('.') + 1);
+    }
+
+    /**
+     * Maps synthetic lambda names such as {@code lambda$addStudentWithUser$0} back to the enclosing method.
+     */
+    private static String cleanMethodName(String methodName) {
+        if (methodName.startsWith("lambda$")) {
+            int end = methodName.indexOf('$', "lambda$".length());
+            return methodName.substring("lambda$".length(), end > 0 ? end : methodName.length());
+        }
+        return methodName;
+    }
+
+    /**
+     * Live counters for one key.
+     */
+    private static final class StatementStats {
+        final String key;
+        final LatencyHistogram latency = new LatencyHistogram();
+        final AtomicLong rows = new AtomicLong();
+        final AtomicLong errors = new AtomicLong();
+
+        StatementStats(String key) {
+            this.key = key;
+        }
+
+        void record(long nanos, long rowCount, boolean failed) {
+            latency.record(nanos);
+            if (rowCount > 0) {
+                rows.addAndGet(rowCount);
+            }
+            if (failed) {
+                errors.incrementAndGet();
+            }
+        }
+
+        Snapshot snapshot() {
+            return new Snapshot(key, latency.getCount(), rows.get(), errors.get(), latency.getTotalNanos(),
+                    latency.getPercentileNanos(50), latency.getPercentileNanos(95),
+                    latency.getPercentileNanos(99), latency.getMaxNanos());
+        }
+    }
+
+    /**
+     * Immutable view of the statistics for one SQL statement or DAO method.
+     */
+    public static final class Snapshot {
+        private final String key;
+        private final long count;
+        private final long rows;
+        private final long errors;
+        private final long totalNanos;
+        private final long p50Nanos;
+        private final long p95Nanos;
+        private final long p99Nanos;
+        private final long maxNanos;
+
+        Snapshot(String key, long count, long rows, long errors, long totalNanos,
+                 long p50Nanos, long p95Nanos, long p99Nanos, long maxNanos) {
+            this.key = key;
+            this.count = count;
+            this.rows = rows;
+            this.errors = errors;
+            this.totalNanos = totalNanos;
+            this.p50Nanos = p50Nanos;
+            this.p95Nanos = p95Nanos;
+            this.p99Nanos = p99Nanos;
+            this.maxNanos = maxNanos;
+        }
+
+        public String getKey() { return key; }
+        public long getCount() { return count; }
+        public long getRows() { return rows; }
+        public long getErrors() { return errors; }
+        public long getTotalNanos() { return totalNanos; }
+        public long getP50Nanos() { return p50Nanos; }
+        public long getP95Nanos() { return p95Nanos; }
+        public long getP99Nanos() { return p99Nanos; }
+        public long getMaxNanos() { return maxNanos; }
+
+        @Override
+        public String toString() {
+            return "Snapshot{" +
+                    "key='" + key + '\'' +
+                    ", count=" + count +
+                    ", rows=" + rows +
+                    ", errors=" + errors +
+                    ", p50=" + p50Nanos +
+                    ", p95=" + p95Nanos +
+                    ", p99=" + p99Nanos +
+                    ", max=" + maxNanos +
+                    '}';
+        }
+    }
+}
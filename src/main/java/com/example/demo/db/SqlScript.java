@@ -0,0 +1,93 @@
+package com.example.demo.db;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A SQL script loaded from the classpath.
+ * Statements end with a ';' at the end of a line; lines starting with {@code --} are comments.
+ */
+public final class SqlScript {
+
+    private final String name;
+    private final List<String> statements;
+
+    private SqlScript(String name, List<String> statements) {
+        this.name = name;
+        this.statements = Collections.unmodifiableList(statements);
+    }
+
+    /**
+     * Reads a script from the classpath.
+     *
+     * @param resource The resource path, e.g. {@code /db/seed.sql}.
+     * @return The parsed script.
+     * @throws SQLException If the resource does not exist or cannot be read.
+     */
+    public static SqlScript load(String resource) throws SQLException {
+        InputStream in = SqlScript.class.getResourceAsStream(resource);
+        if (in == null) {
+            throw new SQLException("SQL script '" + resource + "' not found on the classpath.");
+        }
+        List<String> statements = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            StringBuilder current = new StringBuilder();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String trimmed = line.trim();
+                if (trimmed.isEmpty() || trimmed.startsWith("--")) {
+                    continue;
+                }
+                current.append(line).append('\n');
+                if (trimmed.endsWith(";")) {
+                    String sql = current.toString().trim();
+                    statements.add(sql.substring(0, sql.length() - 1));
+                    current.setLength(0);
+                }
+            }
+            if (current.toString().trim().length() > 0) {
+                statements.add(current.toString().trim());
+            }
+        } catch (IOException e) {
+            throw new SQLException("Failed to read SQL script '" + resource + "'.", e);
+        }
+        return new SqlScript(resource, statements);
+    }
+
+    /**
+     * Runs every statement of the script on the given connection, in order.
+     * The caller decides whether this happens inside a transaction.
+     *
+     * @param conn The connection to use.
+     * @throws SQLException If a statement fails; the message names the script and statement number.
+     */
+    public void execute(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            for (int i = 0; i < statements.size(); i++) {
+                try {
+                    stmt.execute(statements.get(i));
+                } catch (SQLException e) {
+                    throw new SQLException("Statement " + (i + 1) + " of '" + name + "' failed: " + e.getMessage(),
+                            e.getSQLState(), e.getErrorCode(), e);
+                }
+            }
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<String> getStatements() {
+        return statements;
+    }
+}
@@ -0,0 +1,202 @@
+package com.example.demo.db;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-connection cache of prepared statements keyed by SQL text.
+ * <p>
+ * DAOs prepare the same constant SQL on every call. With a pooled connection the statement can be
+ * kept open between borrows, so the server does not have to parse and plan it again (on MySQL the
+ * pool enables server-side prepared statements for this). A cached statement handed to a DAO is
+ * returned to the cache on {@code close()} with its parameters cleared and its fetch size, max rows
+ * and query timeout reset to the driver's defaults.
+ * <p>
+ * Instances are owned by a single pooled connection and are only used by the thread that has
+ * borrowed it, so no locking is needed.
+ */
+final class StatementCache {
+
+    private final int maxSize;
+    private final Counters counters;
+    // Access-ordered: the eldest entry is the least recently used
+    private final LinkedHashMap<String, Slot> slots = new LinkedHashMap<>(16, 0.75f, true);
+
+    StatementCache(int maxSize, Counters counters) {
+        this.maxSize = maxSize;
+        this.counters = counters;
+    }
+
+    /**
+     * Returns a cached statement for the SQL, preparing and caching it on a miss.
+     *
+     * @return The statement, or null if the SQL's cached statement is already checked out
+     *         (e.g. the same query nested on one connection) and the caller should prepare its own.
+     */
+    PreparedStatement checkout(Connection physical, String sql, int autoGeneratedKeys) throws SQLException {
+        String key = autoGeneratedKeys == Statement.RETURN_GENERATED_KEYS ? "#keys:" + sql : sql;
+        Slot slot = slots.get(key);
+        if (slot != null) {
+            if (slot.inUse) {
+                counters.misses.incrementAndGet();
+                return null;
+            }
+            counters.hits.incrementAndGet();
+            slot.inUse = true;
+            return slot.handle;
+        }
+
+        counters.misses.incrementAndGet();
+        PreparedStatement ps = physical.prepareStatement(sql, autoGeneratedKeys);
+        try {
+            slot = new Slot(key, ps);
+        } catch (SQLException e) {
+            ps.close();
+            throw e;
+        }
+        slot.inUse = true;
+        slots.put(key, slot);
+        evictOverflow();
+        return slot.handle;
+    }
+
+    /**
+     * Marks every statement as available again. Called when the connection goes back to the pool,
+     * so statements a borrower forgot to close are not stuck as "in use" forever.
+     */
+    void releaseAll() {
+        for (Slot slot : new ArrayList<>(slots.values())) {
+            if (slot.inUse) {
+                slot.checkin();
+            }
+        }
+    }
+
+    private void evictOverflow() {
+        Iterator<Slot> it = slots.values().iterator();
+        while (slots.size() > maxSize && it.hasNext()) {
+            Slot eldest = it.next();
+            if (!eldest.inUse) {
+                it.remove();
+                eldest.closePhysical();
+                counters.evictions.incrementAndGet();
+            }
+        }
+    }
+
+    private void discard(Slot slot) {
+        slots.remove(slot.key);
+        slot.closePhysical();
+        counters.evictions.incrementAndGet();
+    }
+
+    /**
+     * Hit/miss counters shared by all statement caches of one pool.
+     */
+    static final class Counters {
+        final AtomicLong hits = new AtomicLong();
+        final AtomicLong misses = new AtomicLong();
+        final AtomicLong evictions = new AtomicLong();
+    }
+
+    /**
+     * One cached statement and the proxy handed out for it.
+     */
+    private final class Slot implements InvocationHandler {
+        final String key;
+        final PreparedStatement physical;
+        final PreparedStatement handle;
+        // The driver's defaults, restored on checkin so a borrower's settings do not leak to the next one
+        final int maxRows;
+        final int fetchSize;
+        final int queryTimeout;
+        boolean inUse;
+
+        Slot(String key, PreparedStatement physical) throws SQLException {
+            this.key = key;
+            this.physical = physical;
+            this.maxRows = physical.getMaxRows();
+            this.fetchSize = physical.getFetchSize();
+            this.queryTimeout = physical.getQueryTimeout();
+            this.handle = (PreparedStatement) Proxy.newProxyInstance(
+                    PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    this);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (inUse) {
+                        checkin();
+                    }
+                    return null;
+                case "isClosed":
+                    return !inUse;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CachedStatement[" + key + "]";
+                default:
+                    break;
+            }
+            if (!inUse) {
+                throw new SQLException("Statement is closed.");
+            }
+            try {
+                return method.invoke(physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        /**
+         * Resets the statement for the next user. A statement that cannot be reset is dropped.
+         */
+        void checkin() {
+            inUse = false;
+            try {
+                ResultSet open = physical.getResultSet();
+                if (open != null) {
+                    open.close();
+                }
+                physical.clearParameters();
+                physical.clearBatch();
+                physical.clearWarnings();
+                if (physical.getMaxRows() != maxRows) {
+                    physical.setMaxRows(maxRows); // First: some drivers reject a fetch size over max rows
+                }
+                if (physical.getFetchSize() != fetchSize) {
+                    physical.setFetchSize(fetchSize);
+                }
+                if (physical.getQueryTimeout() != queryTimeout) {
+                    physical.setQueryTimeout(queryTimeout);
+                }
+            } catch (SQLException e) {
+                discard(this);
+            }
+        }
+
+        void closePhysical() {
+            try {
+                physical.close();
+            } catch (SQLException e) {
+                System.err.println("Closing cached statement failed: " + e.getMessage());
+            }
+        }
+    }
+}
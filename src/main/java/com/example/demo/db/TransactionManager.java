@@ -0,0 +1,218 @@
+package com.example.demo.db;
+
+import com.example.demo.DBController;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Thread-bound transactions.
+ * <p>
+ * While {@link #inTransaction} runs, the transaction's connection is bound to the current thread and
+ * {@link DBController#getConnection()} hands out that same connection to every DAO called on this
+ * thread. Nested DAO calls therefore join the surrounding transaction instead of opening a separate
+ * connection, and the whole unit of work commits or rolls back together.
+ * <p>
+ * Connections handed to participants ignore {@code close()}, {@code setAutoCommit()} and
+ * {@code commit()}; {@code rollback()} marks the transaction rollback-only. This keeps DAO code that
+ * manages its own transaction boundaries correct when it runs inside a larger transaction.
+ */
+public final class TransactionManager {
+
+    private static final ThreadLocal<TransactionContext> CURRENT = new ThreadLocal<>();
+
+    private TransactionManager() {
+    }
+
+    /**
+     * Work executed inside a transaction that produces a result.
+     */
+    @FunctionalInterface
+    public interface TransactionCallback<T> {
+        T doInTransaction(Connection conn) throws SQLException;
+    }
+
+    /**
+     * Work executed inside a transaction without a result.
+     */
+    @FunctionalInterface
+    public interface TransactionAction {
+        void run(Connection conn) throws SQLException;
+    }
+
+    /**
+     * Runs the callback in a transaction. If a transaction is already active on this thread the
+     * callback joins it; otherwise a new transaction is started and committed when the callback
+     * returns, or rolled back if it throws.
+     *
+     * @param callback The work to run. The connection passed in must not be closed by the callback.
+     * @return The callback's result.
+     * @throws SQLException If the work or the commit fails. The transaction is rolled back.
+     */
+    public static <T> T inTransaction(TransactionCallback<T> callback) throws SQLException {
+        TransactionContext current = CURRENT.get();
+        if (current != null) {
+            try {
+                return callback.doInTransaction(current.participant);
+            } catch (SQLException | RuntimeException | Error e) {
+                current.rollbackOnly = true;
+                throw e;
+            }
+        }
+
+        Connection conn = DBController.getConnection();
+        TransactionContext context = new TransactionContext(conn);
+        try {
+            conn.setAutoCommit(false); // Start transaction
+            CURRENT.set(context);
+
+            T result = callback.doInTransaction(context.participant);
+            if (context.rollbackOnly) {
+                throw new SQLException("Transaction was rolled back because a nested operation failed.");
+            }
+            conn.commit();
+            return result;
+        } catch (SQLException | RuntimeException | Error e) {
+            try {
+                conn.rollback(); // Rollback if any part of the transaction fails
+            } catch (SQLException ex) {
+                System.err.println("Rollback failed: " + ex.getMessage());
+            }
+            throw e; // Re-throw the original exception
+        } finally {
+            CURRENT.remove();
+            context.active = false;
+            try {
+                conn.setAutoCommit(true); // Reset auto-commit mode
+            } catch (SQLException ex) {
+                System.err.println("Resetting auto-commit failed: " + ex.getMessage());
+            }
+            for (Runnable completion : context.afterCompletion) {
+                try {
+                    completion.run();
+                } catch (RuntimeException ex) {
+                    System.err.println("After-completion callback failed: " + ex.getMessage());
+                }
+            }
+            conn.close(); // Return the connection to the pool
+        }
+    }
+
+    /**
+     * Runs the action in a transaction; see {@link #inTransaction(TransactionCallback)}.
+     *
+     * @param action The work to run.
+     * @throws SQLException If the work or the commit fails. The transaction is rolled back.
+     */
+    public static void runInTransaction(TransactionAction action) throws SQLException {
+        inTransaction(conn -> {
+            action.run(conn);
+            return null;
+        });
+    }
+
+    /**
+     * Runs the callback when the transaction active on this thread has committed or rolled back, or
+     * right away if there is none. Caches use it to drop entries again once a write is visible to
+     * other connections, since another thread may have re-read the old row before the commit.
+     *
+     * @param callback The callback; exceptions it throws are logged, not propagated.
+     */
+    public static void afterCompletion(Runnable callback) {
+        TransactionContext context = CURRENT.get();
+        if (context != null) {
+            context.afterCompletion.add(callback);
+        } else {
+            callback.run();
+        }
+    }
+
+    /**
+     * @return True if a transaction is active on the current thread.
+     */
+    public static boolean isActive() {
+        return CURRENT.get() != null;
+    }
+
+    /**
+     * Returns the connection of the transaction bound to the current thread, wrapped so that
+     * participants cannot close or commit it, or null if no transaction is active.
+     * Used by {@link DBController#getConnection()}.
+     */
+    public static Connection currentConnection() {
+        TransactionContext context = CURRENT.get();
+        return context != null ? context.participant : null;
+    }
+
+    /**
+     * State of one thread-bound transaction.
+     */
+    private static final class TransactionContext {
+        final Connection connection;
+        final Connection participant;
+        volatile boolean rollbackOnly;
+        volatile boolean active = true;
+        final List<Runnable> afterCompletion = new ArrayList<>(); // Only touched by the owning thread
+
+        TransactionContext(Connection connection) {
+            this.connection = connection;
+            this.participant = (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new ParticipantHandler(this));
+        }
+    }
+
+    /**
+     * Connection handle given to code running inside a transaction.
+     */
+    private static final class ParticipantHandler implements InvocationHandler {
+        private final TransactionContext context;
+
+        ParticipantHandler(TransactionContext context) {
+            this.context = context;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                case "setAutoCommit":
+                case "commit":
+                    return null; // Boundaries belong to the outermost inTransaction call
+                case "rollback":
+                    if (args == null || args.length == 0) {
+                        context.rollbackOnly = true;
+                        return null;
+                    }
+                    break; // Rolling back to a savepoint is the caller's business
+                case "getAutoCommit":
+                    return false;
+                case "isClosed":
+                    return !context.active;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "TransactionalConnection[" + context.connection + "]";
+                default:
+                    break;
+            }
+            if (!context.active) {
+                throw new SQLException("The transaction this connection belonged to has ended.", "08003");
+            }
+            try {
+                return method.invoke(context.connection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
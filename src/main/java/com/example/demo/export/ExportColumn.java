@@ -0,0 +1,36 @@
+package com.example.demo.export;
+
+import java.util.function.Function;
+
+/**
+ * One column of an {@link ExportTable}: its header name and how to read its value from a row.
+ *
+ * @param <T> The row type.
+ */
+public final class ExportColumn<T> {
+
+    private final String name;
+    private final Function<? super T, ?> value;
+
+    public ExportColumn(String name, Function<? super T, ?> value) {
+        this.name = name;
+        this.value = value;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @param row A row of the table.
+     * @return The column's value in the row; may be null.
+     */
+    public Object valueOf(T row) {
+        return value.apply(row);
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.demo.export;
+
+import com.example.demo.csv.CsvWriter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The file formats tables can be exported to.
+ */
+public enum ExportFormat {
+
+    CSV("csv", "CSV (comma-separated values)") {
+        @Override
+        public RowWriter open(OutputStream out, String sheetName, List<String> header) throws IOException {
+            CsvWriter csv = new CsvWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)));
+            csv.writeRecord(header);
+            return new RowWriter() {
+                @Override
+                public void writeRow(List<?> values) throws IOException {
+                    csv.writeRecord(values);
+                }
+
+                @Override
+                public void close() throws IOException {
+                    csv.close();
+                }
+            };
+        }
+    },
+
+    XLSX("xlsx", "Excel workbook") {
+        @Override
+        public RowWriter open(OutputStream out, String sheetName, List<String> header) throws IOException {
+            return new XlsxWriter(out, sheetName, header);
+        }
+    };
+
+    private final String extension;
+    private final String description;
+
+    ExportFormat(String extension, String description) {
+        this.extension = extension;
+        this.description = description;
+    }
+
+    /**
+     * Starts a file and writes its header row.
+     *
+     * @param out The stream to write to; closed when the returned writer is closed.
+     * @param sheetName The name of the table, used where the format has one (XLSX sheet names).
+     * @param header The column names.
+     * @return The writer for the data rows.
+     * @throws IOException If writing fails.
+     */
+    public abstract RowWriter open(OutputStream out, String sheetName, List<String> header) throws IOException;
+
+    /** @return The file name extension, without the dot. */
+    public String getExtension() {
+        return extension;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * @param fileName A file name.
+     * @return The format matching the file name's extension.
+     * @throws IllegalArgumentException If the extension is not a known format.
+     */
+    public static ExportFormat forFileName(String fileName) {
+        String lower = fileName.toLowerCase(Locale.ROOT);
+        for (ExportFormat format : values()) {
+            if (lower.endsWith("." + format.extension)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unknown export format for '" + fileName + "'; use a .csv or .xlsx file name.");
+    }
+
+    @Override
+    public String toString() {
+        return description;
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.demo.export;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * A table that can be exported: its columns and where its rows come from. The rows are read as a
+ * stream, so tables of any size are exported without being loaded into memory. See {@link ExportTables}
+ * for the application's tables.
+ *
+ * @param <T> The row type.
+ */
+public final class ExportTable<T> {
+
+    /** Opens the stream of rows; the caller closes it. */
+    @FunctionalInterface
+    public interface RowSource<T> {
+        Stream<T> open() throws SQLException;
+    }
+
+    /** Counts the rows, for progress reporting. */
+    @FunctionalInterface
+    public interface RowCounter {
+        long count() throws SQLException;
+    }
+
+    private final String name;
+    private final List<ExportColumn<T>> columns;
+    private final RowSource<T> source;
+    private final RowCounter counter;
+
+    /**
+     * @param name The table name shown to users, also used as the XLSX sheet name.
+     * @param source Opens the stream of rows.
+     * @param counter Counts the rows, or null if the count is not known in advance.
+     * @param columns The columns, in their default order.
+     */
+    @SafeVarargs
+    public ExportTable(String name, RowSource<T> source, RowCounter counter, ExportColumn<T>... columns) {
+        this.name = name;
+        this.source = source;
+        this.counter = counter;
+        List<ExportColumn<T>> copy = new ArrayList<>(columns.length); // Copied, so the caller's array is not kept
+        for (ExportColumn<T> column : columns) {
+            copy.add(column);
+        }
+        this.columns = Collections.unmodifiableList(copy);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<ExportColumn<T>> getColumns() {
+        return columns;
+    }
+
+    public List<String> getColumnNames() {
+        List<String> names = new ArrayList<>(columns.size());
+        for (ExportColumn<T> column : columns) {
+            names.add(column.getName());
+        }
+        return names;
+    }
+
+    /**
+     * @param names Column names, in the order they should be exported; null or empty for all columns.
+     * @return The named columns.
+     * @throws IllegalArgumentException If a name is not a column of this table.
+     */
+    public List<ExportColumn<T>> select(List<String> names) {
+        if (names == null || names.isEmpty()) {
+            return columns;
+        }
+        List<ExportColumn<T>> selected = new ArrayList<>(names.size());
+        for (String name : names) {
+            ExportColumn<T> match = null;
+            for (ExportColumn<T> column : columns) {
+                if (column.getName().equalsIgnoreCase(name.trim())) {
+                    match = column;
+                    break;
+                }
+            }
+            if (match == null) {
+                throw new IllegalArgumentException("Unknown column '" + name + "' for " + this.name
+                        + "; expected one of " + getColumnNames() + ".");
+            }
+            selected.add(match);
+        }
+        return selected;
+    }
+
+    /**
+     * @return A stream of all rows. It holds a database connection until closed.
+     * @throws SQLException If a database access error occurs.
+     */
+    public Stream<T> openRows() throws SQLException {
+        return source.open();
+    }
+
+    /**
+     * @return The number of rows, or -1 if the table cannot count them in advance.
+     * @throws SQLException If a database access error occurs.
+     */
+    public long countRows() throws SQLException {
+        return counter == null ? -1 : counter.count();
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.demo.export;
+
+import com.example.demo.AppContext;
+import com.example.demo.model.Attendance;
+import com.example.demo.model.Course;
+import com.example.demo.model.Faculty;
+import com.example.demo.model.Fees;
+import com.example.demo.model.Librarian;
+import com.example.demo.model.Program;
+import com.example.demo.model.Result;
+import com.example.demo.model.Student;
+import com.example.demo.service.AttendanceService;
+import com.example.demo.service.CourseService;
+import com.example.demo.service.FacultyService;
+import com.example.demo.service.FeesService;
+import com.example.demo.service.LibrarianService;
+import com.example.demo.service.ProgramService;
+import com.example.demo.service.ResultService;
+import com.example.demo.service.StudentService;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The exportable tables of the management screens. Columns are named as in the database.
+ * <p>
+ * The large tables are streamed from their DAOs ({@code streamAll*}), one row at a time. Librarians
+ * and programs have no stream methods; they are small enough to be read with {@code getAll*}.
+ */
+public final class ExportTables {
+
+    private ExportTables() {
+    }
+
+    public static ExportTable<Student> students() {
+        StudentService service = AppContext.get().getStudentService();
+        return new ExportTable<>("Students", service::streamAllStudents, service::countStudents,
+                new ExportColumn<>("student_id", Student::getStudentId),
+                new ExportColumn<>("user_id", Student::getUserId),
+                new ExportColumn<>("program_id", Student::getProgramId),
+                new ExportColumn<>("first_name", Student::getFirstName),
+                new ExportColumn<>("last_name", Student::getLastName),
+                new ExportColumn<>("date_of_birth", Student::getDateOfBirth),
+                new ExportColumn<>("gender", Student::getGender),
+                new ExportColumn<>("email", Student::getEmail),
+                new ExportColumn<>("phone_number", Student::getPhoneNumber),
+                new ExportColumn<>("address", Student::getAddress),
+                new ExportColumn<>("enrollment_date", Student::getEnrollmentDate),
+                new ExportColumn<>("major", Student::getMajor));
+    }
+
+    public static ExportTable<Faculty> faculty() {
+        FacultyService service = AppContext.get().getFacultyService();
+        return new ExportTable<>("Faculty", service::streamAllFaculty, service::countFaculty,
+                new ExportColumn<>("faculty_id", Faculty::getFacultyId),
+                new ExportColumn<>("user_id", Faculty::getUserId),
+                new ExportColumn<>("first_name", Faculty::getFirstName),
+                new ExportColumn<>("last_name", Faculty::getLastName),
+                new ExportColumn<>("email", Faculty::getEmail),
+                new ExportColumn<>("phone_number", Faculty::getPhoneNumber),
+                new ExportColumn<>("department", Faculty::getDepartment));
+    }
+
+    public static ExportTable<Course> courses() {
+        CourseService service = AppContext.get().getCourseService();
+        return new ExportTable<>("Courses", service::streamAllCourses, service::countCourses,
+                new ExportColumn<>("course_id", Course::getCourseId),
+                new ExportColumn<>("program_id", Course::getProgramId),
+                new ExportColumn<>("semester_number", Course::getSemesterNumber),
+                new ExportColumn<>("course_code", Course::getCourseCode),
+                new ExportColumn<>("course_name", Course::getCourseName),
+                new ExportColumn<>("credits", Course::getCredits),
+                new ExportColumn<>("description", Course::getDescription),
+                new ExportColumn<>("department", Course::getDepartment));
+    }
+
+    public static ExportTable<Fees> fees() {
+        FeesService service = AppContext.get().getFeesService();
+        return new ExportTable<>("Fees", service::streamAllFees, service::countFees,
+                new ExportColumn<>("fee_id", Fees::getFeeId),
+                new ExportColumn<>("student_id", Fees::getStudentId),
+                new ExportColumn<>("fee_type", Fees::getFeeType),
+                new ExportColumn<>("amount", Fees::getAmount),
+                new ExportColumn<>("due_date", Fees::getDueDate),
+                new ExportColumn<>("payment_date", Fees::getPaymentDate),
+                new ExportColumn<>("status", Fees::getStatus));
+    }
+
+    public static ExportTable<Result> results() {
+        ResultService service = AppContext.get().getResultService();
+        return new ExportTable<>("Results", service::streamAllResults, service::countResults,
+                new ExportColumn<>("result_id", Result::getResultId),
+                new ExportColumn<>("student_id", Result::getStudentId),
+                new ExportColumn<>("course_id", Result::getCourseId),
+                new ExportColumn<>("semester_number", Result::getSemesterNumber),
+                new ExportColumn<>("academic_year", Result::getAcademicYear),
+                new ExportColumn<>("marks_obtained", Result::getMarksObtained),
+                new ExportColumn<>("grade", Result::getGrade),
+                new ExportColumn<>("result_status", Result::getResultStatus));
+    }
+
+    public static ExportTable<Attendance> attendance() {
+        AttendanceService service = AppContext.get().getAttendanceService();
+        return new ExportTable<>("Attendance", service::streamAllAttendance, service::countAttendance,
+                new ExportColumn<>("attendance_id", Attendance::getAttendanceId),
+                new ExportColumn<>("student_id", Attendance::getStudentId),
+                new ExportColumn<>("course_id", Attendance::getCourseId),
+                new ExportColumn<>("attendance_date", Attendance::getAttendanceDate),
+                new ExportColumn<>("status", Attendance::getStatus),
+                new ExportColumn<>("taken_by_faculty_id", Attendance::getTakenByFacultyId));
+    }
+
+    public static ExportTable<Librarian> librarians() {
+        LibrarianService service = AppContext.get().getLibrarianService();
+        return new ExportTable<>("Librarians", () -> service.getAllLibrarians().stream(), null,
+                new ExportColumn<>("librarian_id", Librarian::getLibrarianId),
+                new ExportColumn<>("user_id", Librarian::getUserId),
+                new ExportColumn<>("first_name", Librarian::getFirstName),
+                new ExportColumn<>("last_name", Librarian::getLastName),
+                new ExportColumn<>("email", Librarian::getEmail),
+                new ExportColumn<>("phone_number", Librarian::getPhoneNumber));
+    }
+
+    public static ExportTable<Program> programs() {
+        ProgramService service = AppContext.get().getProgramService();
+        return new ExportTable<>("Programs", () -> service.getAllPrograms().stream(), null,
+                new ExportColumn<>("program_id", Program::getProgramId),
+                new ExportColumn<>("program_name", Program::getProgramName));
+    }
+
+    /**
+     * @return All exportable tables.
+     */
+    public static List<ExportTable<?>> all() {
+        return Arrays.asList(students(), faculty(), courses(), fees(), results(), attendance(), librarians(), programs());
+    }
+
+    /**
+     * @param name A table name, case-insensitive (e.g. {@code attendance}).
+     * @return The table.
+     * @throws IllegalArgumentException If there is no table with that name.
+     */
+    public static ExportTable<?> byName(String name) {
+        for (ExportTable<?> table : all()) {
+            if (table.getName().equalsIgnoreCase(name.trim())) {
+                return table;
+            }
+        }
+        throw new IllegalArgumentException("Unknown table '" + name + "'; expected one of "
+                + all().toString().toLowerCase(Locale.ROOT) + ".");
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.demo.export;
+
+import javafx.concurrent.Task;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Runs an export on a background thread for the JavaFX screens. Progress and a status message are
+ * published through the task's properties; {@link #cancel()} stops the export before its next row
+ * and leaves the target file unchanged.
+ *
+ * @param <T> The row type.
+ */
+public class ExportTask<T> extends Task<Long> {
+
+    private final ExportTable<T> table;
+    private final List<String> columnNames;
+    private final ExportFormat format;
+    private final Path target;
+
+    /**
+     * @param table The table to export.
+     * @param columnNames The columns to export, in order; null or empty for all columns.
+     * @param format The file format.
+     * @param target The file to write.
+     */
+    public ExportTask(ExportTable<T> table, List<String> columnNames, ExportFormat format, Path target) {
+        this.table = table;
+        this.columnNames = columnNames;
+        this.format = format;
+        this.target = target;
+        updateTitle("Exporting " + table.getName());
+    }
+
+    public Path getTarget() {
+        return target;
+    }
+
+    @Override
+    protected Long call() throws Exception {
+        return Exporter.export(table, columnNames, format, target, new Exporter.ProgressListener() {
+            @Override
+            public void progress(long rowsWritten, long totalRows) {
+                updateProgress(rowsWritten, totalRows);
+                updateMessage(totalRows < 0
+                        ? rowsWritten + " rows written"
+                        : rowsWritten + " of " + totalRows + " rows written");
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return ExportTask.this.isCancelled();
+            }
+        });
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.demo.export;
+
+import com.example.demo.DBController;
+import com.example.demo.dao.UncheckedSQLException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CancellationException;
+import java.util.stream.Stream;
+
+/**
+ * Exports a table to a CSV or XLSX file. Rows are streamed from the database straight to the file,
+ * one at a time, so memory use does not depend on the size of the table.
+ * <p>
+ * The file is written next to the target under a temporary name and moved into place when it is
+ * complete, so a failed or cancelled export never leaves a partial file behind or overwrites a good one.
+ */
+public final class Exporter {
+
+    /** Rows between two progress reports. */
+    static final int PROGRESS_INTERVAL = 1000;
+
+    /**
+     * Receives progress reports and is asked whether to stop, from the exporting thread.
+     */
+    public interface ProgressListener {
+
+        /**
+         * @param rowsWritten The data rows written so far.
+         * @param totalRows The number of rows to write, or -1 if not known.
+         */
+        void progress(long rowsWritten, long totalRows);
+
+        /**
+         * @return true to stop the export; it is checked before each row.
+         */
+        default boolean isCancelled() {
+            return false;
+        }
+    }
+
+    private Exporter() {
+    }
+
+    /**
+     * Exports a table to a file.
+     *
+     * @param table The table to export.
+     * @param columnNames The columns to export, in order; null or empty for all columns.
+     * @param format The file format.
+     * @param target The file to write; replaced if it exists.
+     * @param listener Receives progress reports; may be null.
+     * @param <T> The row type.
+     * @return The number of data rows written.
+     * @throws IllegalArgumentException If a column name is unknown.
+     * @throws CancellationException If the listener cancelled the export; the target is left unchanged.
+     * @throws IOException If the file cannot be written.
+     * @throws SQLException If a database access error occurs.
+     */
+    public static <T> long export(ExportTable<T> table, List<String> columnNames, ExportFormat format, Path target,
+                                  ProgressListener listener) throws IOException, SQLException {
+        List<ExportColumn<T>> columns = table.select(columnNames);
+        Path dir = target.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(dir, "." + target.getFileName(), ".part");
+        boolean done = false;
+        try {
+            long rows;
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                rows = export(table, columns, format, out, listener);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            done = true;
+            return rows;
+        } finally {
+            if (!done) {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    /**
+     * Exports a table to a stream.
+     *
+     * @param table The table to export.
+     * @param columns The columns to export, in order (see {@link ExportTable#select}).
+     * @param format The file format.
+     * @param out The stream to write to. It is closed.
+     * @param listener Receives progress reports; may be null.
+     * @param <T> The row type.
+     * @return The number of data rows written.
+     * @throws CancellationException If the listener cancelled the export.
+     * @throws IOException If writing fails.
+     * @throws SQLException If a database access error occurs.
+     */
+    public static <T> long export(ExportTable<T> table, List<ExportColumn<T>> columns, ExportFormat format,
+                                  OutputStream out, ProgressListener listener) throws IOException, SQLException {
+        List<String> header = new ArrayList<>(columns.size());
+        for (ExportColumn<T> column : columns) {
+            header.add(column.getName());
+        }
+        long total = table.countRows();
+        long rows = 0;
+        if (listener != null) {
+            listener.progress(0, total);
+        }
+        try (Stream<T> stream = table.openRows();
+             RowWriter writer = format.open(out, table.getName(), header)) {
+            List<Object> values = new ArrayList<>(columns.size());
+            Iterator<T> it = stream.iterator();
+            while (it.hasNext()) {
+                if (listener != null && listener.isCancelled()) {
+                    throw new CancellationException("Export of " + table.getName() + " cancelled after " + rows + " rows.");
+                }
+                T row = it.next();
+                values.clear();
+                for (ExportColumn<T> column : columns) {
+                    values.add(column.valueOf(row));
+                }
+                writer.writeRow(values);
+                rows++;
+                if (listener != null && rows % PROGRESS_INTERVAL == 0) {
+                    // The count can be stale by the time the last rows are read
+                    listener.progress(rows, Math.max(total, rows));
+                }
+            }
+        } catch (UncheckedSQLException e) {
+            throw e.getCause();
+        }
+        if (listener != null) {
+            listener.progress(rows, rows);
+        }
+        return rows;
+    }
+
+    /**
+     * Command line entry point.
+     *
+     * @param args The table name, the target file ({@code .csv} or {@code .xlsx}), and optionally a
+     *             comma-separated list of columns.
+     */
+    public static void main(String[] args) {
+        if (args.length < 2 || args.length > 3) {
+            System.err.println("Usage: Exporter <table> <file.csv|file.xlsx> [<column,column,...>]");
+            System.exit(2);
+        }
+        Path target = Paths.get(args[1]);
+        List<String> columns = args.length > 2 ? Arrays.asList(args[2].split(",")) : null;
+        int status = 0;
+        try {
+            ExportTable<?> table = ExportTables.byName(args[0]);
+            long start = System.nanoTime();
+            long rows = export(table, columns, ExportFormat.forFileName(args[1]), target, null);
+            System.out.println("Exported " + rows + " " + table.getName().toLowerCase(Locale.ROOT) + " rows to " + target
+                    + " in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+        } catch (IllegalArgumentException | IOException | SQLException e) {
+            System.err.println("Export failed: " + e.getMessage());
+            status = 1;
+        } finally {
+            DBController.shutdown();
+        }
+        System.exit(status);
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.demo.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Writes the rows of one table to a file format, one row at a time. Created by {@link ExportFormat#open}.
+ * Closing it finishes the file and closes the underlying stream.
+ */
+public interface RowWriter extends Closeable {
+
+    /**
+     * @param values The cell values, in column order. Numbers stay numbers where the format supports it;
+     *               other values are written as text, null as an empty cell.
+     */
+    void writeRow(List<?> values) throws IOException;
+}
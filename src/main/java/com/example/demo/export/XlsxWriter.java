@@ -0,0 +1,202 @@
+package com.example.demo.export;
+
+import java.io.BufferedOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Writes an Office Open XML workbook (.xlsx) row by row with constant memory.
+ * <p>
+ * Only the parts Excel and LibreOffice need are written: the package relationships, a workbook and
+ * one worksheet per {@value #MAX_ROWS_PER_SHEET} rows. Cells hold inline strings or numbers, so no
+ * shared-string table has to be kept in memory; dates are written as ISO-8601 text. Rows beyond a
+ * sheet's row limit continue on a new sheet that repeats the header.
+ */
+public final class XlsxWriter implements RowWriter {
+
+    /** Excel's row limit per sheet, including the header row. */
+    static final int MAX_ROWS_PER_SHEET = 1_048_576;
+    private static final int MAX_SHEET_NAME_LENGTH = 31;
+    private static final String MAIN_NS = "http://schemas.openxmlformats.org/spreadsheetml/2006/main";
+    private static final String REL_NS = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+    private static final String PACKAGE_REL_NS = "http://schemas.openxmlformats.org/package/2006/relationships";
+    private static final String XML_DECLARATION = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n";
+
+    private final ZipOutputStream zip;
+    private final Writer out;
+    private final String sheetName;
+    private final List<String> header;
+    private int sheets;
+    private int rowsInSheet;
+    private boolean closed;
+
+    /**
+     * Starts the workbook and writes the header row of the first sheet.
+     *
+     * @param out The stream to write to; closed by {@link #close()}.
+     * @param sheetName The sheet name; characters Excel does not allow are replaced.
+     * @param header The column names.
+     * @throws IOException If writing fails.
+     */
+    public XlsxWriter(OutputStream out, String sheetName, List<String> header) throws IOException {
+        this.zip = new ZipOutputStream(new BufferedOutputStream(out, 64 * 1024));
+        // Entries are written through one writer; it must not close the zip when an entry ends
+        this.out = new OutputStreamWriter(new FilterOutputStream(zip) {
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                zip.write(b, off, len);
+            }
+
+            @Override
+            public void close() {
+            }
+        }, StandardCharsets.UTF_8);
+        this.sheetName = safeSheetName(sheetName);
+        this.header = header;
+        startSheet();
+    }
+
+    @Override
+    public void writeRow(List<?> values) throws IOException {
+        if (rowsInSheet == MAX_ROWS_PER_SHEET) {
+            endSheet();
+            startSheet();
+        }
+        rowsInSheet++;
+        out.write("<row r=\"");
+        out.write(Integer.toString(rowsInSheet));
+        out.write("\">");
+        for (Object value : values) {
+            writeCell(value);
+        }
+        out.write("</row>\n");
+    }
+
+    private void writeCell(Object value) throws IOException {
+        if (value == null) {
+            out.write("<c/>");
+        } else if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte
+                || value instanceof BigInteger || value instanceof BigDecimal
+                || (value instanceof Double && Double.isFinite((Double) value))
+                || (value instanceof Float && Float.isFinite((Float) value))) {
+            out.write("<c><v>");
+            out.write(value instanceof BigDecimal ? ((BigDecimal) value).toPlainString() : value.toString());
+            out.write("</v></c>");
+        } else if (value instanceof Boolean) {
+            out.write((Boolean) value ? "<c t=\"b\"><v>1</v></c>" : "<c t=\"b\"><v>0</v></c>");
+        } else {
+            String text = value.toString();
+            boolean preserve = !text.isEmpty()
+                    && (Character.isWhitespace(text.charAt(0)) || Character.isWhitespace(text.charAt(text.length() - 1)));
+            out.write(preserve ? "<c t=\"inlineStr\"><is><t xml:space=\"preserve\">" : "<c t=\"inlineStr\"><is><t>");
+            writeEscaped(text);
+            out.write("</t></is></c>");
+        }
+    }
+
+    private void writeEscaped(String text) throws IOException {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '<': out.write("&lt;"); break;
+                case '>': out.write("&gt;"); break;
+                case '&': out.write("&amp;"); break;
+                case '"': out.write("&quot;"); break;
+                default:
+                    // XML 1.0 does not allow most control characters, even escaped
+                    if (c >= 0x20 || c == '\t' || c == '\n' || c == '\r') {
+                        out.write(c);
+                    }
+            }
+        }
+    }
+
+    private void startSheet() throws IOException {
+        sheets++;
+        rowsInSheet = 0;
+        zip.putNextEntry(new ZipEntry("xl/worksheets/sheet" + sheets + ".xml"));
+        out.write(XML_DECLARATION);
+        out.write("<worksheet xmlns=\"" + MAIN_NS + "\"><sheetData>\n");
+        writeRow(header);
+    }
+
+    private void endSheet() throws IOException {
+        out.write("</sheetData></worksheet>\n");
+        out.flush();
+        zip.closeEntry();
+    }
+
+    private void writeEntry(String name, String content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        out.write(content);
+        out.flush();
+        zip.closeEntry();
+    }
+
+    /**
+     * Ends the last sheet, writes the workbook parts that list the sheets, and closes the stream.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            endSheet();
+
+            StringBuilder types = new StringBuilder(XML_DECLARATION)
+                    .append("<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">")
+                    .append("<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>")
+                    .append("<Default Extension=\"xml\" ContentType=\"application/xml\"/>")
+                    .append("<Override PartName=\"/xl/workbook.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml\"/>");
+            StringBuilder workbook = new StringBuilder(XML_DECLARATION)
+                    .append("<workbook xmlns=\"").append(MAIN_NS).append("\" xmlns:r=\"").append(REL_NS).append("\"><sheets>");
+            StringBuilder workbookRels = new StringBuilder(XML_DECLARATION)
+                    .append("<Relationships xmlns=\"").append(PACKAGE_REL_NS).append("\">");
+            for (int i = 1; i <= sheets; i++) {
+                types.append("<Override PartName=\"/xl/worksheets/sheet").append(i)
+                        .append(".xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml\"/>");
+                String name = i == 1 ? sheetName : truncate(sheetName, MAX_SHEET_NAME_LENGTH - 5) + " (" + i + ")";
+                workbook.append("<sheet name=\"").append(escapeAttribute(name)).append("\" sheetId=\"").append(i)
+                        .append("\" r:id=\"rId").append(i).append("\"/>");
+                workbookRels.append("<Relationship Id=\"rId").append(i).append("\" Type=\"").append(REL_NS)
+                        .append("/worksheet\" Target=\"worksheets/sheet").append(i).append(".xml\"/>");
+            }
+            types.append("</Types>");
+            workbook.append("</sheets></workbook>");
+            workbookRels.append("</Relationships>");
+
+            writeEntry("[Content_Types].xml", types.toString());
+            writeEntry("_rels/.rels", XML_DECLARATION + "<Relationships xmlns=\"" + PACKAGE_REL_NS + "\">"
+                    + "<Relationship Id=\"rId1\" Type=\"" + REL_NS + "/officeDocument\" Target=\"xl/workbook.xml\"/>"
+                    + "</Relationships>");
+            writeEntry("xl/workbook.xml", workbook.toString());
+            writeEntry("xl/_rels/workbook.xml.rels", workbookRels.toString());
+        } finally {
+            zip.close();
+        }
+    }
+
+    private static String safeSheetName(String name) {
+        String safe = name == null ? "" : name.replaceAll("[\\[\\]:*?/\\\\]", "_").trim();
+        return safe.isEmpty() ? "Sheet" : truncate(safe, MAX_SHEET_NAME_LENGTH);
+    }
+
+    private static String truncate(String text, int maxLength) {
+        return text.length() <= maxLength ? text : text.substring(0, maxLength);
+    }
+
+    private static String escapeAttribute(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+}
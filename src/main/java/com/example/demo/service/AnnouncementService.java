@@ -1,6 +1,8 @@
 package com.example.demo.service;
 
+import com.example.demo.AppContext;
 import com.example.demo.dao.AnnouncementDAO;
+import com.example.demo.dao.Page;
 import com.example.demo.model.Announcement;
 import com.example.demo.model.User;
 import java.sql.SQLException;
@@ -12,8 +14,12 @@ public class AnnouncementService {
     private UserService userService; // To verify user who created the announcement
 
     public AnnouncementService() {
-        this.announcementDAO = new AnnouncementDAO();
-        this.userService = new UserService();
+        this(AppContext.get().getAnnouncementDAO(), AppContext.get().getUserService());
+    }
+
+    public AnnouncementService(AnnouncementDAO announcementDAO, UserService userService) {
+        this.announcementDAO = announcementDAO;
+        this.userService = userService;
     }
 
     /**
@@ -103,6 +109,19 @@ public class AnnouncementService {
         return announcementDAO.getAllAnnouncements();
     }
 
+    /**
+     * Retrieves one page of announcements, in ID order, for walking the whole table in constant memory.
+     *
+     * @param pageToken The next page token of the previous page, or null for the first page.
+     * @param pageSize The maximum number of rows to return (1 to {@link Page#MAX_PAGE_SIZE}).
+     * @return The page of Announcement objects.
+     * @throws IllegalArgumentException If the page token or page size is invalid.
+     * @throws SQLException If a database error occurs.
+     */
+    public Page<Announcement> getAnnouncementPage(String pageToken, int pageSize) throws SQLException {
+        return announcementDAO.getAnnouncementPage(pageToken, pageSize);
+    }
+
     /**
      * Retrieves all announcement records targeted to a specific role (including 'All').
      *
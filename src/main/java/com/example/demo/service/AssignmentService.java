@@ -1,6 +1,8 @@
 package com.example.demo.service;
 
+import com.example.demo.AppContext;
 import com.example.demo.dao.AssignmentDAO;
+import com.example.demo.dao.Page;
 import com.example.demo.model.Assignment;
 import com.example.demo.model.Course;
 import com.example.demo.model.Faculty;
@@ -14,9 +16,16 @@ public class AssignmentService {
     private FacultyService facultyService; // To verify faculty existence
 
     public AssignmentService() {
-        this.assignmentDAO = new AssignmentDAO();
-        this.courseService = new CourseService();
-        this.facultyService = new FacultyService();
+        this(AppContext.get().getAssignmentDAO(),
+                AppContext.get().getCourseService(),
+                AppContext.get().getFacultyService());
+    }
+
+    public AssignmentService(AssignmentDAO assignmentDAO, CourseService courseService,
+                             FacultyService facultyService) {
+        this.assignmentDAO = assignmentDAO;
+        this.courseService = courseService;
+        this.facultyService = facultyService;
     }
 
     /**
@@ -150,6 +159,19 @@ public class AssignmentService {
         return assignmentDAO.getAllAssignments();
     }
 
+    /**
+     * Retrieves one page of assignments, in ID order, for walking the whole table in constant memory.
+     *
+     * @param pageToken The next page token of the previous page, or null for the first page.
+     * @param pageSize The maximum number of rows to return (1 to {@link Page#MAX_PAGE_SIZE}).
+     * @return The page of Assignment objects.
+     * @throws IllegalArgumentException If the page token or page size is invalid.
+     * @throws SQLException If a database error occurs.
+     */
+    public Page<Assignment> getAssignmentPage(String pageToken, int pageSize) throws SQLException {
+        return assignmentDAO.getAssignmentPage(pageToken, pageSize);
+    }
+
     /**
      * Updates an existing assignment's information.
      *
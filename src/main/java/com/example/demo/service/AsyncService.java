@@ -0,0 +1,114 @@
+package com.example.demo.service;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Asynchronous facade for a service: runs its methods on the {@link ServiceExecutor} and returns
+ * {@link CompletableFuture}s instead of blocking the caller, e.g. the JavaFX application thread.
+ * Independent lookups can be started together and combined:
+ * <pre>{@code
+ * AsyncService<StudentService> students = AsyncService.of(new StudentService());
+ * AsyncService<ProgramService> programs = AsyncService.of(new ProgramService());
+ * CompletableFuture<Student> student = students.call(s -> s.getStudentById(id));
+ * CompletableFuture<List<Program>> all = programs.call(ProgramService::getAllPrograms);
+ * student.thenCombine(all, (s, p) -> ...)
+ *        .thenAcceptAsync(this::show, Platform::runLater);
+ * }</pre>
+ * Exceptions thrown by the service ({@code SQLException}, {@code IllegalArgumentException}) complete
+ * the future exceptionally. Cancelling a future interrupts the call, or skips it if it has not started.
+ *
+ * @param <S> The service type.
+ */
+public final class AsyncService<S> {
+
+    /** A call of one or more methods of the service, returning a result. */
+    @FunctionalInterface
+    public interface ServiceCall<S, R> {
+        R call(S service) throws Exception;
+    }
+
+    /** A call of one or more methods of the service that returns nothing. */
+    @FunctionalInterface
+    public interface ServiceAction<S> {
+        void run(S service) throws Exception;
+    }
+
+    private final S service;
+    private final ServiceExecutor executor;
+
+    /**
+     * @param service The service whose methods are called.
+     * @param executor The executor to run the calls on.
+     */
+    public AsyncService(S service, ServiceExecutor executor) {
+        this.service = service;
+        this.executor = executor;
+    }
+
+    /**
+     * @param service The service whose methods are called.
+     * @param <S> The service type.
+     * @return A facade running the calls on the shared executor.
+     */
+    public static <S> AsyncService<S> of(S service) {
+        return new AsyncService<>(service, ServiceExecutor.shared());
+    }
+
+    /** @return The underlying synchronous service. */
+    public S getService() {
+        return service;
+    }
+
+    /**
+     * Calls the service in the background with the executor's default timeout.
+     *
+     * @param call The call, e.g. {@code s -> s.getStudentById(id)}.
+     * @param <R> The result type.
+     * @return The future result.
+     */
+    public <R> CompletableFuture<R> call(ServiceCall<S, R> call) {
+        return executor.submit(() -> call.call(service));
+    }
+
+    /**
+     * Calls the service in the background.
+     *
+     * @param call The call, e.g. {@code s -> s.getStudentById(id)}.
+     * @param timeout The time after which the future fails with a
+     *                {@link java.util.concurrent.TimeoutException} and the call is cancelled.
+     * @param <R> The result type.
+     * @return The future result.
+     */
+    public <R> CompletableFuture<R> call(ServiceCall<S, R> call, Duration timeout) {
+        return executor.submit(() -> call.call(service), timeout.toMillis());
+    }
+
+    /**
+     * Runs a service method that returns nothing in the background, with the executor's default timeout.
+     *
+     * @param action The call, e.g. {@code s -> s.deleteStudent(id)}.
+     * @return A future completed when the call has finished.
+     */
+    public CompletableFuture<Void> run(ServiceAction<S> action) {
+        return executor.submit(() -> {
+            action.run(service);
+            return null;
+        });
+    }
+
+    /**
+     * Runs a service method that returns nothing in the background.
+     *
+     * @param action The call, e.g. {@code s -> s.deleteStudent(id)}.
+     * @param timeout The time after which the future fails with a
+     *                {@link java.util.concurrent.TimeoutException} and the call is cancelled.
+     * @return A future completed when the call has finished.
+     */
+    public CompletableFuture<Void> run(ServiceAction<S> action, Duration timeout) {
+        return executor.submit(() -> {
+            action.run(service);
+            return null;
+        }, timeout.toMillis());
+    }
+}
@@ -1,25 +1,41 @@
 package com.example.demo.service;
 
+import com.example.demo.AppContext;
 import com.example.demo.dao.AttendanceDAO;
+import com.example.demo.dao.EnrollmentDAO;
+import com.example.demo.dao.ExistenceCheck;
+import com.example.demo.dao.Page;
 import com.example.demo.model.Attendance;
-import com.example.demo.model.Course;
-import com.example.demo.model.Student;
-import com.example.demo.model.Faculty; // Needed if linking attendance to specific faculty
+import com.example.demo.db.TransactionManager;
 import java.sql.SQLException;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Stream;
 
 public class AttendanceService {
     private AttendanceDAO attendanceDAO;
+    private EnrollmentDAO enrollmentDAO;     // To validate whole rosters against enrollments
     private StudentService studentService;   // To verify student existence
     private CourseService courseService;     // To verify course existence
-    private FacultyService facultyService;   // To verify faculty existence (for takenByFacultyId)
 
     public AttendanceService() {
-        this.attendanceDAO = new AttendanceDAO();
-        this.studentService = new StudentService();
-        this.courseService = new CourseService();
-        this.facultyService = new FacultyService();
+        this(AppContext.get().getAttendanceDAO(),
+                AppContext.get().getEnrollmentDAO(),
+                AppContext.get().getStudentService(),
+                AppContext.get().getCourseService());
+    }
+
+    public AttendanceService(AttendanceDAO attendanceDAO, EnrollmentDAO enrollmentDAO,
+                             StudentService studentService, CourseService courseService) {
+        this.attendanceDAO = attendanceDAO;
+        this.enrollmentDAO = enrollmentDAO;
+        this.studentService = studentService;
+        this.courseService = courseService;
     }
 
     /**
@@ -57,35 +73,111 @@ public class AttendanceService {
         String trimmedStatus = status.trim();
 
         // 2. Business Logic Checks
-        // Verify student exists
-        Student student = studentService.getStudentById(studentId);
-        if (student == null) {
-            throw new IllegalArgumentException("Student with ID " + studentId + " does not exist.");
+        // Verify the student, course and faculty (if provided) exist, with one query
+        ExistenceCheck.Reference missing = new ExistenceCheck()
+                .require(ExistenceCheck.Entity.STUDENT, studentId)
+                .require(ExistenceCheck.Entity.COURSE, courseId)
+                .require(ExistenceCheck.Entity.FACULTY, takenByFacultyId)
+                .findFirstMissing();
+        if (missing != null) {
+            throw new IllegalArgumentException(missing + " does not exist.");
         }
 
-        // Verify course exists
-        Course course = courseService.getCourseById(courseId);
-        if (course == null) {
-            throw new IllegalArgumentException("Course with ID " + courseId + " does not exist.");
+        // 3. Create Attendance; the unique key on student, course and date rejects duplicates
+        Attendance newAttendance = new Attendance(studentId, courseId, attendanceDate, trimmedStatus, takenByFacultyId);
+        if (!attendanceDAO.addAttendanceIfAbsent(newAttendance)) {
+            throw new IllegalArgumentException("Attendance for this student in this course on this date has already been marked.");
         }
+        return newAttendance;
+    }
 
-        // Verify faculty exists if ID is provided
-        if (takenByFacultyId != null) {
-            Faculty faculty = facultyService.getFacultyById(takenByFacultyId);
-            if (faculty == null) {
-                throw new IllegalArgumentException("Faculty with ID " + takenByFacultyId + " (who marked attendance) does not exist.");
+    /**
+     * Marks attendance for a whole class in one go.
+     * The roster is validated with one set-based enrollment query and all records are inserted with a
+     * single batch in one transaction, so saving a class costs a handful of round trips instead of
+     * several per student. Attendance already marked is rejected by the unique key on student, course
+     * and date. Either every record is added or none is.
+     *
+     * @param courseId The ID of the course.
+     * @param attendanceDate The date of attendance.
+     * @param takenByFacultyId The ID of the faculty who marked the attendance (can be null).
+     * @param statusByStudentId The attendance status of each student, keyed by student ID.
+     * @return The newly created Attendance objects, ordered by student ID.
+     * @throws IllegalArgumentException If any validation or business rules fail, e.g. a student is not
+     *                                  enrolled in the course or already has attendance for the date.
+     * @throws SQLException If a database access error occurs.
+     */
+    public List<Attendance> markRosterAttendance(int courseId, LocalDate attendanceDate, Integer takenByFacultyId,
+                                                 Map<Integer, String> statusByStudentId)
+            throws IllegalArgumentException, SQLException {
+
+        // 1. Input Validation
+        if (courseId <= 0) {
+            throw new IllegalArgumentException("Course ID must be positive.");
+        }
+        if (attendanceDate == null) {
+            throw new IllegalArgumentException("Attendance Date cannot be null.");
+        }
+        if (attendanceDate.isAfter(LocalDate.now())) {
+            throw new IllegalArgumentException("Attendance Date cannot be in the future.");
+        }
+        if (statusByStudentId == null || statusByStudentId.isEmpty()) {
+            throw new IllegalArgumentException("The roster must contain at least one student.");
+        }
+        Map<Integer, String> roster = new TreeMap<>();
+        for (Map.Entry<Integer, String> entry : statusByStudentId.entrySet()) {
+            Integer studentId = entry.getKey();
+            String status = entry.getValue();
+            if (studentId == null || studentId <= 0) {
+                throw new IllegalArgumentException("Student ID must be positive.");
+            }
+            if (status == null || status.trim().isEmpty() || !isValidAttendanceStatus(status)) {
+                throw new IllegalArgumentException("Invalid attendance status for student " + studentId
+                        + ". Must be 'Present', 'Absent', 'Late', or 'Excused'.");
             }
+            roster.put(studentId, status.trim());
         }
 
-        // Check for duplicate attendance record for this student on this course and date
-        if (attendanceDAO.hasAttendanceBeenMarked(studentId, courseId, attendanceDate)) {
-            throw new IllegalArgumentException("Attendance for this student in this course on this date has already been marked.");
-        }
+        // 2. Business Logic Checks and 3. Create Attendance, on one connection
+        return TransactionManager.inTransaction(conn -> {
+            ExistenceCheck.Reference missing = new ExistenceCheck()
+                    .require(ExistenceCheck.Entity.COURSE, courseId)
+                    .require(ExistenceCheck.Entity.FACULTY, takenByFacultyId)
+                    .findFirstMissing();
+            if (missing != null) {
+                throw new IllegalArgumentException(missing + " does not exist.");
+            }
 
-        // 3. Create Attendance
-        Attendance newAttendance = new Attendance(studentId, courseId, attendanceDate, trimmedStatus, takenByFacultyId);
-        attendanceDAO.addAttendance(newAttendance);
-        return newAttendance;
+            // Enrollment implies the student exists, so one query covers both checks
+            Set<Integer> enrolled = enrollmentDAO.getEnrolledStudentIds(courseId, roster.keySet());
+            List<Integer> notEnrolled = new ArrayList<>();
+            for (Integer studentId : roster.keySet()) {
+                if (!enrolled.contains(studentId)) {
+                    notEnrolled.add(studentId);
+                }
+            }
+            if (!notEnrolled.isEmpty()) {
+                throw new IllegalArgumentException("Students not enrolled in course " + courseId + ": " + notEnrolled);
+            }
+
+            List<Attendance> attendanceList = new ArrayList<>(roster.size());
+            for (Map.Entry<Integer, String> entry : roster.entrySet()) {
+                attendanceList.add(new Attendance(entry.getKey(), courseId, attendanceDate, entry.getValue(), takenByFacultyId));
+            }
+            try {
+                attendanceDAO.addAttendanceBatch(attendanceList);
+            } catch (SQLException e) {
+                // The unique key on student, course and date rejected the batch; only now look up
+                // which students were already marked, so the common case needs no extra query
+                Set<Integer> marked = attendanceDAO.getMarkedStudentIds(courseId, attendanceDate, roster.keySet());
+                if (marked.isEmpty()) {
+                    throw e;
+                }
+                throw new IllegalArgumentException("Attendance in this course on this date has already been marked for students: "
+                        + new TreeSet<>(marked));
+            }
+            return attendanceList;
+        });
     }
 
     /**
@@ -157,6 +249,38 @@ public class AttendanceService {
         return attendanceDAO.getAllAttendance();
     }
 
+    /**
+     * Retrieves one page of attendance records, in ID order, for walking the whole table in constant memory.
+     *
+     * @param pageToken The next page token of the previous page, or null for the first page.
+     * @param pageSize The maximum number of rows to return (1 to {@link Page#MAX_PAGE_SIZE}).
+     * @return The page of Attendance objects.
+     * @throws IllegalArgumentException If the page token or page size is invalid.
+     * @throws SQLException If a database error occurs.
+     */
+    public Page<Attendance> getAttendancePage(String pageToken, int pageSize) throws SQLException {
+        return attendanceDAO.getAttendancePage(pageToken, pageSize);
+    }
+
+    /**
+     * Streams all attendance records in ID order for exports and batch jobs; see {@link AttendanceDAO#streamAllAttendance()}.
+     * The stream must be closed.
+     *
+     * @return A lazily populated stream of Attendance objects.
+     * @throws SQLException If the query cannot be started.
+     */
+    public Stream<Attendance> streamAllAttendance() throws SQLException {
+        return attendanceDAO.streamAllAttendance();
+    }
+
+    /**
+     * @return The number of attendance records.
+     * @throws SQLException If a database error occurs.
+     */
+    public long countAttendance() throws SQLException {
+        return attendanceDAO.countAttendance();
+    }
+
     /**
      * Updates an existing attendance record.
      *
@@ -184,14 +308,13 @@ public class AttendanceService {
         attendance.setStatus(attendance.getStatus().trim());
 
         // Verify associated student, course, and faculty (if applicable) still exist
-        if (studentService.getStudentById(attendance.getStudentId()) == null) {
-            throw new IllegalArgumentException("Associated student does not exist.");
-        }
-        if (courseService.getCourseById(attendance.getCourseId()) == null) {
-            throw new IllegalArgumentException("Associated course does not exist.");
-        }
-        if (attendance.getTakenByFacultyId() != null && facultyService.getFacultyById(attendance.getTakenByFacultyId()) == null) {
-            throw new IllegalArgumentException("Associated faculty (who marked attendance) does not exist.");
+        ExistenceCheck.Reference missing = new ExistenceCheck()
+                .require(ExistenceCheck.Entity.STUDENT, attendance.getStudentId())
+                .require(ExistenceCheck.Entity.COURSE, attendance.getCourseId())
+                .require(ExistenceCheck.Entity.FACULTY, attendance.getTakenByFacultyId())
+                .findFirstMissing();
+        if (missing != null) {
+            throw new IllegalArgumentException(missing + " does not exist.");
         }
 
         attendanceDAO.updateAttendance(attendance);
@@ -1,6 +1,8 @@
 package com.example.demo.service;
 
+import com.example.demo.AppContext;
 import com.example.demo.dao.BookDAO;
+import com.example.demo.dao.Page;
 import com.example.demo.model.Book;
 import java.sql.SQLException;
 import java.time.LocalDateTime;
@@ -10,7 +12,11 @@ public class BookService {
     private BookDAO bookDAO;
 
     public BookService() {
-        this.bookDAO = new BookDAO();
+        this(AppContext.get().getBookDAO());
+    }
+
+    public BookService(BookDAO bookDAO) {
+        this.bookDAO = bookDAO;
     }
 
     /**
@@ -127,6 +133,19 @@ public class BookService {
         return bookDAO.searchBooks(null); // Pass null to get all books
     }
 
+    /**
+     * Retrieves one page of books, in ID order, for walking the whole table in constant memory.
+     *
+     * @param pageToken The next page token of the previous page, or null for the first page.
+     * @param pageSize The maximum number of rows to return (1 to {@link Page#MAX_PAGE_SIZE}).
+     * @return The page of Book objects.
+     * @throws IllegalArgumentException If the page token or page size is invalid.
+     * @throws SQLException If a database error occurs.
+     */
+    public Page<Book> getBookPage(String pageToken, int pageSize) throws SQLException {
+        return bookDAO.getBookPage(pageToken, pageSize);
+    }
+
     /**
      * Updates an existing book's information.
      * Note: This method does NOT update 'available_copies' directly. That is managed by borrowing/return.
@@ -1,6 +1,9 @@
 package com.example.demo.service;
 
+import com.example.demo.AppContext;
 import com.example.demo.dao.BorrowingDAO;
+import com.example.demo.dao.Page;
+import com.example.demo.db.TransactionManager;
 import com.example.demo.model.Book;
 import com.example.demo.model.Borrowing;
 import com.example.demo.model.Student;
@@ -8,6 +11,7 @@ import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.stream.Stream;
 
 public class BorrowingService {
     private BorrowingDAO borrowingDAO;
@@ -15,9 +19,15 @@ public class BorrowingService {
     private StudentService studentService; // To verify student existence
 
     public BorrowingService() {
-        this.borrowingDAO = new BorrowingDAO();
-        this.bookService = new BookService();
-        this.studentService = new StudentService();
+        this(AppContext.get().getBorrowingDAO(),
+                AppContext.get().getBookService(),
+                AppContext.get().getStudentService());
+    }
+
+    public BorrowingService(BorrowingDAO borrowingDAO, BookService bookService, StudentService studentService) {
+        this.borrowingDAO = borrowingDAO;
+        this.bookService = bookService;
+        this.studentService = studentService;
     }
 
     /**
@@ -50,33 +60,35 @@ public class BorrowingService {
         }
 
         // 2. Business Logic Checks
-        // Verify book exists and is available
-        Book book = bookService.getBookById(bookId);
-        if (book == null) {
-            throw new IllegalArgumentException("Book with ID " + bookId + " does not exist.");
-        }
-        if (book.getAvailableCopies() <= 0) {
-            throw new IllegalArgumentException("Book '" + book.getTitle() + "' is currently not available for borrowing.");
-        }
-
-        // Verify student exists
-        Student student = studentService.getStudentById(studentId);
-        if (student == null) {
-            throw new IllegalArgumentException("Student with ID " + studentId + " does not exist.");
-        }
-
-        // Optional: Check if student has too many books borrowed already (business rule)
-        // List<Borrowing> studentCurrentBorrowings = borrowingDAO.getActiveBorrowingsByStudentId(studentId);
-        // if (studentCurrentBorrowings.size() >= MAX_BORROWED_BOOKS) { // Define MAX_BORROWED_BOOKS constant
-        //     throw new IllegalArgumentException("Student has reached the maximum number of borrowed books.");
-        // }
-
-        // Create the borrowing object (initial fine is 0, returnDate is null)
-        Borrowing newBorrowing = new Borrowing(bookId, studentId, borrowDate, returnDueDate);
-
-        // Call DAO, which handles the transaction (add borrowing + update book copies)
-        borrowingDAO.addBorrowing(newBorrowing, book.getAvailableCopies());
-        return newBorrowing;
+        // The lookups and the borrowing share one connection and commit or roll back together
+        return TransactionManager.inTransaction(conn -> {
+            // Verify book exists; whether a copy is available is decided by the DAO's conditional update
+            Book book = bookService.getBookById(bookId);
+            if (book == null) {
+                throw new IllegalArgumentException("Book with ID " + bookId + " does not exist.");
+            }
+
+            // Verify student exists
+            Student student = studentService.getStudentById(studentId);
+            if (student == null) {
+                throw new IllegalArgumentException("Student with ID " + studentId + " does not exist.");
+            }
+
+            // Optional: Check if student has too many books borrowed already (business rule)
+            // List<Borrowing> studentCurrentBorrowings = borrowingDAO.getActiveBorrowingsByStudentId(studentId);
+            // if (studentCurrentBorrowings.size() >= MAX_BORROWED_BOOKS) { // Define MAX_BORROWED_BOOKS constant
+            //     throw new IllegalArgumentException("Student has reached the maximum number of borrowed books.");
+            // }
+
+            // Create the borrowing object (initial fine is 0, returnDate is null)
+            Borrowing newBorrowing = new Borrowing(bookId, studentId, borrowDate, returnDueDate);
+
+            // Call DAO; its transaction joins this one (take a copy + add borrowing)
+            if (!borrowingDAO.addBorrowing(newBorrowing)) {
+                throw new IllegalArgumentException("Book '" + book.getTitle() + "' is currently not available for borrowing.");
+            }
+            return newBorrowing;
+        });
     }
 
     /**
@@ -100,36 +112,35 @@ public class BorrowingService {
             throw new IllegalArgumentException("Return Date cannot be in the future.");
         }
 
-        // 2. Business Logic Checks
-        Borrowing existingBorrowing = borrowingDAO.getBorrowingById(borrowingId);
-        if (existingBorrowing == null) {
-            throw new IllegalArgumentException("Borrowing record with ID " + borrowingId + " not found.");
-        }
-        if (existingBorrowing.getReturnDate() != null) {
-            throw new IllegalArgumentException("Book for borrowing ID " + borrowingId + " has already been returned.");
-        }
-
-        // Calculate fine if overdue
-        double fine = 0.0;
-        if (returnDate.isAfter(existingBorrowing.getReturnDueDate())) {
-            long daysOverdue = ChronoUnit.DAYS.between(existingBorrowing.getReturnDueDate(), returnDate);
-            // Example: 5 rupees per day fine
-            fine = daysOverdue * 5.0; // Define FINE_PER_DAY_RUPEES constant
-        }
-
-        // Update the borrowing object with return details
-        existingBorrowing.setReturnDate(returnDate);
-        existingBorrowing.setFineAmount(fine);
-
-        // Get current book state to update available copies
-        Book book = bookService.getBookById(existingBorrowing.getBookId());
-        if (book == null) {
-            throw new SQLException("Associated book not found for borrowing ID " + borrowingId);
-        }
-
-        // Call DAO, which handles the transaction (update borrowing + update book copies)
-        borrowingDAO.returnBook(existingBorrowing, book.getAvailableCopies());
-        return existingBorrowing;
+        // 2. Business Logic Checks and the return, in one transaction
+        return TransactionManager.inTransaction(conn -> {
+            Borrowing existingBorrowing = borrowingDAO.getBorrowingById(borrowingId);
+            if (existingBorrowing == null) {
+                throw new IllegalArgumentException("Borrowing record with ID " + borrowingId + " not found.");
+            }
+            if (existingBorrowing.getReturnDate() != null) {
+                throw new IllegalArgumentException("Book for borrowing ID " + borrowingId + " has already been returned.");
+            }
+
+            // Calculate fine if overdue
+            double fine = 0.0;
+            if (returnDate.isAfter(existingBorrowing.getReturnDueDate())) {
+                long daysOverdue = ChronoUnit.DAYS.between(existingBorrowing.getReturnDueDate(), returnDate);
+                // Example: 5 rupees per day fine
+                fine = daysOverdue * 5.0; // Define FINE_PER_DAY_RUPEES constant
+            }
+
+            // Update the borrowing object with return details
+            existingBorrowing.setReturnDate(returnDate);
+            existingBorrowing.setFineAmount(fine);
+
+            // Call DAO; its transaction joins this one (update borrowing + update book copies).
+            // It only updates a borrowing that is still open, so a concurrent second return is rejected here.
+            if (!borrowingDAO.returnBook(existingBorrowing)) {
+                throw new IllegalArgumentException("Book for borrowing ID " + borrowingId + " has already been returned.");
+            }
+            return existingBorrowing;
+        });
     }
 
     /**
@@ -197,6 +208,30 @@ public class BorrowingService {
         return borrowingDAO.getAllBorrowings();
     }
 
+    /**
+     * Retrieves one page of borrowing records, in ID order, for walking the whole table in constant memory.
+     *
+     * @param pageToken The next page token of the previous page, or null for the first page.
+     * @param pageSize The maximum number of rows to return (1 to {@link Page#MAX_PAGE_SIZE}).
+     * @return The page of Borrowing objects.
+     * @throws IllegalArgumentException If the page token or page size is invalid.
+     * @throws SQLException If a database error occurs.
+     */
+    public Page<Borrowing> getBorrowingPage(String pageToken, int pageSize) throws SQLException {
+        return borrowingDAO.getBorrowingPage(pageToken, pageSize);
+    }
+
+    /**
+     * Streams all borrowing records in ID order for exports and batch jobs; see {@link BorrowingDAO#streamAllBorrowings()}.
+     * The stream must be closed.
+     *
+     * @return A lazily populated stream of Borrowing objects.
+     * @throws SQLException If the query cannot be started.
+     */
+    public Stream<Borrowing> streamAllBorrowings() throws SQLException {
+        return borrowingDAO.streamAllBorrowings();
+    }
+
     /**
      * Deletes a borrowing record from the system.
      * This method should be used cautiously, typically only for correcting erroneous entries,
@@ -1,18 +1,23 @@
 package com.example.demo.service;
 
+import com.example.demo.AppContext;
 import com.example.demo.dao.CourseDAO;
+import com.example.demo.dao.Page;
 import com.example.demo.model.Course;
 import com.example.demo.model.Program;
 import java.sql.SQLException;
 import java.util.List;
+import java.util.stream.Stream;
 
 public class CourseService {
     private CourseDAO courseDAO;
-    private ProgramService programService; // To verify program existence
 
     public CourseService() {
-        this.courseDAO = new CourseDAO();
-        this.programService = new ProgramService();
+        this(AppContext.get().getCourseDAO());
+    }
+
+    public CourseService(CourseDAO courseDAO) {
+        this.courseDAO = courseDAO;
     }
 
     /**
@@ -61,8 +66,8 @@ public class CourseService {
         String trimmedDepartment = department.trim();
 
         // 2. Business Logic Checks
-        // Verify program exists
-        Program program = programService.getProgramById(programId);
+        // Verify program exists (against the reference data snapshot)
+        Program program = ReferenceData.findProgram(programId);
         if (program == null) {
             throw new IllegalArgumentException("Selected program does not exist.");
         }
@@ -91,11 +96,12 @@ public class CourseService {
         );
 
         courseDAO.addCourse(newCourse);
+        ReferenceData.invalidate();
         return newCourse;
     }
 
     /**
-     * Retrieves a course by its ID.
+     * Retrieves a course by its ID, from the shared entity cache if it was looked up recently.
      *
      * @param courseId The ID of the course.
      * @return The Course object, or null if not found.
@@ -106,7 +112,7 @@ public class CourseService {
         if (courseId <= 0) {
             throw new IllegalArgumentException("Course ID must be positive.");
         }
-        return courseDAO.getCourseById(courseId);
+        return EntityCaches.COURSES.get(courseId, courseDAO::getCourseById);
     }
 
     /**
@@ -138,6 +144,38 @@ public class CourseService {
         return courseDAO.getAllCourses();
     }
 
+    /**
+     * Retrieves one page of courses, in ID order, for walking the whole table in constant memory.
+     *
+     * @param pageToken The next page token of the previous page, or null for the first page.
+     * @param pageSize The maximum number of rows to return (1 to {@link Page#MAX_PAGE_SIZE}).
+     * @return The page of Course objects.
+     * @throws IllegalArgumentException If the page token or page size is invalid.
+     * @throws SQLException If a database error occurs.
+     */
+    public Page<Course> getCoursePage(String pageToken, int pageSize) throws SQLException {
+        return courseDAO.getCoursePage(pageToken, pageSize);
+    }
+
+    /**
+     * Streams all courses in ID order for exports and batch jobs; see {@link CourseDAO#streamAllCourses()}.
+     * The stream must be closed.
+     *
+     * @return A lazily populated stream of Course objects.
+     * @throws SQLException If the query cannot be started.
+     */
+    public Stream<Course> streamAllCourses() throws SQLException {
+        return courseDAO.streamAllCourses();
+    }
+
+    /**
+     * @return The number of courses.
+     * @throws SQLException If a database error occurs.
+     */
+    public long countCourses() throws SQLException {
+        return courseDAO.countCourses();
+    }
+
     /**
      * Updates an existing course's information.
      *
@@ -185,13 +223,15 @@ public class CourseService {
             }
         }
 
-        // Verify program exists
-        Program program = programService.getProgramById(course.getProgramId());
+        // Verify program exists (against the reference data snapshot)
+        Program program = ReferenceData.findProgram(course.getProgramId());
         if (program == null) {
             throw new IllegalArgumentException("Selected program does not exist.");
         }
 
         courseDAO.updateCourse(course);
+        EntityCaches.COURSES.invalidate(course.getCourseId());
+        ReferenceData.invalidate();
     }
 
     /**
@@ -208,5 +248,7 @@ public class CourseService {
         // Business rule: Consider if courses with existing enrollments, assignments, or routines should be deleted.
         // Currently, MySQL's ON DELETE CASCADE will handle child records in Enrollments, Assignments, Routines.
         courseDAO.deleteCourse(courseId);
+        EntityCaches.COURSES.invalidate(courseId);
+        ReferenceData.invalidate();
     }
 }
@@ -1,12 +1,19 @@
 package com.example.demo.service;
 
+import com.example.demo.AppContext;
 import com.example.demo.dao.EnrollmentDAO;
+import com.example.demo.dao.ExistenceCheck;
+import com.example.demo.dao.Page;
 import com.example.demo.model.Course;
 import com.example.demo.model.Enrollment;
-import com.example.demo.model.Student;
+import com.example.demo.db.TransactionManager;
 import java.sql.SQLException;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
 
 public class EnrollmentService {
     private EnrollmentDAO enrollmentDAO;
@@ -14,9 +21,16 @@ public class EnrollmentService {
     private CourseService courseService;   // To verify course existence
 
     public EnrollmentService() {
-        this.enrollmentDAO = new EnrollmentDAO();
-        this.studentService = new StudentService();
-        this.courseService = new CourseService();
+        this(AppContext.get().getEnrollmentDAO(),
+                AppContext.get().getStudentService(),
+                AppContext.get().getCourseService());
+    }
+
+    public EnrollmentService(EnrollmentDAO enrollmentDAO, StudentService studentService,
+                             CourseService courseService) {
+        this.enrollmentDAO = enrollmentDAO;
+        this.studentService = studentService;
+        this.courseService = courseService;
     }
 
     /**
@@ -48,27 +62,114 @@ public class EnrollmentService {
         // Grade validation (optional, depends on accepted formats/values)
 
         // 2. Business Logic Checks
-        // Verify student exists
-        Student student = studentService.getStudentById(studentId);
-        if (student == null) {
-            throw new IllegalArgumentException("Student with ID " + studentId + " does not exist.");
+        // Verify the student and course exist, with one query
+        ExistenceCheck.Reference missing = new ExistenceCheck()
+                .require(ExistenceCheck.Entity.STUDENT, studentId)
+                .require(ExistenceCheck.Entity.COURSE, courseId)
+                .findFirstMissing();
+        if (missing != null) {
+            throw new IllegalArgumentException(missing + " does not exist.");
         }
 
-        // Verify course exists
-        Course course = courseService.getCourseById(courseId);
-        if (course == null) {
-            throw new IllegalArgumentException("Course with ID " + courseId + " does not exist.");
+        // 3. Create Enrollment; the unique key on student and course rejects a second enrollment
+        Enrollment newEnrollment = new Enrollment(studentId, courseId, enrollmentDate, grade);
+        if (!enrollmentDAO.addEnrollmentIfAbsent(newEnrollment)) {
+            throw new IllegalArgumentException("Student is already enrolled in this course.");
         }
+        return newEnrollment;
+    }
 
-        // Check if student is already enrolled in this course
-        if (enrollmentDAO.isStudentEnrolledInCourse(studentId, courseId)) {
-            throw new IllegalArgumentException("Student is already enrolled in this course.");
+    /**
+     * The outcome of {@link #enrollCohort}.
+     */
+    public static final class CohortEnrollment {
+        private final int studentCount;
+        private final int courseCount;
+        private final int enrolledCount;
+
+        CohortEnrollment(int studentCount, int courseCount, int enrolledCount) {
+            this.studentCount = studentCount;
+            this.courseCount = courseCount;
+            this.enrolledCount = enrolledCount;
         }
 
-        // 3. Create Enrollment
-        Enrollment newEnrollment = new Enrollment(studentId, courseId, enrollmentDate, grade);
-        enrollmentDAO.addEnrollment(newEnrollment);
-        return newEnrollment;
+        /** @return The number of students that matched the filter. */
+        public int getStudentCount() { return studentCount; }
+
+        /** @return The number of courses of the program semester. */
+        public int getCourseCount() { return courseCount; }
+
+        /** @return The number of enrollments added. */
+        public int getEnrolledCount() { return enrolledCount; }
+
+        /** @return The number of student/course pairs skipped because the student was already enrolled. */
+        public int getSkippedCount() { return studentCount * courseCount - enrolledCount; }
+
+        @Override
+        public String toString() {
+            return "Enrolled " + enrolledCount + " of " + studentCount + " students x " + courseCount
+                    + " courses (" + getSkippedCount() + " already enrolled)";
+        }
+    }
+
+    /**
+     * Enrolls a program cohort in every course of a semester, e.g. at the start of term.
+     * Students are paired with the courses of {@link CourseService#getCoursesByProgramAndSemester}
+     * by set-based SQL rather than one {@link #enrollStudentInCourse} call per pair, so thousands of
+     * enrollments take a few statements. Students already enrolled in a course are skipped for that
+     * course. Runs in one transaction: either the whole cohort is enrolled or nothing is.
+     *
+     * @param programId The ID of the program whose students are enrolled.
+     * @param semesterNumber The semester whose courses they are enrolled in.
+     * @param admittedFrom Only students admitted on or after this date (can be null).
+     * @param admittedTo Only students admitted on or before this date (can be null).
+     * @param studentIds Only these students of the program (null for all of them).
+     * @param enrollmentDate The date of enrollment.
+     * @return The number of students, courses and enrollments added.
+     * @throws IllegalArgumentException If validation fails or the semester has no courses.
+     * @throws SQLException If a database access error occurs.
+     */
+    public CohortEnrollment enrollCohort(int programId, int semesterNumber, LocalDate admittedFrom, LocalDate admittedTo,
+                                         Collection<Integer> studentIds, LocalDate enrollmentDate)
+            throws IllegalArgumentException, SQLException {
+
+        // 1. Input Validation
+        if (programId <= 0) {
+            throw new IllegalArgumentException("Program ID must be positive.");
+        }
+        if (semesterNumber <= 0 || semesterNumber > 8) { // Assuming up to 8 semesters
+            throw new IllegalArgumentException("Semester number must be between 1 and 8.");
+        }
+        if (admittedFrom != null && admittedTo != null && admittedFrom.isAfter(admittedTo)) {
+            throw new IllegalArgumentException("Admission date range is empty: " + admittedFrom + " is after " + admittedTo + ".");
+        }
+        if (enrollmentDate == null || enrollmentDate.isAfter(LocalDate.now())) {
+            throw new IllegalArgumentException("Enrollment Date cannot be in the future.");
+        }
+        Set<Integer> cohort = studentIds != null ? new TreeSet<>() : null;
+        if (studentIds != null) {
+            for (Integer studentId : studentIds) {
+                if (studentId == null || studentId <= 0) {
+                    throw new IllegalArgumentException("Student ID must be positive.");
+                }
+                cohort.add(studentId);
+            }
+        }
+
+        // 2. Business Logic Checks and 3. Create Enrollments, on one connection
+        return TransactionManager.inTransaction(conn -> {
+            List<Course> courses = courseService.getCoursesByProgramAndSemester(programId, semesterNumber);
+            if (courses.isEmpty()) {
+                throw new IllegalArgumentException("Program " + programId + " has no courses in semester " + semesterNumber + ".");
+            }
+            List<Integer> courseIds = new ArrayList<>(courses.size());
+            for (Course course : courses) {
+                courseIds.add(course.getCourseId());
+            }
+            int studentCount = enrollmentDAO.countCohortStudents(programId, admittedFrom, admittedTo, cohort);
+            int enrolled = enrollmentDAO.enrollCohort(programId, courseIds, admittedFrom, admittedTo, cohort, enrollmentDate);
+            return new CohortEnrollment(studentCount, courseIds.size(), enrolled);
+        });
     }
 
     /**
@@ -134,6 +235,19 @@ public class EnrollmentService {
         return enrollmentDAO.getAllEnrollments();
     }
 
+    /**
+     * Retrieves one page of enrollment records, in ID order, for walking the whole table in constant memory.
+     *
+     * @param pageToken The next page token of the previous page, or null for the first page.
+     * @param pageSize The maximum number of rows to return (1 to {@link Page#MAX_PAGE_SIZE}).
+     * @return The page of Enrollment objects.
+     * @throws IllegalArgumentException If the page token or page size is invalid.
+     * @throws SQLException If a database error occurs.
+     */
+    public Page<Enrollment> getEnrollmentPage(String pageToken, int pageSize) throws SQLException {
+        return enrollmentDAO.getEnrollmentPage(pageToken, pageSize);
+    }
+
     /**
      * Updates an existing enrollment record's grade or enrollment date.
      *
@@ -156,11 +270,12 @@ public class EnrollmentService {
         }
 
         // Verify student and course still exist (important if IDs are changed or records deleted externally)
-        if (studentService.getStudentById(enrollment.getStudentId()) == null) {
-            throw new IllegalArgumentException("Student with ID " + enrollment.getStudentId() + " does not exist.");
-        }
-        if (courseService.getCourseById(enrollment.getCourseId()) == null) {
-            throw new IllegalArgumentException("Course with ID " + enrollment.getCourseId() + " does not exist.");
+        ExistenceCheck.Reference missing = new ExistenceCheck()
+                .require(ExistenceCheck.Entity.STUDENT, enrollment.getStudentId())
+                .require(ExistenceCheck.Entity.COURSE, enrollment.getCourseId())
+                .findFirstMissing();
+        if (missing != null) {
+            throw new IllegalArgumentException(missing + " does not exist.");
         }
 
         enrollmentDAO.updateEnrollment(enrollment);
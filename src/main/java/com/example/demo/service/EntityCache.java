@@ -0,0 +1,276 @@
+package com.example.demo.service;
+
+import com.example.demo.db.TransactionManager;
+
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToLongFunction;
+import java.util.function.UnaryOperator;
+
+/**
+ * A size-bounded, least-recently-used cache of entities by ID, with a time to live. The services put
+ * it in front of their {@code get...ById} DAO calls, which other services use to look up the student,
+ * course or faculty member a screen or a write refers to.
+ * <p>
+ * The cache is bounded by an estimated memory budget rather than an entry count: each entry is weighed
+ * when it is stored, and the least recently used entries are evicted while the total exceeds the budget.
+ * Entries older than the time to live are reloaded, which bounds how long changes made by other clients
+ * go unnoticed.
+ * <p>
+ * Entities are mutable, so the cache stores and hands out copies. The owning service calls
+ * {@link #invalidate(int)} after updating or deleting a row, both immediately and again when the
+ * surrounding transaction completes (see {@link TransactionManager#afterCompletion}). Rows read inside a
+ * transaction and rows read while an invalidation happened are returned but not stored, so uncommitted
+ * or outdated data never enters the cache. Missing rows are not cached, so new rows are found at once.
+ *
+ * @param <V> The entity type.
+ */
+public final class EntityCache<V> {
+
+    /** Loads an entity from the database; returns null if it does not exist. */
+    @FunctionalInterface
+    public interface Loader<V> {
+        V load(int id) throws SQLException;
+    }
+
+    private final String name;
+    private final long maxBytes;
+    private final long ttlNanos;
+    private final ToLongFunction<? super V> weigher;
+    private final UnaryOperator<V> copier;
+
+    private final LinkedHashMap<Integer, Entry<V>> entries = new LinkedHashMap<>(64, 0.75f, true); // Access order; guarded by this
+    private long bytes; // guarded by this
+    private long version; // Incremented by every invalidation; guarded by this
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    /**
+     * @param name The name shown in statistics, e.g. {@code "Student"}.
+     * @param maxBytes The memory budget in estimated bytes; 0 or less disables the cache.
+     * @param ttlMillis How long an entry may be served, in milliseconds; 0 or less means until evicted.
+     * @param weigher Estimates the memory taken by an entity, in bytes.
+     * @param copier Copies an entity, so callers cannot modify the cached instance.
+     */
+    public EntityCache(String name, long maxBytes, long ttlMillis, ToLongFunction<? super V> weigher, UnaryOperator<V> copier) {
+        this.name = name;
+        this.maxBytes = maxBytes;
+        this.ttlNanos = ttlMillis > 0 ? ttlMillis * 1_000_000L : Long.MAX_VALUE;
+        this.weigher = weigher;
+        this.copier = copier;
+    }
+
+    /**
+     * Returns a copy of the cached entity, or loads it and caches it.
+     *
+     * @param id The entity ID.
+     * @param loader Reads the entity from the database on a miss.
+     * @return A copy of the entity, or null if it does not exist.
+     * @throws SQLException If the loader fails.
+     */
+    public V get(int id, Loader<V> loader) throws SQLException {
+        if (maxBytes <= 0) {
+            return loader.load(id);
+        }
+        long loadingVersion;
+        synchronized (this) {
+            Entry<V> entry = entries.get(id);
+            if (entry != null) {
+                if (System.nanoTime() - entry.loadedAt < ttlNanos) {
+                    hits.incrementAndGet();
+                    return copier.apply(entry.value);
+                }
+                remove(id);
+                expirations.incrementAndGet();
+            }
+            loadingVersion = version;
+        }
+        misses.incrementAndGet();
+        V value = loader.load(id); // Not under the lock: other IDs stay available while the database is read
+        if (value != null && !TransactionManager.isActive()) {
+            put(id, copier.apply(value), loadingVersion);
+        }
+        return value;
+    }
+
+    /**
+     * Drops the entity after its row was updated or deleted, now and again when the current
+     * transaction (if any) completes.
+     *
+     * @param id The entity ID.
+     */
+    public void invalidate(int id) {
+        drop(id);
+        TransactionManager.afterCompletion(() -> drop(id));
+    }
+
+    /**
+     * Drops all entities, e.g. after a cascading delete that removed rows of unknown IDs; now and again
+     * when the current transaction (if any) completes.
+     */
+    public void invalidateAll() {
+        clear();
+        TransactionManager.afterCompletion(this::clear);
+    }
+
+    private synchronized void put(int id, V value, long loadingVersion) {
+        if (version != loadingVersion) {
+            return; // The row may have changed while it was loading
+        }
+        long weight = weigher.applyAsLong(value);
+        if (weight > maxBytes) {
+            return;
+        }
+        remove(id);
+        entries.put(id, new Entry<>(value, weight, System.nanoTime()));
+        bytes += weight;
+        Iterator<Entry<V>> eldest = entries.values().iterator();
+        while (bytes > maxBytes && eldest.hasNext()) {
+            bytes -= eldest.next().weight;
+            eldest.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    private synchronized void drop(int id) {
+        version++;
+        remove(id);
+        invalidations.incrementAndGet();
+    }
+
+    private synchronized void clear() {
+        version++;
+        entries.clear();
+        bytes = 0;
+        invalidations.incrementAndGet();
+    }
+
+    private void remove(int id) {
+        Entry<V> removed = entries.remove(id);
+        if (removed != null) {
+            bytes -= removed.weight;
+        }
+    }
+
+    /** @return The name shown in statistics. */
+    public String getName() {
+        return name;
+    }
+
+    /** @return False if the configured memory budget is 0 and every lookup goes to the database. */
+    public boolean isEnabled() {
+        return maxBytes > 0;
+    }
+
+    /**
+     * @return The current statistics.
+     */
+    public synchronized Stats stats() {
+        return new Stats(name, entries.size(), bytes, maxBytes, hits.get(), misses.get(),
+                evictions.get(), expirations.get(), invalidations.get());
+    }
+
+    /**
+     * Resets the hit, miss, eviction, expiration and invalidation counters; cached entries are kept.
+     */
+    public void resetStats() {
+        hits.set(0);
+        misses.set(0);
+        evictions.set(0);
+        expirations.set(0);
+        invalidations.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return stats().toString();
+    }
+
+    /**
+     * Estimates the memory taken by strings: object and array headers plus two bytes per character.
+     * Weighers add it to a fixed size for the entity's other fields.
+     *
+     * @param values The strings; null values take no memory.
+     * @return The estimate in bytes.
+     */
+    public static long stringBytes(String... values) {
+        long total = 0;
+        for (String value : values) {
+            if (value != null) {
+                total += 40 + 2L * value.length();
+            }
+        }
+        return total;
+    }
+
+    private static final class Entry<V> {
+        final V value;
+        final long weight;
+        final long loadedAt;
+
+        Entry(V value, long weight, long loadedAt) {
+            this.value = value;
+            this.weight = weight;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    /**
+     * A point-in-time copy of a cache's statistics.
+     */
+    public static final class Stats {
+        private final String name;
+        private final int entries;
+        private final long bytes;
+        private final long maxBytes;
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final long expirations;
+        private final long invalidations;
+
+        Stats(String name, int entries, long bytes, long maxBytes, long hits, long misses,
+              long evictions, long expirations, long invalidations) {
+            this.name = name;
+            this.entries = entries;
+            this.bytes = bytes;
+            this.maxBytes = maxBytes;
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.expirations = expirations;
+            this.invalidations = invalidations;
+        }
+
+        public String getName() { return name; }
+        public int getEntries() { return entries; }
+        public long getBytes() { return bytes; }
+        public long getMaxBytes() { return maxBytes; }
+        public long getHits() { return hits; }
+        public long getMisses() { return misses; }
+        public long getEvictions() { return evictions; }
+        public long getExpirations() { return expirations; }
+        public long getInvalidations() { return invalidations; }
+
+        /** @return Hits as a fraction of all lookups, or 0 if there were none. */
+        public double getHitRate() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0 : (double) hits / lookups;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s cache: %d entries, %d/%d bytes, %d hits, %d misses (%.1f%% hit rate), "
+                            + "%d evictions, %d expirations, %d invalidations",
+                    name, entries, bytes, maxBytes, hits, misses, getHitRate() * 100,
+                    evictions, expirations, invalidations);
+        }
+    }
+}
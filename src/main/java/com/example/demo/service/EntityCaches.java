@@ -0,0 +1,77 @@
+package com.example.demo.service;
+
+import com.example.demo.db.DBConfig;
+import com.example.demo.model.Course;
+import com.example.demo.model.Faculty;
+import com.example.demo.model.Student;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The entity caches shared by all service instances, configured from {@link DBConfig}:
+ * {@code db.cache.entity.maxBytes} is the memory budget of each cache (0 disables caching) and
+ * {@code db.cache.entity.ttlMillis} how long an entry is served before it is reloaded.
+ */
+public final class EntityCaches {
+
+    // Object header, references and primitives; strings are added per entity
+    private static final long STUDENT_BASE_BYTES = 160;
+    private static final long COURSE_BASE_BYTES = 96;
+    private static final long FACULTY_BASE_BYTES = 96;
+
+    private static final DBConfig CONFIG = DBConfig.load();
+    private static final long MAX_BYTES = CONFIG.getLong("db.cache.entity.maxBytes", 4L * 1024 * 1024);
+    private static final long TTL_MILLIS = CONFIG.getLong("db.cache.entity.ttlMillis", 60_000);
+
+    static final EntityCache<Student> STUDENTS = new EntityCache<>("Student", MAX_BYTES, TTL_MILLIS,
+            s -> STUDENT_BASE_BYTES + EntityCache.stringBytes(s.getFirstName(), s.getLastName(), s.getGender(),
+                    s.getEmail(), s.getPhoneNumber(), s.getAddress(), s.getMajor()),
+            s -> new Student(s.getStudentId(), s.getUserId(), s.getProgramId(), s.getFirstName(), s.getLastName(),
+                    s.getDateOfBirth(), s.getGender(), s.getEmail(), s.getPhoneNumber(), s.getAddress(),
+                    s.getEnrollmentDate(), s.getMajor()));
+
+    static final EntityCache<Course> COURSES = new EntityCache<>("Course", MAX_BYTES, TTL_MILLIS,
+            c -> COURSE_BASE_BYTES + EntityCache.stringBytes(c.getCourseCode(), c.getCourseName(),
+                    c.getDescription(), c.getDepartment()),
+            c -> new Course(c.getCourseId(), c.getProgramId(), c.getSemesterNumber(), c.getCourseCode(),
+                    c.getCourseName(), c.getCredits(), c.getDescription(), c.getDepartment()));
+
+    static final EntityCache<Faculty> FACULTY = new EntityCache<>("Faculty", MAX_BYTES, TTL_MILLIS,
+            f -> FACULTY_BASE_BYTES + EntityCache.stringBytes(f.getFirstName(), f.getLastName(), f.getEmail(),
+                    f.getPhoneNumber(), f.getDepartment()),
+            f -> new Faculty(f.getFacultyId(), f.getUserId(), f.getFirstName(), f.getLastName(), f.getEmail(),
+                    f.getPhoneNumber(), f.getDepartment()));
+
+    private EntityCaches() {
+    }
+
+    /**
+     * @return All entity caches, e.g. to print their statistics.
+     */
+    public static List<EntityCache<?>> all() {
+        return Arrays.asList(STUDENTS, COURSES, FACULTY);
+    }
+
+    /**
+     * Formats the statistics of all entity caches, one line per cache.
+     *
+     * @return The report.
+     */
+    public static String report() {
+        StringBuilder sb = new StringBuilder();
+        for (EntityCache<?> cache : all()) {
+            sb.append(cache.stats()).append(System.lineSeparator());
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Empties all entity caches, e.g. after rows were changed outside the services.
+     */
+    public static void invalidateAll() {
+        for (EntityCache<?> cache : all()) {
+            cache.invalidateAll();
+        }
+    }
+}
@@ -1,11 +1,14 @@
 package com.example.demo.service;
 
+import com.example.demo.AppContext;
 import com.example.demo.dao.FacultyDAO;
+import com.example.demo.dao.Page;
 import com.example.demo.dao.UserDAO; // Though FacultyDAO uses it internally, sometimes useful for direct checks
 import com.example.demo.model.Faculty;
 import com.example.demo.model.User;
 import java.sql.SQLException;
 import java.util.List;
+import java.util.stream.Stream;
 import java.util.regex.Pattern;
 
 public class FacultyService {
@@ -13,8 +16,12 @@ public class FacultyService {
     private UserService userService; // To get user details for uniqueness checks
 
     public FacultyService() {
-        this.facultyDAO = new FacultyDAO();
-        this.userService = new UserService();
+        this(AppContext.get().getFacultyDAO(), AppContext.get().getUserService());
+    }
+
+    public FacultyService(FacultyDAO facultyDAO, UserService userService) {
+        this.facultyDAO = facultyDAO;
+        this.userService = userService;
     }
 
     /**
@@ -83,7 +90,7 @@ public class FacultyService {
     }
 
     /**
-     * Retrieves a faculty member by their ID.
+     * Retrieves a faculty member by their ID, from the shared entity cache if it was looked up recently.
      *
      * @param facultyId The ID of the faculty member.
      * @return The Faculty object, or null if not found.
@@ -94,7 +101,7 @@ public class FacultyService {
         if (facultyId <= 0) {
             throw new IllegalArgumentException("Faculty ID must be positive.");
         }
-        return facultyDAO.getFacultyById(facultyId);
+        return EntityCaches.FACULTY.get(facultyId, facultyDAO::getFacultyById);
     }
 
     /**
@@ -123,6 +130,38 @@ public class FacultyService {
         return facultyDAO.getAllFaculty();
     }
 
+    /**
+     * Retrieves one page of faculty members, in ID order, for walking the whole table in constant memory.
+     *
+     * @param pageToken The next page token of the previous page, or null for the first page.
+     * @param pageSize The maximum number of rows to return (1 to {@link Page#MAX_PAGE_SIZE}).
+     * @return The page of Faculty objects.
+     * @throws IllegalArgumentException If the page token or page size is invalid.
+     * @throws SQLException If a database error occurs.
+     */
+    public Page<Faculty> getFacultyPage(String pageToken, int pageSize) throws SQLException {
+        return facultyDAO.getFacultyPage(pageToken, pageSize);
+    }
+
+    /**
+     * Streams all faculty members in ID order for exports and batch jobs; see {@link FacultyDAO#streamAllFaculty()}.
+     * The stream must be closed.
+     *
+     * @return A lazily populated stream of Faculty objects.
+     * @throws SQLException If the query cannot be started.
+     */
+    public Stream<Faculty> streamAllFaculty() throws SQLException {
+        return facultyDAO.streamAllFaculty();
+    }
+
+    /**
+     * @return The number of faculty members.
+     * @throws SQLException If a database error occurs.
+     */
+    public long countFaculty() throws SQLException {
+        return facultyDAO.countFaculty();
+    }
+
     /**
      * Updates an existing faculty member's information.
      *
@@ -154,6 +193,7 @@ public class FacultyService {
         }
 
         facultyDAO.updateFaculty(faculty);
+        EntityCaches.FACULTY.invalidate(faculty.getFacultyId());
     }
 
     /**
@@ -169,6 +209,7 @@ public class FacultyService {
             throw new IllegalArgumentException("Faculty ID must be positive for deletion.");
         }
         facultyDAO.deleteFaculty(facultyId); // This method handles cascading deletion of user
+        EntityCaches.FACULTY.invalidate(facultyId);
     }
 
     /**
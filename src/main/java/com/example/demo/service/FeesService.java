@@ -1,19 +1,26 @@
 package com.example.demo.service;
 
+import com.example.demo.AppContext;
 import com.example.demo.dao.FeesDAO;
+import com.example.demo.dao.Page;
 import com.example.demo.model.Fees;
 import com.example.demo.model.Student;
 import java.sql.SQLException;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
 
 public class FeesService {
     private FeesDAO feesDAO;
     private StudentService studentService; // To verify student existence
 
     public FeesService() {
-        this.feesDAO = new FeesDAO();
-        this.studentService = new StudentService();
+        this(AppContext.get().getFeesDAO(), AppContext.get().getStudentService());
+    }
+
+    public FeesService(FeesDAO feesDAO, StudentService studentService) {
+        this.feesDAO = feesDAO;
+        this.studentService = studentService;
     }
 
     /**
@@ -105,6 +112,38 @@ public class FeesService {
         return feesDAO.getAllFees();
     }
 
+    /**
+     * Retrieves one page of fee records, in ID order, for walking the whole table in constant memory.
+     *
+     * @param pageToken The next page token of the previous page, or null for the first page.
+     * @param pageSize The maximum number of rows to return (1 to {@link Page#MAX_PAGE_SIZE}).
+     * @return The page of Fees objects.
+     * @throws IllegalArgumentException If the page token or page size is invalid.
+     * @throws SQLException If a database error occurs.
+     */
+    public Page<Fees> getFeesPage(String pageToken, int pageSize) throws SQLException {
+        return feesDAO.getFeesPage(pageToken, pageSize);
+    }
+
+    /**
+     * Streams all fee records in ID order for exports and batch jobs; see {@link FeesDAO#streamAllFees()}.
+     * The stream must be closed.
+     *
+     * @return A lazily populated stream of Fees objects.
+     * @throws SQLException If the query cannot be started.
+     */
+    public Stream<Fees> streamAllFees() throws SQLException {
+        return feesDAO.streamAllFees();
+    }
+
+    /**
+     * @return The number of fee records.
+     * @throws SQLException If a database error occurs.
+     */
+    public long countFees() throws SQLException {
+        return feesDAO.countFees();
+    }
+
     /**
      * Updates an existing fee record. This can be used to mark a fee as paid, update its amount, etc.
      *
@@ -0,0 +1,35 @@
+package com.example.demo.service;
+
+/**
+ * The outcome of a CSV import ({@link ResultImportService}, {@link StudentImportService}).
+ */
+public final class ImportReport {
+    private final long rowsRead;
+    private final long rowsImported;
+    private final long rowsRejected;
+    private final long elapsedMillis;
+
+    ImportReport(long rowsRead, long rowsImported, long rowsRejected, long elapsedMillis) {
+        this.rowsRead = rowsRead;
+        this.rowsImported = rowsImported;
+        this.rowsRejected = rowsRejected;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    /** @return The number of data rows in the file (the header is not counted). */
+    public long getRowsRead() { return rowsRead; }
+
+    /** @return The number of rows written to the database. */
+    public long getRowsImported() { return rowsImported; }
+
+    /** @return The number of rows written to the rejection report. */
+    public long getRowsRejected() { return rowsRejected; }
+
+    public long getElapsedMillis() { return elapsedMillis; }
+
+    @Override
+    public String toString() {
+        return "Read " + rowsRead + " rows: " + rowsImported + " imported, " + rowsRejected + " rejected, in "
+                + elapsedMillis + " ms";
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.demo.service;
 
+import com.example.demo.AppContext;
 import com.example.demo.dao.LibrarianDAO;
+import com.example.demo.dao.Page;
 import com.example.demo.model.Librarian;
 import com.example.demo.model.User;
 import java.sql.SQLException;
@@ -12,8 +14,12 @@ public class LibrarianService {
     private UserService userService; // To get user details for uniqueness checks
 
     public LibrarianService() {
-        this.librarianDAO = new LibrarianDAO();
-        this.userService = new UserService();
+        this(AppContext.get().getLibrarianDAO(), AppContext.get().getUserService());
+    }
+
+    public LibrarianService(LibrarianDAO librarianDAO, UserService userService) {
+        this.librarianDAO = librarianDAO;
+        this.userService = userService;
     }
 
     /**
@@ -116,6 +122,19 @@ public class LibrarianService {
         return librarianDAO.getAllLibrarians();
     }
 
+    /**
+     * Retrieves one page of librarians, in ID order, for walking the whole table in constant memory.
+     *
+     * @param pageToken The next page token of the previous page, or null for the first page.
+     * @param pageSize The maximum number of rows to return (1 to {@link Page#MAX_PAGE_SIZE}).
+     * @return The page of Librarian objects.
+     * @throws IllegalArgumentException If the page token or page size is invalid.
+     * @throws SQLException If a database error occurs.
+     */
+    public Page<Librarian> getLibrarianPage(String pageToken, int pageSize) throws SQLException {
+        return librarianDAO.getLibrarianPage(pageToken, pageSize);
+    }
+
     /**
      * Updates an existing librarian's information.
      *
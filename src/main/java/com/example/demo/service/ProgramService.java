@@ -1,6 +1,8 @@
 package com.example.demo.service;
 
+import com.example.demo.AppContext;
 import com.example.demo.dao.ProgramDAO;
+import com.example.demo.dao.Page;
 import com.example.demo.model.Program;
 import java.sql.SQLException;
 import java.util.List;
@@ -9,7 +11,11 @@ public class ProgramService {
     private ProgramDAO programDAO;
 
     public ProgramService() {
-        this.programDAO = new ProgramDAO();
+        this(AppContext.get().getProgramDAO());
+    }
+
+    public ProgramService(ProgramDAO programDAO) {
+        this.programDAO = programDAO;
     }
 
     /**
@@ -34,6 +40,7 @@ public class ProgramService {
 
         Program newProgram = new Program(trimmedProgramName);
         programDAO.addProgram(newProgram);
+        ReferenceData.invalidate();
         return newProgram;
     }
 
@@ -77,6 +84,19 @@ public class ProgramService {
         return programDAO.getAllPrograms();
     }
 
+    /**
+     * Retrieves one page of programs, in ID order, for walking the whole table in constant memory.
+     *
+     * @param pageToken The next page token of the previous page, or null for the first page.
+     * @param pageSize The maximum number of rows to return (1 to {@link Page#MAX_PAGE_SIZE}).
+     * @return The page of Program objects.
+     * @throws IllegalArgumentException If the page token or page size is invalid.
+     * @throws SQLException If a database error occurs.
+     */
+    public Page<Program> getProgramPage(String pageToken, int pageSize) throws SQLException {
+        return programDAO.getProgramPage(pageToken, pageSize);
+    }
+
     /**
      * Updates an existing academic program's name.
      * Performs validation to ensure the new program name is not empty and unique (excluding itself).
@@ -102,6 +122,7 @@ public class ProgramService {
 
         program.setProgramName(trimmedProgramName); // Ensure the name is trimmed before saving
         programDAO.updateProgram(program);
+        ReferenceData.invalidate();
     }
 
     /**
@@ -121,5 +142,9 @@ public class ProgramService {
         // For simplicity, we rely on DB RESTRICT for students and CASCADE for courses for now.
 
         programDAO.deleteProgram(programId);
+        // Deleting a program also deletes its courses and clears the program of its students
+        EntityCaches.COURSES.invalidateAll();
+        EntityCaches.STUDENTS.invalidateAll();
+        ReferenceData.invalidate();
     }
 }
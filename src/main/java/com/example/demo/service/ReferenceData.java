@@ -0,0 +1,187 @@
+package com.example.demo.service;
+
+import com.example.demo.AppContext;
+import com.example.demo.db.TransactionManager;
+import com.example.demo.model.Course;
+import com.example.demo.model.Program;
+
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An immutable snapshot of the academic structure: all programs and courses, by ID, and the courses
+ * of each program grouped by semester. Screens and validations read it instead of querying a program
+ * or course per table row or per check.
+ * <p>
+ * The current snapshot is loaded on first use with two queries and shared. The program and course
+ * services {@link #invalidate()} it after every change, and the next {@link #current()} call loads a
+ * new one; readers holding the old snapshot keep a consistent view. The Program and Course objects
+ * are the snapshot's own copies and must not be modified.
+ */
+public final class ReferenceData {
+
+    private static final Object LOCK = new Object();
+    private static volatile ReferenceData current;
+    private static final AtomicLong version = new AtomicLong(); // Incremented by invalidate()
+
+    private final List<Program> programs;
+    private final Map<Integer, Program> programsById;
+    private final Map<Integer, Course> coursesById;
+    private final Map<Integer, Map<Integer, List<Course>>> coursesByProgramAndSemester;
+    private final Instant loadedAt;
+
+    private ReferenceData(List<Program> programList, List<Course> courseList) {
+        List<Program> programCopies = new ArrayList<>(programList.size());
+        Map<Integer, Program> byId = new LinkedHashMap<>();
+        for (Program p : programList) {
+            Program copy = new Program(p.getProgramId(), p.getProgramName());
+            programCopies.add(copy);
+            byId.put(copy.getProgramId(), copy);
+        }
+        Map<Integer, Course> courses = new LinkedHashMap<>();
+        Map<Integer, Map<Integer, List<Course>>> grouped = new TreeMap<>();
+        for (Course c : courseList) {
+            Course copy = new Course(c.getCourseId(), c.getProgramId(), c.getSemesterNumber(), c.getCourseCode(),
+                    c.getCourseName(), c.getCredits(), c.getDescription(), c.getDepartment());
+            courses.put(copy.getCourseId(), copy);
+            grouped.computeIfAbsent(copy.getProgramId(), k -> new TreeMap<>())
+                    .computeIfAbsent(copy.getSemesterNumber(), k -> new ArrayList<>())
+                    .add(copy);
+        }
+        for (Map.Entry<Integer, Map<Integer, List<Course>>> program : grouped.entrySet()) {
+            program.getValue().replaceAll((semester, list) -> Collections.unmodifiableList(list));
+            program.setValue(Collections.unmodifiableMap(program.getValue()));
+        }
+        this.programs = Collections.unmodifiableList(programCopies);
+        this.programsById = Collections.unmodifiableMap(byId);
+        this.coursesById = Collections.unmodifiableMap(courses);
+        this.coursesByProgramAndSemester = Collections.unmodifiableMap(grouped);
+        this.loadedAt = Instant.now();
+    }
+
+    /**
+     * @return The current snapshot, loaded from the database if there is none.
+     * @throws SQLException If a database access error occurs while loading.
+     */
+    public static ReferenceData current() throws SQLException {
+        ReferenceData data = current;
+        return data != null ? data : refresh();
+    }
+
+    /**
+     * Loads a new snapshot and makes it the current one, unless the data changed while it was loading.
+     * Inside a transaction the snapshot is returned but not shared, since it may contain changes that
+     * are rolled back.
+     *
+     * @return The new snapshot.
+     * @throws SQLException If a database access error occurs.
+     */
+    public static ReferenceData refresh() throws SQLException {
+        long loadingVersion = version.get();
+        AppContext context = AppContext.get();
+        ReferenceData data = new ReferenceData(context.getProgramDAO().getAllPrograms(), context.getCourseDAO().getAllCourses());
+        if (!TransactionManager.isActive()) {
+            synchronized (LOCK) {
+                if (version.get() == loadingVersion) {
+                    current = data;
+                }
+            }
+        }
+        return data;
+    }
+
+    /**
+     * Drops the current snapshot after programs or courses have changed, now and again when the current
+     * transaction (if any) completes; the next {@link #current()} call loads a new one. A load that was
+     * running meanwhile is not shared.
+     */
+    public static void invalidate() {
+        drop();
+        TransactionManager.afterCompletion(ReferenceData::drop); // Another thread may reload before the commit
+    }
+
+    private static void drop() {
+        synchronized (LOCK) {
+            version.incrementAndGet();
+            current = null;
+        }
+    }
+
+    /**
+     * Looks up a program for validation. A program missing from the snapshot may have been added by
+     * another client since it was loaded, so the snapshot is reloaded once before giving up.
+     *
+     * @param programId The ID of the program.
+     * @return The program, or null if it does not exist.
+     * @throws SQLException If a database access error occurs.
+     */
+    public static Program findProgram(int programId) throws SQLException {
+        Program program = current().getProgram(programId);
+        return program != null ? program : refresh().getProgram(programId);
+    }
+
+    /**
+     * Looks up a course for validation, reloading the snapshot once if it is missing (see {@link #findProgram}).
+     *
+     * @param courseId The ID of the course.
+     * @return The course, or null if it does not exist.
+     * @throws SQLException If a database access error occurs.
+     */
+    public static Course findCourse(int courseId) throws SQLException {
+        Course course = current().getCourse(courseId);
+        return course != null ? course : refresh().getCourse(courseId);
+    }
+
+    /** @return All programs, ordered by name. */
+    public List<Program> getPrograms() {
+        return programs;
+    }
+
+    /** @return The program with the given ID, or null. */
+    public Program getProgram(int programId) {
+        return programsById.get(programId);
+    }
+
+    /** @return The name of the program with the given ID, or null if there is none. */
+    public String getProgramName(int programId) {
+        Program program = programsById.get(programId);
+        return program != null ? program.getProgramName() : null;
+    }
+
+    /** @return All courses by ID, ordered by program, semester and course code. */
+    public Map<Integer, Course> getCoursesById() {
+        return coursesById;
+    }
+
+    /** @return The course with the given ID, or null. */
+    public Course getCourse(int courseId) {
+        return coursesById.get(courseId);
+    }
+
+    /** @return The courses of a program by semester number, in semester order; empty if it has none. */
+    public Map<Integer, List<Course>> getCoursesByProgram(int programId) {
+        return coursesByProgramAndSemester.getOrDefault(programId, Collections.emptyMap());
+    }
+
+    /** @return The courses of a program in one semester, ordered by course code; empty if there are none. */
+    public List<Course> getCourses(int programId, int semesterNumber) {
+        return getCoursesByProgram(programId).getOrDefault(semesterNumber, Collections.emptyList());
+    }
+
+    /** @return When this snapshot was loaded. */
+    public Instant getLoadedAt() {
+        return loadedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "ReferenceData{programs=" + programs.size() + ", courses=" + coursesById.size() + ", loadedAt=" + loadedAt + "}";
+    }
+}
@@ -0,0 +1,309 @@
+package com.example.demo.service;
+
+import com.example.demo.AppContext;
+import com.example.demo.DBController;
+import com.example.demo.csv.CsvColumns;
+import com.example.demo.csv.CsvReader;
+import com.example.demo.csv.CsvWriter;
+import com.example.demo.dao.CourseDAO;
+import com.example.demo.dao.ResultDAO;
+import com.example.demo.dao.StudentDAO;
+import com.example.demo.model.Result;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Imports results in bulk from CSV, e.g. an exam board's result sheet.
+ * <p>
+ * The file is streamed in chunks of {@code chunkSize} records, so memory use does not depend on its
+ * size. Each chunk is validated in parallel against the student and course IDs, which are read once
+ * into memory instead of being looked up per row, and its valid rows are written with one batched
+ * upsert ({@link ResultDAO#upsertResults}) while the next chunk is being read and validated. Invalid
+ * rows are skipped and written to a rejection report with their line number and reason.
+ * <p>
+ * Each chunk is committed on its own. A result that already exists for the same student, course and
+ * academic year is replaced, so an import that stopped halfway can simply be run again.
+ */
+public class ResultImportService {
+
+    public static final int DEFAULT_CHUNK_SIZE = 2000;
+
+    /** Columns every import file must have, named as in the Results table. */
+    static final List<String> REQUIRED_COLUMNS = Arrays.asList(
+            "student_id", "course_id", "academic_year", "semester_number", "result_status");
+    /** Columns that may be missing, or empty in a row, for results that are not graded yet. */
+    static final List<String> OPTIONAL_COLUMNS = Arrays.asList("marks_obtained", "grade");
+
+    // Column sizes in the Results table; longer values would fail the whole chunk's batch
+    private static final int MAX_ACADEMIC_YEAR_LENGTH = 9;
+    private static final int MAX_GRADE_LENGTH = 5;
+
+    private ResultDAO resultDAO;
+    private StudentDAO studentDAO; // To validate student IDs in bulk
+    private CourseDAO courseDAO;   // To validate course IDs in bulk
+    private final int chunkSize;
+
+    public ResultImportService() {
+        this(DEFAULT_CHUNK_SIZE);
+    }
+
+    public ResultImportService(int chunkSize) {
+        this(AppContext.get().getResultDAO(), AppContext.get().getStudentDAO(), AppContext.get().getCourseDAO(),
+                chunkSize);
+    }
+
+    public ResultImportService(ResultDAO resultDAO, StudentDAO studentDAO, CourseDAO courseDAO, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive.");
+        }
+        this.resultDAO = resultDAO;
+        this.studentDAO = studentDAO;
+        this.courseDAO = courseDAO;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Imports a results file, writing rejected rows to a second file.
+     *
+     * @param csvFile The results file (UTF-8, with a header row).
+     * @param rejectionReport The file to write rejected rows to; replaced if it exists.
+     * @return The row counts.
+     * @throws IllegalArgumentException If the header lacks a required column.
+     * @throws IOException If a file cannot be read or written.
+     * @throws SQLException If a database access error occurs; chunks written before it stay imported.
+     */
+    public ImportReport importResults(Path csvFile, Path rejectionReport) throws IOException, SQLException {
+        try (Reader in = Files.newBufferedReader(csvFile, StandardCharsets.UTF_8);
+             Writer out = Files.newBufferedWriter(rejectionReport, StandardCharsets.UTF_8)) {
+            return importResults(in, out);
+        }
+    }
+
+    /**
+     * Imports results from CSV. The header row names the columns, in any order: the
+     * {@link #REQUIRED_COLUMNS}, optionally the {@link #OPTIONAL_COLUMNS}; other columns (such as
+     * {@code result_id}) are ignored. Rows are validated with the rules of
+     * {@link ResultService#addNewResult}.
+     *
+     * @param csv The CSV to read. It is not closed.
+     * @param rejections Receives a CSV of rejected rows: line number, reason, then the row as read. It is not closed.
+     * @return The row counts.
+     * @throws IllegalArgumentException If the header lacks a required column.
+     * @throws IOException If reading or writing fails.
+     * @throws SQLException If a database access error occurs; chunks written before it stay imported.
+     */
+    public ImportReport importResults(Reader csv, Writer rejections) throws IOException, SQLException {
+        long start = System.nanoTime();
+        CsvReader reader = new CsvReader(csv);
+        CsvWriter rejected = new CsvWriter(rejections);
+
+        List<String> header = reader.readRecord();
+        if (header == null) {
+            throw new IllegalArgumentException("The import file is empty.");
+        }
+        CsvColumns columns = new CsvColumns(header, REQUIRED_COLUMNS, OPTIONAL_COLUMNS);
+        List<String> reportHeader = new ArrayList<>(header.size() + 2);
+        reportHeader.add("line");
+        reportHeader.add("reason");
+        reportHeader.addAll(columns.getHeader());
+        rejected.writeRecord(reportHeader);
+
+        Set<Integer> studentIds = studentDAO.getAllStudentIds();
+        Set<Integer> courseIds = courseDAO.getAllCourseIds();
+
+        long rowsRead = 0;
+        long rowsImported = 0;
+        long rowsRejected = 0;
+        // One writer thread: the upsert of a chunk overlaps reading and validating the next one
+        ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "result-import-writer");
+            t.setDaemon(true);
+            return t;
+        });
+        Future<?> pending = null;
+        long pendingFirstLine = 0;
+        try {
+            List<Row> chunk = readChunk(reader);
+            while (!chunk.isEmpty()) {
+                rowsRead += chunk.size();
+                chunk.parallelStream().forEach(row -> row.validate(columns, studentIds, courseIds));
+
+                List<Result> valid = new ArrayList<>(chunk.size());
+                for (Row row : chunk) {
+                    if (row.result != null) {
+                        valid.add(row.result);
+                    } else {
+                        List<String> record = new ArrayList<>(row.fields.size() + 2);
+                        record.add(Long.toString(row.line));
+                        record.add(row.error);
+                        record.addAll(row.fields);
+                        rejected.writeRecord(record);
+                        rowsRejected++;
+                    }
+                }
+
+                awaitWrite(pending, pendingFirstLine);
+                pending = writer.submit(() -> {
+                    resultDAO.upsertResults(valid);
+                    return null;
+                });
+                pendingFirstLine = chunk.get(0).line;
+                rowsImported += valid.size();
+                chunk = readChunk(reader);
+            }
+            awaitWrite(pending, pendingFirstLine);
+        } finally {
+            writer.shutdownNow();
+        }
+        rejected.flush();
+        return new ImportReport(rowsRead, rowsImported, rowsRejected, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private List<Row> readChunk(CsvReader reader) throws IOException {
+        List<Row> chunk = new ArrayList<>(chunkSize);
+        List<String> fields;
+        while (chunk.size() < chunkSize && (fields = reader.readRecord()) != null) {
+            if (fields.size() == 1 && fields.get(0).trim().isEmpty()) {
+                continue; // Blank line, e.g. at the end of the file
+            }
+            chunk.add(new Row(reader.getRecordLine(), fields));
+        }
+        return chunk;
+    }
+
+    private static void awaitWrite(Future<?> pending, long firstLine) throws SQLException {
+        if (pending == null) {
+            return;
+        }
+        try {
+            pending.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw new SQLException("Import stopped: writing the chunk starting on line " + firstLine + " failed: "
+                    + cause.getMessage(), cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Import interrupted.", e);
+        }
+    }
+
+    /**
+     * One data row; {@link #validate} sets either the result or the reason it was rejected.
+     */
+    static final class Row {
+        final long line;
+        final List<String> fields;
+        Result result;
+        String error;
+
+        Row(long line, List<String> fields) {
+            this.line = line;
+            this.fields = fields;
+        }
+
+        void validate(CsvColumns columns, Set<Integer> studentIds, Set<Integer> courseIds) {
+            try {
+                result = parse(columns, studentIds, courseIds);
+            } catch (IllegalArgumentException e) {
+                error = e.getMessage();
+            }
+        }
+
+        private Result parse(CsvColumns columns, Set<Integer> studentIds, Set<Integer> courseIds) {
+            int studentId = parseInt(columns.get(fields, "student_id"), "Student ID");
+            if (studentId <= 0) {
+                throw new IllegalArgumentException("Student ID must be positive.");
+            }
+            int courseId = parseInt(columns.get(fields, "course_id"), "Course ID");
+            if (courseId <= 0) {
+                throw new IllegalArgumentException("Course ID must be positive.");
+            }
+            int semesterNumber = parseInt(columns.get(fields, "semester_number"), "Semester number");
+            if (semesterNumber <= 0 || semesterNumber > 8) { // Assuming up to 8 semesters
+                throw new IllegalArgumentException("Semester number must be between 1 and 8.");
+            }
+            String academicYear = columns.get(fields, "academic_year");
+            if (academicYear == null) {
+                throw new IllegalArgumentException("Academic Year cannot be empty.");
+            }
+            if (academicYear.length() > MAX_ACADEMIC_YEAR_LENGTH) {
+                throw new IllegalArgumentException("Academic Year must be at most " + MAX_ACADEMIC_YEAR_LENGTH + " characters, e.g. '2023-2024'.");
+            }
+            String marks = columns.get(fields, "marks_obtained");
+            Integer marksObtained = marks == null ? null : parseInt(marks, "Marks obtained");
+            if (marksObtained != null && (marksObtained < 0 || marksObtained > 100)) {
+                throw new IllegalArgumentException("Marks obtained must be between 0 and 100 (inclusive) or null.");
+            }
+            String resultStatus = columns.get(fields, "result_status");
+            if (resultStatus == null || !ResultService.isValidResultStatus(resultStatus)) {
+                throw new IllegalArgumentException("Invalid result status. Must be 'Pass', 'Fail', or 'Incomplete'.");
+            }
+            String grade = columns.get(fields, "grade");
+            if (grade != null && grade.length() > MAX_GRADE_LENGTH) {
+                throw new IllegalArgumentException("Grade must be at most " + MAX_GRADE_LENGTH + " characters.");
+            }
+            if (!studentIds.contains(studentId)) {
+                throw new IllegalArgumentException("Student with ID " + studentId + " does not exist.");
+            }
+            if (!courseIds.contains(courseId)) {
+                throw new IllegalArgumentException("Course with ID " + courseId + " does not exist.");
+            }
+            return new Result(studentId, courseId, semesterNumber, academicYear, marksObtained, grade, resultStatus);
+        }
+
+        private static int parseInt(String value, String name) {
+            if (value == null) {
+                throw new IllegalArgumentException(name + " cannot be empty.");
+            }
+            try {
+                return Integer.parseInt(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(name + " must be a whole number, got '" + value + "'.");
+            }
+        }
+    }
+
+    /**
+     * Command line entry point.
+     *
+     * @param args The results CSV file, and optionally the rejection report file
+     *             (default: the results file name with {@code .rejected.csv} appended).
+     */
+    public static void main(String[] args) {
+        if (args.length < 1 || args.length > 2) {
+            System.err.println("Usage: ResultImportService <results.csv> [<rejections.csv>]");
+            System.exit(2);
+        }
+        Path csvFile = Paths.get(args[0]);
+        Path rejectionReport = Paths.get(args.length > 1 ? args[1] : args[0] + ".rejected.csv");
+        int status = 0;
+        try {
+            ImportReport report = new ResultImportService().importResults(csvFile, rejectionReport);
+            System.out.println(report);
+            if (report.getRowsRejected() > 0) {
+                System.out.println("Rejected rows written to " + rejectionReport);
+            }
+        } catch (IllegalArgumentException | IOException | SQLException e) {
+            System.err.println("Result import failed: " + e.getMessage());
+            status = 1;
+        } finally {
+            DBController.shutdown();
+        }
+        System.exit(status);
+    }
+}
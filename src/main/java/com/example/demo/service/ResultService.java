@@ -1,21 +1,25 @@
 package com.example.demo.service;
 
+import com.example.demo.AppContext;
+import com.example.demo.dao.ExistenceCheck;
 import com.example.demo.dao.ResultDAO;
-import com.example.demo.model.Course;
+import com.example.demo.dao.Page;
 import com.example.demo.model.Result;
-import com.example.demo.model.Student;
 import java.sql.SQLException;
 import java.util.List;
+import java.util.stream.Stream;
 
 public class ResultService {
     private ResultDAO resultDAO;
     private StudentService studentService; // To verify student existence
-    private CourseService courseService;   // To verify course existence
 
     public ResultService() {
-        this.resultDAO = new ResultDAO();
-        this.studentService = new StudentService();
-        this.courseService = new CourseService();
+        this(AppContext.get().getResultDAO(), AppContext.get().getStudentService());
+    }
+
+    public ResultService(ResultDAO resultDAO, StudentService studentService) {
+        this.resultDAO = resultDAO;
+        this.studentService = studentService;
     }
 
     /**
@@ -63,27 +67,21 @@ public class ResultService {
         String trimmedResultStatus = resultStatus.trim();
 
         // 2. Business Logic Checks
-        // Verify student exists
-        Student student = studentService.getStudentById(studentId);
-        if (student == null) {
-            throw new IllegalArgumentException("Student with ID " + studentId + " does not exist.");
-        }
-
-        // Verify course exists
-        Course course = courseService.getCourseById(courseId);
-        if (course == null) {
-            throw new IllegalArgumentException("Course with ID " + courseId + " does not exist.");
-        }
-
-        // Check for duplicate result record for this student in this course and academic year
-        if (resultDAO.getResultByStudentCourseAndYear(studentId, courseId, trimmedAcademicYear) != null) {
-            throw new IllegalArgumentException("Result for this student in this course for academic year '" + trimmedAcademicYear + "' already exists.");
+        // Verify the student and course exist, with one query
+        ExistenceCheck.Reference missing = new ExistenceCheck()
+                .require(ExistenceCheck.Entity.STUDENT, studentId)
+                .require(ExistenceCheck.Entity.COURSE, courseId)
+                .findFirstMissing();
+        if (missing != null) {
+            throw new IllegalArgumentException(missing + " does not exist.");
         }
 
-        // 3. Create Result
+        // 3. Create Result; the unique key on student, course and academic year rejects duplicates
         Result newResult = new Result(studentId, courseId, semesterNumber, trimmedAcademicYear,
                 marksObtained, trimmedGrade, trimmedResultStatus);
-        resultDAO.addResult(newResult);
+        if (!resultDAO.addResultIfAbsent(newResult)) {
+            throw new IllegalArgumentException("Result for this student in this course for academic year '" + trimmedAcademicYear + "' already exists.");
+        }
         return newResult;
     }
 
@@ -156,6 +154,38 @@ public class ResultService {
         return resultDAO.getAllResults();
     }
 
+    /**
+     * Retrieves one page of results, in ID order, for walking the whole table in constant memory.
+     *
+     * @param pageToken The next page token of the previous page, or null for the first page.
+     * @param pageSize The maximum number of rows to return (1 to {@link Page#MAX_PAGE_SIZE}).
+     * @return The page of Result objects.
+     * @throws IllegalArgumentException If the page token or page size is invalid.
+     * @throws SQLException If a database error occurs.
+     */
+    public Page<Result> getResultPage(String pageToken, int pageSize) throws SQLException {
+        return resultDAO.getResultPage(pageToken, pageSize);
+    }
+
+    /**
+     * Streams all results in ID order for exports and batch jobs; see {@link ResultDAO#streamAllResults()}.
+     * The stream must be closed.
+     *
+     * @return A lazily populated stream of Result objects.
+     * @throws SQLException If the query cannot be started.
+     */
+    public Stream<Result> streamAllResults() throws SQLException {
+        return resultDAO.streamAllResults();
+    }
+
+    /**
+     * @return The number of result records.
+     * @throws SQLException If a database error occurs.
+     */
+    public long countResults() throws SQLException {
+        return resultDAO.countResults();
+    }
+
     /**
      * Updates an existing result record.
      *
@@ -191,11 +221,12 @@ public class ResultService {
         result.setResultStatus(result.getResultStatus().trim());
 
         // Verify associated student and course still exist
-        if (studentService.getStudentById(result.getStudentId()) == null) {
-            throw new IllegalArgumentException("Associated student does not exist.");
-        }
-        if (courseService.getCourseById(result.getCourseId()) == null) {
-            throw new IllegalArgumentException("Associated course does not exist.");
+        ExistenceCheck.Reference missing = new ExistenceCheck()
+                .require(ExistenceCheck.Entity.STUDENT, result.getStudentId())
+                .require(ExistenceCheck.Entity.COURSE, result.getCourseId())
+                .findFirstMissing();
+        if (missing != null) {
+            throw new IllegalArgumentException(missing + " does not exist.");
         }
 
         resultDAO.updateResult(result);
@@ -218,7 +249,7 @@ public class ResultService {
     /**
      * Helper method to validate if a given string is a recognized result status.
      */
-    private boolean isValidResultStatus(String status) {
+    static boolean isValidResultStatus(String status) {
         return "Pass".equalsIgnoreCase(status) ||
                 "Fail".equalsIgnoreCase(status) ||
                 "Incomplete".equalsIgnoreCase(status);
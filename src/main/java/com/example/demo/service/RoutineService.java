@@ -1,8 +1,9 @@
 package com.example.demo.service;
 
+import com.example.demo.AppContext;
+import com.example.demo.dao.ExistenceCheck;
 import com.example.demo.dao.RoutineDAO;
-import com.example.demo.model.Course;
-import com.example.demo.model.Faculty;
+import com.example.demo.dao.Page;
 import com.example.demo.model.Routine;
 import java.sql.SQLException;
 import java.time.LocalTime;
@@ -11,12 +12,14 @@ import java.util.List;
 public class RoutineService {
     private RoutineDAO routineDAO;
     private CourseService courseService;   // To verify course existence
-    private FacultyService facultyService; // To verify faculty existence (for assigning classes)
 
     public RoutineService() {
-        this.routineDAO = new RoutineDAO();
-        this.courseService = new CourseService();
-        this.facultyService = new FacultyService();
+        this(AppContext.get().getRoutineDAO(), AppContext.get().getCourseService());
+    }
+
+    public RoutineService(RoutineDAO routineDAO, CourseService courseService) {
+        this.routineDAO = routineDAO;
+        this.courseService = courseService;
     }
 
     /**
@@ -74,18 +77,13 @@ public class RoutineService {
         String trimmedAcademicYear = academicYear.trim();
 
         // 2. Business Logic Checks
-        // Verify course exists
-        Course course = courseService.getCourseById(courseId);
-        if (course == null) {
-            throw new IllegalArgumentException("Course with ID " + courseId + " does not exist.");
-        }
-
-        // Verify faculty exists if provided
-        if (facultyId != null) {
-            Faculty faculty = facultyService.getFacultyById(facultyId);
-            if (faculty == null) {
-                throw new IllegalArgumentException("Faculty with ID " + facultyId + " does not exist.");
-            }
+        // Verify the course and faculty (if provided) exist, with one query
+        ExistenceCheck.Reference missing = new ExistenceCheck()
+                .require(ExistenceCheck.Entity.COURSE, courseId)
+                .require(ExistenceCheck.Entity.FACULTY, facultyId)
+                .findFirstMissing();
+        if (missing != null) {
+            throw new IllegalArgumentException(missing + " does not exist.");
         }
 
         // 3. Create Routine
@@ -170,6 +168,19 @@ public class RoutineService {
         return routineDAO.getAllRoutines();
     }
 
+    /**
+     * Retrieves one page of routines, in ID order, for walking the whole table in constant memory.
+     *
+     * @param pageToken The next page token of the previous page, or null for the first page.
+     * @param pageSize The maximum number of rows to return (1 to {@link Page#MAX_PAGE_SIZE}).
+     * @return The page of Routine objects.
+     * @throws IllegalArgumentException If the page token or page size is invalid.
+     * @throws SQLException If a database error occurs.
+     */
+    public Page<Routine> getRoutinePage(String pageToken, int pageSize) throws SQLException {
+        return routineDAO.getRoutinePage(pageToken, pageSize);
+    }
+
     /**
      * Updates an existing routine record.
      *
@@ -212,11 +223,12 @@ public class RoutineService {
         routine.setAcademicYear(routine.getAcademicYear().trim());
 
         // Verify associated course and faculty (if applicable) still exist
-        if (courseService.getCourseById(routine.getCourseId()) == null) {
-            throw new IllegalArgumentException("Associated course does not exist.");
-        }
-        if (routine.getFacultyId() != null && facultyService.getFacultyById(routine.getFacultyId()) == null) {
-            throw new IllegalArgumentException("Associated faculty does not exist.");
+        ExistenceCheck.Reference missing = new ExistenceCheck()
+                .require(ExistenceCheck.Entity.COURSE, routine.getCourseId())
+                .require(ExistenceCheck.Entity.FACULTY, routine.getFacultyId())
+                .findFirstMissing();
+        if (missing != null) {
+            throw new IllegalArgumentException(missing + " does not exist.");
         }
 
         routineDAO.updateRoutine(routine);
@@ -0,0 +1,224 @@
+package com.example.demo.service;
+
+import com.example.demo.db.DBConfig;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs service calls in the background for {@link AsyncService}. Each call gets its own virtual
+ * thread when the JVM has them (Java 21+), so blocking JDBC work does not tie up platform threads;
+ * on older JVMs a fixed pool of platform daemon threads is used instead.
+ * <p>
+ * At most {@code db.async.maxConcurrency} calls run at a time (default: {@code db.pool.maxSize}).
+ * More would only wait for a pooled connection, and could run into the pool's acquire timeout;
+ * calls over the limit wait for a free slot instead. A call that is cancelled or times out before
+ * it starts is never run; one that is running is interrupted.
+ */
+public final class ServiceExecutor {
+
+    private static final long SHUTDOWN_WAIT_MILLIS = 2_000;
+
+    private static volatile ServiceExecutor shared;
+
+    private final ExecutorService executor;
+    private final Semaphore permits; // Limits virtual threads; null when the platform pool does it
+    private final int maxConcurrency;
+    private final long defaultTimeoutMillis;
+    private final boolean virtualThreads;
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    /**
+     * @param maxConcurrency The maximum number of calls running at a time.
+     * @param defaultTimeoutMillis The timeout of calls submitted without one; 0 or less for none.
+     */
+    public ServiceExecutor(int maxConcurrency, long defaultTimeoutMillis) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("Max concurrency must be positive.");
+        }
+        this.maxConcurrency = maxConcurrency;
+        this.defaultTimeoutMillis = defaultTimeoutMillis;
+        ExecutorService virtual = newVirtualThreadExecutor();
+        this.virtualThreads = virtual != null;
+        if (virtualThreads) {
+            this.executor = virtual;
+            this.permits = new Semaphore(maxConcurrency, true);
+        } else {
+            AtomicInteger threadCount = new AtomicInteger();
+            this.executor = Executors.newFixedThreadPool(maxConcurrency, r -> {
+                Thread t = new Thread(r, "service-async-" + threadCount.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+            this.permits = null;
+        }
+    }
+
+    /**
+     * @return The executor shared by the application, configured from {@link DBConfig}.
+     */
+    public static ServiceExecutor shared() {
+        ServiceExecutor e = shared;
+        if (e == null) {
+            synchronized (ServiceExecutor.class) {
+                e = shared;
+                if (e == null) {
+                    DBConfig config = DBConfig.load();
+                    int poolSize = Math.max(1, config.getInt("db.pool.maxSize", 10));
+                    int limit = config.getInt("db.async.maxConcurrency", 0);
+                    e = new ServiceExecutor(limit > 0 ? limit : poolSize, config.getLong("db.async.timeoutMillis", 0));
+                    shared = e;
+                }
+            }
+        }
+        return e;
+    }
+
+    /**
+     * Stops the shared executor, interrupting running calls, and waits up to two seconds for them to
+     * end so they give their connections back before the pool closes. Called when the application
+     * exits; a later {@link #shared()} call starts a new one.
+     */
+    public static synchronized void shutdown() {
+        if (shared != null) {
+            ExecutorService executor = shared.executor;
+            shared = null;
+            executor.shutdownNow();
+            try {
+                executor.awaitTermination(SHUTDOWN_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Runs a task in the background with the default timeout.
+     *
+     * @see #submit(Callable, long)
+     */
+    public <R> CompletableFuture<R> submit(Callable<R> task) {
+        return submit(task, defaultTimeoutMillis);
+    }
+
+    /**
+     * Runs a task in the background.
+     * <p>
+     * The task runs on another thread, so it does not join a transaction active on the calling
+     * thread (see {@link com.example.demo.db.TransactionManager}).
+     *
+     * @param task The task.
+     * @param timeoutMillis The time after which the future fails with a
+     *                      {@link java.util.concurrent.TimeoutException} and the task is cancelled,
+     *                      counted from submission; 0 or less for none.
+     * @param <R> The result type.
+     * @return A future completed with the task's result or exception. Cancelling it cancels the task.
+     */
+    public <R> CompletableFuture<R> submit(Callable<R> task, long timeoutMillis) {
+        CompletableFuture<R> result = new CompletableFuture<>();
+        Future<?> worker;
+        try {
+            worker = executor.submit(() -> run(task, result));
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(e);
+            return result;
+        }
+        // Cancellation or timeout of the future interrupts the task; after normal completion this is a no-op
+        result.whenComplete((value, error) -> {
+            if (error != null) {
+                worker.cancel(true);
+            }
+        });
+        if (timeoutMillis > 0) {
+            result.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS);
+        }
+        return result;
+    }
+
+    private <R> void run(Callable<R> task, CompletableFuture<R> result) {
+        if (result.isDone()) {
+            return; // Cancelled or timed out while queued
+        }
+        boolean acquired = false;
+        try {
+            if (permits != null) {
+                waiting.incrementAndGet();
+                try {
+                    permits.acquire();
+                    acquired = true;
+                } finally {
+                    waiting.decrementAndGet();
+                }
+                if (result.isDone()) {
+                    return;
+                }
+            }
+            running.incrementAndGet();
+            try {
+                result.complete(task.call());
+            } finally {
+                running.decrementAndGet();
+            }
+        } catch (InterruptedException e) {
+            result.completeExceptionally(new CancellationException("Service call interrupted."));
+            Thread.currentThread().interrupt();
+        } catch (Throwable e) {
+            result.completeExceptionally(e);
+        } finally {
+            if (acquired) {
+                permits.release();
+            }
+        }
+    }
+
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (NoSuchMethodException e) {
+            return null; // Java 20 or older
+        } catch (ReflectiveOperationException e) {
+            System.err.println("Virtual threads unavailable, using platform threads: " + e);
+            return null;
+        }
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public long getDefaultTimeoutMillis() {
+        return defaultTimeoutMillis;
+    }
+
+    /** @return true if calls run on virtual threads, false if on a platform thread pool. */
+    public boolean usesVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /** @return The number of calls running now. */
+    public int getRunningCount() {
+        return running.get();
+    }
+
+    /** @return The number of started calls waiting for a free slot (virtual threads only). */
+    public int getWaitingCount() {
+        return waiting.get();
+    }
+
+    @Override
+    public String toString() {
+        return "ServiceExecutor{" + (virtualThreads ? "virtual" : "platform") + " threads, maxConcurrency=" + maxConcurrency
+                + ", running=" + running.get() + ", waiting=" + waiting.get() + "}";
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.demo.service;
+
+import com.example.demo.AppContext;
+import com.example.demo.DBController;
+import com.example.demo.csv.CsvColumns;
+import com.example.demo.csv.CsvReader;
+import com.example.demo.csv.CsvWriter;
+import com.example.demo.model.Student;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Onboards a new intake of students from CSV. Each chunk of {@link StudentService#ONBOARDING_CHUNK_SIZE}
+ * rows goes through {@link StudentService#onboardStudents}, which checks all of the chunk's usernames
+ * and emails with one query and inserts its users and students with JDBC batches in one transaction.
+ * Rows that cannot be parsed or fail validation are skipped and written to a rejection report with
+ * their line number and reason.
+ * <p>
+ * Chunks are committed one by one. Running the same file again rejects the students already
+ * onboarded (their usernames are taken) and adds the rest.
+ */
+public class StudentImportService {
+
+    /** Columns every import file must have. Dates are ISO-8601 ({@code 2024-09-01}). */
+    static final List<String> REQUIRED_COLUMNS = Arrays.asList(
+            "first_name", "last_name", "date_of_birth", "email", "enrollment_date", "program_id", "username", "password");
+    /** Columns that may be missing, or empty in a row. */
+    static final List<String> OPTIONAL_COLUMNS = Arrays.asList("gender", "phone_number", "address", "major");
+
+    private StudentService studentService;
+
+    public StudentImportService() {
+        this(AppContext.get().getStudentService());
+    }
+
+    public StudentImportService(StudentService studentService) {
+        this.studentService = studentService;
+    }
+
+    /**
+     * Imports a students file, writing rejected rows to a second file.
+     *
+     * @param csvFile The students file (UTF-8, with a header row).
+     * @param rejectionReport The file to write rejected rows to; replaced if it exists.
+     * @return The row counts.
+     * @throws IllegalArgumentException If the header lacks a required column.
+     * @throws IOException If a file cannot be read or written.
+     * @throws SQLException If a database access error occurs; chunks written before it stay imported.
+     */
+    public ImportReport importStudents(Path csvFile, Path rejectionReport) throws IOException, SQLException {
+        try (Reader in = Files.newBufferedReader(csvFile, StandardCharsets.UTF_8);
+             Writer out = Files.newBufferedWriter(rejectionReport, StandardCharsets.UTF_8)) {
+            return importStudents(in, out);
+        }
+    }
+
+    /**
+     * Imports students from CSV. The header row names the columns, in any order: the
+     * {@link #REQUIRED_COLUMNS}, optionally the {@link #OPTIONAL_COLUMNS}; other columns are ignored.
+     *
+     * @param csv The CSV to read. It is not closed.
+     * @param rejections Receives a CSV of rejected rows: line number, reason, then the row as read. It is not closed.
+     * @return The row counts.
+     * @throws IllegalArgumentException If the header lacks a required column.
+     * @throws IOException If reading or writing fails.
+     * @throws SQLException If a database access error occurs; chunks written before it stay imported.
+     */
+    public ImportReport importStudents(Reader csv, Writer rejections) throws IOException, SQLException {
+        long start = System.nanoTime();
+        CsvReader reader = new CsvReader(csv);
+        CsvWriter rejected = new CsvWriter(rejections);
+
+        List<String> header = reader.readRecord();
+        if (header == null) {
+            throw new IllegalArgumentException("The import file is empty.");
+        }
+        CsvColumns columns = new CsvColumns(header, REQUIRED_COLUMNS, OPTIONAL_COLUMNS);
+        List<String> reportHeader = new ArrayList<>(header.size() + 2);
+        reportHeader.add("line");
+        reportHeader.add("reason");
+        reportHeader.addAll(columns.getHeader());
+        rejected.writeRecord(reportHeader);
+
+        long rowsRead = 0;
+        long rowsImported = 0;
+        long rowsRejected = 0;
+        List<String> fields = reader.readRecord();
+        while (fields != null) {
+            // Read one chunk, rejecting rows that cannot be parsed
+            List<StudentService.Applicant> applicants = new ArrayList<>();
+            List<Long> lines = new ArrayList<>();
+            List<List<String>> records = new ArrayList<>();
+            for (; fields != null && applicants.size() < StudentService.ONBOARDING_CHUNK_SIZE; fields = reader.readRecord()) {
+                if (fields.size() == 1 && fields.get(0).trim().isEmpty()) {
+                    continue; // Blank line, e.g. at the end of the file
+                }
+                rowsRead++;
+                try {
+                    applicants.add(parse(columns, fields));
+                    lines.add(reader.getRecordLine());
+                    records.add(fields);
+                } catch (IllegalArgumentException e) {
+                    writeRejection(rejected, reader.getRecordLine(), e.getMessage(), fields);
+                    rowsRejected++;
+                }
+            }
+
+            StudentService.OnboardingReport report = studentService.onboardStudents(applicants);
+            rowsImported += report.getOnboarded().size();
+            for (Map.Entry<Integer, String> rejection : report.getRejections().entrySet()) {
+                int i = rejection.getKey();
+                writeRejection(rejected, lines.get(i), rejection.getValue(), records.get(i));
+                rowsRejected++;
+            }
+        }
+        rejected.flush();
+        return new ImportReport(rowsRead, rowsImported, rowsRejected, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static void writeRejection(CsvWriter rejected, long line, String reason, List<String> fields) throws IOException {
+        List<String> record = new ArrayList<>(fields.size() + 2);
+        record.add(Long.toString(line));
+        record.add(reason);
+        record.addAll(fields);
+        rejected.writeRecord(record);
+    }
+
+    /**
+     * Converts one row; the remaining validation is done by {@link StudentService#onboardStudents}.
+     */
+    private static StudentService.Applicant parse(CsvColumns columns, List<String> fields) {
+        Map<String, LocalDate> dates = new HashMap<>();
+        for (String column : new String[]{"date_of_birth", "enrollment_date"}) {
+            String value = columns.get(fields, column);
+            try {
+                dates.put(column, value == null ? null : LocalDate.parse(value));
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid " + column + " '" + value + "', expected YYYY-MM-DD.");
+            }
+        }
+        String programId = columns.get(fields, "program_id");
+        int program;
+        try {
+            program = programId == null ? 0 : Integer.parseInt(programId);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Program ID must be a whole number, got '" + programId + "'.");
+        }
+        Student student = new Student(0, program,
+                columns.get(fields, "first_name"),
+                columns.get(fields, "last_name"),
+                dates.get("date_of_birth"),
+                columns.get(fields, "gender"),
+                columns.get(fields, "email"),
+                columns.get(fields, "phone_number"),
+                columns.get(fields, "address"),
+                dates.get("enrollment_date"),
+                columns.get(fields, "major"));
+        return new StudentService.Applicant(student, columns.get(fields, "username"), columns.get(fields, "password"));
+    }
+
+    /**
+     * Command line entry point.
+     *
+     * @param args The students CSV file, and optionally the rejection report file
+     *             (default: the students file name with {@code .rejected.csv} appended).
+     */
+    public static void main(String[] args) {
+        if (args.length < 1 || args.length > 2) {
+            System.err.println("Usage: StudentImportService <students.csv> [<rejections.csv>]");
+            System.exit(2);
+        }
+        Path csvFile = Paths.get(args[0]);
+        Path rejectionReport = Paths.get(args.length > 1 ? args[1] : args[0] + ".rejected.csv");
+        int status = 0;
+        try {
+            ImportReport report = new StudentImportService().importStudents(csvFile, rejectionReport);
+            System.out.println(report);
+            if (report.getRowsRejected() > 0) {
+                System.out.println("Rejected rows written to " + rejectionReport);
+            }
+        } catch (IllegalArgumentException | IOException | SQLException e) {
+            System.err.println("Student import failed: " + e.getMessage());
+            status = 1;
+        } finally {
+            DBController.shutdown();
+        }
+        System.exit(status);
+    }
+}
@@ -1,24 +1,43 @@
 package com.example.demo.service;
 
+import com.example.demo.AppContext;
 import com.example.demo.dao.StudentDAO;
+import com.example.demo.dao.Page;
 import com.example.demo.dao.UserDAO; // Though StudentDAO uses it internally, sometimes useful for direct checks
 import com.example.demo.model.Program;
 import com.example.demo.model.Student;
 import com.example.demo.model.User;
+import com.example.demo.db.TransactionManager;
 import java.sql.SQLException;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.stream.Stream;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.regex.Pattern;
 
 public class StudentService {
+    /** Applicants per uniqueness query and insert transaction in {@link #onboardStudents}. */
+    public static final int ONBOARDING_CHUNK_SIZE = 500;
+    // Compiled once; onboarding checks thousands of addresses
+    private static final Pattern EMAIL_PATTERN =
+            Pattern.compile("^[a-zA-Z0-9_+&*-]+(?:\\.[a-zA-Z0-9_+&*-]+)*@(?:[a-zA-Z0-9-]+\\.)+[a-zA-Z]{2,7}$");
+
     private StudentDAO studentDAO;
-    private ProgramService programService; // To retrieve program details
     private UserService userService; // To get user details if needed, e.g., for email uniqueness check
 
     public StudentService() {
-        this.studentDAO = new StudentDAO();
-        this.programService = new ProgramService();
-        this.userService = new UserService();
+        this(AppContext.get().getStudentDAO(), AppContext.get().getUserService());
+    }
+
+    public StudentService(StudentDAO studentDAO, UserService userService) {
+        this.studentDAO = studentDAO;
+        this.userService = userService;
     }
 
     /**
@@ -48,27 +67,7 @@ public class StudentService {
             throws IllegalArgumentException, SQLException {
 
         // 1. Input Validation
-        if (firstName == null || firstName.trim().isEmpty()) {
-            throw new IllegalArgumentException("First name cannot be empty.");
-        }
-        if (lastName == null || lastName.trim().isEmpty()) {
-            throw new IllegalArgumentException("Last name cannot be empty.");
-        }
-        if (email == null || !isValidEmail(email)) {
-            throw new IllegalArgumentException("Invalid email format.");
-        }
-        if (dateOfBirth == null || dateOfBirth.isAfter(LocalDate.now())) {
-            throw new IllegalArgumentException("Date of Birth cannot be in the future.");
-        }
-        if (enrollmentDate == null || enrollmentDate.isAfter(LocalDate.now())) {
-            throw new IllegalArgumentException("Enrollment Date cannot be in the future.");
-        }
-        if (username == null || username.trim().isEmpty()) {
-            throw new IllegalArgumentException("Username cannot be empty for student login.");
-        }
-        if (password == null || password.trim().isEmpty() || password.length() < 6) { // Basic password length check
-            throw new IllegalArgumentException("Password cannot be empty and must be at least 6 characters.");
-        }
+        validateNewStudent(firstName, lastName, dateOfBirth, email, enrollmentDate, username, password);
 
         // 2. Business Logic Checks
         // Check if email is already used by any user (student, faculty, librarian, admin)
@@ -81,8 +80,8 @@ public class StudentService {
             throw new IllegalArgumentException("Username '" + username + "' is already taken.");
         }
 
-        // Verify program exists
-        Program program = programService.getProgramById(programId);
+        // Verify program exists (against the reference data snapshot)
+        Program program = ReferenceData.findProgram(programId);
         if (program == null) {
             throw new IllegalArgumentException("Selected program does not exist.");
         }
@@ -107,7 +106,208 @@ public class StudentService {
     }
 
     /**
-     * Retrieves a student by their ID.
+     * A student to onboard with {@link #onboardStudents}, with the login to create for them.
+     */
+    public static final class Applicant {
+        private final Student student;
+        private final String username;
+        private final String password;
+
+        /**
+         * @param student The student's details; the student and user IDs are ignored.
+         * @param username The desired username for the student's login.
+         * @param password The password for the student's login.
+         */
+        public Applicant(Student student, String username, String password) {
+            this.student = student;
+            this.username = username;
+            this.password = password;
+        }
+
+        public Student getStudent() { return student; }
+        public String getUsername() { return username; }
+        public String getPassword() { return password; }
+    }
+
+    /**
+     * The outcome of {@link #onboardStudents}.
+     */
+    public static final class OnboardingReport {
+        private final List<Student> onboarded;
+        private final Map<Integer, String> rejections;
+
+        OnboardingReport(List<Student> onboarded, Map<Integer, String> rejections) {
+            this.onboarded = Collections.unmodifiableList(onboarded);
+            this.rejections = Collections.unmodifiableMap(rejections);
+        }
+
+        /** @return The students created, in input order, with their student and user IDs set. */
+        public List<Student> getOnboarded() { return onboarded; }
+
+        /** @return The reason each rejected applicant was skipped, keyed by its index in the input list. */
+        public Map<Integer, String> getRejections() { return rejections; }
+    }
+
+    /**
+     * Onboards a whole intake of students, e.g. at the start of the academic year.
+     * Applicants are validated with the rules of {@link #addNewStudent}; those that fail are skipped
+     * and reported instead of failing the intake. The rest are processed in chunks of
+     * {@value #ONBOARDING_CHUNK_SIZE}: one query checks every username and email of the chunk, then the
+     * users and students are inserted with one JDBC batch each in a single transaction, instead of
+     * four lookups and two inserts per student. A chunk is either added completely or not at all.
+     * <p>
+     * Usernames and emails share one namespace, ignoring case: an applicant is rejected if its
+     * username or email is an existing username or student email, or the username or email of an
+     * earlier applicant in the intake. The outcome therefore does not depend on which chunk an
+     * applicant falls in.
+     *
+     * @param applicants The students to onboard.
+     * @return The students created and the rejected applicants.
+     * @throws SQLException If a database access error occurs. Chunks added before it stay added.
+     */
+    public OnboardingReport onboardStudents(List<Applicant> applicants) throws SQLException {
+        Set<Integer> programIds = new HashSet<>();
+        // A fresh snapshot, so programs added by other clients are accepted
+        for (Program program : ReferenceData.refresh().getPrograms()) {
+            programIds.add(program.getProgramId());
+        }
+        List<Student> onboarded = new ArrayList<>();
+        Map<Integer, String> rejections = new TreeMap<>();
+        // Usernames and emails of earlier applicants, lower case
+        Set<String> seenUsernames = new HashSet<>();
+        Set<String> seenEmails = new HashSet<>();
+
+        for (int from = 0; from < applicants.size(); from += ONBOARDING_CHUNK_SIZE) {
+            int to = Math.min(applicants.size(), from + ONBOARDING_CHUNK_SIZE);
+
+            // 1. Input Validation, including duplicates within the intake
+            List<Integer> indexes = new ArrayList<>();
+            List<Student> students = new ArrayList<>();
+            List<User> users = new ArrayList<>();
+            Set<String> names = new HashSet<>();
+            for (int i = from; i < to; i++) {
+                try {
+                    Applicant applicant = applicants.get(i);
+                    Student student = normalizeApplicant(applicant, programIds);
+                    String username = applicant.getUsername().trim();
+                    String usernameKey = username.toLowerCase(Locale.ROOT);
+                    String emailKey = student.getEmail().toLowerCase(Locale.ROOT);
+                    // Checked against both sets, as the database check matches either against both
+                    if (seenUsernames.contains(usernameKey) || seenEmails.contains(usernameKey)) {
+                        throw new IllegalArgumentException("Username '" + username + "' appears more than once in the intake.");
+                    }
+                    if (seenEmails.contains(emailKey) || seenUsernames.contains(emailKey)) {
+                        throw new IllegalArgumentException("Email '" + student.getEmail() + "' appears more than once in the intake.");
+                    }
+                    // Reserved only once the applicant is accepted, so a rejected one does not block a later one
+                    seenUsernames.add(usernameKey);
+                    seenEmails.add(emailKey);
+                    indexes.add(i);
+                    students.add(student);
+                    users.add(new User(username, applicant.getPassword().trim(), "Student")); // Role is fixed as "Student"
+                    names.add(username);
+                    names.add(student.getEmail());
+                } catch (IllegalArgumentException e) {
+                    rejections.put(i, e.getMessage());
+                }
+            }
+
+            // 2. Business Logic Checks and 3. Create Students and Users, in one transaction per chunk
+            List<Student> added = TransactionManager.inTransaction(conn -> {
+                Set<String> taken = studentDAO.getTakenUsernamesAndEmails(names);
+                List<Student> newStudents = new ArrayList<>(students.size());
+                List<User> newUsers = new ArrayList<>(users.size());
+                for (int j = 0; j < students.size(); j++) {
+                    String username = users.get(j).getUsername();
+                    String email = students.get(j).getEmail();
+                    if (taken.contains(username.toLowerCase(Locale.ROOT))) {
+                        rejections.put(indexes.get(j), "Username '" + username + "' is already taken.");
+                    } else if (taken.contains(email.toLowerCase(Locale.ROOT))) {
+                        rejections.put(indexes.get(j), "Email '" + email + "' is already registered as a user.");
+                    } else {
+                        newStudents.add(students.get(j));
+                        newUsers.add(users.get(j));
+                    }
+                }
+                studentDAO.addStudentsWithUsers(newStudents, newUsers);
+                return newStudents;
+            });
+            onboarded.addAll(added);
+        }
+        return new OnboardingReport(onboarded, rejections);
+    }
+
+    /**
+     * Validates an applicant and returns a new Student with trimmed details.
+     */
+    private static Student normalizeApplicant(Applicant applicant, Set<Integer> programIds) {
+        Student s = applicant.getStudent();
+        if (s == null) {
+            throw new IllegalArgumentException("Student details are required.");
+        }
+        validateNewStudent(s.getFirstName(), s.getLastName(), s.getDateOfBirth(), s.getEmail(), s.getEnrollmentDate(),
+                applicant.getUsername(), applicant.getPassword());
+        if (!programIds.contains(s.getProgramId())) {
+            throw new IllegalArgumentException("Selected program does not exist.");
+        }
+        Student student = new Student(0, s.getProgramId(), s.getFirstName().trim(), s.getLastName().trim(),
+                s.getDateOfBirth(), trimToNull(s.getGender()), s.getEmail().trim(), trimToNull(s.getPhoneNumber()),
+                trimToNull(s.getAddress()), s.getEnrollmentDate(), trimToNull(s.getMajor()));
+        // Column sizes in the Users and Students tables; a longer value would fail the whole chunk's batch
+        checkLength(applicant.getUsername().trim(), 50, "Username");
+        checkLength(student.getFirstName(), 50, "First name");
+        checkLength(student.getLastName(), 50, "Last name");
+        checkLength(student.getEmail(), 100, "Email");
+        checkLength(student.getGender(), 10, "Gender");
+        checkLength(student.getPhoneNumber(), 20, "Phone number");
+        checkLength(student.getAddress(), 255, "Address");
+        checkLength(student.getMajor(), 100, "Major");
+        return student;
+    }
+
+    private static void checkLength(String value, int max, String name) {
+        if (value != null && value.length() > max) {
+            throw new IllegalArgumentException(name + " must be at most " + max + " characters.");
+        }
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        return value.trim();
+    }
+
+    /**
+     * Input validation shared by {@link #addNewStudent} and {@link #onboardStudents}.
+     */
+    private static void validateNewStudent(String firstName, String lastName, LocalDate dateOfBirth, String email,
+                                           LocalDate enrollmentDate, String username, String password) {
+        if (firstName == null || firstName.trim().isEmpty()) {
+            throw new IllegalArgumentException("First name cannot be empty.");
+        }
+        if (lastName == null || lastName.trim().isEmpty()) {
+            throw new IllegalArgumentException("Last name cannot be empty.");
+        }
+        if (email == null || !isValidEmail(email)) {
+            throw new IllegalArgumentException("Invalid email format.");
+        }
+        if (dateOfBirth == null || dateOfBirth.isAfter(LocalDate.now())) {
+            throw new IllegalArgumentException("Date of Birth cannot be in the future.");
+        }
+        if (enrollmentDate == null || enrollmentDate.isAfter(LocalDate.now())) {
+            throw new IllegalArgumentException("Enrollment Date cannot be in the future.");
+        }
+        if (username == null || username.trim().isEmpty()) {
+            throw new IllegalArgumentException("Username cannot be empty for student login.");
+        }
+        if (password == null || password.trim().isEmpty() || password.length() < 6) { // Basic password length check
+            throw new IllegalArgumentException("Password cannot be empty and must be at least 6 characters.");
+        }
+    }
+
+    /**
+     * Retrieves a student by their ID, from the shared entity cache if it was looked up recently.
      *
      * @param studentId The ID of the student.
      * @return The Student object, or null if not found.
@@ -118,7 +318,7 @@ public class StudentService {
         if (studentId <= 0) {
             throw new IllegalArgumentException("Student ID must be positive.");
         }
-        return studentDAO.getStudentById(studentId);
+        return EntityCaches.STUDENTS.get(studentId, studentDAO::getStudentById);
     }
 
     /**
@@ -147,6 +347,38 @@ public class StudentService {
         return studentDAO.getAllStudents();
     }
 
+    /**
+     * Retrieves one page of students, in ID order, for walking the whole table in constant memory.
+     *
+     * @param pageToken The next page token of the previous page, or null for the first page.
+     * @param pageSize The maximum number of rows to return (1 to {@link Page#MAX_PAGE_SIZE}).
+     * @return The page of Student objects.
+     * @throws IllegalArgumentException If the page token or page size is invalid.
+     * @throws SQLException If a database error occurs.
+     */
+    public Page<Student> getStudentPage(String pageToken, int pageSize) throws SQLException {
+        return studentDAO.getStudentPage(pageToken, pageSize);
+    }
+
+    /**
+     * Streams all students in ID order for exports and batch jobs; see {@link StudentDAO#streamAllStudents()}.
+     * The stream must be closed.
+     *
+     * @return A lazily populated stream of Student objects.
+     * @throws SQLException If the query cannot be started.
+     */
+    public Stream<Student> streamAllStudents() throws SQLException {
+        return studentDAO.streamAllStudents();
+    }
+
+    /**
+     * @return The number of students.
+     * @throws SQLException If a database error occurs.
+     */
+    public long countStudents() throws SQLException {
+        return studentDAO.countStudents();
+    }
+
     /**
      * Updates an existing student's information.
      *
@@ -181,14 +413,15 @@ public class StudentService {
             throw new IllegalArgumentException("Email '" + student.getEmail() + "' is already used by another user.");
         }
 
-        // Verify new program exists
-        Program program = programService.getProgramById(newProgramId);
+        // Verify new program exists (against the reference data snapshot)
+        Program program = ReferenceData.findProgram(newProgramId);
         if (program == null) {
             throw new IllegalArgumentException("Selected program does not exist.");
         }
         student.setProgramId(newProgramId); // Set the updated program ID
 
         studentDAO.updateStudent(student);
+        EntityCaches.STUDENTS.invalidate(student.getStudentId());
     }
 
     /**
@@ -204,15 +437,14 @@ public class StudentService {
             throw new IllegalArgumentException("Student ID must be positive for deletion.");
         }
         studentDAO.deleteStudent(studentId); // This method handles cascading deletion of user
+        EntityCaches.STUDENTS.invalidate(studentId);
     }
 
     /**
      * Helper method for basic email format validation.
      */
-    private boolean isValidEmail(String email) {
-        String emailRegex = "^[a-zA-Z0-9_+&*-]+(?:\\.[a-zA-Z0-9_+&*-]+)*@(?:[a-zA-Z0-9-]+\\.)+[a-zA-Z]{2,7}$";
-        Pattern pat = Pattern.compile(emailRegex);
-        return email != null && pat.matcher(email).matches();
+    private static boolean isValidEmail(String email) {
+        return email != null && EMAIL_PATTERN.matcher(email).matches();
     }
 
     /**
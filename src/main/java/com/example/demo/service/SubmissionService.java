@@ -1,5 +1,6 @@
 package com.example.demo.service;
 
+import com.example.demo.AppContext;
 import com.example.demo.dao.SubmissionDAO;
 import com.example.demo.model.Assignment;
 import com.example.demo.model.Submission;
@@ -14,9 +15,16 @@ public class SubmissionService {
     private StudentService studentService;     // To verify student existence
 
     public SubmissionService() {
-        this.submissionDAO = new SubmissionDAO();
-        this.assignmentService = new AssignmentService();
-        this.studentService = new StudentService();
+        this(AppContext.get().getSubmissionDAO(),
+                AppContext.get().getAssignmentService(),
+                AppContext.get().getStudentService());
+    }
+
+    public SubmissionService(SubmissionDAO submissionDAO, AssignmentService assignmentService,
+                             StudentService studentService) {
+        this.submissionDAO = submissionDAO;
+        this.assignmentService = assignmentService;
+        this.studentService = studentService;
     }
 
     /**
@@ -60,14 +68,11 @@ public class SubmissionService {
             throw new IllegalArgumentException("Student with ID " + studentId + " does not exist.");
         }
 
-        // Check if student has already submitted for this assignment
-        if (submissionDAO.getSubmissionByAssignmentAndStudent(assignmentId, studentId) != null) {
+        // 3. Create Submission; the unique key on assignment and student rejects a second submission
+        Submission newSubmission = new Submission(assignmentId, studentId, trimmedFilePath);
+        if (!submissionDAO.addSubmissionIfAbsent(newSubmission)) {
             throw new IllegalArgumentException("Student has already submitted for this assignment.");
         }
-
-        // 3. Create Submission
-        Submission newSubmission = new Submission(assignmentId, studentId, trimmedFilePath);
-        submissionDAO.addSubmission(newSubmission);
         return newSubmission;
     }
 
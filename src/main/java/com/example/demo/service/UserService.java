@@ -1,6 +1,8 @@
 package com.example.demo.service;
 
+import com.example.demo.AppContext;
 import com.example.demo.dao.UserDAO;
+import com.example.demo.dao.Page;
 import com.example.demo.model.User;
 
 import java.sql.SQLException;
@@ -10,7 +12,11 @@ public class UserService {
     private UserDAO userDAO;
 
     public UserService() {
-        this.userDAO = new UserDAO();
+        this(AppContext.get().getUserDAO());
+    }
+
+    public UserService(UserDAO userDAO) {
+        this.userDAO = userDAO;
     }
 
     public User authenticateUser(String username, String password, String role) throws IllegalArgumentException, SQLException {
@@ -67,6 +73,19 @@ public class UserService {
         return userDAO.getAllUsers();
     }
 
+    /**
+     * Retrieves one page of users, in ID order, for walking the whole table in constant memory.
+     *
+     * @param pageToken The next page token of the previous page, or null for the first page.
+     * @param pageSize The maximum number of rows to return (1 to {@link Page#MAX_PAGE_SIZE}).
+     * @return The page of User objects.
+     * @throws IllegalArgumentException If the page token or page size is invalid.
+     * @throws SQLException If a database error occurs.
+     */
+    public Page<User> getUserPage(String pageToken, int pageSize) throws SQLException {
+        return userDAO.getUserPage(pageToken, pageSize);
+    }
+
     public void updateUser(User user, String newPassword) throws IllegalArgumentException, SQLException {
         if (user == null || user.getUserId() <= 0) {
             throw new IllegalArgumentException("User and a valid User ID are required for update.");
@@ -119,6 +138,9 @@ public class UserService {
             throw new IllegalArgumentException("User ID must be positive for deletion.");
         }
         userDAO.deleteUser(userId);
+        // The database deletes the student or faculty record of the user too; its ID is not known here
+        EntityCaches.STUDENTS.invalidateAll();
+        EntityCaches.FACULTY.invalidateAll();
     }
 
     private boolean isValidRole(String role) {
@@ -0,0 +1,69 @@
+-- V2: indexes matching the WHERE and ORDER BY clauses of the DAO queries.
+-- Each index is named after the query it serves; equality columns come first, then the sort columns,
+-- so the lookup and the ORDER BY are both answered from the index without a filesort.
+-- Lookups already served by a primary key or UNIQUE constraint from V1 are not repeated here
+-- (Users.username, Students/Faculty/Librarian.user_id, Programs.program_name, Books.isbn,
+-- Courses(program_id, course_code)).
+
+-- CourseDAO.getCoursesByProgramAndSemester, getAllCourses
+CREATE INDEX idx_courses_program_semester_code ON Courses (program_id, semester_number, course_code);
+
+-- EnrollmentDAO.getEnrollmentsByStudentId, isStudentEnrolledInCourse (covering for the COUNT)
+CREATE INDEX idx_enrollments_student_course ON Enrollments (student_id, course_id);
+-- EnrollmentDAO.getEnrollmentsByCourseId
+CREATE INDEX idx_enrollments_course_student ON Enrollments (course_id, student_id);
+
+-- AttendanceDAO.getAttendanceByCourseAndDate
+CREATE INDEX idx_attendance_course_date_student ON Attendance (course_id, attendance_date, student_id);
+-- AttendanceDAO.hasAttendanceBeenMarked (covering for the COUNT)
+CREATE INDEX idx_attendance_student_course_date ON Attendance (student_id, course_id, attendance_date);
+-- AttendanceDAO.getAttendanceByStudentId
+CREATE INDEX idx_attendance_student_date ON Attendance (student_id, attendance_date DESC);
+-- AttendanceDAO.getAllAttendance
+CREATE INDEX idx_attendance_date_student ON Attendance (attendance_date DESC, student_id);
+
+-- ResultDAO.getResultByStudentCourseAndYear
+CREATE INDEX idx_results_student_course_year ON Results (student_id, course_id, academic_year);
+-- ResultDAO.getResultsByStudentId
+CREATE INDEX idx_results_student_year_semester_course ON Results (student_id, academic_year DESC, semester_number, course_id);
+-- ResultDAO.getAllResults
+CREATE INDEX idx_results_year_student_course ON Results (academic_year DESC, student_id, course_id);
+
+-- RoutineDAO.getClassRoutinesByYearAndSemester (routine_type = 'Class' AND academic_year = ? AND semester_number = ?)
+CREATE INDEX idx_routines_type_year_semester_day_time ON Routines (routine_type, academic_year, semester_number, day_of_week, start_time);
+-- RoutineDAO.getRoutinesByCourseId
+CREATE INDEX idx_routines_course_day_time ON Routines (course_id, day_of_week, start_time);
+-- RoutineDAO.getAllRoutines
+CREATE INDEX idx_routines_year_semester_day_time ON Routines (academic_year DESC, semester_number, day_of_week, start_time);
+
+-- FeesDAO.getFeesByStudentId
+CREATE INDEX idx_fees_student_due ON Fees (student_id, due_date);
+-- FeesDAO.getAllFees
+CREATE INDEX idx_fees_due ON Fees (due_date);
+
+-- BookDAO.searchBooks orders by title; its LIKE '%term%' filters cannot use an index
+CREATE INDEX idx_books_title ON Books (title);
+
+-- BorrowingDAO.getActiveBorrowingsByStudentId (student_id = ? AND return_date IS NULL ORDER BY return_due_date)
+CREATE INDEX idx_borrowings_student_return_due ON Borrowings (student_id, return_date, return_due_date);
+-- BorrowingDAO.getBorrowingsByBookId
+CREATE INDEX idx_borrowings_book_borrow_date ON Borrowings (book_id, borrow_date DESC);
+-- BorrowingDAO.getAllBorrowings
+CREATE INDEX idx_borrowings_borrow_date ON Borrowings (borrow_date DESC);
+
+-- AssignmentDAO.getAssignmentsByCourseId
+CREATE INDEX idx_assignments_course_due ON Assignments (course_id, due_date DESC);
+-- AssignmentDAO.getAssignmentsByFacultyId
+CREATE INDEX idx_assignments_faculty_due ON Assignments (faculty_id, due_date DESC);
+-- AssignmentDAO.getAllAssignments
+CREATE INDEX idx_assignments_due ON Assignments (due_date DESC);
+
+-- SubmissionDAO.getSubmissionByAssignmentAndStudent
+CREATE INDEX idx_submissions_assignment_student ON Submissions (assignment_id, student_id);
+-- SubmissionDAO.getSubmissionsByAssignmentId
+CREATE INDEX idx_submissions_assignment_date ON Submissions (assignment_id, submission_date DESC);
+
+-- AnnouncementDAO.getAnnouncementsByTargetRole (target_role = ? OR target_role = 'All', a range on two keys)
+CREATE INDEX idx_announcements_role_publish ON Announcements (target_role, publish_date DESC);
+-- AnnouncementDAO.getAllAnnouncements
+CREATE INDEX idx_announcements_publish ON Announcements (publish_date DESC);
@@ -0,0 +1,25 @@
+-- V3: unique constraints on the natural keys the services used to check with a SELECT before inserting.
+-- The DAOs now insert directly and report a duplicate-key violation as "already exists", which saves
+-- a round trip per write and stays correct when two clients insert the same row at the same time.
+-- Each constraint replaces the V2 lookup index on the same columns, so the index is dropped afterwards.
+--
+-- A database that already holds duplicates fails here with a duplicate-key error. Find them with e.g.
+--   SELECT student_id, course_id, attendance_date, COUNT(*) FROM Attendance
+--   GROUP BY student_id, course_id, attendance_date HAVING COUNT(*) > 1;
+-- resolve them by hand, and rerun the migration.
+
+-- AttendanceService.addNewAttendance: one record per student, course and date
+ALTER TABLE Attendance ADD CONSTRAINT uq_attendance_student_course_date UNIQUE (student_id, course_id, attendance_date);
+ALTER TABLE Attendance DROP INDEX idx_attendance_student_course_date;
+
+-- ResultService.addNewResult: one result per student, course and academic year
+ALTER TABLE Results ADD CONSTRAINT uq_results_student_course_year UNIQUE (student_id, course_id, academic_year);
+ALTER TABLE Results DROP INDEX idx_results_student_course_year;
+
+-- EnrollmentService.enrollStudentInCourse: a student enrolls in a course once
+ALTER TABLE Enrollments ADD CONSTRAINT uq_enrollments_student_course UNIQUE (student_id, course_id);
+ALTER TABLE Enrollments DROP INDEX idx_enrollments_student_course;
+
+-- SubmissionService.addNewSubmission: one submission per student and assignment
+ALTER TABLE Submissions ADD CONSTRAINT uq_submissions_assignment_student UNIQUE (assignment_id, student_id);
+ALTER TABLE Submissions DROP INDEX idx_submissions_assignment_student;
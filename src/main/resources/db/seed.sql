@@ -0,0 +1,18 @@
+-- Minimal reference data for a fresh embedded database: an administrator login and a few programs.
+-- Each insert is skipped when the row already exists, so the script can run on every startup.
+
+INSERT INTO Users (username, password_hash, role)
+SELECT 'admin', 'admin', 'Admin' FROM DUAL
+WHERE NOT EXISTS (SELECT 1 FROM Users WHERE username = 'admin');
+
+INSERT INTO Programs (program_name)
+SELECT 'BSc Computer Science' FROM DUAL
+WHERE NOT EXISTS (SELECT 1 FROM Programs WHERE program_name = 'BSc Computer Science');
+
+INSERT INTO Programs (program_name)
+SELECT 'BBA' FROM DUAL
+WHERE NOT EXISTS (SELECT 1 FROM Programs WHERE program_name = 'BBA');
+
+INSERT INTO Programs (program_name)
+SELECT 'BSc Electrical Engineering' FROM DUAL
+WHERE NOT EXISTS (SELECT 1 FROM Programs WHERE program_name = 'BSc Electrical Engineering');